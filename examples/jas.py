@@ -2395,10 +2395,10 @@ def makeJasArith(item):
             if len(item) > 1:
                 re = makeJasArith( item[0] );
                 if not re.isField():
-                    re = BigRational( re.val );
+                    re = BigRational( re.getVal() );
                 im = makeJasArith( item[1] );
                 if not im.isField():
-                    im = BigRational( im.val );
+                    im = BigRational( im.getVal() );
                 jasArith = BigComplex( re, im );
             else:
                 re = makeJasArith( item[0] );
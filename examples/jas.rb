@@ -2572,17 +2572,17 @@ def makeJasArith(item)
         if item.size > 1
             re = makeJasArith( item[0] );
             if not re.isField()
-                re = BigRational.new( re.val );
+                re = BigRational.new( re.getVal() );
             end
             im = makeJasArith( item[1] );
             if not im.isField()
-                im = BigRational.new( im.val );
+                im = BigRational.new( im.getVal() );
             end
             jasArith = BigComplex.new( re, im );
         else
             re = makeJasArith( item[0] );
             if not re.isField()
-                re = BigRational.new( re.val );
+                re = BigRational.new( re.getVal() );
             end
             jasArith = BigComplex.new( re );
         end
@@ -11,6 +11,8 @@ import org.apache.log4j.Logger;
 
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
 import edu.jas.gb.GBOptimized;
 import edu.jas.gb.GBProxy;
 import edu.jas.gb.GroebnerBaseAbstract;
@@ -20,12 +22,17 @@ import edu.jas.gb.GroebnerBaseF5zSigSeqIter;
 import edu.jas.gb.GroebnerBaseGGVSigSeqIter;
 import edu.jas.gb.GroebnerBaseArriSigSeqIter;
 import edu.jas.gb.GroebnerBaseParIter;
+import edu.jas.gb.GroebnerBaseSigParIter;
+import edu.jas.gb.GroebnerBaseSigSeqIter;
+import edu.jas.gb.OrderedConcurrentPairlist;
 import edu.jas.gb.OrderedMinPairlist;
 import edu.jas.gb.OrderedPairlist;
 import edu.jas.gb.OrderedSyzPairlist;
 import edu.jas.gb.PairList;
 import edu.jas.gbufd.GBFactory;
+import edu.jas.gbufd.GroebnerBaseF4;
 import edu.jas.gbufd.GroebnerBaseFGLM;
+import edu.jas.gbufd.GroebnerBaseModular;
 import edu.jas.gbufd.GroebnerBaseWalk;
 import edu.jas.gbufd.GroebnerBasePseudoParallel;
 import edu.jas.gbufd.GroebnerBaseQuotient;
@@ -55,8 +62,9 @@ import edu.jas.ufd.QuotientRing;
  *        order (variable order) optimization (true for return of permuted
  *        polynomials),</li>
  *        <li><code>normalPairlist()</code> (default),
- *        <code>syzygyPairlist()</code> or <code>simplePairlist()</code> for
- *        pair-list selection strategies,</li>
+ *        <code>syzygyPairlist()</code>, <code>simplePairlist()</code> or
+ *        <code>concurrentPairlist()</code> for pair-list selection
+ *        strategies,</li>
  *        <li><code>fractionFree()</code> for clearing denominators and
  *        computing with pseudo reduction,</li>
  *        <li><code>graded()</code> for using the FGLM algorithm to first
@@ -72,8 +80,15 @@ import edu.jas.ufd.QuotientRing;
  *        <li><code>F5()</code>, <code>GGV()</code> and <code>Arri()</code> for using 
  *        the respective iterative signature based GB algorithm (over field coefficients) to 
  *        compute a Gr&ouml;bner base adding one polynomial after another,</li>
+ *        <li><code>F4()</code> for using the F4 algorithm with Macaulay matrix
+ *        reduction over ModLong coefficients,</li>
+ *        <li><code>modular()</code> for using the multi-modular algorithm with
+ *        chinese remaindering and rational reconstruction over BigRational
+ *        coefficients,</li>
  *        <li><code>parallel()</code> additionaly compute a Gr&ouml;bner base
- *        over a field or integral domain in parallel,</li>
+ *        over a field or integral domain in parallel, after
+ *        <code>F5()</code>, <code>GGV()</code> or <code>Arri()</code> the
+ *        signature based algorithm reduces pairs in parallel,</li>
  *        <li><code>euclideanDomain()</code> for computing a e-Gr&ouml;bner
  *        base,</li>
  *        <li><code>domainAlgorithm(Algo)</code> for computing a d- or
@@ -232,6 +247,16 @@ public class GBAlgorithmBuilder<C extends GcdRingElem<C>> implements Serializabl
     }
 
 
+    /**
+     * Select concurrent critical pair-list strategy. Same selection as the
+     * normal pair-list, but without global lock for many parallel threads.
+     * @return GBAlgorithmBuilder object.
+     */
+    public GBAlgorithmBuilder<C> concurrentPairlist() {
+        return new GBAlgorithmBuilder<C>(ring, algo, new OrderedConcurrentPairlist<C>());
+    }
+
+
     /**
      * Request term order optimization. Call optimize(true) for return of
      * permuted polynomials.
@@ -346,11 +371,23 @@ public class GBAlgorithmBuilder<C extends GcdRingElem<C>> implements Serializabl
         if (algo == null) {
             algo = GBFactory.<C> getImplementation(ring.coFac, strategy);
         }
-        if (algo instanceof GroebnerBaseSeqIter) { // iterative requested
+        if (algo instanceof GroebnerBaseF4) { // F4 requested
+            GroebnerBaseAbstract<C> bb;
+            bb = (GroebnerBaseAbstract) new GroebnerBaseF4(threads, (PairList) strategy);
+            return new GBAlgorithmBuilder<C>(ring, bb, strategy);
+        } else if (algo instanceof GroebnerBaseModular) { // modular requested
+            GroebnerBaseAbstract<C> bb;
+            bb = (GroebnerBaseAbstract) new GroebnerBaseModular(threads);
+            return new GBAlgorithmBuilder<C>(ring, bb, strategy);
+        } else if (algo instanceof GroebnerBaseSeqIter) { // iterative requested
             GroebnerBaseAbstract<C> bb;
             bb = (GroebnerBaseAbstract) new GroebnerBaseParIter<C>(threads, strategy);
             GroebnerBaseAbstract<C> pbb = new GBProxy<C>(algo, bb);
             return new GBAlgorithmBuilder<C>(ring, pbb);
+        } else if (algo instanceof GroebnerBaseSigSeqIter) { // signature based requested
+            GroebnerBaseAbstract<C> bb;
+            bb = new GroebnerBaseSigParIter<C>((GroebnerBaseSigSeqIter<C>) algo, threads);
+            return new GBAlgorithmBuilder<C>(ring, bb);
         } else if (((RingFactory) ring.coFac) instanceof BigRational) {
             GroebnerBaseAbstract<C> bb;
             if (algo instanceof GroebnerBaseRational) { // fraction free requested
@@ -359,6 +396,8 @@ public class GBAlgorithmBuilder<C extends GcdRingElem<C>> implements Serializabl
                     pli = new OrderedMinPairlist<BigInteger>();
                 } else if (strategy instanceof OrderedSyzPairlist) {
                     pli = new OrderedSyzPairlist<BigInteger>();
+                } else if (strategy instanceof OrderedConcurrentPairlist) {
+                    pli = new OrderedConcurrentPairlist<BigInteger>();
                 } else {
                     pli = new OrderedPairlist<BigInteger>();
                 }
@@ -376,6 +415,8 @@ public class GBAlgorithmBuilder<C extends GcdRingElem<C>> implements Serializabl
                     pli = new OrderedMinPairlist<GenPolynomial<C>>();
                 } else if (strategy instanceof OrderedSyzPairlist) {
                     pli = new OrderedSyzPairlist<GenPolynomial<C>>();
+                } else if (strategy instanceof OrderedConcurrentPairlist) {
+                    pli = new OrderedConcurrentPairlist<GenPolynomial<C>>();
                 } else {
                     pli = new OrderedPairlist<GenPolynomial<C>>();
                 }
@@ -460,6 +501,52 @@ public class GBAlgorithmBuilder<C extends GcdRingElem<C>> implements Serializabl
     }
 
 
+    /**
+     * Request F4 GB algorithm with Macaulay matrix reduction. Call
+     * parallel() afterwards for multithreaded row reduction.
+     * @return GBAlgorithmBuilder object.
+     */
+    @SuppressWarnings({"cast", "unchecked"})
+    public GBAlgorithmBuilder<C> F4() {
+        if (((Object) ring.coFac) instanceof ModLongRing && ring.coFac.isField()) {
+            ModLongRing cf = (ModLongRing) (Object) ring.coFac;
+            PairList<ModLong> sty = (PairList) strategy;
+            GroebnerBaseAbstract<ModLong> bb = GBFactory.getImplementation(cf, GBFactory.Algo.f4, sty);
+            GroebnerBaseAbstract<C> cbb = (GroebnerBaseAbstract<C>) (GroebnerBaseAbstract) bb;
+            if (algo != null) {
+                logger.warn("algo " + algo + " ignored for " + bb);
+            }
+            return new GBAlgorithmBuilder<C>(ring, cbb, strategy);
+        }
+        logger.warn("no F4 GB algorithm implemented for " + ring);
+        return this;
+    }
+
+
+    /**
+     * Request multi-modular GB algorithm. The Groebner bases modulo several
+     * primes are combined by chinese remaindering and rational
+     * reconstruction. Call parallel() afterwards to compute the modular
+     * Groebner bases in parallel.
+     * @return GBAlgorithmBuilder object.
+     */
+    @SuppressWarnings({"cast", "unchecked"})
+    public GBAlgorithmBuilder<C> modular() {
+        if (((Object) ring.coFac) instanceof BigRational) {
+            BigRational cf = (BigRational) (Object) ring.coFac;
+            PairList<BigRational> sty = (PairList) strategy;
+            GroebnerBaseAbstract<BigRational> bb = GBFactory.getImplementation(cf, GBFactory.Algo.mgb, sty);
+            GroebnerBaseAbstract<C> cbb = (GroebnerBaseAbstract<C>) (GroebnerBaseAbstract) bb;
+            if (algo != null) {
+                logger.warn("algo " + algo + " ignored for " + bb);
+            }
+            return new GBAlgorithmBuilder<C>(ring, cbb, strategy);
+        }
+        logger.warn("no modular GB algorithm implemented for " + ring);
+        return this;
+    }
+
+
     /**
      * Request iterated F5 signature based GB algorithm.
      * @return GBAlgorithmBuilder object.
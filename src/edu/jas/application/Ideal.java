@@ -23,6 +23,7 @@ import edu.jas.gb.ReductionSeq;
 import edu.jas.gb.OrderedSyzPairlist;
 import edu.jas.gb.GroebnerBaseSeq;
 import edu.jas.gb.GroebnerBaseSeqIter;
+import edu.jas.gb.HilbertSeries;
 import edu.jas.gbufd.GBFactory;
 import edu.jas.gbufd.GroebnerBasePartial;
 import edu.jas.gbufd.PolyGBUtil;
@@ -550,15 +551,16 @@ public class Ideal<C extends GcdRingElem<C>> implements Comparable<Ideal<C>>, Se
         if (this.isZERO()) {
             return B;
         }
+        if (isGB && B.isGB) {
+            List<GenPolynomial<C>> c = bb.GB(getList(), B.getList());
+            return new Ideal<C>(getRing(), c, true);
+        }
         int s = getList().size() + B.getList().size();
         List<GenPolynomial<C>> c;
         c = new ArrayList<GenPolynomial<C>>(s);
         c.addAll(getList());
         c.addAll(B.getList());
         Ideal<C> I = new Ideal<C>(getRing(), c, false);
-        if (isGB && B.isGB) {
-            I.doGB();
-        }
         return I;
     }
 
@@ -573,15 +575,18 @@ public class Ideal<C extends GcdRingElem<C>> implements Comparable<Ideal<C>>, Se
         if (b == null || b.isZERO()) {
             return this;
         }
+        if (isGB) {
+            List<GenPolynomial<C>> B = new ArrayList<GenPolynomial<C>>(1);
+            B.add(b);
+            List<GenPolynomial<C>> c = bb.GB(getList(), B);
+            return new Ideal<C>(getRing(), c, true);
+        }
         int s = getList().size() + 1;
         List<GenPolynomial<C>> c;
         c = new ArrayList<GenPolynomial<C>>(s);
         c.addAll(getList());
         c.add(b);
         Ideal<C> I = new Ideal<C>(getRing(), c, false);
-        if (isGB) {
-            I.doGB();
-        }
         return I;
     }
 
@@ -597,14 +602,15 @@ public class Ideal<C extends GcdRingElem<C>> implements Comparable<Ideal<C>>, Se
         if (L == null || L.isEmpty()) {
             return this;
         }
+        if (isGB) {
+            List<GenPolynomial<C>> c = bb.GB(getList(), L);
+            return new Ideal<C>(getRing(), c, true);
+        }
         int s = getList().size() + L.size();
         List<GenPolynomial<C>> c = new ArrayList<GenPolynomial<C>>(s);
         c.addAll(getList());
         c.addAll(L);
         Ideal<C> I = new Ideal<C>(getRing(), c, false);
-        if (isGB) {
-            I.doGB();
-        }
         return I;
     }
 
@@ -871,11 +877,12 @@ public class Ideal<C extends GcdRingElem<C>> implements Comparable<Ideal<C>>, Se
         GenPolynomial<C> q = h.extend(tfac, 0, 1L);
         GenPolynomial<C> r = tfac.getONE(); // h.extend( tfac, 0, 0L );
         GenPolynomial<C> hs = q.subtract(r); // 1 - t*h // (1-t)*h
-        c.add(hs);
+        List<GenPolynomial<C>> H = new ArrayList<GenPolynomial<C>>(1);
+        H.add(hs);
         logger.warn("infiniteQuotientRab computing GB ");
-        List<GenPolynomial<C>> g = bb.GB(c);
+        List<GenPolynomial<C>> g = bb.GB(c, H); // c is a GB
         if (debug) {
-            logger.info("infiniteQuotientRab    = " + tfac + ", c = " + c);
+            logger.info("infiniteQuotientRab    = " + tfac + ", c = " + c + ", hs = " + hs);
             logger.info("infiniteQuotientRab GB = " + g);
         }
         Ideal<C> E = new Ideal<C>(tfac, g, true);
@@ -1306,10 +1313,17 @@ public class Ideal<C extends GcdRingElem<C>> implements Comparable<Ideal<C>>, Se
         if (this.isZERO()) {
             return false;
         }
-        List<GenPolynomial<C>> F = new ArrayList<GenPolynomial<C>>(1 + list.list.size());
-        F.add(h);
-        F.addAll(list.list);
-        List<GenPolynomial<C>> G = bb.GB(F);
+        List<GenPolynomial<C>> G;
+        if (isGB) {
+            List<GenPolynomial<C>> H = new ArrayList<GenPolynomial<C>>(1);
+            H.add(h);
+            G = bb.GB(list.list, H);
+        } else {
+            List<GenPolynomial<C>> F = new ArrayList<GenPolynomial<C>>(1 + list.list.size());
+            F.add(h);
+            F.addAll(list.list);
+            G = bb.GB(F);
+        }
         for (GenPolynomial<C> p : G) {
             if (p == null) {
                 continue;
@@ -1406,6 +1420,23 @@ public class Ideal<C extends GcdRingElem<C>> implements Comparable<Ideal<C>>, Se
     }
 
 
+    /**
+     * Hilbert series. The Hilbert series of the leading term ideal of the
+     * Groebner base. For homogeneous ideals it is the Hilbert series of
+     * this ideal and does not depend on the term order.
+     * @return the Hilbert series of the leading term ideal of this.
+     */
+    public HilbertSeries hilbertSeries() {
+        if (this.isZERO()) {
+            return new HilbertSeries(new ArrayList<ExpVector>(), this.list.ring.nvar);
+        }
+        if (!isGB) {
+            doGB();
+        }
+        return HilbertSeries.leadingTermSeries(getList());
+    }
+
+
     /**
      * Ideal dimension.
      * @return a dimension container (dim,maxIndep,list(maxIndep),vars).
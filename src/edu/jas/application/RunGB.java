@@ -6,6 +6,7 @@ package edu.jas.application;
 
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -22,6 +23,8 @@ import java.util.jar.JarFile;
 
 import org.apache.log4j.BasicConfigurator;
 
+import edu.jas.gb.GBCheckpoint;
+import edu.jas.gb.GBCheckpointer;
 import edu.jas.gb.GroebnerBaseAbstract;
 import edu.jas.gb.GroebnerBaseDistributedEC;
 import edu.jas.gb.GroebnerBaseDistributedHybridEC;
@@ -43,11 +46,15 @@ import edu.jas.util.ExecutableServer;
 /**
  * Simple setup to run a GB example. <br>
  * Usage: RunGB [seq(+)|par(+)|build=string|disthyb|cli] &lt;file&gt;
- * #procs/#threadsPerNode [machinefile] &lt;check&gt; &lt;nolog&gt; <br>
+ * #procs/#threadsPerNode [machinefile] &lt;check&gt; &lt;nolog&gt;
+ * &lt;checkpoint=cpfile[,seconds]&gt; &lt;--resume&gt; <br>
  * Build string can be any combination of method calls from GBAlgorithmBuilder.
  * Method polynomialRing() is called based on declaration from "file". Method
  * build() is called automatically. For example <br>
- * build=syzygyPairlist.iterated.graded.parallel(3)
+ * build=syzygyPairlist.iterated.graded.parallel(3) <br>
+ * For parallel and distributed hybrid GB algorithms the state of the
+ * computation is written to "cpfile" every "seconds" seconds. With --resume
+ * the computation continues from "cpfile", if it exists.
  * @see edu.jas.application.GBAlgorithmBuilder
  * @author Heinz Kredel
  */
@@ -66,10 +73,30 @@ public class RunGB {
     static boolean doLog = true;
 
 
+    /**
+     * Checkpoint file name, or null.
+     */
+    static String checkpointFile = null;
+
+
+    /**
+     * Checkpoint interval in milliseconds.
+     */
+    static long checkpointInterval = GBCheckpointer.DEFAULT_INTERVAL;
+
+
+    /**
+     * Checkpoint to resume from, or null.
+     */
+    @SuppressWarnings("rawtypes")
+    static GBCheckpoint resumeFrom = null;
+
+
     /**
      * main method to be called from commandline <br>
      * Usage: RunGB [seq|par(+)|build=string|disthyb(+)|cli] &lt;file&gt;
      * #procs/#threadsPerNode [machinefile] &lt;check&gt; &lt;nolog&gt;
+     * &lt;checkpoint=cpfile[,seconds]&gt; &lt;--resume&gt;
      */
     @SuppressWarnings("unchecked")
     public static void main(String[] args) {
@@ -78,7 +105,8 @@ public class RunGB {
                 "cli" }; // must be last
 
         String usage = "Usage: RunGB [ " + join(allkinds, " | ") + "[port] ] " + "<file> "
-                        + "#procs/#threadsPerNode " + "[machinefile] " + "[check] [nolog]";
+                        + "#procs/#threadsPerNode " + "[machinefile] " + "[check] [nolog] "
+                        + "[checkpoint=cpfile[,seconds]] [--resume]";
 
         if (args.length < 1) {
             System.out.println("args: " + Arrays.toString(args));
@@ -146,6 +174,29 @@ public class RunGB {
         if (j >= 0) {
             doLog = false;
         }
+        j = indexOfPrefix(args, "checkpoint=");
+        if (j >= 0) {
+            String cp = args[j].substring("checkpoint=".length());
+            int i = cp.indexOf(",");
+            if (i >= 0) {
+                try {
+                    checkpointInterval = 1000L * Long.parseLong(cp.substring(i + 1).trim());
+                } catch (NumberFormatException e) {
+                    e.printStackTrace();
+                    System.out.println("args(checkpoint): " + Arrays.toString(args));
+                    System.out.println(usage);
+                    return;
+                }
+                cp = cp.substring(0, i).trim();
+            }
+            checkpointFile = cp;
+        }
+        boolean doResume = (indexOf(args, "--resume") >= 0);
+        if (doResume && checkpointFile == null) {
+            System.out.println("args(--resume): no checkpoint file " + Arrays.toString(args));
+            System.out.println(usage);
+            return;
+        }
 
         int threads = 0;
         int threadsPerNode = 1;
@@ -218,6 +269,22 @@ public class RunGB {
         }
         System.out.println("input S =\n" + S);
 
+        if (doResume && new File(checkpointFile).exists()) {
+            try {
+                resumeFrom = GBCheckpoint.read(checkpointFile);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+            if (!S.ring.equals(resumeFrom.getRing())) {
+                System.out.println("checkpoint ring " + resumeFrom.getRing() + " differs from input ring");
+                return;
+            }
+            System.out.println("resume from " + resumeFrom);
+        } else if (doResume) {
+            System.out.println("no checkpoint " + checkpointFile + ", starting from input");
+        }
+
         GroebnerBaseAbstract gb = null;
         if (kind.startsWith("build")) {
             gb = getGBalgo(args, kind, S.ring);
@@ -313,9 +380,9 @@ public class RunGB {
         }
         t1 = System.currentTimeMillis();
         if (plusextra) {
-            G = gbds.GB(L);
+            G = computeGB(gbds, L);
         } else {
-            G = gbd.GB(L);
+            G = computeGB(gbd, L);
         }
         t1 = System.currentTimeMillis() - t1;
         if (plusextra) {
@@ -371,9 +438,9 @@ public class RunGB {
         System.out.println("\nGroebner base parallel (" + threads + ") ...");
         t = System.currentTimeMillis();
         if (plusextra) {
-            G = bbs.GB(L);
+            G = computeGB(bbs, L);
         } else {
-            G = bb.GB(L);
+            G = computeGB(bb, L);
         }
         t = System.currentTimeMillis() - t;
         S = new PolynomialList(S.ring, G);
@@ -410,7 +477,7 @@ public class RunGB {
         }
         System.out.println("\nGroebner base sequential ...");
         t = System.currentTimeMillis();
-        G = bb.GB(L);
+        G = computeGB(bb, L);
         t = System.currentTimeMillis() - t;
         S = new PolynomialList(S.ring, G);
         System.out.println("G =\n" + S);
@@ -437,7 +504,7 @@ public class RunGB {
         String bbs = bb.toString().replaceAll(" ", "");
         System.out.println("\nGroebner base build=" + bbs + " ...");
         t = System.currentTimeMillis();
-        G = bb.GB(L);
+        G = computeGB(bb, L);
         t = System.currentTimeMillis() - t;
         S = new PolynomialList(S.ring, G);
         bbs = bb.toString().replaceAll(" ", "");
@@ -451,6 +518,40 @@ public class RunGB {
     }
 
 
+    /**
+     * Run or resume a GB algorithm with optional checkpoints.
+     * @param bb GB algorithm.
+     * @param L list of polynomials.
+     * @return a Groebner base of L or of the checkpoint.
+     */
+    @SuppressWarnings("unchecked")
+    static List computeGB(GroebnerBaseAbstract bb, List L) {
+        if (bb instanceof GroebnerBaseParallel) {
+            GroebnerBaseParallel pbb = (GroebnerBaseParallel) bb;
+            if (checkpointFile != null) {
+                pbb.setCheckpointer(new GBCheckpointer(checkpointFile, checkpointInterval));
+            }
+            if (resumeFrom != null) {
+                return pbb.resume(resumeFrom);
+            }
+        } else if (bb instanceof GroebnerBaseDistributedHybridEC) {
+            GroebnerBaseDistributedHybridEC dbb = (GroebnerBaseDistributedHybridEC) bb;
+            if (checkpointFile != null) {
+                dbb.setCheckpointer(new GBCheckpointer(checkpointFile, checkpointInterval));
+            }
+            if (resumeFrom != null) {
+                return dbb.resume(resumeFrom);
+            }
+        } else if (checkpointFile != null) {
+            System.out.println("checkpoints not supported for " + bb);
+            if (resumeFrom != null) {
+                System.out.println("resume not supported, starting from input");
+            }
+        }
+        return bb.GB(L);
+    }
+
+
     @SuppressWarnings("unchecked")
     static void checkGB(PolynomialList S) {
         if (!doCheck) {
@@ -474,6 +575,16 @@ public class RunGB {
     }
 
 
+    static int indexOfPrefix(String[] args, String s) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith(s)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
     static String join(String[] args, String d) {
         StringBuffer sb = new StringBuffer();
         for (int i = 0; i < args.length; i++) {
@@ -14,13 +14,16 @@ import java.util.Random;
 import edu.jas.kern.StringUtil;
 import edu.jas.structure.GcdRingElem;
 import edu.jas.structure.NotInvertibleException;
+import edu.jas.structure.RingAccumulator;
 import edu.jas.structure.RingFactory;
 
 
 /**
  * BigInteger class to make java.math.BigInteger available with RingElem
  * respectively the GcdRingElem interface. Objects of this class are immutable.
- * The SAC2 static methods are also provided.
+ * Values which fit in a long are kept in a long and the arithmetic on them is
+ * done without allocating java.math.BigIntegers, only on overflow the result
+ * is a java.math.BigInteger. The SAC2 static methods are also provided.
  * @author Heinz Kredel
  * @see java.math.BigInteger
  */
@@ -30,9 +33,15 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
 
 
     /**
-     * The data structure.
+     * The data structure, null if the value fits in a long.
      */
-    public final java.math.BigInteger val;
+    private final java.math.BigInteger val;
+
+
+    /**
+     * The value, if val is null.
+     */
+    private final long lval;
 
 
     private final static Random random = new Random();
@@ -55,7 +64,13 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @param a java.math.BigInteger.
      */
     public BigInteger(java.math.BigInteger a) {
-        val = a;
+        if (a.bitLength() < 64) {
+            val = null;
+            lval = a.longValue();
+        } else {
+            val = a;
+            lval = 0L;
+        }
     }
 
 
@@ -64,7 +79,8 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @param a long.
      */
     public BigInteger(long a) {
-        val = new java.math.BigInteger(String.valueOf(a));
+        val = null;
+        lval = a;
     }
 
 
@@ -73,7 +89,7 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @param s String.
      */
     public BigInteger(String s) {
-        val = new java.math.BigInteger(s.trim());
+        this(new java.math.BigInteger(s.trim()));
     }
 
 
@@ -81,7 +97,7 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * Constructor for BigInteger without parameters.
      */
     public BigInteger() {
-        val = java.math.BigInteger.ZERO;
+        this(0L);
     }
 
 
@@ -90,15 +106,22 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @return val java.math.BigInteger.
      */
     public java.math.BigInteger getVal() {
+        if (val == null) {
+            return java.math.BigInteger.valueOf(lval);
+        }
         return val;
     }
 
 
+
     /**
      * Get the value as long.
      * @return val as long.
      */
     public long longValue() {
+        if (val == null) {
+            return lval;
+        }
         return val.longValue();
     }
 
@@ -141,6 +164,9 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      */
     @Override
     public BigInteger copy() {
+        if (val == null) {
+            return new BigInteger(lval);
+        }
         return new BigInteger(val);
     }
 
@@ -151,7 +177,7 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @return a copy of c.
      */
     public BigInteger copy(BigInteger c) {
-        return new BigInteger(c.val);
+        return c.copy();
     }
 
 
@@ -255,7 +281,7 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @see edu.jas.structure.RingElem#isZERO()
      */
     public boolean isZERO() {
-        return val.signum() == 0; //equals(java.math.BigInteger.ZERO);
+        return val == null && lval == 0L;
     }
 
 
@@ -264,7 +290,7 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @see edu.jas.structure.RingElem#isONE()
      */
     public boolean isONE() {
-        return val.equals(java.math.BigInteger.ONE);
+        return val == null && lval == 1L;
     }
 
 
@@ -273,7 +299,7 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @see edu.jas.structure.RingElem#isUnit()
      */
     public boolean isUnit() {
-        return (this.isONE() || this.negate().isONE());
+        return val == null && (lval == 1L || lval == -1L);
     }
 
 
@@ -283,6 +309,9 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      */
     @Override
     public String toString() {
+        if (val == null) {
+            return Long.toString(lval);
+        }
         return val.toString();
     }
 
@@ -318,6 +347,15 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      */
     @Override
     public int compareTo(BigInteger b) {
+        if (val == null) {
+            if (b.val == null) {
+                return Long.compare(lval, b.lval);
+            }
+            return -b.val.signum(); // |b| > |this|
+        }
+        if (b.val == null) {
+            return val.signum();
+        }
         return val.compareTo(b.val);
     }
 
@@ -345,6 +383,9 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
             return false;
         }
         BigInteger bi = (BigInteger) b;
+        if (val == null) {
+            return bi.val == null && lval == bi.lval;
+        }
         return val.equals(bi.val);
     }
 
@@ -355,6 +396,13 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      */
     @Override
     public int hashCode() {
+        if (val == null) { // same as java.math.BigInteger.hashCode()
+            long m = Math.abs(lval); // unsigned for Long.MIN_VALUE
+            int hi = (int) (m >>> 32);
+            int lo = (int) m;
+            int h = (hi == 0 ? lo : 31 * hi + lo);
+            return h * Long.signum(lval);
+        }
         return val.hashCode();
     }
 
@@ -364,7 +412,10 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @see edu.jas.structure.RingElem#abs()
      */
     public BigInteger abs() {
-        return new BigInteger(val.abs());
+        if (val == null && lval != Long.MIN_VALUE) {
+            return (lval < 0L ? new BigInteger(-lval) : this);
+        }
+        return new BigInteger(getVal().abs());
     }
 
 
@@ -385,7 +436,10 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @see edu.jas.structure.RingElem#negate()
      */
     public BigInteger negate() {
-        return new BigInteger(val.negate());
+        if (val == null && lval != Long.MIN_VALUE) {
+            return new BigInteger(-lval);
+        }
+        return new BigInteger(getVal().negate());
     }
 
 
@@ -407,6 +461,9 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @see edu.jas.structure.RingElem#signum()
      */
     public int signum() {
+        if (val == null) {
+            return Long.signum(lval);
+        }
         return val.signum();
     }
 
@@ -429,7 +486,13 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @return this-S.
      */
     public BigInteger subtract(BigInteger S) {
-        return new BigInteger(val.subtract(S.val));
+        if (val == null && S.val == null) {
+            long r = lval - S.lval;
+            if (((lval ^ S.lval) & (lval ^ r)) >= 0L) { // no overflow, as in Math.subtractExact
+                return new BigInteger(r);
+            }
+        }
+        return new BigInteger(getVal().subtract(S.getVal()));
     }
 
 
@@ -452,7 +515,10 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @return this/S.
      */
     public BigInteger divide(BigInteger S) {
-        return new BigInteger(val.divide(S.val));
+        if (isLongDivision(S)) {
+            return new BigInteger(lval / S.lval);
+        }
+        return new BigInteger(getVal().divide(S.getVal()));
     }
 
 
@@ -476,7 +542,7 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @see edu.jas.structure.RingElem#inverse()
      */
     public BigInteger inverse() {
-        if (this.isONE() || this.negate().isONE()) {
+        if (this.isUnit()) {
             return this;
         }
         //return ZERO;
@@ -490,7 +556,10 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @return this - (this/S)*S.
      */
     public BigInteger remainder(BigInteger S) {
-        return new BigInteger(val.remainder(S.val));
+        if (isLongDivision(S)) {
+            return new BigInteger(lval % S.lval);
+        }
+        return new BigInteger(getVal().remainder(S.getVal()));
     }
 
 
@@ -517,13 +586,28 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
     //@Override
     public BigInteger[] quotientRemainder(BigInteger S) {
         BigInteger[] qr = new BigInteger[2];
-        java.math.BigInteger[] C = val.divideAndRemainder(S.val);
+        if (isLongDivision(S)) {
+            qr[0] = new BigInteger(lval / S.lval);
+            qr[1] = new BigInteger(lval % S.lval);
+            return qr;
+        }
+        java.math.BigInteger[] C = getVal().divideAndRemainder(S.getVal());
         qr[0] = new BigInteger(C[0]);
         qr[1] = new BigInteger(C[1]);
         return qr;
     }
 
 
+    /**
+     * Test if a division can be done with longs.
+     * @param S BigInteger.
+     * @return true if this/S and this%S can be computed with longs, else false.
+     */
+    private boolean isLongDivision(BigInteger S) {
+        return val == null && S.val == null && (lval != Long.MIN_VALUE || S.lval != -1L);
+    }
+
+
     /**
      * Integer quotient and remainder. A and B are integers, B ne 0. Q is the
      * quotient, integral part of A/B, and R is the remainder A-B*Q. Throws an
@@ -546,7 +630,17 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @return gcd(this,S).
      */
     public BigInteger gcd(BigInteger S) {
-        return new BigInteger(val.gcd(S.val));
+        if (val == null && S.val == null && lval != Long.MIN_VALUE && S.lval != Long.MIN_VALUE) {
+            long a = Math.abs(lval);
+            long b = Math.abs(S.lval);
+            while (b != 0L) {
+                long r = a % b;
+                a = b;
+                b = r;
+            }
+            return new BigInteger(a);
+        }
+        return new BigInteger(getVal().gcd(S.getVal()));
     }
 
 
@@ -658,7 +752,13 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @return this*S.
      */
     public BigInteger multiply(BigInteger S) {
-        return new BigInteger(val.multiply(S.val));
+        if (val == null && S.val == null) {
+            long lo = lval * S.lval;
+            if (Math.multiplyHigh(lval, S.lval) == (lo >> 63)) { // no overflow
+                return new BigInteger(lo);
+            }
+        }
+        return new BigInteger(getVal().multiply(S.getVal()));
     }
 
 
@@ -668,7 +768,10 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @return this &lt;&lt; n.
      */
     public BigInteger shiftLeft(int n) {
-        return new BigInteger(val.shiftLeft(n));
+        if (val == null && n >= 0 && n < Long.numberOfLeadingZeros(lval < 0L ? ~lval : lval)) {
+            return new BigInteger(lval << n);
+        }
+        return new BigInteger(getVal().shiftLeft(n));
     }
 
 
@@ -692,7 +795,13 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @return this+S.
      */
     public BigInteger sum(BigInteger S) {
-        return new BigInteger(val.add(S.val));
+        if (val == null && S.val == null) {
+            long r = lval + S.lval;
+            if (((lval ^ r) & (S.lval ^ r)) >= 0L) { // no overflow, as in Math.addExact
+                return new BigInteger(r);
+            }
+        }
+        return new BigInteger(getVal().add(S.getVal()));
     }
 
 
@@ -735,7 +844,7 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      * @return a BigRational approximation of this.
      */
     public BigRational getRational() {
-        return new BigRational(val);
+        return new BigRational(getVal());
     }
 
 
@@ -747,9 +856,14 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
      *         including a sign bit.
      */
     public long bitLength() {
-        long n = val.bitLength();
+        long n;
+        if (val == null) { // as java.math.BigInteger.bitLength()
+            n = 64 - Long.numberOfLeadingZeros(lval < 0L ? ~lval : lval);
+        } else {
+            n = val.bitLength();
+        }
         //System.out.println("sign(val) = " + val.signum());
-        if (val.signum() < 0) {
+        if (signum() < 0) {
             n++;
         }
         return ++n;
@@ -796,6 +910,177 @@ public final class BigInteger implements GcdRingElem<BigInteger>, RingFactory<Bi
         return new BigIntegerIterator(nonNegative);
     }
 
+
+    /**
+     * Get a new accumulator for sums of BigIntegers and products.
+     * @return a new zero accumulator.
+     * @see edu.jas.structure.RingFactory#getAccumulator()
+     */
+    @Override
+    public RingAccumulator<BigInteger> getAccumulator() {
+        return new Accumulator();
+    }
+
+
+    /**
+     * BigInteger accumulator. Products of long values are accumulated in a
+     * 128 bit two's complement number hi:lo, only larger values are added to a
+     * java.math.BigInteger.
+     */
+    static final class Accumulator implements RingAccumulator<BigInteger> {
+
+
+        /**
+         * High and low word of the 128 bit part.
+         */
+        private long hi, lo;
+
+
+        /**
+         * Part of the value exceeding 128 bits, null for zero.
+         */
+        private java.math.BigInteger big;
+
+
+        /**
+         * Set the accumulator to zero.
+         */
+        public void clear() {
+            hi = 0L;
+            lo = 0L;
+            big = null;
+        }
+
+
+        /**
+         * Add a java.math.BigInteger to the big part.
+         * @param b java.math.BigInteger.
+         */
+        private void addBig(java.math.BigInteger b) {
+            big = (big == null ? b : big.add(b));
+        }
+
+
+        /**
+         * Add a 128 bit number.
+         * @param h high word.
+         * @param l low word.
+         */
+        private void add128(long h, long l) {
+            if ((hi >> 61) != (hi >> 63)) { // |hi:lo| >= 2^125, move to big part
+                addBig(toBig(hi, lo));
+                hi = 0L;
+                lo = 0L;
+            }
+            long r = lo + l;
+            hi += h + (Long.compareUnsigned(r, lo) < 0 ? 1L : 0L);
+            lo = r;
+        }
+
+
+        /**
+         * Subtract a 128 bit number.
+         * @param h high word.
+         * @param l low word.
+         */
+        private void subtract128(long h, long l) {
+            if ((hi >> 61) != (hi >> 63)) {
+                addBig(toBig(hi, lo));
+                hi = 0L;
+                lo = 0L;
+            }
+            long r = lo - l;
+            hi -= h + (Long.compareUnsigned(lo, l) < 0 ? 1L : 0L);
+            lo = r;
+        }
+
+
+        /**
+         * Convert a 128 bit number.
+         * @param h high word.
+         * @param l low word.
+         * @return h*2^64 + l as java.math.BigInteger, l unsigned.
+         */
+        private static java.math.BigInteger toBig(long h, long l) {
+            java.math.BigInteger b = java.math.BigInteger.valueOf(l & Long.MAX_VALUE);
+            if (l < 0L) {
+                b = b.setBit(63);
+            }
+            return java.math.BigInteger.valueOf(h).shiftLeft(64).add(b);
+        }
+
+
+        /**
+         * Add a BigInteger.
+         * @param a BigInteger.
+         */
+        public void add(BigInteger a) {
+            if (a.val == null) {
+                add128(a.lval >> 63, a.lval);
+            } else {
+                addBig(a.val);
+            }
+        }
+
+
+        /**
+         * Subtract a BigInteger.
+         * @param a BigInteger.
+         */
+        public void subtract(BigInteger a) {
+            if (a.val == null) {
+                subtract128(a.lval >> 63, a.lval);
+            } else {
+                addBig(a.val.negate());
+            }
+        }
+
+
+        /**
+         * Add a product.
+         * @param a BigInteger.
+         * @param b BigInteger.
+         */
+        public void addMul(BigInteger a, BigInteger b) {
+            if (a.val == null && b.val == null) {
+                add128(Math.multiplyHigh(a.lval, b.lval), a.lval * b.lval);
+            } else {
+                addBig(a.getVal().multiply(b.getVal()));
+            }
+        }
+
+
+        /**
+         * Subtract a product.
+         * @param a BigInteger.
+         * @param b BigInteger.
+         */
+        public void subMul(BigInteger a, BigInteger b) {
+            if (a.val == null && b.val == null) {
+                subtract128(Math.multiplyHigh(a.lval, b.lval), a.lval * b.lval);
+            } else {
+                addBig(a.getVal().multiply(b.getVal()).negate());
+            }
+        }
+
+
+        /**
+         * Get the accumulated value.
+         * @return the accumulated value.
+         */
+        public BigInteger getValue() {
+            if (big == null && hi == (lo >> 63)) {
+                return new BigInteger(lo);
+            }
+            java.math.BigInteger b = toBig(hi, lo);
+            if (big != null) {
+                b = b.add(big);
+            }
+            return new BigInteger(b);
+        }
+
+    }
+
 }
 
 
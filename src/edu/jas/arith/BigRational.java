@@ -20,6 +20,7 @@ import edu.jas.kern.Scripting;
 import edu.jas.kern.StringUtil;
 import edu.jas.structure.GcdRingElem;
 import edu.jas.structure.Power;
+import edu.jas.structure.RingAccumulator;
 import edu.jas.structure.RingFactory;
 
 
@@ -593,6 +594,86 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
     }
 
 
+    /**
+     * Rational reconstruction. Find n/d with n = a d mod m and |n|, |d| &le;
+     * sqrt(m/2).
+     * @param a residue, 0 &le; a &lt; m.
+     * @param m modul.
+     * @return the unique n/d with the required bounds, or null if no such
+     *         fraction exists.
+     */
+    public static BigRational rationalReconstruction(BigInteger a, BigInteger m) {
+        BigInteger r0 = m;
+        BigInteger r1 = a.mod(m);
+        BigInteger t0 = BigInteger.ZERO;
+        BigInteger t1 = BigInteger.ONE;
+        while (r1.multiply(r1).shiftLeft(1).compareTo(m) > 0) {
+            BigInteger[] qr = r0.divideAndRemainder(r1);
+            r0 = r1;
+            r1 = qr[1];
+            BigInteger t = t0.subtract(qr[0].multiply(t1));
+            t0 = t1;
+            t1 = t;
+        }
+        if (t1.multiply(t1).shiftLeft(1).compareTo(m) > 0) {
+            return null;
+        }
+        if (!r1.gcd(t1).equals(BigInteger.ONE)) {
+            return null;
+        }
+        return RNRED(r1, t1);
+    }
+
+
+    /**
+     * Rational reconstruction of many residues with the same modul. The
+     * residues are first multiplied by the common denominator of the
+     * fractions found so far. If the product is small, the fraction is
+     * obtained without the extended Euclidean algorithm. The fractions are
+     * the same as with rationalReconstruction(a[i], m).
+     * @param a residues, 0 &le; a[i] &lt; m.
+     * @param m modul.
+     * @return array of the fractions n/d with n = a[i] d mod m and |n|, |d|
+     *         &le; sqrt(m/2), or null if some residue has no such fraction.
+     */
+    public static BigRational[] rationalReconstruction(BigInteger[] a, BigInteger m) {
+        BigRational[] r = new BigRational[a.length];
+        BigInteger h = m.shiftRight(1);
+        BigInteger d = BigInteger.ONE; // common denominator, coprime to m
+        boolean small = true; // 2 d^2 <= m
+        for (int i = 0; i < a.length; i++) {
+            BigInteger ai = a[i];
+            if (ai.signum() == 0) {
+                r[i] = ZERO;
+                continue;
+            }
+            if (small) {
+                BigInteger b = (d.equals(BigInteger.ONE) ? ai.mod(m) : ai.multiply(d).mod(m));
+                if (b.compareTo(h) > 0) {
+                    b = b.subtract(m); // symmetric residue
+                }
+                if (b.multiply(b).shiftLeft(1).compareTo(m) <= 0) {
+                    r[i] = RNRED(b, d);
+                    continue;
+                }
+            }
+            BigRational c = rationalReconstruction(ai, m);
+            if (c == null) {
+                return null;
+            }
+            r[i] = c;
+            if (small && !d.equals(c.den)) {
+                BigInteger e = c.den.divide(c.den.gcd(d));
+                if (!e.equals(BigInteger.ONE) && e.gcd(m).equals(BigInteger.ONE)) {
+                    d = d.multiply(e);
+                    small = (d.multiply(d).shiftLeft(1).compareTo(m) <= 0);
+                }
+            }
+        }
+        return r;
+    }
+
+
     /**
      * Rational number absolute value.
      * @return the absolute value of this.
@@ -1244,6 +1325,144 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
         return new BigRationalUniqueIterator(new BigRationalIterator(nonNegative));
     }
 
+
+    /**
+     * Get a new accumulator for sums of BigRationals and products.
+     * @return a new zero accumulator.
+     * @see edu.jas.structure.RingFactory#getAccumulator()
+     */
+    @Override
+    public RingAccumulator<BigRational> getAccumulator() {
+        return new Accumulator();
+    }
+
+
+    /**
+     * BigRational accumulator. The numerator and denominator are kept in
+     * lowest terms without intermediate BigRational objects. As in RNSUM the
+     * reduction after a sum needs only a gcd with the gcd of the denominators.
+     */
+    static final class Accumulator implements RingAccumulator<BigRational> {
+
+
+        /**
+         * Numerator and denominator, gcd(num,den) == 1, den &gt; 0.
+         */
+        private BigInteger num, den;
+
+
+        /**
+         * Constructor.
+         */
+        Accumulator() {
+            clear();
+        }
+
+
+        /**
+         * Set the accumulator to zero.
+         */
+        public void clear() {
+            num = BigInteger.ZERO;
+            den = BigInteger.ONE;
+        }
+
+
+        /**
+         * Add a fraction.
+         * @param n numerator.
+         * @param d denominator, d &gt; 0, gcd(n,d) == 1.
+         */
+        private void add(BigInteger n, BigInteger d) {
+            if (n.signum() == 0) {
+                return;
+            }
+            if (num.signum() == 0) {
+                num = n;
+                den = d;
+                return;
+            }
+            if (d.equals(BigInteger.ONE)) {
+                num = num.add(n.multiply(den));
+                return;
+            }
+            if (den.equals(BigInteger.ONE)) {
+                num = num.multiply(d).add(n);
+                den = d;
+                return;
+            }
+            BigInteger g = den.gcd(d);
+            if (g.equals(BigInteger.ONE)) {
+                num = num.multiply(d).add(n.multiply(den));
+                den = den.multiply(d);
+                return;
+            }
+            BigInteger dg = d.divide(g);
+            BigInteger t = num.multiply(dg).add(n.multiply(den.divide(g)));
+            if (t.signum() == 0) {
+                clear();
+                return;
+            }
+            BigInteger e = t.gcd(g);
+            if (!e.equals(BigInteger.ONE)) {
+                t = t.divide(e);
+                den = den.divide(e);
+            }
+            num = t;
+            den = den.multiply(dg);
+        }
+
+
+        /**
+         * Add a BigRational.
+         * @param a BigRational.
+         */
+        public void add(BigRational a) {
+            add(a.num, a.den);
+        }
+
+
+        /**
+         * Subtract a BigRational.
+         * @param a BigRational.
+         */
+        public void subtract(BigRational a) {
+            add(a.num.negate(), a.den);
+        }
+
+
+        /**
+         * Add a product.
+         * @param a BigRational.
+         * @param b BigRational.
+         */
+        public void addMul(BigRational a, BigRational b) {
+            BigRational p = a.multiply(b); // cancels common factors
+            add(p.num, p.den);
+        }
+
+
+        /**
+         * Subtract a product.
+         * @param a BigRational.
+         * @param b BigRational.
+         */
+        public void subMul(BigRational a, BigRational b) {
+            BigRational p = a.multiply(b);
+            add(p.num.negate(), p.den);
+        }
+
+
+        /**
+         * Get the accumulated value.
+         * @return the accumulated value.
+         */
+        public BigRational getValue() {
+            return new BigRational(num, den);
+        }
+
+    }
+
 }
 
 
@@ -1347,8 +1566,8 @@ class BigRationalIterator implements Iterator<BigRational> {
     public synchronized BigRational next() {
         BigRational r = curr;
         if (denlistit.hasNext() && numlistit.hasNext()) {
-            BigInteger d = denlistit.next().val;
-            BigInteger n = numlistit.next().val;
+            BigInteger d = denlistit.next().getVal();
+            BigInteger n = numlistit.next().getVal();
             //System.out.println(d + "//" + n);
             curr = BigRational.reduction(d, n);
             return r;
@@ -1370,8 +1589,8 @@ class BigRationalIterator implements Iterator<BigRational> {
         //System.out.println("numlist = " + numlist);
         denlistit = denlist.iterator();
         numlistit = numlist.iterator();
-        BigInteger d = denlistit.next().val;
-        BigInteger n = numlistit.next().val;
+        BigInteger d = denlistit.next().getVal();
+        BigInteger n = numlistit.next().getVal();
         //System.out.println(d + "//" + n);
         curr = BigRational.reduction(d, n);
         return r;
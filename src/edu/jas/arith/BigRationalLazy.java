@@ -0,0 +1,718 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import edu.jas.kern.StringUtil;
+import edu.jas.structure.GcdRingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Lazy normalized rational number class. Same arithmetic as BigRational, but
+ * sum and multiply do not reduce to lowest terms. The sum uses the lcm of the
+ * denominators and the product cancels each numerator with the other
+ * denominator, but the gcd of the resulting numerator and denominator is only
+ * removed if the bit size exceeds REDUCE_BITS, or if the lowest terms are
+ * required as for hashCode(), toString(), numerator() and denominator().
+ * equals() and compareTo() are computed by cross multiplication. Long chains
+ * of arithmetic with common denominators, e.g. scalar products or
+ * reductions, save most gcd computations. For unrelated random denominators
+ * BigRational is faster. Objects of this class are immutable. Use it instead
+ * of BigRational as coefficient factory.
+ * @author Heinz Kredel
+ * @see edu.jas.arith.BigRational
+ */
+
+public final class BigRationalLazy implements GcdRingElem<BigRationalLazy>, RingFactory<BigRationalLazy>,
+                Rational {
+
+
+    /**
+     * Numerator part of the data structure, not reduced.
+     */
+    public final BigInteger num;
+
+
+    /**
+     * Denominator part of the data structure, not reduced, always positive.
+     */
+    public final BigInteger den;
+
+
+    /**
+     * Cached hash code of the reduced number, 0 if not computed.
+     */
+    private transient int hash;
+
+
+    /**
+     * Maximal bit size of numerator plus denominator without reduction.
+     */
+    public final static int REDUCE_BITS = 512;
+
+
+    /**
+     * The Constant 0.
+     */
+    public final static BigRationalLazy ZERO = new BigRationalLazy(BigInteger.ZERO);
+
+
+    /**
+     * The Constant 1.
+     */
+    public final static BigRationalLazy ONE = new BigRationalLazy(BigInteger.ONE);
+
+
+    private final static Random random = new Random();
+
+
+    /**
+     * Constructor for a BigRationalLazy from BigIntegers.
+     * @param n BigInteger.
+     * @param d BigInteger, d &gt; 0.
+     */
+    protected BigRationalLazy(BigInteger n, BigInteger d) {
+        // assert d > 0
+        num = n;
+        den = d;
+    }
+
+
+    /**
+     * Constructor for a BigRationalLazy from BigIntegers.
+     * @param n BigInteger.
+     */
+    public BigRationalLazy(BigInteger n) {
+        num = n;
+        den = BigInteger.ONE; // be aware of static initialization order
+    }
+
+
+    /**
+     * Constructor for a BigRationalLazy from long.
+     * @param n long.
+     */
+    public BigRationalLazy(long n) {
+        this(new BigInteger(n));
+    }
+
+
+    /**
+     * Constructor for a BigRationalLazy from a BigRational.
+     * @param r BigRational.
+     */
+    public BigRationalLazy(BigRational r) {
+        this(new BigInteger(r.num), new BigInteger(r.den));
+    }
+
+
+    /**
+     * Constructor for a BigRationalLazy with no arguments.
+     */
+    public BigRationalLazy() {
+        this(BigInteger.ZERO);
+    }
+
+
+    /**
+     * Constructor for a BigRationalLazy from String.
+     * @param s String.
+     * @throws NumberFormatException
+     */
+    public BigRationalLazy(String s) throws NumberFormatException {
+        this(new BigRational(s));
+    }
+
+
+    /**
+     * Rational number from numerator and denominator, sign normalized.
+     * @param n BigInteger.
+     * @param d BigInteger, d != 0.
+     * @return n/d, not reduced.
+     */
+    public static BigRationalLazy create(BigInteger n, BigInteger d) {
+        if (d.isZERO()) {
+            throw new ArithmeticException("division by zero");
+        }
+        if (n.isZERO()) {
+            return ZERO;
+        }
+        if (d.signum() < 0) {
+            return new BigRationalLazy(n.negate(), d.negate());
+        }
+        return new BigRationalLazy(n, d);
+    }
+
+
+    /**
+     * Reduction to lowest terms if the bit size is too large.
+     * @param n BigInteger.
+     * @param d BigInteger, d &gt; 0.
+     * @return n/d, reduced if bitLength(n)+bitLength(d) &gt; REDUCE_BITS.
+     */
+    static BigRationalLazy lazy(BigInteger n, BigInteger d) {
+        if (n.isZERO()) {
+            return ZERO;
+        }
+        if (n.bitLength() + d.bitLength() > REDUCE_BITS) {
+            return reduction(n, d);
+        }
+        return new BigRationalLazy(n, d);
+    }
+
+
+    /**
+     * Reduction to lowest terms.
+     * @param n BigInteger.
+     * @param d BigInteger, d &gt; 0.
+     * @return a/b ~ n/d, gcd(a,b) = 1, b &gt; 0.
+     */
+    static BigRationalLazy reduction(BigInteger n, BigInteger d) {
+        if (n.isZERO()) {
+            return ZERO;
+        }
+        if (d.isONE()) {
+            return new BigRationalLazy(n, d);
+        }
+        BigInteger c = n.gcd(d);
+        if (c.isONE()) {
+            return new BigRationalLazy(n, d);
+        }
+        return new BigRationalLazy(n.divide(c), d.divide(c));
+    }
+
+
+    /**
+     * Reduce to lowest terms.
+     * @return this in lowest terms.
+     */
+    public BigRationalLazy reduce() {
+        return reduction(num, den);
+    }
+
+
+    /**
+     * Get the corresponding element factory.
+     * @return factory for this Element.
+     * @see edu.jas.structure.Element#factory()
+     */
+    public BigRationalLazy factory() {
+        return this;
+    }
+
+
+    /**
+     * Get a list of the generating elements.
+     * @return list of generators for the algebraic structure.
+     * @see edu.jas.structure.ElemFactory#generators()
+     */
+    public List<BigRationalLazy> generators() {
+        List<BigRationalLazy> g = new ArrayList<BigRationalLazy>(1);
+        g.add(getONE());
+        return g;
+    }
+
+
+    /**
+     * Is this structure finite or infinite.
+     * @return true if this structure is finite, else false.
+     * @see edu.jas.structure.ElemFactory#isFinite()
+     */
+    public boolean isFinite() {
+        return false;
+    }
+
+
+    /**
+     * Clone this.
+     * @see java.lang.Object#clone()
+     */
+    @Override
+    public BigRationalLazy copy() {
+        return new BigRationalLazy(num, den);
+    }
+
+
+    /**
+     * Copy BigRationalLazy element c.
+     * @param c BigRationalLazy.
+     * @return a copy of c.
+     */
+    public BigRationalLazy copy(BigRationalLazy c) {
+        return new BigRationalLazy(c.num, c.den);
+    }
+
+
+    /**
+     * Return a BigRational approximation of this Element.
+     * @return this as BigRational in lowest terms.
+     * @see edu.jas.arith.Rational#getRational()
+     */
+    public BigRational getRational() {
+        BigRationalLazy r = reduce();
+        return new BigRational(r.num.getVal(), r.den.getVal());
+    }
+
+
+    /**
+     * Get the numerator.
+     * @return numerator of this in lowest terms.
+     */
+    public BigInteger numerator() {
+        return reduce().num;
+    }
+
+
+    /**
+     * Get the denominator.
+     * @return denominator of this in lowest terms.
+     */
+    public BigInteger denominator() {
+        return reduce().den;
+    }
+
+
+    /**
+     * Get the string representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return getRational().toString();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation.
+     * @return script compatible representation for this Element.
+     * @see edu.jas.structure.Element#toScript()
+     */
+    @Override
+    public String toScript() {
+        return getRational().toScript();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation of the factory.
+     * @return script compatible representation for this ElemFactory.
+     * @see edu.jas.structure.Element#toScriptFactory()
+     */
+    @Override
+    public String toScriptFactory() {
+        // Python and Ruby case
+        return "QQ()";
+    }
+
+
+    /**
+     * Get the zero element.
+     * @return 0 as BigRationalLazy.
+     */
+    public BigRationalLazy getZERO() {
+        return ZERO;
+    }
+
+
+    /**
+     * Get the one element.
+     * @return 1 as BigRationalLazy.
+     */
+    public BigRationalLazy getONE() {
+        return ONE;
+    }
+
+
+    /**
+     * Query if this ring is commutative.
+     * @return true.
+     */
+    public boolean isCommutative() {
+        return true;
+    }
+
+
+    /**
+     * Query if this ring is associative.
+     * @return true.
+     */
+    public boolean isAssociative() {
+        return true;
+    }
+
+
+    /**
+     * Query if this ring is a field.
+     * @return true.
+     */
+    public boolean isField() {
+        return true;
+    }
+
+
+    /**
+     * Characteristic of this ring.
+     * @return characteristic of this ring.
+     */
+    public java.math.BigInteger characteristic() {
+        return java.math.BigInteger.ZERO;
+    }
+
+
+    /**
+     * Get a BigRationalLazy element from a math.BigInteger.
+     * @param a math.BigInteger.
+     * @return BigRationalLazy from a.
+     */
+    public BigRationalLazy fromInteger(java.math.BigInteger a) {
+        return new BigRationalLazy(new BigInteger(a));
+    }
+
+
+    /**
+     * Get a BigRationalLazy element from a long.
+     * @param a long.
+     * @return BigRationalLazy from a.
+     */
+    public BigRationalLazy fromInteger(long a) {
+        return new BigRationalLazy(a);
+    }
+
+
+    /**
+     * Is BigRationalLazy zero.
+     * @return If this is 0 then true is returned, else false.
+     * @see edu.jas.structure.RingElem#isZERO()
+     */
+    public boolean isZERO() {
+        return num.isZERO();
+    }
+
+
+    /**
+     * Is BigRationalLazy one.
+     * @return If this is 1 then true is returned, else false.
+     * @see edu.jas.structure.RingElem#isONE()
+     */
+    public boolean isONE() {
+        return num.equals(den);
+    }
+
+
+    /**
+     * Is BigRationalLazy unit.
+     * @return If this is a unit then true is returned, else false.
+     * @see edu.jas.structure.RingElem#isUnit()
+     */
+    public boolean isUnit() {
+        return (!isZERO());
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object b) {
+        if (!(b instanceof BigRationalLazy)) {
+            return false;
+        }
+        BigRationalLazy br = (BigRationalLazy) b;
+        if (den.equals(br.den)) {
+            return num.equals(br.num);
+        }
+        if (num.signum() != br.num.signum()) {
+            return false;
+        }
+        return num.multiply(br.den).equals(br.num.multiply(den));
+    }
+
+
+    /**
+     * Hash code for this BigRationalLazy, same as for the reduced BigRational.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            BigRationalLazy r = reduce();
+            h = 37 * r.num.hashCode() + r.den.hashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+
+    /**
+     * Rational number absolute value.
+     * @return the absolute value of this.
+     * @see edu.jas.structure.RingElem#abs()
+     */
+    public BigRationalLazy abs() {
+        if (this.signum() >= 0) {
+            return this;
+        }
+        return this.negate();
+    }
+
+
+    /**
+     * Rational number comparison.
+     * @param S BigRationalLazy.
+     * @return SIGN(this-S).
+     */
+    @Override
+    public int compareTo(BigRationalLazy S) {
+        int RL = num.signum();
+        int SL = S.num.signum();
+        if (RL != SL) {
+            return (RL > SL ? 1 : -1);
+        }
+        if (RL == 0) {
+            return 0;
+        }
+        if (den.equals(S.den)) {
+            return num.compareTo(S.num);
+        }
+        return num.multiply(S.den).compareTo(S.num.multiply(den));
+    }
+
+
+    /**
+     * Rational number sign.
+     * @see edu.jas.structure.RingElem#signum()
+     */
+    public int signum() {
+        return num.signum();
+    }
+
+
+    /**
+     * Rational number negative.
+     * @return -this.
+     * @see edu.jas.structure.RingElem#negate()
+     */
+    public BigRationalLazy negate() {
+        return new BigRationalLazy(num.negate(), den);
+    }
+
+
+    /**
+     * Rational number inverse.
+     * @return 1/this.
+     * @see edu.jas.structure.RingElem#inverse()
+     */
+    public BigRationalLazy inverse() {
+        return create(den, num);
+    }
+
+
+    /**
+     * Rational number sum.
+     * @param S BigRationalLazy.
+     * @return this+S.
+     */
+    public BigRationalLazy sum(BigRationalLazy S) {
+        if (this.isZERO()) {
+            return S;
+        }
+        if (S.isZERO()) {
+            return this;
+        }
+        if (den.equals(S.den)) {
+            return lazy(num.sum(S.num), den);
+        }
+        if (den.isONE()) {
+            return lazy(num.multiply(S.den).sum(S.num), S.den);
+        }
+        if (S.den.isONE()) {
+            return lazy(S.num.multiply(den).sum(num), den);
+        }
+        // common denominator lcm(den,S.den), the numerator is not reduced
+        BigInteger g = den.gcd(S.den);
+        BigInteger rd = den;
+        BigInteger sd = S.den;
+        if (!g.isONE()) {
+            rd = rd.divide(g);
+            sd = sd.divide(g);
+        }
+        BigInteger n = num.multiply(sd).sum(S.num.multiply(rd));
+        return lazy(n, den.multiply(sd));
+    }
+
+
+    /**
+     * Rational number difference.
+     * @param S BigRationalLazy.
+     * @return this-S.
+     */
+    public BigRationalLazy subtract(BigRationalLazy S) {
+        return this.sum(S.negate());
+    }
+
+
+    /**
+     * Rational number product.
+     * @param S BigRationalLazy.
+     * @return this*S.
+     */
+    public BigRationalLazy multiply(BigRationalLazy S) {
+        if (this.isZERO() || S.isZERO()) {
+            return ZERO;
+        }
+        if (this.isONE()) {
+            return S;
+        }
+        if (S.isONE()) {
+            return this;
+        }
+        if (den.isONE() && S.den.isONE()) {
+            return new BigRationalLazy(num.multiply(S.num));
+        }
+        // cancel with the other denominator
+        BigInteger n1 = num;
+        BigInteger d2 = S.den;
+        BigInteger g = n1.gcd(d2);
+        if (!g.isONE()) {
+            n1 = n1.divide(g);
+            d2 = d2.divide(g);
+        }
+        BigInteger n2 = S.num;
+        BigInteger d1 = den;
+        g = n2.gcd(d1);
+        if (!g.isONE()) {
+            n2 = n2.divide(g);
+            d1 = d1.divide(g);
+        }
+        return lazy(n1.multiply(n2), d1.multiply(d2));
+    }
+
+
+    /**
+     * Rational number quotient.
+     * @param S BigRationalLazy.
+     * @return this/S.
+     */
+    public BigRationalLazy divide(BigRationalLazy S) {
+        return multiply(S.inverse());
+    }
+
+
+    /**
+     * Rational number remainder.
+     * @param S BigRationalLazy.
+     * @return this-(this/S)*S
+     */
+    public BigRationalLazy remainder(BigRationalLazy S) {
+        if (S.isZERO()) {
+            throw new ArithmeticException("division by zero");
+        }
+        return ZERO;
+    }
+
+
+    /**
+     * Quotient and remainder by division of this by S.
+     * @param S a rational number
+     * @return [this/S, this - (this/S)*S].
+     */
+    public BigRationalLazy[] quotientRemainder(BigRationalLazy S) {
+        return new BigRationalLazy[] { divide(S), ZERO };
+    }
+
+
+    /**
+     * Rational number greatest common divisor.
+     * @param S BigRationalLazy.
+     * @return gcd(this,S).
+     */
+    public BigRationalLazy gcd(BigRationalLazy S) {
+        if (S == null || S.isZERO()) {
+            return this;
+        }
+        if (this.isZERO()) {
+            return S;
+        }
+        return ONE;
+    }
+
+
+    /**
+     * BigRationalLazy extended greatest common divisor.
+     * @param S BigRationalLazy.
+     * @return [ gcd(this,S), a, b ] with a*this + b*S = gcd(this,S).
+     */
+    public BigRationalLazy[] egcd(BigRationalLazy S) {
+        BigRationalLazy[] ret = new BigRationalLazy[3];
+        ret[0] = null;
+        ret[1] = null;
+        ret[2] = null;
+        if (S == null || S.isZERO()) {
+            ret[0] = this;
+            return ret;
+        }
+        if (this.isZERO()) {
+            ret[0] = S;
+            return ret;
+        }
+        BigRationalLazy half = new BigRationalLazy(BigInteger.ONE, new BigInteger(2));
+        ret[0] = ONE;
+        ret[1] = this.inverse().multiply(half);
+        ret[2] = S.inverse().multiply(half);
+        return ret;
+    }
+
+
+    /**
+     * Rational number, random.
+     * @param n such that 0 &le; A, B &le; (2<sup>n</sup>-1).
+     * @return a random BigRationalLazy.
+     * @see edu.jas.arith.BigRational#random(int)
+     */
+    public BigRationalLazy random(int n) {
+        return random(n, random);
+    }
+
+
+    /**
+     * Rational number, random.
+     * @param n such that 0 &le; A, B &le; (2<sup>n</sup>-1).
+     * @param rnd is a source for random bits.
+     * @return a random BigRationalLazy.
+     * @see edu.jas.arith.BigRational#random(int,Random)
+     */
+    public BigRationalLazy random(int n, Random rnd) {
+        return new BigRationalLazy(BigRational.ONE.random(n, rnd));
+    }
+
+
+    /**
+     * Parse rational number from String.
+     * @param s String.
+     * @return BigRationalLazy from s.
+     */
+    public BigRationalLazy parse(String s) {
+        return new BigRationalLazy(s);
+    }
+
+
+    /**
+     * Parse rational number from Reader.
+     * @param r Reader.
+     * @return next BigRationalLazy from r.
+     */
+    public BigRationalLazy parse(Reader r) {
+        return parse(StringUtil.nextString(r));
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Chinese remainder algorithm with a product tree. For moduli m_1, ..., m_k
+ * the products of the subtrees and the inverses of M/m_i modulo m_i are
+ * computed once, with M = m_1 * ... * m_k. The residues of any number of
+ * coefficients are then combined in time O(M(n) log k) each, instead of
+ * O(n^2) for the combination of one modul after the other.
+ * @author Heinz Kredel
+ * @see J. von zur Gathen, J. Gerhard, Modern Computer Algebra, section 10.3.
+ */
+
+public final class ChineseRemainderTree implements Serializable {
+
+
+    /**
+     * Levels of the product tree, level 0 are the moduli, the last level is
+     * the product M of all moduli.
+     */
+    private final java.math.BigInteger[][] tree;
+
+
+    /**
+     * Inverses of M/m_i modulo m_i.
+     */
+    private final java.math.BigInteger[] inv;
+
+
+    /**
+     * Constructor.
+     * @param moduli list of pairwise coprime moduli.
+     * @throws ArithmeticException if the moduli are not pairwise coprime.
+     */
+    public ChineseRemainderTree(List<java.math.BigInteger> moduli) {
+        if (moduli == null || moduli.isEmpty()) {
+            throw new IllegalArgumentException("no moduli");
+        }
+        List<java.math.BigInteger[]> levels = new ArrayList<java.math.BigInteger[]>();
+        java.math.BigInteger[] level = moduli.toArray(new java.math.BigInteger[moduli.size()]);
+        levels.add(level);
+        while (level.length > 1) {
+            java.math.BigInteger[] up = new java.math.BigInteger[(level.length + 1) / 2];
+            for (int i = 0; i < up.length; i++) {
+                int j = 2 * i;
+                up[i] = (j + 1 < level.length ? level[j].multiply(level[j + 1]) : level[j]);
+            }
+            levels.add(up);
+            level = up;
+        }
+        tree = levels.toArray(new java.math.BigInteger[levels.size()][]);
+        // (M / P(v)) mod P(v) from the root down to the leaves
+        java.math.BigInteger[] down = new java.math.BigInteger[] { java.math.BigInteger.ONE };
+        for (int h = tree.length - 1; h > 0; h--) {
+            java.math.BigInteger[] lv = tree[h - 1];
+            java.math.BigInteger[] dn = new java.math.BigInteger[lv.length];
+            for (int j = 0; j < lv.length; j++) {
+                java.math.BigInteger d = down[j / 2];
+                int s = j ^ 1; // sibling
+                if (s < lv.length) {
+                    d = d.multiply(lv[s]);
+                }
+                dn[j] = d.mod(lv[j]);
+            }
+            down = dn;
+        }
+        inv = new java.math.BigInteger[down.length];
+        for (int i = 0; i < inv.length; i++) {
+            inv[i] = down[i].modInverse(tree[0][i]);
+        }
+    }
+
+
+    /**
+     * Get the product of all moduli.
+     * @return M = m_1 * ... * m_k.
+     */
+    public java.math.BigInteger getModul() {
+        return tree[tree.length - 1][0];
+    }
+
+
+    /**
+     * Get the moduli.
+     * @return array of m_1, ..., m_k.
+     */
+    public java.math.BigInteger[] getModuli() {
+        return tree[0].clone();
+    }
+
+
+    /**
+     * Number of moduli.
+     * @return k.
+     */
+    public int size() {
+        return tree[0].length;
+    }
+
+
+    /**
+     * Chinese remainder.
+     * @param r residues with r[i] the residue modulo m_i, r[i] may be
+     *            negative.
+     * @return the unique 0 &le; x &lt; M with x = r[i] mod m_i for all i.
+     */
+    public java.math.BigInteger chineseRemainder(java.math.BigInteger[] r) {
+        java.math.BigInteger[] m = tree[0];
+        if (r.length != m.length) {
+            throw new IllegalArgumentException("wrong number of residues " + r.length + " != " + m.length);
+        }
+        // r[i] * (M/m_i)^-1 * M/m_i summed up the tree
+        java.math.BigInteger[] val = new java.math.BigInteger[m.length];
+        for (int i = 0; i < m.length; i++) {
+            val[i] = r[i].multiply(inv[i]).mod(m[i]);
+        }
+        for (int h = 0; h < tree.length - 1; h++) {
+            java.math.BigInteger[] lv = tree[h];
+            java.math.BigInteger[] up = new java.math.BigInteger[(val.length + 1) / 2];
+            for (int i = 0; i < up.length; i++) {
+                int j = 2 * i;
+                if (j + 1 < val.length) {
+                    up[i] = val[j].multiply(lv[j + 1]).add(val[j + 1].multiply(lv[j]));
+                } else {
+                    up[i] = val[j];
+                }
+            }
+            val = up;
+        }
+        return val[0].mod(getModul());
+    }
+
+
+    /**
+     * Chinese remainder of many coefficients.
+     * @param r residues with r[j][i] the residue of coefficient j modulo m_i.
+     * @return array x with 0 &le; x[j] &lt; M and x[j] = r[j][i] mod m_i for
+     *         all i.
+     */
+    public java.math.BigInteger[] chineseRemainder(java.math.BigInteger[][] r) {
+        java.math.BigInteger[] x = new java.math.BigInteger[r.length];
+        for (int j = 0; j < r.length; j++) {
+            x[j] = chineseRemainder(r[j]);
+        }
+        return x;
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ChineseRemainderTree(#moduli = " + size() + ", M = " + getModul() + ")";
+    }
+
+}
@@ -555,8 +555,8 @@ public final class ModInteger implements GcdRingElem<ModInteger>, Modular {
         java.math.BigInteger[] qr;
         java.math.BigInteger q = this.val;
         java.math.BigInteger r = S.val;
-        java.math.BigInteger c1 = BigInteger.ONE.val;
-        java.math.BigInteger d1 = BigInteger.ZERO.val;
+        java.math.BigInteger c1 = java.math.BigInteger.ONE;
+        java.math.BigInteger d1 = java.math.BigInteger.ZERO;
         java.math.BigInteger x1;
         while (!r.equals(java.math.BigInteger.ZERO)) {
             qr = q.divideAndRemainder(r);
@@ -625,10 +625,10 @@ public final class ModInteger implements GcdRingElem<ModInteger>, Modular {
         java.math.BigInteger[] qr;
         java.math.BigInteger q = this.val;
         java.math.BigInteger r = S.val;
-        java.math.BigInteger c1 = BigInteger.ONE.val;
-        java.math.BigInteger d1 = BigInteger.ZERO.val;
-        java.math.BigInteger c2 = BigInteger.ZERO.val;
-        java.math.BigInteger d2 = BigInteger.ONE.val;
+        java.math.BigInteger c1 = java.math.BigInteger.ONE;
+        java.math.BigInteger d1 = java.math.BigInteger.ZERO;
+        java.math.BigInteger c2 = java.math.BigInteger.ZERO;
+        java.math.BigInteger d2 = java.math.BigInteger.ONE;
         java.math.BigInteger x1;
         java.math.BigInteger x2;
         while (!r.equals(java.math.BigInteger.ZERO)) {
@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Random;
 
 import edu.jas.kern.StringUtil;
+import edu.jas.structure.RingAccumulator;
 
 
 /**
@@ -401,6 +402,100 @@ public final class ModIntegerRing implements ModularRingFactory<ModInteger>, Ite
         return new ModIntegerIterator(this);
     }
 
+
+    /**
+     * Get a new accumulator for sums of ModIntegers and products.
+     * @return a new zero accumulator.
+     * @see edu.jas.structure.RingFactory#getAccumulator()
+     */
+    @Override
+    public RingAccumulator<ModInteger> getAccumulator() {
+        return new Accumulator(this);
+    }
+
+
+    /**
+     * ModInteger accumulator. The products are summed without reduction, the
+     * remainder by the modul is only computed in getValue().
+     */
+    static final class Accumulator implements RingAccumulator<ModInteger> {
+
+
+        private final ModIntegerRing ring;
+
+
+        /**
+         * Accumulated value, not reduced.
+         */
+        private java.math.BigInteger val;
+
+
+        /**
+         * Constructor.
+         * @param ring ModInteger factory.
+         */
+        Accumulator(ModIntegerRing ring) {
+            this.ring = ring;
+            val = java.math.BigInteger.ZERO;
+        }
+
+
+        /**
+         * Set the accumulator to zero.
+         */
+        public void clear() {
+            val = java.math.BigInteger.ZERO;
+        }
+
+
+        /**
+         * Add a ModInteger.
+         * @param a ModInteger.
+         */
+        public void add(ModInteger a) {
+            val = val.add(a.val);
+        }
+
+
+        /**
+         * Subtract a ModInteger.
+         * @param a ModInteger.
+         */
+        public void subtract(ModInteger a) {
+            val = val.subtract(a.val);
+        }
+
+
+        /**
+         * Add a product.
+         * @param a ModInteger.
+         * @param b ModInteger.
+         */
+        public void addMul(ModInteger a, ModInteger b) {
+            val = val.add(a.val.multiply(b.val));
+        }
+
+
+        /**
+         * Subtract a product.
+         * @param a ModInteger.
+         * @param b ModInteger.
+         */
+        public void subMul(ModInteger a, ModInteger b) {
+            val = val.subtract(a.val.multiply(b.val));
+        }
+
+
+        /**
+         * Get the accumulated value.
+         * @return the accumulated value reduced modulo modul.
+         */
+        public ModInteger getValue() {
+            return new ModInteger(ring, val);
+        }
+
+    }
+
 }
 
 
@@ -54,6 +54,19 @@ public final class ModLong implements GcdRingElem<ModLong>, Modular {
     }
 
 
+    /**
+     * The constructor creates a ModLong object from a ModLongRing and an
+     * already reduced long value part.
+     * @param m ModLongRing.
+     * @param a long with 0 &le; a &lt; m.modul.
+     * @param isMod unused, distinguishes this from the reducing constructor.
+     */
+    ModLong(ModLongRing m, long a, boolean isMod) {
+        ring = m;
+        val = a;
+    }
+
+
     /**
      * The constructor creates a ModLong object from a ModLongRing and a Long
      * value part.
@@ -155,7 +168,7 @@ public final class ModLong implements GcdRingElem<ModLong>, Modular {
      */
     @Override
     public ModLong copy() {
-        return new ModLong(ring, val);
+        return new ModLong(ring, val, true);
     }
 
 
@@ -287,7 +300,7 @@ public final class ModLong implements GcdRingElem<ModLong>, Modular {
      * @return -this.
      */
     public ModLong negate() {
-        return new ModLong(ring, -val);
+        return new ModLong(ring, ring.subtract(0L, val), true);
     }
 
 
@@ -310,7 +323,7 @@ public final class ModLong implements GcdRingElem<ModLong>, Modular {
      * @return this-S.
      */
     public ModLong subtract(ModLong S) {
-        return new ModLong(ring, val - S.val);
+        return new ModLong(ring, ring.subtract(val, S.val), true);
     }
 
 
@@ -378,7 +391,7 @@ public final class ModLong implements GcdRingElem<ModLong>, Modular {
      * @return this*S.
      */
     public ModLong multiply(ModLong S) {
-        return new ModLong(ring, val * S.val);
+        return new ModLong(ring, ring.multiply(val, S.val), true);
     }
 
 
@@ -388,7 +401,7 @@ public final class ModLong implements GcdRingElem<ModLong>, Modular {
      * @return this+S.
      */
     public ModLong sum(ModLong S) {
-        return new ModLong(ring, val + S.val);
+        return new ModLong(ring, ring.sum(val, S.val), true);
     }
 
 
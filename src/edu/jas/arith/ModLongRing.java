@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.Random;
 
 import edu.jas.kern.StringUtil;
+import edu.jas.structure.RingAccumulator;
 
 
 /**
@@ -47,10 +48,24 @@ public final class ModLongRing implements ModularRingFactory<ModLong>, Iterable<
 
 
     /**
-     * maximal representable integer.
+     * Bit length of the module part for Barrett reduction, at least 2.
      */
-    public final static java.math.BigInteger MAX_LONG = new java.math.BigInteger(
-                    String.valueOf(Integer.MAX_VALUE)); // not larger!
+    private final int bits;
+
+
+    /**
+     * Barrett constant floor((2<sup>63</sup>-1) / modul) for bits &le; 31,
+     * else floor((2<sup>2 bits</sup>-1) / modul).
+     */
+    private final long barrett;
+
+
+    /**
+     * maximal representable integer. Products are reduced with Barrett
+     * reduction, sums must not overflow.
+     */
+    public final static java.math.BigInteger MAX_LONG = java.math.BigInteger
+                    .valueOf(Long.MAX_VALUE >> 1); // not larger!
 
 
     /**
@@ -59,7 +74,7 @@ public final class ModLongRing implements ModularRingFactory<ModLong>, Iterable<
      * @param m long integer.
      */
     public ModLongRing(long m) {
-        modul = m;
+        this(m, -1);
     }
 
 
@@ -70,8 +85,32 @@ public final class ModLongRing implements ModularRingFactory<ModLong>, Iterable<
      * @param isField indicator if m is prime.
      */
     public ModLongRing(long m, boolean isField) {
+        this(m, (isField ? 1 : 0));
+    }
+
+
+    /**
+     * The constructor creates a ModLongRing object from a long integer as
+     * module part and precomputes the Barrett constant.
+     * @param m long integer.
+     * @param isField indicator if m is prime, -1 if unknown.
+     */
+    private ModLongRing(long m, int isField) {
+        if (m > (Long.MAX_VALUE >> 1)) {
+            throw new IllegalArgumentException("modul to large for long " + m + ",max=" + MAX_LONG);
+        }
         modul = m;
-        this.isField = (isField ? 1 : 0);
+        this.isField = isField;
+        bits = Math.max(2, 64 - Long.numberOfLeadingZeros(m));
+        if (m <= 0L) { // no valid modul, no reduction possible
+            barrett = 0L;
+        } else if (bits <= 31) { // product of reduced values fits in a long
+            barrett = Long.MAX_VALUE / m;
+        } else {
+            java.math.BigInteger b = java.math.BigInteger.ONE.shiftLeft(2 * bits).subtract(
+                            java.math.BigInteger.ONE);
+            barrett = b.divide(java.math.BigInteger.valueOf(m)).longValue();
+        }
     }
 
 
@@ -146,6 +185,56 @@ public final class ModLongRing implements ModularRingFactory<ModLong>, Iterable<
     }
 
 
+    /**
+     * Modular product of reduced values. Barrett reduction of the 128 bit
+     * product, no division.
+     * @param a long with 0 &le; a &lt; modul.
+     * @param b long with 0 &le; b &lt; modul.
+     * @return a*b mod modul.
+     */
+    public long multiply(long a, long b) {
+        if (bits <= 31) { // product fits in a long
+            long x = a * b;
+            long r = x - Math.multiplyHigh(x << 1, barrett) * modul; // 0 <= r < 2*modul
+            return (r >= modul ? r - modul : r);
+        }
+        long hi = Math.multiplyHigh(a, b);
+        long lo = a * b;
+        // q = ((a*b >> (bits-1)) * barrett) >> (bits+1), at most 3 too small
+        long q = (hi << (65 - bits)) | (lo >>> (bits - 1));
+        q = (Math.multiplyHigh(q, barrett) << (63 - bits)) | ((q * barrett) >>> (bits + 1));
+        long r = lo - q * modul; // 0 <= r < 4*modul < 2^64
+        while (Long.compareUnsigned(r, modul) >= 0) {
+            r -= modul;
+        }
+        return r;
+    }
+
+
+    /**
+     * Modular sum of reduced values.
+     * @param a long with 0 &le; a &lt; modul.
+     * @param b long with 0 &le; b &lt; modul.
+     * @return a+b mod modul.
+     */
+    public long sum(long a, long b) {
+        long r = a + b;
+        return (r >= modul ? r - modul : r);
+    }
+
+
+    /**
+     * Modular difference of reduced values.
+     * @param a long with 0 &le; a &lt; modul.
+     * @param b long with 0 &le; b &lt; modul.
+     * @return a-b mod modul.
+     */
+    public long subtract(long a, long b) {
+        long r = a - b;
+        return (r < 0L ? r + modul : r);
+    }
+
+
     /**
      * Get the module part as BigInteger.
      * @return modul.
@@ -449,6 +538,100 @@ public final class ModLongRing implements ModularRingFactory<ModLong>, Iterable<
         return new ModLongIterator(this);
     }
 
+
+    /**
+     * Get a new accumulator for sums of ModLongs and products.
+     * @return a new zero accumulator.
+     * @see edu.jas.structure.RingFactory#getAccumulator()
+     */
+    @Override
+    public RingAccumulator<ModLong> getAccumulator() {
+        return new Accumulator(this);
+    }
+
+
+    /**
+     * ModLong accumulator. The value is kept as reduced long, products are
+     * computed with the Barrett multiplication of the ring.
+     */
+    static final class Accumulator implements RingAccumulator<ModLong> {
+
+
+        private final ModLongRing ring;
+
+
+        /**
+         * Accumulated value, 0 &le; val &lt; modul.
+         */
+        private long val;
+
+
+        /**
+         * Constructor.
+         * @param ring ModLong factory.
+         */
+        Accumulator(ModLongRing ring) {
+            this.ring = ring;
+            val = 0L;
+        }
+
+
+        /**
+         * Set the accumulator to zero.
+         */
+        public void clear() {
+            val = 0L;
+        }
+
+
+        /**
+         * Add a ModLong.
+         * @param a ModLong.
+         */
+        public void add(ModLong a) {
+            val = ring.sum(val, a.val);
+        }
+
+
+        /**
+         * Subtract a ModLong.
+         * @param a ModLong.
+         */
+        public void subtract(ModLong a) {
+            val = ring.subtract(val, a.val);
+        }
+
+
+        /**
+         * Add a product.
+         * @param a ModLong.
+         * @param b ModLong.
+         */
+        public void addMul(ModLong a, ModLong b) {
+            val = ring.sum(val, ring.multiply(a.val, b.val));
+        }
+
+
+        /**
+         * Subtract a product.
+         * @param a ModLong.
+         * @param b ModLong.
+         */
+        public void subMul(ModLong a, ModLong b) {
+            val = ring.subtract(val, ring.multiply(a.val, b.val));
+        }
+
+
+        /**
+         * Get the accumulated value.
+         * @return the accumulated value.
+         */
+        public ModLong getValue() {
+            return new ModLong(ring, val);
+        }
+
+    }
+
 }
 
 
@@ -9,11 +9,17 @@ package edu.jas.arith;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 
 /**
  * List of big primes. Provides an Iterator for generating prime numbers.
- * Similar to ALDES/SAC2 SACPOL.PRIME list.
+ * Similar to ALDES/SAC2 SACPOL.PRIME list. Primes beyond the fixed lists and
+ * primes of a requested bit size are generated with a segmented sieve and a
+ * deterministic Miller-Rabin test, they are also available as primitive long
+ * values with longIterator(). Primes of the form c 2^k + 1 for number
+ * theoretic transforms are generated with nttPrimes().
  * 
  * @author Heinz Kredel See Knuth vol 2,page 390, for list of known primes. See
  *         also ALDES/SAC2 SACPOL.PRIME
@@ -55,11 +61,49 @@ public final class PrimeList implements Iterable<java.math.BigInteger> {
 
 
     /**
-     * The last prime in the list.
+     * The last prime in the fixed list, or the upper bound for the primes.
      */
     private java.math.BigInteger last;
 
 
+    /**
+     * Number of primes in the fixed list.
+     */
+    private final int fixed;
+
+
+    /**
+     * Indicator if the primes are generated ascending after the fixed list.
+     */
+    private boolean ascending;
+
+
+    /**
+     * Indicator if the primes after the fixed list are larger than longs.
+     */
+    private boolean big;
+
+
+    /**
+     * Generator of the primes after the fixed list.
+     */
+    private PrimitiveIterator.OfLong gen;
+
+
+    /**
+     * Odd primes used for sieving, all primes less than 2^16.
+     */
+    private static final int[] SIEVE_PRIMES = sieve(1 << 16);
+
+
+    /**
+     * Bases for a deterministic Miller-Rabin test for all longs, see
+     * J. Sinclair.
+     */
+    private static final long[] MR_BASES = new long[] { 2L, 325L, 9375L, 28178L, 450775L, 9780504L,
+            1795265022L };
+
+
     /**
      * Constructor for PrimeList.
      */
@@ -75,6 +119,7 @@ public final class PrimeList implements Iterable<java.math.BigInteger> {
      */
     public PrimeList(Range r) {
         // initialize with some known primes, see knuth (2,390)
+        ascending = false;
         switch (r) {
         case small:
             if (SMALL_LIST != null) {
@@ -84,6 +129,7 @@ public final class PrimeList implements Iterable<java.math.BigInteger> {
                 addSmall();
                 SMALL_LIST = val;
             }
+            ascending = true;
             break;
         case low:
             if (LOW_LIST != null) {
@@ -121,9 +167,31 @@ public final class PrimeList implements Iterable<java.math.BigInteger> {
                 addMersenne();
                 MERSENNE_LIST = val;
             }
+            ascending = true;
             break;
         }
-        last = get(size() - 1);
+        val = new ArrayList<java.math.BigInteger>(val); // cached lists are not modified
+        fixed = val.size();
+        last = get(fixed - 1);
+        big = (last.bitLength() > 63); // Mersenne primes
+    }
+
+
+    /**
+     * Constructor for PrimeList with generated primes. The primes are
+     * generated in descending order, starting with the largest prime less than
+     * 2^bits.
+     * @param bits bit size of the primes, 2 &le; bits &le; 63.
+     */
+    public PrimeList(int bits) {
+        if (bits < 2 || bits > 63) {
+            throw new IllegalArgumentException("bits not in [2,63]: " + bits);
+        }
+        val = new ArrayList<java.math.BigInteger>(50);
+        fixed = 0;
+        last = java.math.BigInteger.ONE.shiftLeft(bits);
+        ascending = false;
+        big = false;
     }
 
 
@@ -360,20 +428,32 @@ public final class PrimeList implements Iterable<java.math.BigInteger> {
      * get prime at index i.
      */
     public java.math.BigInteger get(int i) {
-        java.math.BigInteger p;
-        if (i < size()) {
-            p = val.get(i);
-        } else if (i == size()) {
-            p = last.nextProbablePrime();
-            val.add(p);
-            last = p;
-        } else {
-            p = get(i-1);
-            p = last.nextProbablePrime();
-            val.add(p);
-            last = p;
+        while (i >= size()) {
+            if (big) { // large Mersenne primes
+                last = last.nextProbablePrime();
+                val.add(last);
+                continue;
+            }
+            if (gen == null) {
+                gen = generator();
+            }
+            val.add(java.math.BigInteger.valueOf(gen.nextLong()));
         }
-        return p;
+        return val.get(i);
+    }
+
+
+    /**
+     * Generator for the primes after the fixed list. The fixed lists are
+     * ascending or consist of descending groups of the largest primes less
+     * than a power of 2, so the generated primes are not in the list.
+     * @return iterator for the primes after last.
+     */
+    private PrimitiveIterator.OfLong generator() {
+        if (ascending) {
+            return new LongPrimeIterator(last.longValue() + 1L, true);
+        }
+        return new LongPrimeIterator(last.subtract(java.math.BigInteger.ONE).longValue(), false);
     }
 
 
@@ -404,4 +484,528 @@ public final class PrimeList implements Iterable<java.math.BigInteger> {
         };
     }
 
+
+    /**
+     * Iterator for primitive long primes. Returns the same primes as
+     * iterator(), but without BigInteger objects for the generated primes.
+     * @return long iterator.
+     * @throws ArithmeticException on next, if a prime is larger than a long.
+     */
+    public PrimitiveIterator.OfLong longIterator() {
+        return new PrimitiveIterator.OfLong() {
+
+
+            int index = 0;
+
+
+            PrimitiveIterator.OfLong rest = null;
+
+
+            public boolean hasNext() {
+                return true;
+            }
+
+
+            public long nextLong() {
+                if (index < fixed) {
+                    return val.get(index++).longValueExact();
+                }
+                if (rest == null) {
+                    if (big) {
+                        throw new ArithmeticException("prime larger than long");
+                    }
+                    rest = generator();
+                }
+                return rest.nextLong();
+            }
+        };
+    }
+
+
+    /**
+     * Primes for number theoretic transforms. Primes of the form p = c 2^k + 1
+     * less than 2^bits in descending order, so p - 1 is divisible by 2^k.
+     * @param bits bit size of the primes, bits &le; 63.
+     * @param k exponent of 2, 1 &le; k &lt; bits.
+     * @return iterator for the primes c 2^k + 1 for c descending.
+     */
+    public static PrimitiveIterator.OfLong nttPrimes(final int bits, final int k) {
+        if (bits > 63 || k < 1 || k >= bits) {
+            throw new IllegalArgumentException("bits = " + bits + ", k = " + k);
+        }
+        final long cmax = ((bits == 63 ? Long.MAX_VALUE : (1L << bits) - 1L) - 1L) >>> k;
+        return new PrimitiveIterator.OfLong() {
+
+
+            long c = cmax + 1L;
+
+
+            long next = 0L;
+
+
+            public boolean hasNext() {
+                while (next == 0L && c > 1L) {
+                    c--;
+                    long p = (c << k) + 1L;
+                    if (isPrime(p)) {
+                        next = p;
+                    }
+                }
+                return next != 0L;
+            }
+
+
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("no more primes c 2^" + k + " + 1");
+                }
+                long p = next;
+                next = 0L;
+                return p;
+            }
+        };
+    }
+
+
+    /**
+     * Primitive root modulo a prime. The prime factors of p - 1 are computed
+     * by trial division, so p - 1 must have at most one prime factor larger
+     * than 2^16. This is the case for the primes from nttPrimes() with
+     * 2^k &ge; 2^(bits-32).
+     * @param p prime.
+     * @return the smallest primitive root modulo p.
+     * @throws ArithmeticException if p - 1 could not be factored.
+     */
+    public static long primitiveRoot(long p) {
+        if (p == 2L) {
+            return 1L;
+        }
+        long q = p - 1L;
+        List<Long> fs = new ArrayList<Long>();
+        fs.add(2L);
+        q = q >>> Long.numberOfTrailingZeros(q);
+        for (int i = 1; i < SIEVE_PRIMES.length && q > 1L; i++) {
+            long f = SIEVE_PRIMES[i];
+            if (f * f > q) {
+                break;
+            }
+            if (q % f == 0L) {
+                fs.add(f);
+                do {
+                    q /= f;
+                } while (q % f == 0L);
+            }
+        }
+        if (q > 1L) {
+            if (q >= (1L << 32) && !isPrime(q)) {
+                throw new ArithmeticException("p-1 not factored, cofactor " + q);
+            }
+            fs.add(q);
+        }
+        long ninv = montInverse(p);
+        long r1 = Long.remainderUnsigned(-p, p); // 2^64 mod p
+        long r2 = montSquareR(r1, p);
+        for (long g = 2L; g < p; g++) {
+            long gm = montMul(g, r2, p, ninv);
+            boolean root = true;
+            for (Long f : fs) {
+                if (montPow(gm, (p - 1L) / f, r1, p, ninv) == r1) {
+                    root = false;
+                    break;
+                }
+            }
+            if (root) {
+                return g;
+            }
+        }
+        throw new ArithmeticException("no primitive root, p not prime: " + p);
+    }
+
+
+    /**
+     * Primitive root of unity modulo a prime.
+     * @param p prime.
+     * @param n order of the root, n | p - 1.
+     * @return w with w^n = 1 and w^m != 1 for 0 &lt; m &lt; n.
+     */
+    public static long rootOfUnity(long p, long n) {
+        if ((p - 1L) % n != 0L) {
+            throw new IllegalArgumentException("n does not divide p-1: " + n);
+        }
+        long g = primitiveRoot(p);
+        if (p == 2L) {
+            return g;
+        }
+        long ninv = montInverse(p);
+        long r1 = Long.remainderUnsigned(-p, p);
+        long r2 = montSquareR(r1, p);
+        long w = montPow(montMul(g, r2, p, ninv), (p - 1L) / n, r1, p, ninv);
+        return montMul(w, 1L, p, ninv); // from Montgomery form
+    }
+
+
+    /**
+     * Deterministic prime test for longs. Trial division by small primes and
+     * a Miller-Rabin test with a base set which is exact for all longs.
+     * @param n long.
+     * @return true, if n is prime, else false.
+     */
+    public static boolean isPrime(long n) {
+        if (n < 2L) {
+            return false;
+        }
+        if ((n & 1L) == 0L) {
+            return n == 2L;
+        }
+        for (int i = 1; i < 64; i++) {
+            long p = SIEVE_PRIMES[i];
+            if (p * p > n) {
+                return true;
+            }
+            if (n % p == 0L) {
+                return n == p;
+            }
+        }
+        return millerRabin(n);
+    }
+
+
+    /**
+     * Deterministic Miller-Rabin test.
+     * @param n odd long &gt; 3.
+     * @return true, if n is prime, else false.
+     */
+    private static boolean millerRabin(long n) {
+        long ninv = montInverse(n);
+        long one = Long.remainderUnsigned(-n, n); // 2^64 mod n
+        long mone = n - one;
+        long r2 = montSquareR(one, n);
+        long d = n - 1L;
+        int s = Long.numberOfTrailingZeros(d);
+        d >>>= s;
+        for (long a : MR_BASES) {
+            a = a % n;
+            if (a == 0L) {
+                continue;
+            }
+            long x = montPow(montMul(a, r2, n, ninv), d, one, n, ninv);
+            if (x == one || x == mone) {
+                continue;
+            }
+            boolean composite = true;
+            for (int i = 1; i < s; i++) {
+                x = montMul(x, x, n, ninv);
+                if (x == mone) {
+                    composite = false;
+                    break;
+                }
+            }
+            if (composite) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Montgomery inverse.
+     * @param n odd modul.
+     * @return -n^(-1) mod 2^64.
+     */
+    private static long montInverse(long n) {
+        long x = n; // correct to 3 bits
+        for (int i = 0; i < 5; i++) {
+            x *= 2L - n * x;
+        }
+        return -x;
+    }
+
+
+    /**
+     * Montgomery constant R^2 mod n.
+     * @param r1 R mod n, R = 2^64.
+     * @param n odd modul &lt; 2^63.
+     * @return R^2 mod n.
+     */
+    private static long montSquareR(long r1, long n) {
+        long x = r1;
+        for (int i = 0; i < 64; i++) {
+            x <<= 1;
+            if (Long.compareUnsigned(x, n) >= 0) {
+                x -= n;
+            }
+        }
+        return x;
+    }
+
+
+    /**
+     * Montgomery multiplication.
+     * @param a long, 0 &le; a &lt; n.
+     * @param b long, 0 &le; b &lt; n.
+     * @param n odd modul &lt; 2^63.
+     * @param ninv -n^(-1) mod 2^64.
+     * @return a b / 2^64 mod n.
+     */
+    private static long montMul(long a, long b, long n, long ninv) {
+        long hi = Math.multiplyHigh(a, b);
+        long lo = a * b;
+        long m = lo * ninv;
+        long mh = Math.multiplyHigh(m, n) + ((m >> 63) & n); // unsigned high part
+        long t = hi + mh + (lo != 0L ? 1L : 0L); // t < 2n
+        if (Long.compareUnsigned(t, n) >= 0) {
+            t -= n;
+        }
+        return t;
+    }
+
+
+    /**
+     * Montgomery power.
+     * @param a base in Montgomery form.
+     * @param e exponent &ge; 0.
+     * @param one 1 in Montgomery form.
+     * @param n odd modul &lt; 2^63.
+     * @param ninv -n^(-1) mod 2^64.
+     * @return a^e in Montgomery form.
+     */
+    private static long montPow(long a, long e, long one, long n, long ninv) {
+        long x = one;
+        while (e != 0L) {
+            if ((e & 1L) != 0L) {
+                x = montMul(x, a, n, ninv);
+            }
+            e >>>= 1;
+            if (e != 0L) {
+                a = montMul(a, a, n, ninv);
+            }
+        }
+        return x;
+    }
+
+
+    /**
+     * Sieve of Eratosthenes.
+     * @param n bound.
+     * @return array of all primes less than n.
+     */
+    private static int[] sieve(int n) {
+        boolean[] c = new boolean[n];
+        int k = 0;
+        for (int i = 2; i < n; i++) {
+            if (c[i]) {
+                continue;
+            }
+            k++;
+            for (long j = (long) i * i; j < n; j += i) {
+                c[(int) j] = true;
+            }
+        }
+        int[] ps = new int[k];
+        k = 0;
+        for (int i = 2; i < n; i++) {
+            if (!c[i]) {
+                ps[k++] = i;
+            }
+        }
+        return ps;
+    }
+
+
+    /**
+     * Iterator for long primes, generated with a segmented sieve of odd
+     * numbers and the Miller-Rabin test for the remaining candidates.
+     */
+    static final class LongPrimeIterator implements PrimitiveIterator.OfLong {
+
+
+        /**
+         * Number of odd numbers in a segment.
+         */
+        private static final int SEGMENT = 1 << 14;
+
+
+        /**
+         * Primes are generated ascending or descending.
+         */
+        private final boolean up;
+
+
+        /**
+         * First odd number of the current segment.
+         */
+        private long base;
+
+
+        /**
+         * Number of odd numbers in the current segment.
+         */
+        private int count;
+
+
+        /**
+         * Composite marks of the current segment.
+         */
+        private final boolean[] composite;
+
+
+        /**
+         * Next index in the current segment.
+         */
+        private int pos;
+
+
+        /**
+         * Next prime, or 0 if not yet computed.
+         */
+        private long next;
+
+
+        /**
+         * Indicator for 2 as next prime.
+         */
+        private boolean two;
+
+
+        /**
+         * Indicator for the end of the primes in the range.
+         */
+        private boolean end;
+
+
+        /**
+         * Constructor.
+         * @param start first number to test, start &ge; 0.
+         * @param up true for ascending, false for descending primes.
+         */
+        LongPrimeIterator(long start, boolean up) {
+            this.up = up;
+            composite = new boolean[SEGMENT];
+            end = false;
+            next = 0L;
+            if (up) {
+                two = (start <= 2L);
+                long b = Math.max(start, 3L);
+                segment((b & 1L) == 0L ? b + 1L : b);
+            } else {
+                two = (start >= 2L);
+                long t = ((start & 1L) == 0L ? start - 1L : start);
+                if (t < 3L) {
+                    end = true;
+                } else {
+                    segment(Math.max(3L, t - 2L * (SEGMENT - 1)), t);
+                }
+                pos = count - 1;
+            }
+        }
+
+
+        /**
+         * Sieve an ascending segment.
+         * @param b first odd number.
+         */
+        private void segment(long b) {
+            long t = (b > Long.MAX_VALUE - 2L * (SEGMENT - 1) ? Long.MAX_VALUE : b + 2L * (SEGMENT - 1));
+            segment(b, t);
+            pos = 0;
+        }
+
+
+        /**
+         * Sieve a segment of odd numbers.
+         * @param b first odd number.
+         * @param t last odd number.
+         */
+        private void segment(long b, long t) {
+            base = b;
+            count = (int) ((t - b) / 2L) + 1;
+            java.util.Arrays.fill(composite, 0, count, false);
+            for (int k = 1; k < SIEVE_PRIMES.length; k++) {
+                long p = SIEVE_PRIMES[k];
+                if (p * p > t) {
+                    break;
+                }
+                // first index i with b + 2 i = 0 mod p
+                long i = (((p - b % p) % p) * ((p + 1L) / 2L)) % p;
+                for (; i < count; i += p) {
+                    composite[(int) i] = true;
+                }
+                if (p >= b && p <= t) {
+                    composite[(int) ((p - b) / 2L)] = false;
+                }
+            }
+        }
+
+
+        /**
+         * Test if there is a next prime.
+         * @return true if a next prime exists.
+         */
+        public boolean hasNext() {
+            if (next != 0L) {
+                return true;
+            }
+            if (up && two) {
+                two = false;
+                next = 2L;
+                return true;
+            }
+            while (!end) {
+                if (up) {
+                    if (pos >= count) {
+                        long t = base + 2L * (count - 1);
+                        if (t >= Long.MAX_VALUE - 1L) {
+                            end = true;
+                            break;
+                        }
+                        segment(t + 2L);
+                    }
+                    long v = base + 2L * pos;
+                    pos++;
+                    if (!composite[pos - 1] && (v < (1L << 32) || millerRabin(v))) {
+                        next = v;
+                        return true;
+                    }
+                } else {
+                    if (pos < 0) {
+                        if (base <= 3L) {
+                            end = true;
+                            break;
+                        }
+                        long t = base - 2L;
+                        segment(Math.max(3L, t - 2L * (SEGMENT - 1)), t);
+                        pos = count - 1;
+                    }
+                    long v = base + 2L * pos;
+                    pos--;
+                    if (!composite[pos + 1] && (v < (1L << 32) || millerRabin(v))) {
+                        next = v;
+                        return true;
+                    }
+                }
+            }
+            if (!up && two) {
+                two = false;
+                next = 2L;
+                return true;
+            }
+            return false;
+        }
+
+
+        /**
+         * Get the next prime.
+         * @return next prime.
+         */
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("no more primes");
+            }
+            long p = next;
+            next = 0L;
+            return p;
+        }
+    }
+
 }
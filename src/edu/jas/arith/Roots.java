@@ -39,10 +39,10 @@ public class Roots {
             return A;
         }
         // ensure enough precision
-        int s = A.val.bitLength() + 2;
+        int s = A.getVal().bitLength() + 2;
         MathContext mc = new MathContext(s);
         //System.out.println("mc = " + mc);
-        BigDecimal Ap = new BigDecimal(A.val, mc);
+        BigDecimal Ap = new BigDecimal(A.getVal(), mc);
         //System.out.println("Ap = " + Ap);
         BigDecimal Ar = root(Ap, n);
         //System.out.println("Ar = " + Ar);
@@ -71,11 +71,11 @@ public class Roots {
             return A;
         }
         // ensure enough precision
-        int s = A.val.bitLength() + 2;
+        int s = A.getVal().bitLength() + 2;
         MathContext mc = new MathContext(s);
         //System.out.println("mc = " + mc);
         // newton iteration
-        BigDecimal Ap = new BigDecimal(A.val, mc);
+        BigDecimal Ap = new BigDecimal(A.getVal(), mc);
         //System.out.println("Ap = " + Ap);
         BigDecimal Ar = sqrt(Ap);
         //System.out.println("Ar = " + Ar);
@@ -110,14 +110,14 @@ public class Roots {
             return A;
         }
         BigInteger R, R1, d;
-        int log2 = A.val.bitLength();
+        int log2 = A.getVal().bitLength();
         //System.out.println("A = " + A + ", log2 = " + log2);
         int rootlog2 = log2 - log2 / 2;
-        R = new BigInteger(A.val.shiftRight(rootlog2));
+        R = new BigInteger(A.getVal().shiftRight(rootlog2));
         //System.out.println("R = " + R + ", rootlog2 = " + rootlog2);
         d = R;
         while (!d.isZERO()) {
-            d = new BigInteger(d.val.shiftRight(1)); // div 2
+            d = new BigInteger(d.getVal().shiftRight(1)); // div 2
             R1 = R.sum(d);
             s = A.compareTo(R1.multiply(R1));
             if (s == 0) {
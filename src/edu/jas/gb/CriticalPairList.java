@@ -343,4 +343,23 @@ public class CriticalPairList<C extends RingElem<C>> extends OrderedPairlist<C>
         return 0;
     }
 
+
+    /**
+     * Checkpoint of the pairlist state, not supported for critical pairs.
+     */
+    @Override
+    public GBCheckpoint<C> checkpoint() {
+        throw new UnsupportedOperationException("not supported in " + this.getClass().getName());
+    }
+
+
+    /**
+     * Restore the pairlist state, not supported for critical pairs.
+     * @param cp checkpoint of a pairlist state.
+     */
+    @Override
+    public void restore(GBCheckpoint<C> cp) {
+        throw new UnsupportedOperationException("not supported in " + this.getClass().getName());
+    }
+
 }
@@ -13,6 +13,7 @@ import org.apache.log4j.Logger;
 
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GeoBucket;
 import edu.jas.poly.GenSolvablePolynomial;
 import edu.jas.structure.RingElem;
 
@@ -181,9 +182,8 @@ public class DReductionSeq<C extends RingElem<C>> extends ReductionAbstract<C> i
         C r = null;
         boolean mt = false;
         GenPolynomial<C> R = Ap.ring.getZERO();
-        GenPolynomial<C> Q = null;
-        GenPolynomial<C> S = Ap;
-        while (S.length() > 0) {
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        while (!S.isZERO()) {
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
@@ -200,15 +200,15 @@ public class DReductionSeq<C extends RingElem<C>> extends ReductionAbstract<C> i
                 //logger.debug("irred");
                 R = R.sum(a, e);
                 //S = S.subtract( a, e ); 
-                S = S.reductum();
+                S.doRemoveLeadingMonomial();
                 //System.out.println(" S = " + S);
             } else {
                 //logger.info("red div = " + e);
                 ExpVector f = e.subtract(htl[i]);
                 C b = a.divide(lbc[i]);
                 R = R.sum(r, e);
-                Q = p[i].multiply(b, f);
-                S = S.reductum().subtract(Q.reductum()); // ok also with reductum
+                S.doRemoveLeadingMonomial();
+                S.subtractMultiple(b, f, p[i].reductum()); // ok also with reductum
             }
         }
         return R.abs();
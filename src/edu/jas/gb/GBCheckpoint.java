@@ -0,0 +1,258 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Checkpoint of a Groebner base computation. Holds the partial basis in
+ * pairlist order, the reduction matrix of outstanding pairs and the criterion
+ * flags of an OrderedPairlist. The pairs themselves are not stored, they are
+ * recomputed from the reduction matrix on restore. Polynomials are written
+ * term by term with the polynomial ring written only once.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ * @see edu.jas.gb.OrderedPairlist#checkpoint()
+ * @see edu.jas.gb.OrderedPairlist#restore(GBCheckpoint)
+ * @see edu.jas.gb.GBCheckpointer
+ */
+
+public class GBCheckpoint<C extends RingElem<C>> implements Serializable {
+
+
+    /**
+     * Number of module variables.
+     */
+    public final int modv;
+
+
+    /**
+     * Partial Groebner base in pairlist order.
+     */
+    public transient List<GenPolynomial<C>> list;
+
+
+    /**
+     * Reduction matrix, bit i of red.get(j) is set if pair (i,j) is
+     * outstanding.
+     */
+    public final List<BitSet> red;
+
+
+    /**
+     * One is contained in the ideal.
+     */
+    public final boolean oneInGB;
+
+
+    /**
+     * Use criterion 4.
+     */
+    public final boolean useCriterion4;
+
+
+    /**
+     * Number of polynomials put to the pairlist.
+     */
+    public final int putCount;
+
+
+    /**
+     * Number of pairs removed from the pairlist.
+     */
+    public final int remCount;
+
+
+    /**
+     * Constructor.
+     * @param modv number of module variables.
+     * @param list partial Groebner base in pairlist order.
+     * @param red reduction matrix.
+     * @param oneInGB true if one is contained in the ideal.
+     * @param useCriterion4 true if criterion 4 is used.
+     * @param putCount number of polynomials put to the pairlist.
+     * @param remCount number of pairs removed from the pairlist.
+     */
+    public GBCheckpoint(int modv, List<GenPolynomial<C>> list, List<BitSet> red, boolean oneInGB,
+                    boolean useCriterion4, int putCount, int remCount) {
+        if (list.size() != red.size()) {
+            throw new IllegalArgumentException("list and reduction matrix do not match");
+        }
+        this.modv = modv;
+        this.list = list;
+        this.red = red;
+        this.oneInGB = oneInGB;
+        this.useCriterion4 = useCriterion4;
+        this.putCount = putCount;
+        this.remCount = remCount;
+    }
+
+
+    /**
+     * Get the polynomial ring.
+     * @return the polynomial ring of the partial Groebner base, or null.
+     */
+    public GenPolynomialRing<C> getRing() {
+        if (list.isEmpty()) {
+            return null;
+        }
+        return list.get(0).ring;
+    }
+
+
+    /**
+     * Number of outstanding pairs.
+     * @return the number of set bits in the reduction matrix.
+     */
+    public int pairCount() {
+        int n = 0;
+        for (BitSet b : red) {
+            n += b.cardinality();
+        }
+        return n;
+    }
+
+
+    /**
+     * String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer("GBCheckpoint(");
+        s.append("#list=" + list.size());
+        s.append(", #pairs=" + pairCount());
+        s.append(", #put=" + putCount);
+        s.append(", #rem=" + remCount);
+        if (oneInGB) {
+            s.append(", oneInGB");
+        }
+        if (modv > 0) {
+            s.append(", modv=" + modv);
+        }
+        s.append(")");
+        return s.toString();
+    }
+
+
+    /**
+     * Write the polynomials term by term.
+     * @param out object output stream.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        GenPolynomialRing<C> ring = getRing();
+        out.writeObject(ring);
+        out.writeInt(list.size());
+        if (ring == null) {
+            return;
+        }
+        for (GenPolynomial<C> p : list) {
+            out.writeInt(p.length());
+            for (Map.Entry<ExpVector, C> m : p.getMap().entrySet()) {
+                ExpVector e = m.getKey();
+                for (int i = 0; i < ring.nvar; i++) {
+                    out.writeLong(e.getVal(i));
+                }
+                out.writeObject(m.getValue());
+            }
+        }
+    }
+
+
+    /**
+     * Read the polynomials term by term.
+     * @param in object input stream.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        GenPolynomialRing<C> ring = (GenPolynomialRing<C>) in.readObject();
+        int n = in.readInt();
+        list = new ArrayList<GenPolynomial<C>>(n);
+        if (ring == null) {
+            return;
+        }
+        for (int k = 0; k < n; k++) {
+            int l = in.readInt();
+            GenPolynomial<C> p = ring.getZERO().copy();
+            for (int t = 0; t < l; t++) {
+                long[] e = new long[ring.nvar];
+                for (int i = 0; i < e.length; i++) {
+                    e[i] = in.readLong();
+                }
+                C c = (C) in.readObject();
+                p.doPutToMap(ExpVector.create(e), c);
+            }
+            list.add(p);
+        }
+    }
+
+
+    /**
+     * Write this checkpoint to a file. The checkpoint is first written to a
+     * temporary file which then replaces the file, so an interrupted write
+     * leaves the previous checkpoint intact.
+     * @param filename name of the checkpoint file.
+     */
+    public void write(String filename) throws IOException {
+        File file = new File(filename);
+        File tmp = new File(filename + ".tmp");
+        ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new GZIPOutputStream(
+                        new FileOutputStream(tmp))));
+        try {
+            out.writeObject(this);
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file)) {
+            file.delete();
+            if (!tmp.renameTo(file)) {
+                throw new IOException("cannot rename " + tmp + " to " + file);
+            }
+        }
+    }
+
+
+    /**
+     * Read a checkpoint from a file.
+     * @param filename name of the checkpoint file.
+     * @return the checkpoint read from the file.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends RingElem<C>> GBCheckpoint<C> read(String filename) throws IOException {
+        ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new GZIPInputStream(
+                        new FileInputStream(filename))));
+        try {
+            return (GBCheckpoint<C>) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("invalid checkpoint file " + filename + ": " + e);
+        } finally {
+            in.close();
+        }
+    }
+
+}
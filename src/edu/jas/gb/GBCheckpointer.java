@@ -0,0 +1,298 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.poly.GenPolynomial;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Periodic checkpoints of a Groebner base computation. Parallel and
+ * distributed algorithms remove pairs from an OrderedPairlist and put the
+ * reduced S-polynomials back through this class. Pairs which are removed but
+ * not yet finished are recorded and set again in the reduction matrix of a
+ * checkpoint, so no pair is lost on restore. A checkpoint is written if the
+ * interval has passed since the last one. The time for writing is bounded by
+ * the overhead fraction of the computing time, for large lists the interval
+ * is enlarged accordingly.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ * @see edu.jas.gb.GBCheckpoint
+ * @see edu.jas.gb.GroebnerBaseParallel
+ * @see edu.jas.gb.GroebnerBaseDistributedHybridEC
+ */
+
+public class GBCheckpointer<C extends RingElem<C>> {
+
+
+    private static final Logger logger = Logger.getLogger(GBCheckpointer.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Default checkpoint interval in milliseconds.
+     */
+    public static final long DEFAULT_INTERVAL = 10L * 60L * 1000L;
+
+
+    /**
+     * Default maximal fraction of the time used for writing checkpoints.
+     */
+    public static final double DEFAULT_OVERHEAD = 0.05;
+
+
+    /**
+     * Name of the checkpoint file.
+     */
+    public final String filename;
+
+
+    /**
+     * Checkpoint interval in milliseconds.
+     */
+    public final long interval;
+
+
+    /**
+     * Maximal fraction of the time used for writing checkpoints.
+     */
+    public final double overhead;
+
+
+    /**
+     * The pairlist to checkpoint, also used as lock for the pending pairs.
+     */
+    protected OrderedPairlist<C> pairlist;
+
+
+    /**
+     * Removed but not finished pairs, encoded as (i,j).
+     */
+    protected final Set<Long> pending;
+
+
+    /**
+     * Time for the next checkpoint.
+     */
+    protected volatile long next;
+
+
+    /**
+     * A checkpoint is being written.
+     */
+    protected boolean writing;
+
+
+    /**
+     * Number of written checkpoints.
+     */
+    protected int count;
+
+
+    /**
+     * Total time for writing checkpoints.
+     */
+    protected long time;
+
+
+    /**
+     * Constructor.
+     * @param filename name of the checkpoint file.
+     */
+    public GBCheckpointer(String filename) {
+        this(filename, DEFAULT_INTERVAL);
+    }
+
+
+    /**
+     * Constructor.
+     * @param filename name of the checkpoint file.
+     * @param interval checkpoint interval in milliseconds.
+     */
+    public GBCheckpointer(String filename, long interval) {
+        this(filename, interval, DEFAULT_OVERHEAD);
+    }
+
+
+    /**
+     * Constructor.
+     * @param filename name of the checkpoint file.
+     * @param interval checkpoint interval in milliseconds.
+     * @param overhead maximal fraction of the time used for writing
+     *            checkpoints, 0 &lt; overhead &le; 1.
+     */
+    public GBCheckpointer(String filename, long interval, double overhead) {
+        if (filename == null) {
+            throw new IllegalArgumentException("no checkpoint file");
+        }
+        if (overhead <= 0.0 || overhead > 1.0) {
+            throw new IllegalArgumentException("overhead not in (0,1]: " + overhead);
+        }
+        this.filename = filename;
+        this.interval = Math.max(0L, interval);
+        this.overhead = overhead;
+        pending = new HashSet<Long>();
+    }
+
+
+    /**
+     * String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GBCheckpointer(" + filename + ", " + interval + ", " + overhead + ", #written=" + count
+                        + ", time=" + time + ")";
+    }
+
+
+    /**
+     * Start checkpoints for a new computation.
+     * @param pl pairlist of the computation, must be an OrderedPairlist.
+     */
+    public void start(PairList<C> pl) {
+        if (!(pl instanceof OrderedPairlist)) {
+            throw new IllegalArgumentException("checkpoints require an OrderedPairlist, not "
+                            + pl.getClass().getName());
+        }
+        synchronized (pl) {
+            pairlist = (OrderedPairlist<C>) pl;
+            pending.clear();
+        }
+        next = System.currentTimeMillis() + interval;
+    }
+
+
+    /**
+     * Key of a pair.
+     * @param i first index.
+     * @param j second index.
+     * @return key for (i,j).
+     */
+    static Long key(int i, int j) {
+        return Long.valueOf(((long) i << 32) | (j & 0xffffffffL));
+    }
+
+
+    /**
+     * Remove the next pair from the pairlist and record it as pending.
+     * @return the next pair if one exists, otherwise null.
+     */
+    public Pair<C> removeNext() {
+        Pair<C> pair;
+        synchronized (pairlist) {
+            pair = pairlist.removeNext();
+            if (pair != null) {
+                pending.add(key(pair.i, pair.j));
+            }
+        }
+        return pair;
+    }
+
+
+    /**
+     * Put the reduced S-polynomial of a pending pair to the pairlist.
+     * @param i first index of the pair.
+     * @param j second index of the pair.
+     * @param H reduced S-polynomial, non zero.
+     * @return the index of the added polynomial.
+     */
+    public int put(int i, int j, GenPolynomial<C> H) {
+        int k;
+        synchronized (pairlist) {
+            if (H.isONE()) {
+                k = pairlist.putOne();
+            } else {
+                k = pairlist.put(H);
+            }
+            pending.remove(key(i, j));
+        }
+        update();
+        return k;
+    }
+
+
+    /**
+     * Finish a pending pair with S-polynomial reduced to zero.
+     * @param i first index of the pair.
+     * @param j second index of the pair.
+     */
+    public void done(int i, int j) {
+        synchronized (pairlist) {
+            pending.remove(key(i, j));
+        }
+        update();
+    }
+
+
+    /**
+     * Checkpoint of the pairlist with the pending pairs set as outstanding.
+     * @return the current checkpoint.
+     */
+    public GBCheckpoint<C> checkpoint() {
+        GBCheckpoint<C> cp;
+        synchronized (pairlist) {
+            cp = pairlist.checkpoint();
+            if (!cp.oneInGB) {
+                for (Long k : pending) {
+                    long ij = k.longValue();
+                    int i = (int) (ij >>> 32);
+                    int j = (int) ij;
+                    cp.red.get(j).set(i);
+                }
+            }
+        }
+        return cp;
+    }
+
+
+    /**
+     * Write a checkpoint if the interval has passed. Only one thread writes,
+     * the other threads continue with their reductions.
+     * @return true if a checkpoint was written, else false.
+     */
+    public boolean update() {
+        if (System.currentTimeMillis() < next) {
+            return false;
+        }
+        synchronized (this) {
+            if (writing || System.currentTimeMillis() < next) {
+                return false;
+            }
+            writing = true;
+        }
+        long t = System.currentTimeMillis();
+        try {
+            GBCheckpoint<C> cp = checkpoint();
+            cp.write(filename);
+            if (debug) {
+                logger.debug("written " + cp);
+            }
+        } catch (IOException e) {
+            logger.warn("checkpoint " + filename + " not written: " + e);
+        } finally {
+            long s = System.currentTimeMillis();
+            t = s - t;
+            synchronized (this) {
+                count++;
+                time += t;
+                next = s + Math.max(interval, (long) (t / overhead));
+                writing = false;
+            }
+        }
+        logger.info("checkpoint " + count + " written in " + t + " milliseconds");
+        return true;
+    }
+
+}
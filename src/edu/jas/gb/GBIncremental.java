@@ -0,0 +1,247 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Incremental Groebner base computation. A session starts with a Groebner
+ * base and accepts new polynomials. The pairlist is kept between the
+ * additions, so only pairs involving the new polynomials are formed and the
+ * pairs of the initial Groebner base are never considered. The collected
+ * polynomials are interreduced lazily, when the reduced Groebner base is
+ * requested. Coefficients must be from a field.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ * @see edu.jas.gb.GroebnerBaseAbstract#incremental(int,GenPolynomialRing,List)
+ */
+
+public class GBIncremental<C extends RingElem<C>> {
+
+
+    private static final Logger logger = Logger.getLogger(GBIncremental.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Groebner base engine for reduction, pair strategy and interreduction.
+     */
+    public final GroebnerBaseAbstract<C> bb;
+
+
+    /**
+     * Polynomial ring.
+     */
+    public final GenPolynomialRing<C> ring;
+
+
+    /**
+     * Number of module variables.
+     */
+    public final int modv;
+
+
+    /**
+     * Pairlist of the session.
+     */
+    protected final PairList<C> pairlist;
+
+
+    /**
+     * Groebner base in pairlist order, not interreduced.
+     */
+    protected final List<GenPolynomial<C>> G;
+
+
+    /**
+     * Head term index of G.
+     */
+    protected final HeadTermIndex<C> index;
+
+
+    /**
+     * Reduced Groebner base of G, or null if not yet computed.
+     */
+    protected List<GenPolynomial<C>> reduced;
+
+
+    /**
+     * Constructor.
+     * @param bb Groebner base engine.
+     * @param modv number of module variables.
+     * @param ring polynomial ring.
+     * @param Gp Groebner base to start with.
+     */
+    public GBIncremental(GroebnerBaseAbstract<C> bb, int modv, GenPolynomialRing<C> ring,
+                    List<GenPolynomial<C>> Gp) {
+        if (!ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        this.bb = bb;
+        this.modv = modv;
+        this.ring = ring;
+        G = PolyUtil.<C> monic(bb.normalizeZerosOnes(Gp));
+        pairlist = bb.strategy.create(modv, ring);
+        if (G.size() == 1 && G.get(0).isONE()) {
+            pairlist.putOne();
+        } else {
+            pairlist.setList(G);
+        }
+        index = new HeadTermIndex<C>(G);
+        reduced = null;
+    }
+
+
+    /**
+     * String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GBIncremental(#G=" + G.size() + ", " + pairlist + ")";
+    }
+
+
+    /**
+     * Test if one is contained in the ideal.
+     * @return true, if the Groebner base is (1), else false.
+     */
+    public boolean isONE() {
+        return G.size() == 1 && G.get(0).isONE();
+    }
+
+
+    /**
+     * Add a polynomial and complete the Groebner base.
+     * @param f polynomial.
+     * @return true, if the ideal has changed, else false.
+     */
+    public boolean add(GenPolynomial<C> f) {
+        List<GenPolynomial<C>> F = new ArrayList<GenPolynomial<C>>(1);
+        F.add(f);
+        return add(F);
+    }
+
+
+    /**
+     * Add polynomials and complete the Groebner base. Polynomials which
+     * reduce to zero with respect to the current Groebner base are not
+     * added.
+     * @param F list of polynomials.
+     * @return true, if the ideal has changed, else false.
+     */
+    public boolean add(List<GenPolynomial<C>> F) {
+        if (F == null || F.isEmpty() || isONE()) {
+            return false;
+        }
+        boolean changed = false;
+        for (GenPolynomial<C> f : F) {
+            if (f == null || f.isZERO()) {
+                continue;
+            }
+            GenPolynomial<C> h = bb.red.normalform(index, f);
+            if (h.isZERO()) {
+                continue;
+            }
+            changed = true;
+            if (putNew(h.monic())) {
+                return true;
+            }
+        }
+        if (!changed) {
+            return false;
+        }
+        logger.info("start " + pairlist);
+        complete();
+        logger.info("end " + pairlist);
+        return true;
+    }
+
+
+    /**
+     * Put a new monic polynomial to the session.
+     * @param H polynomial in normalform.
+     * @return true, if H is one, else false.
+     */
+    protected boolean putNew(GenPolynomial<C> H) {
+        reduced = null;
+        if (H.isONE()) {
+            G.clear();
+            G.add(H);
+            pairlist.putOne();
+            return true;
+        }
+        G.add(H);
+        index.add(H);
+        pairlist.put(H);
+        return false;
+    }
+
+
+    /**
+     * Reduce the outstanding pairs.
+     */
+    protected void complete() {
+        Pair<C> pair;
+        GenPolynomial<C> S, H;
+        while (pairlist.hasNext()) {
+            pair = pairlist.removeNext();
+            if (pair == null) {
+                continue;
+            }
+            S = bb.red.SPolynomial(pair.pi, pair.pj);
+            if (S.isZERO()) {
+                pair.setZero();
+                continue;
+            }
+            H = bb.red.normalform(index, S);
+            if (H.isZERO()) {
+                pair.setZero();
+                continue;
+            }
+            if (debug) {
+                logger.debug("ht(H) = " + H.leadingExpVector());
+            }
+            if (putNew(H.monic())) {
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Get the Groebner base. The polynomials are interreduced on the first
+     * call after an addition.
+     * @return the reduced Groebner base.
+     */
+    public List<GenPolynomial<C>> getGB() {
+        if (reduced == null) {
+            reduced = bb.minimalGB(new ArrayList<GenPolynomial<C>>(G));
+        }
+        return new ArrayList<GenPolynomial<C>>(reduced);
+    }
+
+
+    /**
+     * Get the Groebner base without interreduction.
+     * @return the Groebner base in pairlist order.
+     */
+    public List<GenPolynomial<C>> getList() {
+        return new ArrayList<GenPolynomial<C>>(G);
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.jas.poly.ExpVector;
+
+
+/**
+ * Groebner base trace. Records the steps of a sequential Groebner base
+ * computation which produced a new polynomial. A step consists of the
+ * indexes of the polynomials of the critical pair, the indexes of the
+ * polynomials used in the reduction of the S-polynomial and the head term of
+ * the normalform. The indexes refer to the list of monic input polynomials
+ * extended by the normalforms of the previous steps. Zero reductions are not
+ * recorded. The trace is serializable and can be reused for other
+ * coefficient rings.
+ * @author Heinz Kredel
+ * @see edu.jas.gb.GroebnerBaseSeqTrace
+ */
+
+public class GBTrace implements Serializable {
+
+
+    /**
+     * Step of a Groebner base trace.
+     */
+    public static final class Step implements Serializable {
+
+
+        /**
+         * Index of the first polynomial of the pair.
+         */
+        public final int i;
+
+
+        /**
+         * Index of the second polynomial of the pair.
+         */
+        public final int j;
+
+
+        /**
+         * Indexes of the reducers in ascending order.
+         */
+        public final int[] reducers;
+
+
+        /**
+         * Head term of the normalform.
+         */
+        public final ExpVector ht;
+
+
+        /**
+         * Constructor.
+         * @param i index of the first polynomial.
+         * @param j index of the second polynomial.
+         * @param reducers indexes of the used reducers.
+         * @param ht head term of the normalform.
+         */
+        public Step(int i, int j, int[] reducers, ExpVector ht) {
+            this.i = i;
+            this.j = j;
+            this.reducers = reducers;
+            this.ht = ht;
+        }
+
+
+        /**
+         * String representation of the step.
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return "(" + i + "," + j + ") " + Arrays.toString(reducers) + " -> " + ht;
+        }
+    }
+
+
+    /**
+     * Number of variables.
+     */
+    public final int nvar;
+
+
+    /**
+     * Module variable number.
+     */
+    public final int modv;
+
+
+    /**
+     * Head terms of the monic input polynomials.
+     */
+    public final List<ExpVector> input;
+
+
+    /**
+     * Steps producing new polynomials.
+     */
+    public final List<Step> steps;
+
+
+    /**
+     * Constructor.
+     * @param nvar number of variables.
+     * @param modv module variable number.
+     * @param input head terms of the input polynomials.
+     */
+    public GBTrace(int nvar, int modv, List<ExpVector> input) {
+        this.nvar = nvar;
+        this.modv = modv;
+        this.input = input;
+        this.steps = new ArrayList<Step>();
+    }
+
+
+    /**
+     * Add a step.
+     * @param s step of the trace.
+     */
+    public void add(Step s) {
+        steps.add(s);
+    }
+
+
+    /**
+     * Number of steps.
+     * @return number of recorded steps.
+     */
+    public int size() {
+        return steps.size();
+    }
+
+
+    /**
+     * String representation of the trace.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GBTrace(nvar=" + nvar + ", modv=" + modv + ", input=" + input + ", steps=" + steps + ")";
+    }
+
+}
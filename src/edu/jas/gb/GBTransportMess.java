@@ -72,12 +72,37 @@ final class GBTransportMessPoly<C extends RingElem<C>> extends GBTransportMess {
     public final GenPolynomial<C> pol;
 
 
+    /**
+     * First index of the reduced pair, or -1.
+     */
+    public final int i;
+
+
+    /**
+     * Second index of the reduced pair, or -1.
+     */
+    public final int j;
+
+
     /**
      * GBTransportMessPoly.
      * @param p polynomial to transfered.
      */
     public GBTransportMessPoly(GenPolynomial<C> p) {
+        this(p, -1, -1);
+    }
+
+
+    /**
+     * GBTransportMessPoly.
+     * @param p polynomial to transfered.
+     * @param i first index of the reduced pair.
+     * @param j second index of the reduced pair.
+     */
+    public GBTransportMessPoly(GenPolynomial<C> p, int i, int j) {
         this.pol = p;
+        this.i = i;
+        this.j = j;
     }
 
 
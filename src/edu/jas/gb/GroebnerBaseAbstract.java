@@ -252,7 +252,7 @@ public abstract class GroebnerBaseAbstract<C extends RingElem<C>> implements Gro
         for (int k = 0; k < i; k++) {
             GenPolynomial<C> A = P.get(k);
             ExpVector ek = A.leadingExpVector();
-            if (eij.multipleOf(ek)) {
+            if (eij.multipleOfMasked(ek)) {
                 return false;
             }
         }
@@ -330,6 +330,58 @@ public abstract class GroebnerBaseAbstract<C extends RingElem<C>> implements Gro
     }
 
 
+    /**
+     * Incremental Groebner base session.
+     * @param modv module variable number.
+     * @param ring polynomial ring.
+     * @param G a Groebner base.
+     * @return a session which extends G by new polynomials.
+     */
+    public GBIncremental<C> incremental(int modv, GenPolynomialRing<C> ring, List<GenPolynomial<C>> G) {
+        return new GBIncremental<C>(this, modv, ring, G);
+    }
+
+
+    /**
+     * Groebner base of a Groebner base extended by polynomials.
+     * @param G a Groebner base.
+     * @param F polynomial list.
+     * @return GB(G+F) a Groebner base of G+F.
+     */
+    public List<GenPolynomial<C>> GB(List<GenPolynomial<C>> G, List<GenPolynomial<C>> F) {
+        return GB(0, G, F);
+    }
+
+
+    /**
+     * Groebner base of a Groebner base extended by polynomials. Only pairs
+     * with the polynomials of F are considered, if the coefficients are from
+     * a field.
+     * @param modv module variable number.
+     * @param G a Groebner base.
+     * @param F polynomial list.
+     * @return GB(G+F) a Groebner base of G+F.
+     */
+    public List<GenPolynomial<C>> GB(int modv, List<GenPolynomial<C>> G, List<GenPolynomial<C>> F) {
+        if (F == null || F.isEmpty()) {
+            return G;
+        }
+        if (G == null || G.isEmpty()) {
+            return GB(modv, F);
+        }
+        GenPolynomialRing<C> ring = G.get(0).ring;
+        if (!ring.coFac.isField()) {
+            List<GenPolynomial<C>> L = new ArrayList<GenPolynomial<C>>(G.size() + F.size());
+            L.addAll(G);
+            L.addAll(F);
+            return GB(modv, L);
+        }
+        GBIncremental<C> gbi = incremental(modv, ring, G);
+        gbi.add(F);
+        return gbi.getGB();
+    }
+
+
     /**
      * isGB.
      * @param M a module basis.
@@ -685,13 +737,13 @@ public abstract class GroebnerBaseAbstract<C extends RingElem<C>> implements Gro
             while (it.hasNext() && !mt) {
                 p = it.next();
                 f = p.leadingExpVector();
-                mt = e.multipleOf(f);
+                mt = e.multipleOfMasked(f);
             }
             it = F.listIterator();
             while (it.hasNext() && !mt) {
                 p = it.next();
                 f = p.leadingExpVector();
-                mt = e.multipleOf(f);
+                mt = e.multipleOfMasked(f);
             }
             //System.out.println("k, mt = " + k + ", " + mt);
             if (!mt) {
@@ -34,9 +34,12 @@ import edu.jas.util.ThreadPool;
  * Groebner Base distributed hybrid algorithm. Implements a distributed memory
  * with multi-core CPUs parallel version of Groebner bases with executable
  * channels. Using pairlist class, distributed multi-threaded tasks do
- * reduction, one communication channel per remote node.
+ * reduction, one communication channel per remote node. With a
+ * GBCheckpointer the state of the computation is written periodically and can
+ * be resumed with resume().
  * @param <C> coefficient type
  * @author Heinz Kredel
+ * @see edu.jas.gb.GBCheckpointer
  */
 
 public class GroebnerBaseDistributedHybridEC<C extends RingElem<C>> extends GroebnerBaseAbstract<C> {
@@ -115,6 +118,12 @@ public class GroebnerBaseDistributedHybridEC<C extends RingElem<C>> extends Groe
     private final transient DistHashTableServer<Integer> dhts;
 
 
+    /**
+     * Checkpoints of the computation, or null.
+     */
+    protected transient GBCheckpointer<C> checkpointer;
+
+
     /**
      * Message tag for pairs.
      */
@@ -273,6 +282,24 @@ public class GroebnerBaseDistributedHybridEC<C extends RingElem<C>> extends Groe
     }
 
 
+    /**
+     * Get the checkpointer.
+     * @return the checkpointer, or null.
+     */
+    public GBCheckpointer<C> getCheckpointer() {
+        return checkpointer;
+    }
+
+
+    /**
+     * Set the checkpointer. Checkpoints require an OrderedPairlist strategy.
+     * @param cp checkpointer to use, or null for no checkpoints.
+     */
+    public void setCheckpointer(GBCheckpointer<C> cp) {
+        checkpointer = cp;
+    }
+
+
     /**
      * Distributed Groebner base.
      * @param modv number of module variables.
@@ -302,6 +329,39 @@ public class GroebnerBaseDistributedHybridEC<C extends RingElem<C>> extends Groe
     }
 
 
+    /**
+     * Distributed Groebner base resumed from a checkpoint.
+     * @param cp checkpoint of a parallel or distributed computation.
+     * @return GB(F) a Groebner base of the ideal of the checkpoint.
+     */
+    public List<GenPolynomial<C>> resume(GBCheckpoint<C> cp) {
+        GenPolynomialRing<C> ring = cp.getRing();
+        if (ring == null) {
+            return new ArrayList<GenPolynomial<C>>();
+        }
+        if (!ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        PairList<C> pairlist = strategy.create(cp.modv, ring);
+        if (!(pairlist instanceof OrderedPairlist)) {
+            throw new IllegalArgumentException("resume requires an OrderedPairlist, not "
+                            + pairlist.getClass().getName());
+        }
+        ((OrderedPairlist<C>) pairlist).restore(cp);
+
+        String master = dtp.getEC().getMasterHost();
+        GBHybridExerClient<C> gbc = new GBHybridExerClient<C>(master, threadsPerNode, port, DHT_PORT);
+        for (int i = 0; i < threads; i++) {
+            // schedule remote clients
+            dtp.addJob(gbc);
+        }
+        // run master
+        logger.info("resume " + pairlist);
+        List<GenPolynomial<C>> G = GBMaster(pairlist);
+        return G;
+    }
+
+
     /**
      * Distributed hybrid Groebner base.
      * @param modv number of module variables.
@@ -309,10 +369,6 @@ public class GroebnerBaseDistributedHybridEC<C extends RingElem<C>> extends Groe
      * @return GB(F) a Groebner base of F or null, if a IOException occurs.
      */
     List<GenPolynomial<C>> GBMaster(int modv, List<GenPolynomial<C>> F) {
-        long t = System.currentTimeMillis();
-        ChannelFactory cf = new ChannelFactory(port);
-        cf.init();
-
         List<GenPolynomial<C>> G = F;
         if (G.isEmpty()) {
             throw new IllegalArgumentException("empty polynomial list not allowed");
@@ -363,6 +419,24 @@ public class GroebnerBaseDistributedHybridEC<C extends RingElem<C>> extends Groe
         //return G; must signal termination to others
         //}
         */
+        return GBMaster(pairlist);
+    }
+
+
+    /**
+     * Distributed hybrid Groebner base of a prepared pairlist.
+     * @param pairlist the pairlist with the polynomials.
+     * @return a Groebner base of the polynomials of the pairlist.
+     */
+    List<GenPolynomial<C>> GBMaster(PairList<C> pairlist) {
+        long t = System.currentTimeMillis();
+        ChannelFactory cf = new ChannelFactory(port);
+        cf.init();
+        List<GenPolynomial<C>> G;
+        GBCheckpointer<C> cpr = checkpointer;
+        if (cpr != null) {
+            cpr.start(pairlist);
+        }
         logger.info("start " + pairlist);
         DistHashTable<Integer, GenPolynomial<C>> theList = new DistHashTable<Integer, GenPolynomial<C>>(
                         "localhost", DHT_PORT);
@@ -380,7 +454,7 @@ public class GroebnerBaseDistributedHybridEC<C extends RingElem<C>> extends Groe
         HybridReducerServerEC<C> R;
         logger.info("using pool = " + pool);
         for (int i = 0; i < threads; i++) {
-            R = new HybridReducerServerEC<C>(threadsPerNode, finner, cf, theList, pairlist);
+            R = new HybridReducerServerEC<C>(threadsPerNode, finner, cf, theList, pairlist, cpr);
             pool.addJob(R);
             //logger.info("server submitted " + R);
         }
@@ -413,6 +487,9 @@ public class GroebnerBaseDistributedHybridEC<C extends RingElem<C>> extends Groe
         theList.terminate();
         t = System.currentTimeMillis() - t;
         logger.info("server GB end, time = " + t + ", " + pairlist.toString());
+        if (cpr != null) {
+            logger.info("server GB end, " + cpr);
+        }
         return G;
     }
 
@@ -576,6 +653,9 @@ class HybridReducerServerEC<C extends RingElem<C>> implements Runnable {
     private final PairList<C> pairlist;
 
 
+    private final GBCheckpointer<C> checkpointer;
+
+
     private final int threadsPerNode;
 
 
@@ -607,11 +687,27 @@ class HybridReducerServerEC<C extends RingElem<C>> implements Runnable {
      */
     HybridReducerServerEC(int tpn, Terminator fin, ChannelFactory cf,
                     DistHashTable<Integer, GenPolynomial<C>> dl, PairList<C> L) {
+        this(tpn, fin, cf, dl, L, null);
+    }
+
+
+    /**
+     * Constructor.
+     * @param tpn number of threads per node
+     * @param fin terminator
+     * @param cf channel factory
+     * @param dl distributed hash table
+     * @param L ordered pair list
+     * @param cp checkpointer or null
+     */
+    HybridReducerServerEC(int tpn, Terminator fin, ChannelFactory cf,
+                    DistHashTable<Integer, GenPolynomial<C>> dl, PairList<C> L, GBCheckpointer<C> cp) {
         threadsPerNode = tpn;
         finner = fin;
         this.cf = cf;
         theList = dl;
         pairlist = L;
+        checkpointer = cp;
         //logger.info("reducer server created " + this);
     }
 
@@ -643,7 +739,7 @@ class HybridReducerServerEC<C extends RingElem<C>> implements Runnable {
 
         // start receiver
         HybridReducerReceiverEC<C> receiver = new HybridReducerReceiverEC<C>(/*threadsPerNode,*/finner,
-                        active, pairChannel, theList, pairlist);
+                        active, pairChannel, theList, pairlist, checkpointer);
         receiver.start();
 
         Pair<C> pair;
@@ -708,7 +804,11 @@ class HybridReducerServerEC<C extends RingElem<C>> implements Runnable {
                 break; //continue; //break?
             }
             finner.notIdle(); // before pairlist get!!
-            pair = pairlist.removeNext();
+            if (checkpointer == null) {
+                pair = pairlist.removeNext();
+            } else {
+                pair = checkpointer.removeNext();
+            }
             // send pair to client, even if null
             if (debug) {
                 logger.info("active count = " + active.get());
@@ -788,6 +888,9 @@ class HybridReducerReceiverEC<C extends RingElem<C>> extends Thread {
     private final PairList<C> pairlist;
 
 
+    private final GBCheckpointer<C> checkpointer;
+
+
     private final TaggedSocketChannel pairChannel;
 
 
@@ -828,16 +931,18 @@ class HybridReducerReceiverEC<C extends RingElem<C>> extends Thread {
      * @param pc tagged socket channel
      * @param dl distributed hash table
      * @param L ordered pair list
+     * @param cp checkpointer or null
      */
     //param tpn number of threads per node
     HybridReducerReceiverEC(/*int tpn,*/Terminator fin, AtomicInteger a, TaggedSocketChannel pc,
-                    DistHashTable<Integer, GenPolynomial<C>> dl, PairList<C> L) {
+                    DistHashTable<Integer, GenPolynomial<C>> dl, PairList<C> L, GBCheckpointer<C> cp) {
         active = a;
         //threadsPerNode = tpn;
         finner = fin;
         pairChannel = pc;
         theList = dl;
         pairlist = L;
+        checkpointer = cp;
         goon = true;
         //logger.info("reducer server created " + this);
     }
@@ -904,7 +1009,11 @@ class HybridReducerReceiverEC<C extends RingElem<C>> extends Thread {
                     if (debug) {
                         logger.info("H = " + H.leadingExpVector());
                     }
-                    if (!H.isZERO()) {
+                    if (!H.isZERO() && checkpointer != null) {
+                        // record pair as finished
+                        polIndex = checkpointer.put(mpi.i, mpi.j, H);
+                        theList.putWait(Integer.valueOf(polIndex), H);
+                    } else if (!H.isZERO()) {
                         if (H.isONE()) {
                             // finner.allIdle();
                             polIndex = pairlist.putOne();
@@ -920,6 +1029,9 @@ class HybridReducerReceiverEC<C extends RingElem<C>> extends Thread {
                         }
                     }
                 }
+                if ((H == null || H.isZERO()) && checkpointer != null && mpi.i >= 0) {
+                    checkpointer.done(mpi.i, mpi.j);
+                }
             }
             // only after recording in pairlist !
             finner.initIdle(1);
@@ -1078,6 +1190,7 @@ class HybridReducerClientEC<C extends RingElem<C>> implements Runnable {
                 logger.info("received pair = " + pp);
             }
             H = null;
+            pix = pjx = -1;
             if (pp == null) { // should not happen
                 continue;
             }
@@ -1094,6 +1207,8 @@ class HybridReducerClientEC<C extends RingElem<C>> implements Runnable {
                     if (pair != null) {
                         pi = pair.pi;
                         pj = pair.pj;
+                        pix = pair.i;
+                        pjx = pair.j;
                         //logger.debug("pair: pix = " + pair.i 
                         //               + ", pjx = " + pair.j);
                     }
@@ -1143,7 +1258,7 @@ class HybridReducerClientEC<C extends RingElem<C>> implements Runnable {
                 logger.debug("send H polynomial = " + H);
             }
             try {
-                pairChannel.send(resultTag, new GBTransportMessPoly<C>(H)); //,threadId));
+                pairChannel.send(resultTag, new GBTransportMessPoly<C>(H, pix, pjx)); //,threadId));
                 doEnd = false;
             } catch (IOException e) {
                 goon = false;
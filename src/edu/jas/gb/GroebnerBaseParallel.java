@@ -24,10 +24,12 @@ import edu.jas.util.ThreadPool;
 
 /**
  * Groebner Base parallel algortihm. Implements a shared memory parallel version
- * of Groebner bases.
+ * of Groebner bases. With a GBCheckpointer the state of the computation is
+ * written periodically and can be resumed with resume().
  * @param <C> coefficient type
  * @author Heinz Kredel
  * 
+ * @see edu.jas.gb.GBCheckpointer
  * @see edu.jas.application.GBAlgorithmBuilder
  * @see edu.jas.gbufd.GBFactory
  */
@@ -50,6 +52,12 @@ public class GroebnerBaseParallel<C extends RingElem<C>> extends GroebnerBaseAbs
     protected transient final ThreadPool pool;
 
 
+    /**
+     * Checkpoints of the computation, or null.
+     */
+    protected transient GBCheckpointer<C> checkpointer;
+
+
     /**
      * Constructor.
      */
@@ -162,6 +170,24 @@ public class GroebnerBaseParallel<C extends RingElem<C>> extends GroebnerBaseAbs
     }
 
 
+    /**
+     * Get the checkpointer.
+     * @return the checkpointer, or null.
+     */
+    public GBCheckpointer<C> getCheckpointer() {
+        return checkpointer;
+    }
+
+
+    /**
+     * Set the checkpointer. Checkpoints require an OrderedPairlist strategy.
+     * @param cp checkpointer to use, or null for no checkpoints.
+     */
+    public void setCheckpointer(GBCheckpointer<C> cp) {
+        checkpointer = cp;
+    }
+
+
     /**
      * Parallel Groebner base using pairlist class.
      * @param modv number of module variables.
@@ -181,10 +207,52 @@ public class GroebnerBaseParallel<C extends RingElem<C>> extends GroebnerBaseAbs
         PairList<C> pairlist = strategy.create(modv, ring);
         pairlist.put(G);
         logger.info("start " + pairlist);
+        return parallelGB(G, pairlist);
+    }
 
+
+    /**
+     * Parallel Groebner base resumed from a checkpoint.
+     * @param cp checkpoint of a parallel or distributed computation.
+     * @return GB(F) a Groebner base of the ideal of the checkpoint.
+     */
+    public List<GenPolynomial<C>> resume(GBCheckpoint<C> cp) {
+        GenPolynomialRing<C> ring = cp.getRing();
+        if (ring == null) {
+            return new ArrayList<GenPolynomial<C>>();
+        }
+        if (!ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        PairList<C> pairlist = strategy.create(cp.modv, ring);
+        if (!(pairlist instanceof OrderedPairlist)) {
+            throw new IllegalArgumentException("resume requires an OrderedPairlist, not "
+                            + pairlist.getClass().getName());
+        }
+        ((OrderedPairlist<C>) pairlist).restore(cp);
+        List<GenPolynomial<C>> G = new ArrayList<GenPolynomial<C>>(pairlist.getList());
+        if (cp.oneInGB) {
+            return G;
+        }
+        logger.info("resume " + pairlist);
+        return parallelGB(G, pairlist);
+    }
+
+
+    /**
+     * Parallel Groebner base of a prepared pairlist.
+     * @param G polynomial list of the pairlist.
+     * @param pairlist the pairlist.
+     * @return a Groebner base of G.
+     */
+    protected List<GenPolynomial<C>> parallelGB(List<GenPolynomial<C>> G, PairList<C> pairlist) {
+        GBCheckpointer<C> cp = checkpointer;
+        if (cp != null) {
+            cp.start(pairlist);
+        }
         Terminator fin = new Terminator(threads);
         for (int i = 0; i < threads; i++) {
-            Reducer<C> R = new Reducer<C>(fin, G, pairlist);
+            Reducer<C> R = new Reducer<C>(fin, G, pairlist, cp);
             pool.addJob(R);
         }
         fin.waitDone();
@@ -195,6 +263,9 @@ public class GroebnerBaseParallel<C extends RingElem<C>> extends GroebnerBaseAbs
         G = minimalGB(G);
         // not in this context // pool.terminate();
         logger.info("end   " + pairlist);
+        if (cp != null) {
+            logger.info("end   " + cp);
+        }
         return G;
     }
 
@@ -301,14 +372,23 @@ class Reducer<C extends RingElem<C>> implements Runnable {
     private final ReductionPar<C> red;
 
 
+    private final GBCheckpointer<C> checkpointer;
+
+
     private static final Logger logger = Logger.getLogger(Reducer.class);
 
 
     Reducer(Terminator fin, List<GenPolynomial<C>> G, PairList<C> L) {
+        this(fin, G, L, null);
+    }
+
+
+    Reducer(Terminator fin, List<GenPolynomial<C>> G, PairList<C> L, GBCheckpointer<C> cp) {
         this.fin = fin;
         this.fin.initIdle(1);
         this.G = G;
         pairlist = L;
+        checkpointer = cp;
         red = new ReductionPar<C>();
     }
 
@@ -328,10 +408,13 @@ class Reducer<C extends RingElem<C>> implements Runnable {
         //boolean set = false;
         int reduction = 0;
         int sleeps = 0;
-        while (pairlist.hasNext() || fin.hasJobs()) {
-            while (!pairlist.hasNext()) {
-                // wait
-                //fin.beIdle(); set = true;
+        while (true) {
+            long events = fin.getEvents(); // before pairlist check, no put is lost
+            if (!pairlist.hasNext()) {
+                if (!fin.hasJobs()) {
+                    break;
+                }
+                // wait for pairlist.put or termination
                 try {
                     sleeps++;
                     if (sleeps % 10 == 0) {
@@ -339,7 +422,7 @@ class Reducer<C extends RingElem<C>> implements Runnable {
                     } else {
                         logger.debug("r");
                     }
-                    Thread.sleep(100);
+                    fin.waitWork(events);
                 } catch (InterruptedException e) {
                     fin.allIdle();
                     logger.info("shutdown " + fin + " after: " + e);
@@ -347,25 +430,20 @@ class Reducer<C extends RingElem<C>> implements Runnable {
                     break;
                 }
                 if (Thread.currentThread().isInterrupted()) {
-                    //fin.initIdle(1);
                     fin.allIdle();
                     logger.info("shutdown after .isInterrupted(): " + fin);
                     //throw new RuntimeException("interrupt 2 in pairlist.hasNext loop");
                     break;
                 }
-                if (!fin.hasJobs()) {
-                    break;
-                }
-            }
-            if (!pairlist.hasNext() && !fin.hasJobs()) {
-                break;
+                continue;
             }
-            //if ( set ) {
-            //fin.notIdle(); set = false;
-            //}
 
             fin.notIdle(); // before pairlist get
-            pair = pairlist.removeNext();
+            if (checkpointer == null) {
+                pair = pairlist.removeNext();
+            } else {
+                pair = checkpointer.removeNext();
+            }
             if (Thread.currentThread().isInterrupted()) {
                 fin.initIdle(1);
                 throw new RuntimeException("interrupt after removeNext");
@@ -385,6 +463,9 @@ class Reducer<C extends RingElem<C>> implements Runnable {
             S = red.SPolynomial(pi, pj);
             if (S.isZERO()) {
                 pair.setZero();
+                if (checkpointer != null) {
+                    checkpointer.done(pair.i, pair.j);
+                }
                 fin.initIdle(1);
                 continue;
             }
@@ -396,6 +477,9 @@ class Reducer<C extends RingElem<C>> implements Runnable {
             reduction++;
             if (H.isZERO()) {
                 pair.setZero();
+                if (checkpointer != null) {
+                    checkpointer.done(pair.i, pair.j);
+                }
                 fin.initIdle(1);
                 continue;
             }
@@ -407,7 +491,7 @@ class Reducer<C extends RingElem<C>> implements Runnable {
             // System.out.println("H   = " + H);
             if (H.isONE()) {
                 // putOne not required
-                pairlist.put(H);
+                put(pair, H);
                 synchronized (G) {
                     G.clear();
                     G.add(H);
@@ -421,12 +505,26 @@ class Reducer<C extends RingElem<C>> implements Runnable {
             synchronized (G) {
                 G.add(H);
             }
-            pairlist.put(H);
+            put(pair, H);
             fin.initIdle(1);
         }
         fin.allIdle();
         logger.info("terminated, done " + reduction + " reductions");
     }
+
+
+    /**
+     * Put the reduced S-polynomial of a pair to the pairlist.
+     * @param pair the reduced pair.
+     * @param H reduced S-polynomial, non zero.
+     */
+    private void put(Pair<C> pair, GenPolynomial<C> H) {
+        if (checkpointer == null) {
+            pairlist.put(H);
+        } else {
+            checkpointer.put(pair.i, pair.j, H);
+        }
+    }
 }
 
 
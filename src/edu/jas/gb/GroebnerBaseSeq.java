@@ -12,6 +12,7 @@ import org.apache.log4j.Logger;
 
 import edu.jas.structure.RingElem;
 import edu.jas.gb.OrderedPairlist;
+import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.PolyUtil;
@@ -86,8 +87,10 @@ public class GroebnerBaseSeq<C extends RingElem<C>>
         if ( ! ring.coFac.isField() ) {
             throw new IllegalArgumentException("coefficients not from a field");
         }
+        long[] ms0 = ExpVector.maskStatistics();
         PairList<C> pairlist = strategy.create( modv, ring ); 
         pairlist.put(G);
+        HeadTermIndex<C> index = new HeadTermIndex<C>(G);
 
         /*
           GenPolynomial<C> p;
@@ -147,7 +150,7 @@ public class GroebnerBaseSeq<C extends RingElem<C>>
                 logger.debug("ht(S) = " + S.leadingExpVector() );
             }
 
-            H = red.normalform( G, S );
+            H = red.normalform( index, S );
             if ( debug ) {
                 //logger.info("pair = " + pair); 
                 //logger.info("ht(S) = " + S.monic()); //.leadingExpVector() );
@@ -175,12 +178,18 @@ public class GroebnerBaseSeq<C extends RingElem<C>>
             if ( H.length() > 0 ) {
                 //l++;
                 G.add( H );
+                index.add( H );
                 pairlist.put( H );
             }
         }
         logger.debug("#sequential list = " + G.size());
         G = minimalGB(G);
         logger.info("end " + pairlist); 
+        if (debug) {
+            long[] ms = ExpVector.maskStatistics();
+            logger.debug("divisor mask tests = " + (ms[0] - ms0[0]) + ", decided by mask = "
+                            + (ms[1] - ms0[1]));
+        }
         return G;
     }
 
@@ -0,0 +1,194 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.PolynomialList;
+import edu.jas.poly.TermOrder;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Groebner Base sequential Hilbert series driven algorithm. For homogeneous
+ * input polynomials and a known Hilbert series of the ideal, e.g. from a
+ * Groebner base with respect to another term order or modulo a lucky prime,
+ * the critical pairs are treated by ascending degree. In each degree the
+ * Hilbert function of the current leading term ideal is compared with the
+ * known Hilbert function, every new polynomial reduces the difference by
+ * one. When the difference is zero, the remaining pairs of this degree reduce
+ * to zero and are skipped. Without a Hilbert series or for non homogeneous
+ * input the sequential algorithm is used.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ * @see C. Traverso, Hilbert functions and the Buchberger algorithm, J.
+ *      Symbolic Computation 22 (1996).
+ * @see edu.jas.gb.HilbertSeries
+ * @see edu.jas.gbufd.GroebnerBaseWalk
+ */
+
+public class GroebnerBaseSeqHilbert<C extends RingElem<C>> extends GroebnerBaseSeq<C> {
+
+
+    private static final Logger logger = Logger.getLogger(GroebnerBaseSeqHilbert.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Hilbert series of the ideal, or null.
+     */
+    protected HilbertSeries hilbert;
+
+
+    /**
+     * Constructor.
+     */
+    public GroebnerBaseSeqHilbert() {
+        this((HilbertSeries) null);
+    }
+
+
+    /**
+     * Constructor.
+     * @param hs Hilbert series of the ideal, or null.
+     */
+    public GroebnerBaseSeqHilbert(HilbertSeries hs) {
+        super();
+        hilbert = hs;
+    }
+
+
+    /**
+     * Constructor.
+     * @param red Reduction engine
+     * @param pl pair selection strategy
+     * @param hs Hilbert series of the ideal, or null.
+     */
+    public GroebnerBaseSeqHilbert(Reduction<C> red, PairList<C> pl, HilbertSeries hs) {
+        super(red, pl);
+        hilbert = hs;
+    }
+
+
+    /**
+     * String representation of the GB algorithm implementation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GroebnerBaseSeqHilbert(" + hilbert + ")";
+    }
+
+
+    /**
+     * Get the Hilbert series.
+     * @return the Hilbert series of the ideal, or null.
+     */
+    public HilbertSeries getHilbertSeries() {
+        return hilbert;
+    }
+
+
+    /**
+     * Set the Hilbert series.
+     * @param hs Hilbert series of the ideal, or null.
+     */
+    public void setHilbertSeries(HilbertSeries hs) {
+        hilbert = hs;
+    }
+
+
+    /**
+     * Groebner base using pairlist class and Hilbert series.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @return GB(F) a Groebner base of F.
+     */
+    @Override
+    public List<GenPolynomial<C>> GB(int modv, List<GenPolynomial<C>> F) {
+        List<GenPolynomial<C>> G = normalizeZerosOnes(F);
+        G = PolyUtil.<C> monic(G);
+        if (G.size() <= 1) {
+            return G;
+        }
+        GenPolynomialRing<C> ring = G.get(0).ring;
+        if (!ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        if (hilbert == null || modv != 0 || hilbert.nvar != ring.nvar
+                        || !new PolynomialList<C>(ring, G).isHomogeneous()) {
+            logger.info("no Hilbert series or not homogeneous, using sequential algorithm");
+            return super.GB(modv, F);
+        }
+        // pairs by ascending degree, independent of the term order
+        GenPolynomialRing<C> gring = new GenPolynomialRing<C>(ring, new TermOrder(TermOrder.IGRLEX));
+        PairList<C> pairlist = strategy.create(modv, gring);
+        pairlist.put(G);
+        HeadTermIndex<C> index = new HeadTermIndex<C>(G);
+        logger.info("start " + pairlist);
+
+        Pair<C> pair;
+        GenPolynomial<C> S, H;
+        long deg = -1L;
+        long diff = 0L;
+        int skipped = 0;
+        while (pairlist.hasNext()) {
+            pair = pairlist.removeNext();
+            if (pair == null) {
+                continue;
+            }
+            long d = pair.pi.leadingExpVector().lcm(pair.pj.leadingExpVector()).totalDeg();
+            if (d != deg) {
+                deg = d;
+                diff = HilbertSeries.leadingTermSeries(G).hilbertFunction(d) - hilbert.hilbertFunction(d);
+                if (diff < 0) {
+                    logger.warn("wrong Hilbert series in degree " + d + ": " + hilbert);
+                }
+                if (debug) {
+                    logger.debug("degree = " + d + ", missing leading terms = " + diff);
+                }
+            }
+            if (diff == 0L) {
+                skipped++;
+                continue;
+            }
+            S = red.SPolynomial(pair.pi, pair.pj);
+            if (S.isZERO()) {
+                pair.setZero();
+                continue;
+            }
+            H = red.normalform(index, S);
+            if (H.isZERO()) {
+                pair.setZero();
+                continue;
+            }
+            H = H.monic();
+            if (H.isONE()) {
+                G.clear();
+                G.add(H);
+                pairlist.putOne();
+                logger.info("end " + pairlist);
+                return G;
+            }
+            diff--;
+            G.add(H);
+            index.add(H);
+            pairlist.put(H);
+        }
+        logger.info("#sequential list = " + G.size() + ", skipped pairs = " + skipped);
+        G = minimalGB(G);
+        logger.info("end " + pairlist);
+        return G;
+    }
+
+}
@@ -314,12 +314,19 @@ class ReducerSeqPair<C extends RingElem<C>> implements Runnable {
         boolean set = false;
         int reduction = 0;
         int sleeps = 0;
-        while (pairlist.hasNext() || fin.hasJobs()) {
-            while (!pairlist.hasNext()) {
+        while (true) {
+            long events = fin.getEvents(); // before pairlist check, no put is lost
+            if (!pairlist.hasNext()) {
                 pairlist.update();
-                // wait
-                fin.beIdle();
-                set = true;
+                if (!set) {
+                    fin.beIdle();
+                    set = true;
+                    continue;
+                }
+                if (!fin.hasJobs()) {
+                    break;
+                }
+                // wait for pairlist.put or termination
                 try {
                     sleeps++;
                     if (sleeps % 10 == 0) {
@@ -327,7 +334,7 @@ class ReducerSeqPair<C extends RingElem<C>> implements Runnable {
                     } else {
                         logger.debug("r");
                     }
-                    Thread.sleep(100);
+                    fin.waitWork(events);
                 } catch (InterruptedException e) {
                     fin.allIdle();
                     logger.info("shutdown " + fin + " after: " + e);
@@ -340,12 +347,7 @@ class ReducerSeqPair<C extends RingElem<C>> implements Runnable {
                     //throw new RuntimeException("interrupt 2 in pairlist.hasNext loop");
                     break;
                 }
-                if (!fin.hasJobs()) {
-                    break;
-                }
-            }
-            if (!pairlist.hasNext() && !fin.hasJobs()) {
-                break;
+                continue;
             }
             if (set) {
                 fin.notIdle();
@@ -366,6 +368,7 @@ class ReducerSeqPair<C extends RingElem<C>> implements Runnable {
             S = red.SPolynomial(pair.pi, pair.pj);
             if (S.isZERO()) {
                 pairlist.record(pair, S);
+                fin.notifyWork();
                 continue;
             }
             if (logger.isDebugEnabled()) {
@@ -375,6 +378,7 @@ class ReducerSeqPair<C extends RingElem<C>> implements Runnable {
             reduction++;
             if (H.isZERO()) {
                 pairlist.record(pair, H);
+                fin.notifyWork();
                 continue;
             }
             if (logger.isDebugEnabled()) {
@@ -399,6 +403,7 @@ class ReducerSeqPair<C extends RingElem<C>> implements Runnable {
                 G.add(H);
             }
             pairlist.update(pair, H);
+            fin.notifyWork();
             //pairlist.record( pair, H );
             //pairlist.update();
         }
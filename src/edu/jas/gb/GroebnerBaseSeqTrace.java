@@ -0,0 +1,271 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Groebner Base sequential algorithm with trace learning and replay. If no
+ * trace is present, the first computation runs the sequential algorithm and
+ * records the pairs with non-zero normalforms and the used reducers in a
+ * GBTrace. Further computations for input polynomials of the same shape, for
+ * example modulo other primes, replay only the recorded steps and skip the
+ * pair selection and the zero reductions. If the trace diverges, i.e. a head
+ * term differs from the recorded one, the full sequential algorithm is used.
+ * Over infinite coefficient rings, e.g. BigRational, the replayed result is
+ * checked to be a Groebner base. Over finite fields the replayed result is
+ * not checked, as usual for modular algorithms.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ * @see edu.jas.gb.GBTrace
+ * @see edu.jas.gb.GroebnerBaseSeq
+ */
+
+public class GroebnerBaseSeqTrace<C extends RingElem<C>> extends GroebnerBaseSeq<C> {
+
+
+    private static final Logger logger = Logger.getLogger(GroebnerBaseSeqTrace.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Learned or given trace, or null.
+     */
+    protected GBTrace trace;
+
+
+    /**
+     * Constructor.
+     */
+    public GroebnerBaseSeqTrace() {
+        this((GBTrace) null);
+    }
+
+
+    /**
+     * Constructor.
+     * @param trace Groebner base trace to replay, or null.
+     */
+    public GroebnerBaseSeqTrace(GBTrace trace) {
+        super();
+        this.trace = trace;
+    }
+
+
+    /**
+     * Constructor.
+     * @param red Reduction engine
+     * @param pl pair selection strategy
+     */
+    public GroebnerBaseSeqTrace(Reduction<C> red, PairList<C> pl) {
+        super(red, pl);
+        this.trace = null;
+    }
+
+
+    /**
+     * String representation of the GB algorithm implementation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GroebnerBaseSeqTrace(" + (trace == null ? "learn" : "replay " + trace.size()) + ")";
+    }
+
+
+    /**
+     * Get the trace.
+     * @return the learned or given trace, or null.
+     */
+    public GBTrace getTrace() {
+        return trace;
+    }
+
+
+    /**
+     * Set the trace.
+     * @param trace Groebner base trace to replay, or null to learn a new
+     *            trace.
+     */
+    public void setTrace(GBTrace trace) {
+        this.trace = trace;
+    }
+
+
+    /**
+     * Groebner base with trace learning or replay.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @return GB(F) a Groebner base of F.
+     */
+    @Override
+    public List<GenPolynomial<C>> GB(int modv, List<GenPolynomial<C>> F) {
+        List<GenPolynomial<C>> G = normalizeZerosOnes(F);
+        G = PolyUtil.<C> monic(G);
+        if (G.size() <= 1) {
+            return G;
+        }
+        GenPolynomialRing<C> ring = G.get(0).ring;
+        if (!ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        if (trace == null) {
+            return learn(modv, G);
+        }
+        List<GenPolynomial<C>> R = replay(modv, G);
+        if (R != null) {
+            return R;
+        }
+        logger.info("trace diverged, using sequential algorithm");
+        return super.GB(modv, F);
+    }
+
+
+    /**
+     * Groebner base with trace learning. The recorded trace is available
+     * with getTrace().
+     * @param modv module variable number.
+     * @param G list of monic non-zero polynomials.
+     * @return GB(G) a Groebner base of G.
+     */
+    protected List<GenPolynomial<C>> learn(int modv, List<GenPolynomial<C>> G) {
+        GenPolynomialRing<C> ring = G.get(0).ring;
+        List<ExpVector> input = new ArrayList<ExpVector>(G.size());
+        for (GenPolynomial<C> g : G) {
+            input.add(g.leadingExpVector());
+        }
+        GBTrace T = new GBTrace(ring.nvar, modv, input);
+        PairList<C> pairlist = strategy.create(modv, ring);
+        pairlist.put(G);
+        logger.info("start " + pairlist);
+
+        Pair<C> pair;
+        GenPolynomial<C> S, H;
+        while (pairlist.hasNext()) {
+            pair = pairlist.removeNext();
+            if (pair == null) {
+                continue;
+            }
+            S = red.SPolynomial(pair.pi, pair.pj);
+            if (S.isZERO()) {
+                pair.setZero();
+                continue;
+            }
+            // row of used reducers, the cofactors are not needed
+            List<GenPolynomial<C>> row = new ArrayList<GenPolynomial<C>>(G.size());
+            for (int m = 0; m < G.size(); m++) {
+                row.add(null);
+            }
+            H = red.normalform(row, G, S);
+            if (H.isZERO()) {
+                pair.setZero();
+                continue;
+            }
+            H = H.monic();
+            int n = 0;
+            for (GenPolynomial<C> r : row) {
+                if (r != null) {
+                    n++;
+                }
+            }
+            int[] reducers = new int[n];
+            n = 0;
+            for (int m = 0; m < row.size(); m++) {
+                if (row.get(m) != null) {
+                    reducers[n++] = m;
+                }
+            }
+            GBTrace.Step s = new GBTrace.Step(pair.i, pair.j, reducers, H.leadingExpVector());
+            if (debug) {
+                logger.debug("step = " + s);
+            }
+            T.add(s);
+            if (H.isONE()) {
+                G.clear();
+                G.add(H);
+                pairlist.putOne();
+                trace = T;
+                logger.info("end " + pairlist);
+                return G;
+            }
+            G.add(H);
+            pairlist.put(H);
+        }
+        trace = T;
+        logger.info("learned trace with " + T.size() + " steps");
+        G = minimalGB(G);
+        logger.info("end " + pairlist);
+        return G;
+    }
+
+
+    /**
+     * Groebner base with trace replay.
+     * @param modv module variable number.
+     * @param G list of monic non-zero polynomials.
+     * @return GB(G) a Groebner base of G, or null if the trace diverged.
+     */
+    protected List<GenPolynomial<C>> replay(int modv, List<GenPolynomial<C>> G) {
+        GBTrace T = trace;
+        GenPolynomialRing<C> ring = G.get(0).ring;
+        if (T.nvar != ring.nvar || T.modv != modv || T.input.size() != G.size()) {
+            return null;
+        }
+        for (int k = 0; k < G.size(); k++) {
+            if (!T.input.get(k).equals(G.get(k).leadingExpVector())) {
+                return null;
+            }
+        }
+        for (GBTrace.Step s : T.steps) {
+            if (s.i >= G.size() || s.j >= G.size()) {
+                return null;
+            }
+            GenPolynomial<C> S = red.SPolynomial(G.get(s.i), G.get(s.j));
+            List<GenPolynomial<C>> P = new ArrayList<GenPolynomial<C>>(s.reducers.length);
+            for (int m : s.reducers) {
+                if (m >= G.size()) {
+                    return null;
+                }
+                P.add(G.get(m));
+            }
+            GenPolynomial<C> H = red.normalform(P, S);
+            if (H.isZERO() || !s.ht.equals(H.leadingExpVector())) {
+                if (debug) {
+                    logger.debug("diverged at step = " + s);
+                }
+                return null;
+            }
+            H = H.monic();
+            if (H.isONE()) {
+                G.clear();
+                G.add(H);
+                return G;
+            }
+            G.add(H);
+        }
+        G = minimalGB(G);
+        if (!ring.coFac.isFinite()) {
+            if (!isGB(modv, G)) {
+                logger.info("replayed trace is not a Groebner base");
+                return null;
+            }
+        }
+        return G;
+    }
+
+}
@@ -0,0 +1,432 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.OrderedPolynomialList;
+import edu.jas.poly.PolyUtil;
+import edu.jas.structure.RingElem;
+import edu.jas.util.ThreadPool;
+
+
+/**
+ * Groebner Base signature based parallel iterative algorithm. Runs the
+ * algorithm of a sequential signature based variant, i.e.
+ * GroebnerBaseSigSeqIter, GroebnerBaseGGVSigSeqIter,
+ * GroebnerBaseArriSigSeqIter or GroebnerBaseF5zSigSeqIter, and uses its
+ * S-polynomials, normalforms and criteria. The next pairs of the current
+ * signature degree, in the order the sequential algorithm would treat them,
+ * are reduced in parallel with respect to the current basis. The results
+ * are then committed sequentially in this order: the criteria are checked
+ * again with the updated syzygies and treated polynomials, and a normalform
+ * is completed with respect to the polynomials committed meanwhile. So the
+ * pairs, criteria and the basis are the same as in the sequential algorithm,
+ * the pairs removed by the criteria during a commit are reduced in vain.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ *
+ * @see edu.jas.application.GBAlgorithmBuilder
+ * @see edu.jas.gb.GroebnerBaseSigSeqIter
+ */
+
+public class GroebnerBaseSigParIter<C extends RingElem<C>> extends GroebnerBaseAbstract<C> {
+
+
+    private static final Logger logger = Logger.getLogger(GroebnerBaseSigParIter.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Sequential signature based algorithm with the criteria to use.
+     */
+    protected final GroebnerBaseSigSeqIter<C> sgb;
+
+
+    /**
+     * Number of threads to use.
+     */
+    protected final int threads;
+
+
+    /**
+     * Pool of threads to use.
+     */
+    protected transient final ThreadPool pool;
+
+
+    /**
+     * Constructor.
+     */
+    public GroebnerBaseSigParIter() {
+        this(2);
+    }
+
+
+    /**
+     * Constructor. Uses the GGV criteria.
+     * @param threads number of threads to use.
+     */
+    public GroebnerBaseSigParIter(int threads) {
+        this(new GroebnerBaseGGVSigSeqIter<C>(), threads);
+    }
+
+
+    /**
+     * Constructor.
+     * @param sgb sequential signature based algorithm variant.
+     * @param threads number of threads to use.
+     */
+    public GroebnerBaseSigParIter(GroebnerBaseSigSeqIter<C> sgb, int threads) {
+        this(sgb, threads, new ThreadPool(threads));
+    }
+
+
+    /**
+     * Constructor.
+     * @param sgb sequential signature based algorithm variant.
+     * @param threads number of threads to use.
+     * @param pool ThreadPool to use.
+     */
+    public GroebnerBaseSigParIter(GroebnerBaseSigSeqIter<C> sgb, int threads, ThreadPool pool) {
+        super();
+        if (threads < 1) {
+            threads = 1;
+        }
+        this.sgb = sgb;
+        this.threads = threads;
+        this.pool = pool;
+    }
+
+
+    /**
+     * String representation of the GB algorithm implementation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + sgb.getClass().getSimpleName() + ", " + threads + ")";
+    }
+
+
+    /**
+     * Cleanup and terminate ThreadPool.
+     */
+    @Override
+    public void terminate() {
+        if (pool == null) {
+            return;
+        }
+        pool.terminate();
+    }
+
+
+    /**
+     * Cancel ThreadPool.
+     */
+    @Override
+    public int cancel() {
+        if (pool == null) {
+            return 0;
+        }
+        int s = pool.cancel();
+        return s;
+    }
+
+
+    /**
+     * Groebner base signature parallel iterative algorithm.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @return GB(F) a Groebner base of F.
+     */
+    public List<GenPolynomial<C>> GB(int modv, List<GenPolynomial<C>> F) {
+        List<GenPolynomial<C>> G = normalizeZerosOnes(F);
+        G = PolyUtil.<C> monic(G);
+        if (G.size() <= 1) {
+            return G;
+        }
+        // sort, no reverse
+        G = OrderedPolynomialList.<C> sortDegree(G);
+        logger.info("G-sort = " + G);
+        List<GenPolynomial<C>> Gp = new ArrayList<GenPolynomial<C>>();
+        for (GenPolynomial<C> p : G) {
+            if (debug) {
+                logger.info("p = " + p);
+            }
+            GenPolynomial<C> pp = red.normalform(Gp, p);
+            if (pp.isZERO()) {
+                continue;
+            }
+            Gp = GB(modv, Gp, p);
+            if (Gp.size() > 0) {
+                if (Gp.get(0).isONE()) {
+                    return Gp;
+                }
+            }
+        }
+        return Gp;
+    }
+
+
+    /**
+     * Groebner base parallel iterated.
+     * @param modv module variable number.
+     * @param G polynomial list of a Groebner base.
+     * @param f polynomial.
+     * @return GB(G,f) a Groebner base of G+(f).
+     */
+    public List<GenPolynomial<C>> GB(int modv, List<GenPolynomial<C>> G, GenPolynomial<C> f) {
+        List<GenPolynomial<C>> F = new ArrayList<GenPolynomial<C>>(G);
+        GenPolynomial<C> g = f.monic();
+        if (F.isEmpty()) {
+            F.add(g);
+            return F; // commutative
+        }
+        if (g.isZERO()) {
+            return F;
+        }
+        if (g.isONE()) {
+            F.clear();
+            F.add(g);
+            return F;
+        }
+        GenPolynomialRing<C> ring = F.get(0).ring;
+        if (!ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        if (modv != 0) {
+            throw new UnsupportedOperationException("motv != 0 not implemented");
+        }
+        // add signatures
+        List<SigPoly<C>> Gs = new ArrayList<SigPoly<C>>();
+        for (GenPolynomial<C> p : F) {
+            Gs.add(new SigPoly<C>(ring.getZERO(), p));
+        }
+        SigPoly<C> gs = new SigPoly<C>(ring.getONE(), g);
+        Gs.add(gs);
+        // construct critical pair list
+        List<SigPair<C>> pairlist = new ArrayList<SigPair<C>>();
+        for (SigPoly<C> p : Gs) {
+            if (p.equals(gs)) {
+                continue;
+            }
+            pairlist.add(sgb.newPair(gs, p, Gs));
+        }
+        logger.info("start " + pairlist.size());
+
+        List<ExpVector> syz = sgb.initializeSyz(F, Gs);
+        List<SigPoly<C>> done = new ArrayList<SigPoly<C>>();
+
+        SigReductionSeq<C> sred = sgb.sred;
+        int reductions = 0;
+        int vain = 0;
+        while (!pairlist.isEmpty()) {
+            pairlist = sgb.pruneP(pairlist, syz);
+            if (pairlist.isEmpty()) {
+                continue;
+            }
+            List<SigPair<C>>[] spl = sred.minDegSubset(pairlist);
+            List<SigPair<C>> Sl = spl[0];
+            long mdeg = sred.minimalSigDegree(Sl);
+            pairlist = spl[1];
+            logger.info("treating " + Sl.size() + " signatures of degree " + mdeg);
+            while (!Sl.isEmpty()) {
+                Sl = sgb.pruneS(Sl, syz, done, Gs);
+                if (Sl.isEmpty()) {
+                    continue;
+                }
+                Sl = sred.sortSigma(Sl);
+                // reduce the next pairs in parallel
+                int n = Math.min(Sl.size(), threads);
+                List<SigPair<C>> block = new ArrayList<SigPair<C>>(Sl.subList(0, n));
+                List<SigPoly<C>> Gb = new ArrayList<SigPoly<C>>(Gs);
+                @SuppressWarnings("cast")
+                SigReducerIter<C>[] reducers = (SigReducerIter<C>[]) new SigReducerIter[n];
+                for (int i = 0; i < n; i++) {
+                    reducers[i] = new SigReducerIter<C>(sgb, F, Gb, block.get(i));
+                    pool.addJob(reducers[i]);
+                }
+                reductions += n;
+                // commit in the order of the sequential algorithm
+                int committed = 0;
+                while (!Sl.isEmpty()) {
+                    if (committed > 0) {
+                        Sl = sgb.pruneS(Sl, syz, done, Gs);
+                        if (Sl.isEmpty()) {
+                            continue;
+                        }
+                        Sl = sred.sortSigma(Sl);
+                    }
+                    SigPair<C> pair = Sl.get(0);
+                    int i = 0;
+                    while (i < n && block.get(i) != pair) { // identity, not equals
+                        i++;
+                    }
+                    if (i >= n) {
+                        break; // not reduced in this block
+                    }
+                    Sl.remove(0);
+                    committed++;
+                    SigPoly<C> Hs = reducers[i].getNF();
+                    if (!Hs.poly.isZERO() && Gs.size() > Gb.size()) {
+                        Hs = sgb.sigNormalform(F, Gs, Hs); // complete with new polynomials
+                    }
+                    GenPolynomial<C> H = Hs.poly;
+                    GenPolynomial<C> sigma = Hs.sigma;
+                    if (H.isZERO()) {
+                        sgb.updateSyz(syz, Hs);
+                        done.add(Hs);
+                        continue;
+                    }
+                    H = H.monic();
+                    if (debug) {
+                        logger.info("ht(H) = " + H.leadingExpVector());
+                    }
+                    if (H.isONE()) {
+                        G.clear();
+                        G.add(H);
+                        logger.info("end " + pairlist);
+                        return G; // the remaining reducers run out
+                    }
+                    if (sred.isSigRedundant(Gs, Hs)) {
+                        continue;
+                    }
+                    if (debug) {
+                        logger.info("new polynomial = " + Hs);
+                    }
+                    for (SigPoly<C> p : Gs) {
+                        if (p.poly.isZERO()) {
+                            continue;
+                        }
+                        GenPolynomial<C> tau = p.sigma;
+                        GenPolynomial<C>[] mult = sgb.SPolynomialFactors(Hs, p);
+                        ExpVector se = sigma.leadingExpVector();
+                        ExpVector te = tau.leadingExpVector();
+                        if (mult[0].multiply(se).equals(mult[1].multiply(te))) {
+                            continue;
+                        }
+                        SigPair<C> pp;
+                        if (mult[0].multiply(se).compareTo(mult[1].multiply(te)) > 0) {
+                            pp = sgb.newPair(sigma.multiply(mult[0]), Hs, p, Gs);
+                        } else {
+                            pp = sgb.newPair(tau.multiply(mult[1]), p, Hs, Gs);
+                        }
+                        if (pp.sigma.degree() == mdeg) { // mdeg is sigma.degree()
+                            Sl.add(pp); // do not check contains
+                        } else {
+                            pairlist.add(pp); // do not check contains
+                        }
+                    }
+                    Gs.add(Hs);
+                    done.add(Hs);
+                }
+                vain += n - committed;
+            }
+        }
+        logger.info("#parallel list before reduction = " + Gs.size() + ", reductions = " + reductions
+                        + ", in vain = " + vain);
+        List<GenPolynomial<C>> Gp = sred.polys(Gs);
+        G = minimalGB(Gp);
+        logger.info("end " + pairlist);
+        return G;
+    }
+
+}
+
+
+/**
+ * Reducing worker threads for signature based Groebner bases.
+ */
+class SigReducerIter<C extends RingElem<C>> implements Runnable {
+
+
+    private final GroebnerBaseSigSeqIter<C> sgb;
+
+
+    private final List<GenPolynomial<C>> F;
+
+
+    private final List<SigPoly<C>> G;
+
+
+    private final SigPair<C> pair;
+
+
+    private SigPoly<C> H;
+
+
+    private RuntimeException ex;
+
+
+    private final Semaphore done = new Semaphore(0);
+
+
+    private static final Logger logger = Logger.getLogger(SigReducerIter.class);
+
+
+    SigReducerIter(GroebnerBaseSigSeqIter<C> sgb, List<GenPolynomial<C>> F, List<SigPoly<C>> G,
+                    SigPair<C> pair) {
+        this.sgb = sgb;
+        this.F = F;
+        this.G = G;
+        this.pair = pair;
+    }
+
+
+    /**
+     * to string
+     */
+    @Override
+    public String toString() {
+        return "SigReducerIter";
+    }
+
+
+    /**
+     * getNF. Blocks until the normal form is computed.
+     * @return the computed signature normal form of the S-polynomial.
+     */
+    public SigPoly<C> getNF() {
+        try {
+            done.acquire(); //done.P();
+        } catch (InterruptedException e) {
+            throw new RuntimeException("interrupt in getNF");
+        }
+        if (ex != null) {
+            throw ex;
+        }
+        return H;
+    }
+
+
+    public void run() {
+        try {
+            GenPolynomial<C> S = sgb.SPolynomial(pair);
+            H = new SigPoly<C>(pair.sigma, S);
+            if (!S.isZERO()) {
+                H = sgb.sigNormalform(F, G, H);
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("ht(H) = " + H.poly.leadingExpVector());
+            }
+        } catch (RuntimeException e) {
+            ex = e;
+        } finally {
+            done.release(); //done.V();
+        }
+    }
+
+}
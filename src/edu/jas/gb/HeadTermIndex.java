@@ -0,0 +1,328 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Head term index for polynomial lists. Finds reducers of an exponent vector,
+ * i.e. polynomials whose head term divides the exponent vector, without
+ * scanning all head terms. The head terms are stored in a divisor tree, a trie
+ * with one level per variable keyed by the exponent of this variable. Each
+ * node stores the bitwise and of the divisor masks of all head terms below it
+ * and the smallest list position below it. Subtrees are skipped if the mask
+ * excludes divisibility or if a reducer with smaller position was already
+ * found. The search returns the same reducer as a linear scan of the list,
+ * i.e. the first polynomial in the list with a head term dividing the
+ * exponent vector. Polynomials can only be appended, the index can be
+ * updated e.g. when a Groebner base algorithm adds new polynomials. All
+ * methods are synchronized.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ */
+
+public class HeadTermIndex<C extends RingElem<C>> implements Serializable {
+
+
+    /**
+     * Node of the divisor tree.
+     */
+    static final class Node implements Serializable {
+
+
+        /**
+         * Bitwise and of the divisor masks of all head terms below.
+         */
+        long mask = -1L;
+
+
+        /**
+         * Smallest list position of all head terms below.
+         */
+        int index = Integer.MAX_VALUE;
+
+
+        /**
+         * Exponents of the children, ascending.
+         */
+        long[] exps = null;
+
+
+        /**
+         * Children, in the same order as exps.
+         */
+        Node[] children = null;
+
+
+        /**
+         * Number of children.
+         */
+        int size = 0;
+
+
+        /**
+         * Get or create child for an exponent.
+         * @param e exponent.
+         * @return child node for e.
+         */
+        Node child(long e) {
+            int lo = 0;
+            int hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (exps[mid] < e) {
+                    lo = mid + 1;
+                } else if (exps[mid] > e) {
+                    hi = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            if (children == null) {
+                exps = new long[2];
+                children = new Node[2];
+            } else if (size == children.length) {
+                int n = 2 * size;
+                long[] ex = new long[n];
+                Node[] ch = new Node[n];
+                System.arraycopy(exps, 0, ex, 0, size);
+                System.arraycopy(children, 0, ch, 0, size);
+                exps = ex;
+                children = ch;
+            }
+            System.arraycopy(exps, lo, exps, lo + 1, size - lo);
+            System.arraycopy(children, lo, children, lo + 1, size - lo);
+            Node c = new Node();
+            exps[lo] = e;
+            children[lo] = c;
+            size++;
+            return c;
+        }
+    }
+
+
+    /**
+     * All polynomials in order of insertion.
+     */
+    protected final List<GenPolynomial<C>> list;
+
+
+    /**
+     * Root of the divisor tree.
+     */
+    protected final Node root;
+
+
+    /**
+     * Number of variables, -1 if no head term was added.
+     */
+    protected int nvar;
+
+
+    /**
+     * Constructor for an empty index.
+     */
+    public HeadTermIndex() {
+        list = new ArrayList<GenPolynomial<C>>();
+        root = new Node();
+        nvar = -1;
+    }
+
+
+    /**
+     * Constructor.
+     * @param P polynomial list.
+     */
+    public HeadTermIndex(List<GenPolynomial<C>> P) {
+        this();
+        addAll(P);
+    }
+
+
+    /**
+     * Append a polynomial.
+     * @param p polynomial, zero polynomials are recorded but never found as
+     *            reducers.
+     * @return position of p.
+     */
+    public synchronized int add(GenPolynomial<C> p) {
+        int i = list.size();
+        list.add(p);
+        if (p == null || p.isZERO()) {
+            return i;
+        }
+        ExpVector e = p.leadingExpVector();
+        if (nvar < 0) {
+            nvar = e.length();
+        } else if (nvar != e.length()) {
+            throw new IllegalArgumentException("wrong number of variables " + e.length() + " != " + nvar);
+        }
+        long m = e.divisorMask();
+        Node n = root;
+        for (int k = 0; k <= nvar; k++) {
+            n.mask &= m;
+            if (i < n.index) {
+                n.index = i;
+            }
+            if (k < nvar) {
+                n = n.child(e.getVal(k));
+            }
+        }
+        return i;
+    }
+
+
+    /**
+     * Append a list of polynomials.
+     * @param P polynomial list.
+     */
+    public synchronized void addAll(List<GenPolynomial<C>> P) {
+        if (P == null) {
+            return;
+        }
+        for (GenPolynomial<C> p : P) {
+            add(p);
+        }
+    }
+
+
+    /**
+     * Number of polynomials.
+     * @return number of polynomials added.
+     */
+    public synchronized int size() {
+        return list.size();
+    }
+
+
+    /**
+     * Test if index is empty.
+     * @return true if no polynomial was added, else false.
+     */
+    public synchronized boolean isEmpty() {
+        return list.isEmpty();
+    }
+
+
+    /**
+     * Get polynomial.
+     * @param i position.
+     * @return polynomial at position i.
+     */
+    public synchronized GenPolynomial<C> get(int i) {
+        return list.get(i);
+    }
+
+
+    /**
+     * Get polynomial list.
+     * @return a copy of the list of polynomials.
+     */
+    public synchronized List<GenPolynomial<C>> getList() {
+        return new ArrayList<GenPolynomial<C>>(list);
+    }
+
+
+    /**
+     * Find reducer.
+     * @param e exponent vector.
+     * @return smallest position i such that e is a multiple of the head term
+     *         of the polynomial at position i, or -1 if there is no such
+     *         polynomial.
+     */
+    public synchronized int divisorIndex(ExpVector e) {
+        if (nvar < 0) {
+            return -1;
+        }
+        int i = search(root, 0, e, e.divisorMask(), Integer.MAX_VALUE);
+        if (i == Integer.MAX_VALUE) {
+            return -1;
+        }
+        return i;
+    }
+
+
+    /**
+     * Find reducer.
+     * @param e exponent vector.
+     * @return the first polynomial, such that e is a multiple of its head
+     *         term, or null if there is no such polynomial.
+     */
+    public synchronized GenPolynomial<C> divisor(ExpVector e) {
+        int i = divisorIndex(e);
+        if (i < 0) {
+            return null;
+        }
+        return list.get(i);
+    }
+
+
+    /**
+     * Find reducer by linear scan. For comparison with divisorIndex().
+     * @param e exponent vector.
+     * @return smallest position i such that e is a multiple of the head term
+     *         of the polynomial at position i, or -1 if there is no such
+     *         polynomial.
+     */
+    public synchronized int divisorIndexLinear(ExpVector e) {
+        for (int i = 0; i < list.size(); i++) {
+            GenPolynomial<C> p = list.get(i);
+            if (p == null || p.isZERO()) {
+                continue;
+            }
+            if (e.multipleOfMasked(p.leadingExpVector())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    /**
+     * Search divisor tree.
+     * @param n node.
+     * @param k level of n.
+     * @param e exponent vector.
+     * @param m divisor mask of e.
+     * @param best smallest position found so far.
+     * @return smallest position of a head term dividing e in the subtree of
+     *         n, if smaller than best, else best.
+     */
+    private int search(Node n, int k, ExpVector e, long m, int best) {
+        if (n.index >= best || (n.mask & ~m) != 0L) {
+            return best;
+        }
+        if (k == nvar) {
+            return n.index;
+        }
+        long ek = e.getVal(k);
+        for (int j = 0; j < n.size; j++) {
+            if (n.exps[j] > ek) {
+                break;
+            }
+            best = search(n.children[j], k + 1, e, m, best);
+        }
+        return best;
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public synchronized String toString() {
+        return "HeadTermIndex(#P = " + list.size() + ", nvar = " + nvar + ")";
+    }
+
+}
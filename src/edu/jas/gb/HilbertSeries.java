@@ -0,0 +1,503 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Hilbert series of monomial ideals. For a monomial ideal I in n variables
+ * the Hilbert series of R/I is N(t) / (1-t)^n with an integral numerator
+ * polynomial N(t). The numerator is computed with the pivot algorithm of
+ * Bigatti: N(I) = N(I + (p)) + t^deg(p) N(I : p), where p is a power of a
+ * variable occurring in most generators, until the generators have pairwise
+ * disjoint supports. For a Groebner base G the series of the leading term
+ * ideal is the Hilbert series of the ideal generated by G with respect to
+ * the degree filtration. For homogeneous ideals it does not depend on the
+ * term order.
+ * @author Heinz Kredel
+ * @see A.M. Bigatti, Computation of Hilbert-Poincare series, J. Pure Appl.
+ *      Algebra 119 (1997).
+ */
+
+public class HilbertSeries implements Serializable {
+
+
+    /**
+     * Number of variables.
+     */
+    public final int nvar;
+
+
+    /**
+     * Coefficients of the numerator N(t) of N(t) / (1-t)^nvar.
+     */
+    protected final long[] num;
+
+
+    /**
+     * Coefficients of the reduced numerator Q(t) of Q(t) / (1-t)^dim.
+     */
+    protected final long[] red;
+
+
+    /**
+     * Krull dimension of R/I.
+     */
+    protected final int dim;
+
+
+    /**
+     * Constructor.
+     * @param M list of exponent vectors of the generators of a monomial
+     *            ideal.
+     * @param nvar number of variables.
+     */
+    public HilbertSeries(List<ExpVector> M, int nvar) {
+        this(numerator(M, nvar), nvar);
+    }
+
+
+    /**
+     * Constructor.
+     * @param num coefficients of the numerator of N(t) / (1-t)^nvar.
+     * @param nvar number of variables.
+     */
+    public HilbertSeries(long[] num, int nvar) {
+        this.nvar = nvar;
+        this.num = trim(num);
+        // divide by (1-t) as long as possible
+        long[] q = this.num;
+        int d = nvar;
+        while (d > 0 && q.length > 1 && sum(q) == 0) {
+            long[] r = new long[q.length - 1];
+            long c = 0;
+            for (int i = 0; i < r.length; i++) {
+                c += q[i];
+                r[i] = c;
+            }
+            q = r;
+            d--;
+        }
+        if (q.length == 1 && q[0] == 0) {
+            d = -1; // unit ideal
+        }
+        this.red = q;
+        this.dim = d;
+    }
+
+
+    /**
+     * Hilbert series of a leading term ideal.
+     * @param G list of polynomials.
+     * @return the Hilbert series of the ideal generated by the leading terms
+     *         of G.
+     */
+    public static <C extends RingElem<C>> HilbertSeries leadingTermSeries(List<GenPolynomial<C>> G) {
+        if (G == null || G.isEmpty()) {
+            throw new IllegalArgumentException("G may not be null or empty");
+        }
+        List<ExpVector> M = new ArrayList<ExpVector>(G.size());
+        int n = 0;
+        for (GenPolynomial<C> g : G) {
+            n = g.ring.nvar;
+            if (!g.isZERO()) {
+                M.add(g.leadingExpVector());
+            }
+        }
+        return new HilbertSeries(M, n);
+    }
+
+
+    /**
+     * Get the numerator.
+     * @return coefficients of N(t), the series is N(t) / (1-t)^nvar.
+     */
+    public long[] getNumerator() {
+        return Arrays.copyOf(num, num.length);
+    }
+
+
+    /**
+     * Get the reduced numerator.
+     * @return coefficients of Q(t), the series is Q(t) / (1-t)^dimension().
+     */
+    public long[] getReducedNumerator() {
+        return Arrays.copyOf(red, red.length);
+    }
+
+
+    /**
+     * Numerator polynomial.
+     * @param fac univariate integral polynomial ring.
+     * @return N(t) in fac.
+     */
+    public GenPolynomial<BigInteger> numerator(GenPolynomialRing<BigInteger> fac) {
+        GenPolynomial<BigInteger> p = fac.getZERO().copy();
+        for (int i = 0; i < num.length; i++) {
+            if (num[i] != 0) {
+                p.doPutToMap(ExpVector.create(1, 0, i), new BigInteger(num[i]));
+            }
+        }
+        return p;
+    }
+
+
+    /**
+     * Krull dimension.
+     * @return the dimension of R/I, -1 for the unit ideal.
+     */
+    public int dimension() {
+        return dim;
+    }
+
+
+    /**
+     * Multiplicity.
+     * @return Q(1) the degree of the ideal, 0 for the unit ideal.
+     */
+    public long multiplicity() {
+        return sum(red);
+    }
+
+
+    /**
+     * Hilbert function.
+     * @param d degree.
+     * @return dimension of the degree d part of R/I.
+     */
+    public long hilbertFunction(long d) {
+        if (d < 0 || dim < 0) {
+            return 0L;
+        }
+        if (dim == 0) {
+            return d < red.length ? red[(int) d] : 0L;
+        }
+        // sum Q_i binomial(d - i + dim - 1, dim - 1)
+        java.math.BigInteger s = java.math.BigInteger.ZERO;
+        for (int i = 0; i < red.length && i <= d; i++) {
+            if (red[i] != 0) {
+                s = s.add(binomial(d - i + dim - 1, dim - 1).multiply(java.math.BigInteger.valueOf(red[i])));
+            }
+        }
+        return s.longValue();
+    }
+
+
+    /**
+     * Hilbert polynomial.
+     * @param fac univariate rational polynomial ring.
+     * @return the polynomial P(t) in fac with P(d) = hilbertFunction(d) for
+     *         all sufficiently large d.
+     */
+    public GenPolynomial<BigRational> hilbertPolynomial(GenPolynomialRing<BigRational> fac) {
+        GenPolynomial<BigRational> P = fac.getZERO();
+        if (dim <= 0) {
+            return P;
+        }
+        GenPolynomial<BigRational> t = fac.univariate(0);
+        BigRational f = BigRational.ONE;
+        for (int j = 1; j < dim; j++) {
+            f = f.multiply(new BigRational(j));
+        }
+        f = f.inverse();
+        for (int i = 0; i < red.length; i++) {
+            if (red[i] == 0) {
+                continue;
+            }
+            // binomial(t - i + dim - 1, dim - 1) = prod_{j=1}^{dim-1} (t - i + j) / (dim-1)!
+            GenPolynomial<BigRational> b = fac.getONE().multiply(f.multiply(new BigRational(red[i])));
+            for (int j = 1; j < dim; j++) {
+                b = b.multiply(t.sum(fac.fromInteger(j - i)));
+            }
+            P = P.sum(b);
+        }
+        return P;
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object B) {
+        if (!(B instanceof HilbertSeries)) {
+            return false;
+        }
+        HilbertSeries h = (HilbertSeries) B;
+        return nvar == h.nvar && Arrays.equals(num, h.num);
+    }
+
+
+    /**
+     * Hash code for this Hilbert series.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return 31 * nvar + Arrays.hashCode(num);
+    }
+
+
+    /**
+     * String representation of the Hilbert series.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "(" + polyString(red) + ") / (1-t)^" + Math.max(dim, 0);
+    }
+
+
+    /**
+     * String representation of a univariate polynomial.
+     * @param a coefficients.
+     * @return a as string in t.
+     */
+    static String polyString(long[] a) {
+        StringBuffer s = new StringBuffer();
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) {
+                continue;
+            }
+            if (s.length() > 0) {
+                s.append(a[i] < 0 ? " - " : " + ");
+            } else if (a[i] < 0) {
+                s.append("-");
+            }
+            long c = Math.abs(a[i]);
+            if (c != 1 || i == 0) {
+                s.append(c);
+            }
+            if (i > 0) {
+                s.append(c != 1 ? " t" : "t");
+                if (i > 1) {
+                    s.append("^" + i);
+                }
+            }
+        }
+        return s.length() == 0 ? "0" : s.toString();
+    }
+
+
+    /**
+     * Numerator of the Hilbert series of a monomial ideal.
+     * @param M list of exponent vectors of the generators.
+     * @param nvar number of variables.
+     * @return coefficients of N(t) with series N(t) / (1-t)^nvar.
+     */
+    public static long[] numerator(List<ExpVector> M, int nvar) {
+        List<long[]> G = new ArrayList<long[]>(M.size());
+        for (ExpVector e : M) {
+            G.add(e.getVal());
+        }
+        return pivotNumerator(minimal(G), nvar);
+    }
+
+
+    /**
+     * Numerator of the Hilbert series, pivot algorithm.
+     * @param G minimal generators.
+     * @param n number of variables.
+     * @return coefficients of N(t).
+     */
+    static long[] pivotNumerator(List<long[]> G, int n) {
+        if (G.isEmpty()) {
+            return new long[] { 1L };
+        }
+        // count the generators containing a variable
+        int[] occ = new int[n];
+        boolean simple = true;
+        for (long[] g : G) {
+            for (int i = 0; i < n; i++) {
+                if (g[i] > 0) {
+                    if (occ[i] > 0) {
+                        simple = false;
+                    }
+                    occ[i]++;
+                }
+            }
+        }
+        if (simple) { // pairwise disjoint supports
+            long[] N = new long[] { 1L };
+            for (long[] g : G) {
+                N = multiplyOneMinus(N, degree(g));
+            }
+            return N;
+        }
+        int v = 0;
+        for (int i = 1; i < n; i++) {
+            if (occ[i] > occ[v]) {
+                v = i;
+            }
+        }
+        // pivot x_v^e, e the median of the positive exponents of x_v
+        long[] ex = new long[occ[v]];
+        long a = Long.MAX_VALUE; // exponent of a pure power of x_v
+        int k = 0;
+        for (long[] g : G) {
+            if (g[v] > 0) {
+                ex[k++] = g[v];
+                if (degree(g) == g[v]) {
+                    a = g[v];
+                }
+            }
+        }
+        Arrays.sort(ex);
+        long e = ex[ex.length / 2];
+        if (e >= a) { // pivot must not be in the ideal, a > 1 since occ[v] > 1
+            e = a - 1;
+        }
+        long[] p = new long[n];
+        p[v] = e;
+        // I + (p)
+        List<long[]> S = new ArrayList<long[]>(G.size() + 1);
+        for (long[] g : G) {
+            if (g[v] < e) {
+                S.add(g);
+            }
+        }
+        S.add(p);
+        // I : p
+        List<long[]> Q = new ArrayList<long[]>(G.size());
+        for (long[] g : G) {
+            long[] q = Arrays.copyOf(g, n);
+            q[v] = Math.max(g[v] - e, 0L);
+            Q.add(q);
+        }
+        long[] A = pivotNumerator(minimal(S), n);
+        long[] B = pivotNumerator(minimal(Q), n);
+        return sum(A, B, (int) e);
+    }
+
+
+    /**
+     * Minimal generators of a monomial ideal.
+     * @param G list of exponent vectors.
+     * @return the exponent vectors of G not divisible by others.
+     */
+    static List<long[]> minimal(List<long[]> G) {
+        List<long[]> M = new ArrayList<long[]>(G.size());
+        for (int i = 0; i < G.size(); i++) {
+            long[] g = G.get(i);
+            boolean mt = false;
+            for (int j = 0; j < G.size() && !mt; j++) {
+                if (i == j) {
+                    continue;
+                }
+                long[] h = G.get(j);
+                if (divides(h, g)) {
+                    mt = !Arrays.equals(h, g) || j < i; // keep one of equal vectors
+                }
+            }
+            if (!mt) {
+                M.add(g);
+            }
+        }
+        return M;
+    }
+
+
+    /**
+     * Divisibility of monomials.
+     * @return true, if x^h divides x^g.
+     */
+    static boolean divides(long[] h, long[] g) {
+        for (int i = 0; i < g.length; i++) {
+            if (h[i] > g[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Total degree.
+     */
+    static int degree(long[] g) {
+        long d = 0;
+        for (long x : g) {
+            d += x;
+        }
+        return (int) d;
+    }
+
+
+    /**
+     * Multiply by 1 - t^d.
+     */
+    static long[] multiplyOneMinus(long[] a, int d) {
+        long[] c = Arrays.copyOf(a, a.length + d);
+        for (int i = 0; i < a.length; i++) {
+            c[i + d] = Math.subtractExact(c[i + d], a[i]);
+        }
+        return c;
+    }
+
+
+    /**
+     * Sum a + t^s b.
+     */
+    static long[] sum(long[] a, long[] b, int s) {
+        long[] c = Arrays.copyOf(a, Math.max(a.length, b.length + s));
+        for (int i = 0; i < b.length; i++) {
+            c[i + s] = Math.addExact(c[i + s], b[i]);
+        }
+        return trim(c);
+    }
+
+
+    /**
+     * Sum of the coefficients.
+     */
+    static long sum(long[] a) {
+        long s = 0;
+        for (long x : a) {
+            s += x;
+        }
+        return s;
+    }
+
+
+    /**
+     * Remove leading zero coefficients.
+     */
+    static long[] trim(long[] a) {
+        int l = a.length;
+        while (l > 1 && a[l - 1] == 0) {
+            l--;
+        }
+        if (l == a.length) {
+            return a;
+        }
+        return Arrays.copyOf(a, l);
+    }
+
+
+    /**
+     * Binomial coefficient.
+     */
+    static java.math.BigInteger binomial(long n, long k) {
+        java.math.BigInteger b = java.math.BigInteger.ONE;
+        for (long j = 1; j <= k; j++) {
+            b = b.multiply(java.math.BigInteger.valueOf(n - k + j)).divide(java.math.BigInteger.valueOf(j));
+        }
+        return b;
+    }
+
+}
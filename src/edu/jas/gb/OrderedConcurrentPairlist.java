@@ -0,0 +1,478 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Pair list management for many concurrent reducer threads. Same pair
+ * selection and criterions as OrderedPairlist, but only put() and putOne()
+ * are serialized. The pairs are kept in a concurrent skip list map ordered by
+ * the lcm of the head terms, each lcm has its own bucket lock. The reduction
+ * matrix consists of atomic bit rows, so removeNext() and hasNext() run
+ * without a global lock.
+ * @author Heinz Kredel
+ */
+
+public class OrderedConcurrentPairlist<C extends RingElem<C>> implements PairList<C> {
+
+
+    /**
+     * Pairs with the same lcm.
+     */
+    private static final class Bucket<C extends RingElem<C>> {
+
+
+        final LinkedList<Pair<C>> pairs = new LinkedList<Pair<C>>();
+
+
+        /**
+         * Bucket has been removed from the pair map.
+         */
+        boolean removed = false;
+
+    }
+
+
+    protected final List<GenPolynomial<C>> P;
+
+
+    protected final ConcurrentNavigableMap<ExpVector, Bucket<C>> pairlist;
+
+
+    protected final List<AtomicLongArray> red;
+
+
+    protected final GenPolynomialRing<C> ring;
+
+
+    protected final Reduction<C> reduction;
+
+
+    protected volatile boolean oneInGB = false;
+
+
+    protected boolean useCriterion4 = true;
+
+
+    protected int putCount;
+
+
+    protected final AtomicInteger remCount;
+
+
+    protected final int moduleVars;
+
+
+    private static final Logger logger = Logger.getLogger(OrderedConcurrentPairlist.class);
+
+
+    /**
+     * Constructor.
+     */
+    public OrderedConcurrentPairlist() {
+        moduleVars = 0;
+        ring = null;
+        P = null;
+        pairlist = null;
+        red = null;
+        reduction = null;
+        putCount = 0;
+        remCount = new AtomicInteger(0);
+    }
+
+
+    /**
+     * Constructor.
+     * @param r polynomial factory.
+     */
+    public OrderedConcurrentPairlist(GenPolynomialRing<C> r) {
+        this(0, r);
+    }
+
+
+    /**
+     * Constructor.
+     * @param m number of module variables.
+     * @param r polynomial factory.
+     */
+    public OrderedConcurrentPairlist(int m, GenPolynomialRing<C> r) {
+        moduleVars = m;
+        ring = r;
+        P = new CopyOnWriteArrayList<GenPolynomial<C>>();
+        pairlist = new ConcurrentSkipListMap<ExpVector, Bucket<C>>(ring.tord.getAscendComparator());
+        red = new CopyOnWriteArrayList<AtomicLongArray>();
+        putCount = 0;
+        remCount = new AtomicInteger(0);
+        if (!ring.isCommutative()) {
+            useCriterion4 = false;
+        }
+        reduction = new ReductionSeq<C>();
+    }
+
+
+    /**
+     * Create a new PairList.
+     * @param r polynomial ring.
+     */
+    public PairList<C> create(GenPolynomialRing<C> r) {
+        return new OrderedConcurrentPairlist<C>(r);
+    }
+
+
+    /**
+     * Create a new PairList.
+     * @param m number of module variables.
+     * @param r polynomial ring.
+     */
+    public PairList<C> create(int m, GenPolynomialRing<C> r) {
+        return new OrderedConcurrentPairlist<C>(m, r);
+    }
+
+
+    /**
+     * toString.
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer(this.getClass().getSimpleName() + "(");
+        s.append("#put=" + putCount());
+        s.append(", #rem=" + remCount.get());
+        if (pairlist != null && !pairlist.isEmpty()) {
+            s.append(", size=" + pairlist.size());
+        }
+        if (moduleVars > 0) {
+            s.append(", modv=" + moduleVars);
+        }
+        s.append(")");
+        return s.toString();
+    }
+
+
+    /**
+     * Put one Polynomial to the pairlist and reduction matrix.
+     * @param p polynomial.
+     * @return the index of the added polynomial.
+     */
+    public synchronized int put(GenPolynomial<C> p) {
+        putCount++;
+        if (oneInGB) {
+            return P.size() - 1;
+        }
+        ExpVector e = p.leadingExpVector();
+        int l = P.size();
+        // row before polynomial, so readers of P always find a row
+        red.add(newRow(l));
+        for (int j = 0; j < l; j++) {
+            GenPolynomial<C> pj = P.get(j);
+            ExpVector f = pj.leadingExpVector();
+            if (moduleVars > 0) {
+                if (!reduction.moduleCriterion(moduleVars, e, f)) {
+                    continue; // skip pair
+                }
+            }
+            ExpVector g = e.lcm(f);
+            Pair<C> pair = new Pair<C>(pj, p, j, l);
+            insert(g, pair);
+        }
+        P.add(p);
+        return P.size() - 1;
+    }
+
+
+    /**
+     * Insert a pair in the bucket of its lcm.
+     * @param g lcm of the pair.
+     * @param pair to be inserted.
+     */
+    private void insert(ExpVector g, Pair<C> pair) {
+        while (true) {
+            Bucket<C> b = pairlist.get(g);
+            if (b == null) {
+                b = new Bucket<C>();
+                b.pairs.add(pair);
+                if (pairlist.putIfAbsent(g, b) == null) {
+                    return;
+                }
+                continue;
+            }
+            synchronized (b) {
+                if (!b.removed) {
+                    b.pairs.addFirst(pair); // first or last ? better for d- e-GBs
+                    return;
+                }
+            }
+            // bucket drained concurrently, try again
+        }
+    }
+
+
+    /**
+     * Put all polynomials in F to the pairlist and reduction matrix.
+     * @param F polynomial list.
+     * @return the index of the last added polynomial.
+     */
+    public int put(List<GenPolynomial<C>> F) {
+        int i = 0;
+        for (GenPolynomial<C> p : F) {
+            i = put(p);
+        }
+        return i;
+    }
+
+
+    /**
+     * Remove the next required pair from the pairlist and reduction matrix.
+     * Appy the criterions 3 and 4 to see if the S-polynomial is required.
+     * @return the next pair if one exists, otherwise null.
+     */
+    public Pair<C> removeNext() {
+        if (oneInGB) {
+            return null;
+        }
+        for (Map.Entry<ExpVector, Bucket<C>> me : pairlist.entrySet()) {
+            ExpVector g = me.getKey();
+            Bucket<C> b = me.getValue();
+            while (true) {
+                Pair<C> pair;
+                synchronized (b) {
+                    pair = b.pairs.poll();
+                    if (b.pairs.isEmpty() && !b.removed) {
+                        b.removed = true;
+                        pairlist.remove(g, b);
+                    }
+                }
+                if (pair == null) {
+                    break;
+                }
+                boolean c;
+                if (useCriterion4) {
+                    c = reduction.criterion4(pair.pi, pair.pj, g);
+                } else {
+                    c = true;
+                }
+                if (c) {
+                    c = criterion3(pair.i, pair.j, g);
+                }
+                // clear only after the test, so two pairs can not discard each other
+                clearBit(red.get(pair.j), pair.i);
+                if (c && !oneInGB) {
+                    pair.maxIndex(P.size() - 1);
+                    remCount.incrementAndGet(); // count only real pairs
+                    if (logger.isDebugEnabled()) {
+                        logger.info("pair(" + pair.j + "," + pair.i + ")");
+                    }
+                    return pair;
+                }
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Test if there is possibly a pair in the list.
+     * @return true if a next pair could exist, otherwise false.
+     */
+    public boolean hasNext() {
+        return !pairlist.isEmpty();
+    }
+
+
+    /**
+     * Get the list of polynomials.
+     * @return the polynomial list.
+     */
+    public List<GenPolynomial<C>> getList() {
+        return P;
+    }
+
+
+    /**
+     * Set the list of polynomials.
+     * @param F the polynomial list.
+     */
+    public synchronized void setList(List<GenPolynomial<C>> F) {
+        if (!P.isEmpty()) {
+            throw new IllegalArgumentException("P not empty");
+        }
+        for (int i = 0; i < F.size(); i++) {
+            red.add(new AtomicLongArray(words(i)));
+        }
+        P.addAll(F);
+    }
+
+
+    /**
+     * Get the size of the list of polynomials.
+     * @return size of the polynomial list.
+     */
+    public int size() {
+        return P.size();
+    }
+
+
+    /**
+     * Get the number of polynomials put to the pairlist.
+     * @return the number of calls to put.
+     */
+    public synchronized int putCount() {
+        return putCount;
+    }
+
+
+    /**
+     * Get the number of required pairs removed from the pairlist.
+     * @return the number of non null pairs delivered.
+     */
+    public int remCount() {
+        return remCount.get();
+    }
+
+
+    /**
+     * Put the ONE-Polynomial to the pairlist.
+     * @param one polynomial. (no more required)
+     * @return the index of the last polynomial.
+     */
+    public synchronized int putOne(GenPolynomial<C> one) {
+        if (one == null) {
+            return P.size() - 1;
+        }
+        if (!one.isONE()) {
+            return P.size() - 1;
+        }
+        return putOne();
+    }
+
+
+    /**
+     * Put the ONE-Polynomial to the pairlist.
+     * @return the index of the last polynomial.
+     */
+    public synchronized int putOne() {
+        putCount++;
+        oneInGB = true;
+        pairlist.clear();
+        P.clear();
+        P.add(ring.getONE());
+        // red is kept, concurrent removeNext() may still read it
+        logger.info("outOne " + this.toString());
+        return P.size() - 1;
+    }
+
+
+    /**
+     * GB criterium 3.
+     * @return true if the S-polynomial(i,j) is required.
+     */
+    public boolean criterion3(int i, int j, ExpVector eij) {
+        // assert i < j;
+        boolean s = testBit(red.get(j), i);
+        if (!s) {
+            logger.warn("c3.s false for " + j + " " + i);
+            return s;
+        }
+        // now s = true;
+        int k = 0;
+        for (GenPolynomial<C> A : P) { // snapshot iterator
+            if (i != k && j != k) {
+                ExpVector ek = A.leadingExpVector();
+                boolean m = eij.multipleOfMasked(ek);
+                if (m) {
+                    if (k < i) {
+                        s = testBit(red.get(i), k) || testBit(red.get(j), k);
+                    } else if (i < k && k < j) {
+                        s = testBit(red.get(k), i) || testBit(red.get(j), k);
+                    } else if (j < k) {
+                        s = testBit(red.get(k), i) || testBit(red.get(k), j);
+                    }
+                    if (!s) {
+                        return s;
+                    }
+                }
+            }
+            k++;
+        }
+        return true;
+    }
+
+
+    /**
+     * Number of words for a row.
+     * @param n number of bits.
+     * @return number of longs to hold n bits.
+     */
+    private static int words(int n) {
+        return (n + 63) >>> 6;
+    }
+
+
+    /**
+     * New row of the reduction matrix.
+     * @param n number of bits.
+     * @return row with bits 0 to n-1 set.
+     */
+    private static AtomicLongArray newRow(int n) {
+        AtomicLongArray row = new AtomicLongArray(words(n));
+        for (int w = 0; w < n >>> 6; w++) {
+            row.set(w, -1L);
+        }
+        if ((n & 63) != 0) {
+            row.set(n >>> 6, (1L << (n & 63)) - 1L);
+        }
+        return row;
+    }
+
+
+    /**
+     * Test a bit of a row.
+     * @param row of the reduction matrix.
+     * @param i bit index.
+     * @return true if bit i is set.
+     */
+    private static boolean testBit(AtomicLongArray row, int i) {
+        int w = i >>> 6;
+        if (w >= row.length()) {
+            return false;
+        }
+        return (row.get(w) & (1L << (i & 63))) != 0L;
+    }
+
+
+    /**
+     * Clear a bit of a row.
+     * @param row of the reduction matrix.
+     * @param i bit index.
+     */
+    private static void clearBit(AtomicLongArray row, int i) {
+        int w = i >>> 6;
+        long m = 1L << (i & 63);
+        long o;
+        do {
+            o = row.get(w);
+            if ((o & m) == 0L) {
+                return;
+            }
+        } while (!row.compareAndSet(w, o, o & ~m));
+    }
+
+}
@@ -300,6 +300,71 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
     }
 
 
+    /**
+     * Checkpoint of the pairlist state. The polynomial list and the reduction
+     * matrix are copied, so the checkpoint is not changed by further
+     * computations.
+     * @return a checkpoint of the current state.
+     */
+    public synchronized GBCheckpoint<C> checkpoint() {
+        List<GenPolynomial<C>> L = new ArrayList<GenPolynomial<C>>(P);
+        List<BitSet> R = new ArrayList<BitSet>(red.size());
+        for (BitSet b : red) {
+            R.add((BitSet) b.clone());
+        }
+        return new GBCheckpoint<C>(moduleVars, L, R, oneInGB, useCriterion4, putCount, remCount);
+    }
+
+
+    /**
+     * Restore the pairlist state from a checkpoint. The outstanding pairs
+     * are recomputed from the reduction matrix.
+     * @param cp checkpoint of a pairlist state.
+     */
+    public synchronized void restore(GBCheckpoint<C> cp) {
+        if (!P.isEmpty()) {
+            throw new IllegalArgumentException("P not empty");
+        }
+        if (cp.modv != moduleVars) {
+            throw new IllegalArgumentException("wrong number of module variables " + cp.modv);
+        }
+        P.addAll(cp.list);
+        for (BitSet b : cp.red) {
+            red.add((BitSet) b.clone());
+        }
+        oneInGB = cp.oneInGB;
+        useCriterion4 = cp.useCriterion4;
+        putCount = cp.putCount;
+        remCount = cp.remCount;
+        if (oneInGB) {
+            return;
+        }
+        for (int l = 0; l < P.size(); l++) {
+            GenPolynomial<C> p = P.get(l);
+            ExpVector e = p.leadingExpVector();
+            BitSet redl = red.get(l);
+            for (int j = redl.nextSetBit(0); j >= 0 && j < l; j = redl.nextSetBit(j + 1)) {
+                GenPolynomial<C> pj = P.get(j);
+                ExpVector f = pj.leadingExpVector();
+                if (moduleVars > 0) {
+                    if (!reduction.moduleCriterion(moduleVars, e, f)) {
+                        continue; // skip pair
+                    }
+                }
+                ExpVector g = e.lcm(f);
+                Pair<C> pair = new Pair<C>(pj, p, j, l);
+                LinkedList<Pair<C>> xl = pairlist.get(g);
+                if (xl == null) {
+                    xl = new LinkedList<Pair<C>>();
+                }
+                xl.addFirst(pair);
+                pairlist.put(g, xl);
+            }
+        }
+        logger.info("restored " + this.toString());
+    }
+
+
     /**
      * Get the size of the list of polynomials.
      * @return size of the polynomial list.
@@ -376,7 +441,7 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
             if (i != k && j != k) {
                 GenPolynomial<C> A = P.get(k);
                 ExpVector ek = A.leadingExpVector();
-                boolean m = eij.multipleOf(ek);
+                boolean m = eij.multipleOfMasked(ek);
                 if (m) {
                     if (k < i) {
                         // System.out.println("k < i "+k+" "+i); 
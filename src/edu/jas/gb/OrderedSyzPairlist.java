@@ -175,7 +175,7 @@ public class OrderedSyzPairlist<C extends RingElem<C>> extends OrderedPairlist<C
                 if (eil.compareTo(ejl) == 0) {
                     continue;
                 }
-                if (eil.multipleOf(ejl)) {
+                if (eil.multipleOfMasked(ejl)) {
                     if (!es.contains(eil)) {
                         es.add(eil);
                     }
@@ -138,6 +138,15 @@ public interface Reduction<C extends RingElem<C>> extends Serializable {
     public GenPolynomial<C> normalform(List<GenPolynomial<C>> P, GenPolynomial<C> A);
 
 
+    /**
+     * Normalform using a head term index.
+     * @param A polynomial.
+     * @param P head term index of a polynomial list.
+     * @return nf(A) with respect to P.
+     */
+    public GenPolynomial<C> normalform(HeadTermIndex<C> P, GenPolynomial<C> A);
+
+
     /**
      * Normalform Set.
      * @param Ap polynomial list.
@@ -199,6 +199,9 @@ public abstract class ReductionAbstract<C extends RingElem<C>> implements Reduct
      * @return true if the S-polynomial(i,j) is required, else false.
      */
     public boolean criterion4(ExpVector ei, ExpVector ej, ExpVector e) {
+        if (ei.disjointMasked(ej)) { // coprime head terms
+            return false;
+        }
         ExpVector g = ei.sum(ej);
         ExpVector h = g.subtract(e);
         int s = h.signum();
@@ -239,6 +242,22 @@ public abstract class ReductionAbstract<C extends RingElem<C>> implements Reduct
     }
 
 
+    /**
+     * Normalform using a head term index. This implementation uses the
+     * polynomial list of the index, sub classes may use the index for
+     * the reducer search.
+     * @param Ap polynomial.
+     * @param Pp head term index of a polynomial list.
+     * @return nf(Ap) with respect to Pp.
+     */
+    public GenPolynomial<C> normalform(HeadTermIndex<C> Pp, GenPolynomial<C> Ap) {
+        if (Pp == null) {
+            return Ap;
+        }
+        return normalform(Pp.getList(), Ap);
+    }
+
+
     /**
      * Normalform Set.
      * @param Ap polynomial list.
@@ -277,7 +296,7 @@ public abstract class ReductionAbstract<C extends RingElem<C>> implements Reduct
         boolean mt = false;
         ExpVector e = A.leadingExpVector();
         for (GenPolynomial<C> p : P) {
-            mt = e.multipleOf(p.leadingExpVector());
+            mt = e.multipleOfMasked(p.leadingExpVector());
             if (mt) {
                 return true;
             }
@@ -339,7 +358,7 @@ public abstract class ReductionAbstract<C extends RingElem<C>> implements Reduct
         boolean mt = false;
         for (ExpVector e : Ap.getMap().keySet()) {
             for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
+                mt = e.multipleOfMasked(htl[i]);
                 if (mt) {
                     return false;
                 }
@@ -92,7 +92,7 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
                 p = P[i];
                 f = p.leadingExpVector();
                 if (f != null) {
-                    mt = e.multipleOf(f);
+                    mt = e.multipleOfMasked(f);
                     if (mt)
                         break;
                 }
@@ -119,6 +119,54 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
     }
 
 
+    /**
+     * Normalform using a head term index. Allows concurrent additions to the
+     * index, the reduction is restarted if the index has changed.
+     * @param Ap polynomial.
+     * @param Pp head term index, concurrent additions allowed.
+     * @return nf(Ap) with respect to Pp.
+     */
+    @Override
+    public GenPolynomial<C> normalform(HeadTermIndex<C> Pp, GenPolynomial<C> Ap) {
+        if (Pp == null || Pp.isEmpty()) {
+            return Ap;
+        }
+        if (Ap == null || Ap.isZERO()) {
+            return Ap;
+        }
+        int l = Pp.size();
+        Map.Entry<ExpVector, C> m;
+        ExpVector e;
+        C a;
+        int i;
+        GenPolynomial<C> Rz = Ap.ring.getZERO();
+        GenPolynomial<C> R = Rz.copy();
+        GenPolynomial<C> p = null;
+        GenPolynomial<C> S = Ap.copy();
+        while (S.length() > 0) {
+            if (Pp.size() != l) {
+                l = Pp.size();
+                S = Ap.copy(); // restart reduction
+                R = Rz.copy();
+            }
+            m = S.leadingMonomial();
+            e = m.getKey();
+            a = m.getValue();
+            i = Pp.divisorIndex(e);
+            if (i < 0) {
+                R.doPutToMap(e, a);
+                S.doRemoveFromMap(e, a);
+            } else {
+                p = Pp.get(i);
+                e = e.subtract(p.leadingExpVector());
+                a = a.divide(p.leadingBaseCoefficient());
+                S = S.subtractMultiple(a, e, p);
+            }
+        }
+        return R;
+    }
+
+
     /**
      * Normalform with recording.
      * @param row recording matrix, is modified.
@@ -188,7 +236,7 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
                 p = P[i];
                 f = p.leadingExpVector();
                 if (f != null) {
-                    mt = e.multipleOf(f);
+                    mt = e.multipleOfMasked(f);
                     if (mt)
                         break;
                 }
@@ -12,12 +12,15 @@ import org.apache.log4j.Logger;
 
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GeoBucket;
 import edu.jas.poly.Monomial;
+import edu.jas.poly.PackedPolynomial;
 import edu.jas.structure.RingElem;
 
 
 /**
- * Polynomial reduction sequential use algorithm. Implements normalform.
+ * Polynomial reduction sequential use algorithm. Implements normalform. The
+ * normalform of a PackedPolynomial is again packed.
  * @param <C> coefficient type
  * @author Heinz Kredel
  */
@@ -87,13 +90,13 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
 
         //GenPolynomial<C> T = null;
         //GenPolynomial<C> Q = null;
-        GenPolynomial<C> S = Ap.copy();
-        while (S.length() > 0) {
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        while (!S.isZERO()) {
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
             for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
+                mt = e.multipleOfMasked(htl[i]);
                 if (mt)
                     break;
             }
@@ -102,7 +105,7 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
                 //R = R.sum( a, e );
                 //S = S.subtract( a, e ); 
                 R.doPutToMap(e, a);
-                S.doRemoveFromMap(e, a);
+                S.doRemoveLeadingMonomial();
                 // System.out.println(" S = " + S);
             } else {
                 e = e.subtract(htl[i]);
@@ -110,9 +113,12 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
                 //logger.info("red div: e = " + e + ", a = " + a);
                 //Q = p[i].multiply( a, e );
                 //S = S.subtract( Q );
-                S = S.subtractMultiple(a, e, p[i]);
+                S.subtractMultiple(a, e, p[i]);
             }
         }
+        if (Ap instanceof PackedPolynomial) {
+            return Ap.ring.toPacked(R);
+        }
         return R;
     }
 
@@ -180,7 +186,7 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             a = m.getValue();
             //System.out.println("NF a = " + a + ", e = " + e);
             for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
+                mt = e.multipleOfMasked(htl[i]);
                 if (mt)
                     break;
             }
@@ -213,6 +219,53 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
     }
 
 
+    /**
+     * Normalform using a head term index. Computes the same result as
+     * normalform(Pp.getList(), Ap).
+     * @param Ap polynomial.
+     * @param Pp head term index of a polynomial list.
+     * @return nf(Ap) with respect to Pp.
+     */
+    @Override
+    public GenPolynomial<C> normalform(HeadTermIndex<C> Pp, GenPolynomial<C> Ap) {
+        if (Pp == null || Pp.isEmpty()) {
+            return Ap;
+        }
+        if (Ap == null || Ap.isZERO()) {
+            return Ap;
+        }
+        if (!Ap.ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        Map.Entry<ExpVector, C> m;
+        ExpVector e;
+        C a;
+        int i;
+        GenPolynomial<C> p;
+        GenPolynomial<C> R = Ap.ring.getZERO().copy();
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        while (!S.isZERO()) {
+            m = S.leadingMonomial();
+            e = m.getKey();
+            a = m.getValue();
+            i = Pp.divisorIndex(e);
+            if (i < 0) {
+                R.doPutToMap(e, a);
+                S.doRemoveLeadingMonomial();
+            } else {
+                p = Pp.get(i);
+                e = e.subtract(p.leadingExpVector());
+                a = a.divide(p.leadingBaseCoefficient());
+                S.subtractMultiple(a, e, p);
+            }
+        }
+        if (Ap instanceof PackedPolynomial) {
+            return Ap.ring.toPacked(R);
+        }
+        return R;
+    }
+
+
     /**
      * Normalform with recording.
      * @param row recording matrix, is modified.
@@ -272,7 +325,7 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             e = m.getKey();
             a = m.getValue();
             for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
+                mt = e.multipleOfMasked(htl[i]);
                 if (mt)
                     break;
             }
@@ -397,11 +397,18 @@ class LeftSolvableReducer<C extends RingElem<C>> implements Runnable {
         boolean set = false;
         int reduction = 0;
         int sleeps = 0;
-        while (pairlist.hasNext() || pool.hasJobs()) {
-            while (!pairlist.hasNext()) {
-                // wait
-                pool.beIdle();
-                set = true;
+        while (true) {
+            long events = pool.getEvents(); // before pairlist check, no put is lost
+            if (!pairlist.hasNext()) {
+                if (!set) {
+                    pool.beIdle();
+                    set = true;
+                    continue;
+                }
+                if (!pool.hasJobs()) {
+                    break;
+                }
+                // wait for pairlist.put or termination
                 try {
                     sleeps++;
                     if (sleeps % 10 == 0) {
@@ -409,7 +416,7 @@ class LeftSolvableReducer<C extends RingElem<C>> implements Runnable {
                     } else {
                         logger.debug("r");
                     }
-                    Thread.sleep(100);
+                    pool.waitWork(events);
                 } catch (InterruptedException e) {
                     pool.allIdle();
                     logger.info("shutdown " + pool + " after: " + e);
@@ -417,18 +424,12 @@ class LeftSolvableReducer<C extends RingElem<C>> implements Runnable {
                     break;
                 }
                 if (Thread.currentThread().isInterrupted()) {
-                    //pool.initIdle(1);
                     pool.allIdle();
                     logger.info("shutdown after .isInterrupted(): " + pool);
                     //throw new RuntimeException("interrupt 2 in pairlist.hasNext loop");
                     break;
                 }
-                if (!pool.hasJobs()) {
-                    break;
-                }
-            }
-            if (!pairlist.hasNext() && !pool.hasJobs()) {
-                break;
+                continue;
             }
             if (set) {
                 pool.notIdle();
@@ -475,6 +476,7 @@ class LeftSolvableReducer<C extends RingElem<C>> implements Runnable {
                 G.add(H);
             }
             pairlist.put(H);
+            pool.notifyWork();
         }
         logger.info("terminated, done " + reduction + " reductions");
     }
@@ -530,11 +532,18 @@ class TwosidedSolvableReducer<C extends RingElem<C>> implements Runnable {
         int reduction = 0;
         int sleeps = 0;
         logger.debug("modv = " + modv); // avoid "unused"
-        while (pairlist.hasNext() || pool.hasJobs()) {
-            while (!pairlist.hasNext()) {
-                // wait
-                pool.beIdle();
-                set = true;
+        while (true) {
+            long events = pool.getEvents(); // before pairlist check, no put is lost
+            if (!pairlist.hasNext()) {
+                if (!set) {
+                    pool.beIdle();
+                    set = true;
+                    continue;
+                }
+                if (!pool.hasJobs()) {
+                    break;
+                }
+                // wait for pairlist.put or termination
                 try {
                     sleeps++;
                     if (sleeps % 10 == 0) {
@@ -542,16 +551,13 @@ class TwosidedSolvableReducer<C extends RingElem<C>> implements Runnable {
                     } else {
                         logger.debug("r");
                     }
-                    Thread.sleep(50);
+                    pool.waitWork(events);
                 } catch (InterruptedException e) {
+                    pool.allIdle();
+                    logger.info("shutdown " + pool + " after: " + e);
                     break;
                 }
-                if (!pool.hasJobs()) {
-                    break;
-                }
-            }
-            if (!pairlist.hasNext() && !pool.hasJobs()) {
-                break;
+                continue;
             }
             if (set) {
                 pool.notIdle();
@@ -598,6 +604,7 @@ class TwosidedSolvableReducer<C extends RingElem<C>> implements Runnable {
                 G.add(H);
             }
             pairlist.put(H);
+            pool.notifyWork();
             for (int j = 0; j < X.size(); j++) {
                 x = X.get(j);
                 p = H.multiply(x);
@@ -616,6 +623,7 @@ class TwosidedSolvableReducer<C extends RingElem<C>> implements Runnable {
                         G.add(p);
                     }
                     pairlist.put(p);
+                    pool.notifyWork();
                 }
             }
         }
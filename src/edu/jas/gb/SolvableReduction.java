@@ -54,6 +54,15 @@ public interface SolvableReduction<C extends RingElem<C>> extends Serializable {
                     GenSolvablePolynomial<C> Ap);
 
 
+    /**
+     * Left Normalform using a head term index.
+     * @param Ap solvable polynomial.
+     * @param Pp head term index of a solvable polynomial list.
+     * @return left-nf(Ap) with respect to Pp.
+     */
+    public GenSolvablePolynomial<C> leftNormalform(HeadTermIndex<C> Pp, GenSolvablePolynomial<C> Ap);
+
+
     /**
      * LeftNormalform with recording.
      * @param row recording matrix, is modified.
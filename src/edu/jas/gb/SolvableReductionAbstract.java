@@ -13,6 +13,7 @@ import java.util.Map;
 import org.apache.log4j.Logger;
 
 import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenSolvablePolynomial;
 import edu.jas.structure.RingElem;
 
@@ -129,6 +130,26 @@ public abstract class SolvableReductionAbstract<C extends RingElem<C>> implement
     }
 
 
+    /**
+     * Left Normalform using a head term index. This implementation uses the
+     * polynomial list of the index, sub classes may use the index for the
+     * reducer search.
+     * @param Ap solvable polynomial.
+     * @param Pp head term index of a solvable polynomial list.
+     * @return left-nf(Ap) with respect to Pp.
+     */
+    public GenSolvablePolynomial<C> leftNormalform(HeadTermIndex<C> Pp, GenSolvablePolynomial<C> Ap) {
+        if (Pp == null) {
+            return Ap;
+        }
+        List<GenSolvablePolynomial<C>> P = new ArrayList<GenSolvablePolynomial<C>>(Pp.size());
+        for (GenPolynomial<C> p : Pp.getList()) {
+            P.add((GenSolvablePolynomial<C>) p);
+        }
+        return leftNormalform(P, Ap);
+    }
+
+
     /**
      * Left Normalform Set.
      * @param Ap solvable polynomial list.
@@ -130,6 +130,54 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
     }
 
 
+    /**
+     * Left Normalform using a head term index. Computes the same result as
+     * leftNormalform() with the polynomial list of the index.
+     * @param Ap solvable polynomial.
+     * @param Pp head term index of a solvable polynomial list.
+     * @return left-nf(Ap) with respect to Pp.
+     */
+    @Override
+    public GenSolvablePolynomial<C> leftNormalform(HeadTermIndex<C> Pp, GenSolvablePolynomial<C> Ap) {
+        if (Pp == null || Pp.isEmpty()) {
+            return Ap;
+        }
+        if (Ap == null || Ap.isZERO()) {
+            return Ap;
+        }
+        Map.Entry<ExpVector, C> m;
+        ExpVector e, g1, g2;
+        C a;
+        int i;
+        GenSolvablePolynomial<C> p;
+        GenSolvablePolynomial<C> R = Ap.ring.getZERO().copy();
+        GenSolvablePolynomial<C> Q = null;
+        GenSolvablePolynomial<C> S = Ap.copy();
+        while (S.length() > 0) {
+            m = S.leadingMonomial();
+            e = m.getKey();
+            a = m.getValue();
+            i = Pp.divisorIndex(e);
+            if (i < 0) {
+                R.doPutToMap(e, a);
+                S.doRemoveFromMap(e, a);
+            } else {
+                p = (GenSolvablePolynomial<C>) Pp.get(i);
+                e = e.subtract(p.leadingExpVector());
+                Q = p.multiplyLeft(e);
+                a = a.divide(Q.leadingBaseCoefficient());
+                g1 = S.leadingExpVector();
+                S = S.subtractMultiple(a, Q);
+                g2 = S.leadingExpVector();
+                if (g1.equals(g2)) {
+                    throw new RuntimeException("g1.equals(g2): " + g1 + ", a = " + a + ", p = " + p);
+                }
+            }
+        }
+        return R;
+    }
+
+
     /**
      * LeftNormalform with recording.
      * @param row recording matrix, is modified.
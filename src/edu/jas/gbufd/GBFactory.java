@@ -79,10 +79,11 @@ public class GBFactory {
 
     /**
      * Algorithm indicators: igb = integerGB, egb = e-GB, dgb = d-GB, qgb =
-     * fraction coefficients GB, ffgb = fraction free GB.
+     * fraction coefficients GB, ffgb = fraction free GB, f4 = F4 matrix
+     * reduction GB, mgb = multi-modular GB.
      */
     public static enum Algo {
-        igb, egb, dgb, qgb, ffgb
+        igb, egb, dgb, qgb, ffgb, f4, mgb
     };
 
 
@@ -131,6 +132,44 @@ public class GBFactory {
     }
 
 
+    /**
+     * Determine suitable implementation of GB algorithms, case ModLong.
+     * @param fac ModLongRing.
+     * @param a algorithm, a = qgb, f4.
+     * @return GB algorithm implementation.
+     */
+    public static GroebnerBaseAbstract<ModLong> getImplementation(ModLongRing fac, Algo a) {
+        return getImplementation(fac, a, new OrderedPairlist<ModLong>());
+    }
+
+
+    /**
+     * Determine suitable implementation of GB algorithms, case ModLong.
+     * @param fac ModLongRing.
+     * @param a algorithm, a = qgb, f4.
+     * @param pl pair selection strategy
+     * @return GB algorithm implementation.
+     */
+    public static GroebnerBaseAbstract<ModLong> getImplementation(ModLongRing fac, Algo a,
+                    PairList<ModLong> pl) {
+        GroebnerBaseAbstract<ModLong> bba;
+        switch (a) {
+        case qgb:
+            bba = getImplementation(fac, pl);
+            break;
+        case f4:
+            if (!fac.isField()) {
+                throw new IllegalArgumentException("coefficients not from a field " + fac);
+            }
+            bba = new GroebnerBaseF4(pl);
+            break;
+        default:
+            throw new IllegalArgumentException("algorithm not available for ModLong " + a);
+        }
+        return bba;
+    }
+
+
     /**
      * Determine suitable implementation of GB algorithms, case ModInteger.
      * @param fac ModIntegerRing.
@@ -231,7 +270,7 @@ public class GBFactory {
     /**
      * Determine suitable implementation of GB algorithms, case BigRational.
      * @param fac BigRational.
-     * @param a algorithm, a = qgb, ffgb.
+     * @param a algorithm, a = qgb, ffgb, mgb.
      * @return GB algorithm implementation.
      */
     public static GroebnerBaseAbstract<BigRational> getImplementation(BigRational fac, Algo a) {
@@ -254,7 +293,7 @@ public class GBFactory {
     /**
      * Determine suitable implementation of GB algorithms, case BigRational.
      * @param fac BigRational.
-     * @param a algorithm, a = qgb, ffgb.
+     * @param a algorithm, a = qgb, ffgb, mgb.
      * @param pl pair selection strategy
      * @return GB algorithm implementation.
      */
@@ -276,6 +315,9 @@ public class GBFactory {
             }
             bba = new GroebnerBaseRational<BigRational>(pli); // pl not possible
             break;
+        case mgb:
+            bba = new GroebnerBaseModular(); // pl not possible
+            break;
         default:
             throw new IllegalArgumentException("algorithm not available for " + fac.toScriptFactory()
                             + ", Algo = " + a);
@@ -0,0 +1,566 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.HeadTermIndex;
+import edu.jas.gb.OrderedPairlist;
+import edu.jas.gb.Pair;
+import edu.jas.gb.PairList;
+import edu.jas.gb.ReductionSeq;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+
+
+/**
+ * Groebner Base F4 algorithm for ModLong coefficients. Implements Groebner
+ * bases with the linear algebra approach of Faug&egrave;re. The critical
+ * pairs of minimal lcm degree are taken from the pair list, which applies the
+ * Buchberger criteria. Then the symbolic preprocessing collects multiples of
+ * the polynomials in the base which reduce all occurring terms. The resulting
+ * sparse Macaulay matrix is reduced by Gaussian elimination. The rows of the
+ * S-polynomials are reduced by the known pivot rows in parallel, then the
+ * reduced rows are put into echelon form. Rows with new leading terms are
+ * added to the Groebner base.
+ * @author Heinz Kredel
+ * @see J.-C. Faug&egrave;re, A new efficient algorithm for computing
+ *      Gr&ouml;bner bases (F4), J. Pure Appl. Algebra 139 (1999).
+ * @see edu.jas.application.GBAlgorithmBuilder
+ * @see edu.jas.gbufd.GBFactory
+ */
+
+public class GroebnerBaseF4 extends GroebnerBaseAbstract<ModLong> {
+
+
+    private static final Logger logger = Logger.getLogger(GroebnerBaseF4.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Number of threads to use for the row reduction.
+     */
+    protected final int threads;
+
+
+    /**
+     * Row of the Macaulay matrix before the column indices are known. The
+     * polynomial x<sup>e</sup> p.
+     */
+    protected static final class Row {
+
+
+        /**
+         * Polynomial.
+         */
+        final GenPolynomial<ModLong> p;
+
+
+        /**
+         * Multiplier exponent.
+         */
+        final ExpVector e;
+
+
+        /**
+         * Constructor.
+         * @param p polynomial.
+         * @param e multiplier exponent.
+         */
+        Row(GenPolynomial<ModLong> p, ExpVector e) {
+            this.p = p;
+            this.e = e;
+        }
+
+
+        /**
+         * Test for same multiple of same polynomial.
+         * @param r row.
+         * @return true if r is the same multiple of the same polynomial.
+         */
+        boolean same(Row r) {
+            return p == r.p && e.equals(r.e);
+        }
+    }
+
+
+    /**
+     * Sparse row of the Macaulay matrix. Columns are strictly increasing,
+     * values are non zero and in the range 0 &lt;= v &lt; modul.
+     */
+    protected static final class SparseRow {
+
+
+        /**
+         * Column indices.
+         */
+        final int[] col;
+
+
+        /**
+         * Coefficient values.
+         */
+        final long[] val;
+
+
+        /**
+         * Constructor.
+         * @param col column indices.
+         * @param val coefficient values.
+         */
+        SparseRow(int[] col, long[] val) {
+            this.col = col;
+            this.val = val;
+        }
+
+
+        /**
+         * Test for zero row.
+         * @return true if this row has no entries.
+         */
+        boolean isZERO() {
+            return col.length == 0;
+        }
+    }
+
+
+    /**
+     * Constructor.
+     */
+    public GroebnerBaseF4() {
+        this(1);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of threads to use for the row reduction.
+     */
+    public GroebnerBaseF4(int threads) {
+        this(threads, new OrderedPairlist<ModLong>());
+    }
+
+
+    /**
+     * Constructor.
+     * @param pl pair selection strategy
+     */
+    public GroebnerBaseF4(PairList<ModLong> pl) {
+        this(1, pl);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of threads to use for the row reduction.
+     * @param pl pair selection strategy
+     */
+    public GroebnerBaseF4(int threads, PairList<ModLong> pl) {
+        super(new ReductionSeq<ModLong>(), pl);
+        if (threads < 1) {
+            threads = 1;
+        }
+        this.threads = threads;
+    }
+
+
+    /**
+     * Get the String representation with GB engines.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GroebnerBaseF4(" + threads + ")";
+    }
+
+
+    /**
+     * Groebner base using F4 style matrix reduction.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @return GB(F) a Groebner base of F.
+     */
+    public List<GenPolynomial<ModLong>> GB(int modv, List<GenPolynomial<ModLong>> F) {
+        List<GenPolynomial<ModLong>> G = normalizeZerosOnes(F);
+        G = PolyUtil.<ModLong> monic(G);
+        if (G.size() <= 1) {
+            return G;
+        }
+        GenPolynomialRing<ModLong> ring = G.get(0).ring;
+        if (!ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        PairList<ModLong> pairlist = strategy.create(modv, ring);
+        pairlist.put(G);
+        HeadTermIndex<ModLong> index = new HeadTermIndex<ModLong>(G);
+        logger.info("start " + pairlist);
+
+        List<Pair<ModLong>> batch = new ArrayList<Pair<ModLong>>();
+        Pair<ModLong> next = null; // removed pair of other degree
+        while (next != null || pairlist.hasNext()) {
+            batch.clear();
+            long deg = -1;
+            if (next != null) {
+                batch.add(next);
+                deg = lcm(next).totalDeg();
+                next = null;
+            }
+            while (pairlist.hasNext()) {
+                Pair<ModLong> pair = pairlist.removeNext();
+                if (pair == null) {
+                    continue;
+                }
+                long d = lcm(pair).totalDeg();
+                if (deg < 0) {
+                    deg = d;
+                } else if (d != deg) {
+                    next = pair;
+                    break;
+                }
+                batch.add(pair);
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            List<GenPolynomial<ModLong>> H = reduce(batch, index, ring);
+            for (GenPolynomial<ModLong> h : H) {
+                if (h.isONE()) {
+                    G.clear();
+                    G.add(h);
+                    pairlist.putOne();
+                    logger.info("end " + pairlist);
+                    return G;
+                }
+                if (debug) {
+                    logger.debug("ht(h) = " + h.leadingExpVector());
+                }
+                G.add(h);
+                index.add(h);
+                pairlist.put(h);
+            }
+        }
+        logger.debug("#sequential list = " + G.size());
+        G = minimalGB(G);
+        logger.info("end " + pairlist);
+        return G;
+    }
+
+
+    /**
+     * Lcm of the head terms of a pair.
+     * @param pair critical pair.
+     * @return lcm(ht(pi), ht(pj)).
+     */
+    protected static ExpVector lcm(Pair<ModLong> pair) {
+        return pair.pi.leadingExpVector().lcm(pair.pj.leadingExpVector());
+    }
+
+
+    /**
+     * Reduce a batch of critical pairs with one Macaulay matrix.
+     * @param batch list of critical pairs.
+     * @param index head term index of the current base.
+     * @param ring polynomial ring.
+     * @return list of monic polynomials with new head terms.
+     */
+    protected List<GenPolynomial<ModLong>> reduce(List<Pair<ModLong>> batch, HeadTermIndex<ModLong> index,
+                    GenPolynomialRing<ModLong> ring) {
+        Comparator<ExpVector> cmp = ring.tord.getDescendComparator();
+        // rows of S-polynomials and reducer rows by head term
+        SortedMap<ExpVector, Row> reducer = new TreeMap<ExpVector, Row>(cmp);
+        List<Row> rows = new ArrayList<Row>();
+        for (Pair<ModLong> pair : batch) {
+            ExpVector t = lcm(pair);
+            Row ri = new Row(pair.pi, t.subtract(pair.pi.leadingExpVector()));
+            Row rj = new Row(pair.pj, t.subtract(pair.pj.leadingExpVector()));
+            Row r = reducer.get(t);
+            if (r == null) {
+                reducer.put(t, ri);
+                r = ri;
+            } else if (!r.same(ri)) {
+                rows.add(ri);
+            }
+            if (!r.same(rj)) {
+                rows.add(rj);
+            }
+        }
+        // symbolic preprocessing
+        TreeSet<ExpVector> terms = new TreeSet<ExpVector>(cmp);
+        LinkedList<ExpVector> todo = new LinkedList<ExpVector>();
+        for (Row r : rows) {
+            addTerms(r, terms, todo);
+        }
+        for (Row r : reducer.values()) {
+            addTerms(r, terms, todo);
+        }
+        while (!todo.isEmpty()) {
+            ExpVector m = todo.removeFirst();
+            if (reducer.containsKey(m)) {
+                continue;
+            }
+            int i = index.divisorIndex(m);
+            if (i < 0) {
+                continue;
+            }
+            GenPolynomial<ModLong> g = index.get(i);
+            Row r = new Row(g, m.subtract(g.leadingExpVector()));
+            reducer.put(m, r);
+            addTerms(r, terms, todo);
+        }
+        // Macaulay matrix, columns in descending term order
+        ExpVector[] cols = terms.toArray(new ExpVector[terms.size()]);
+        SparseRow[] pivot = new SparseRow[cols.length];
+        for (Map.Entry<ExpVector, Row> me : reducer.entrySet()) {
+            int c = Arrays.binarySearch(cols, me.getKey(), cmp);
+            pivot[c] = toSparse(me.getValue(), cols, cmp);
+        }
+        List<SparseRow> srows = new ArrayList<SparseRow>(rows.size());
+        for (Row r : rows) {
+            srows.add(toSparse(r, cols, cmp));
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("matrix " + (reducer.size() + rows.size()) + " x " + cols.length + ", pivots "
+                            + reducer.size() + ", degree " + lcm(batch.get(0)).totalDeg() + ", pairs "
+                            + batch.size());
+        }
+        ModLongRing p = (ModLongRing) ring.coFac;
+        // reduce S-polynomial rows by the pivot rows
+        List<SparseRow> red = reduceRows(srows, pivot, p);
+        // echelon form of the reduced rows
+        SparseRow[] npivot = new SparseRow[cols.length];
+        List<SparseRow> nrows = new ArrayList<SparseRow>();
+        long[] acc = new long[cols.length];
+        for (SparseRow r : red) {
+            if (r.isZERO()) {
+                continue;
+            }
+            SparseRow s = reduceRow(r, npivot, acc, p);
+            if (s.isZERO()) {
+                continue;
+            }
+            s = monic(s, p);
+            npivot[s.col[0]] = s;
+            nrows.add(s);
+        }
+        // new polynomials
+        List<GenPolynomial<ModLong>> H = new ArrayList<GenPolynomial<ModLong>>(nrows.size());
+        for (SparseRow s : nrows) {
+            GenPolynomial<ModLong> h = ring.getZERO().copy();
+            for (int k = 0; k < s.col.length; k++) {
+                h.doPutToMap(cols[s.col[k]], new ModLong(p, s.val[k]));
+            }
+            H.add(h);
+        }
+        return H;
+    }
+
+
+    /**
+     * Add the terms of a row to the term set and the list of new terms.
+     * @param r row.
+     * @param terms set of terms.
+     * @param todo list of new terms.
+     */
+    protected static void addTerms(Row r, TreeSet<ExpVector> terms, List<ExpVector> todo) {
+        for (ExpVector f : r.p.getMap().keySet()) {
+            ExpVector m = r.e.sum(f);
+            if (terms.add(m)) {
+                todo.add(m);
+            }
+        }
+    }
+
+
+    /**
+     * Convert row to sparse row.
+     * @param r row.
+     * @param cols columns in descending term order.
+     * @param cmp descending term order comparator.
+     * @return sparse row of x<sup>e</sup> p.
+     */
+    protected static SparseRow toSparse(Row r, ExpVector[] cols, Comparator<ExpVector> cmp) {
+        int n = r.p.length();
+        int[] col = new int[n];
+        long[] val = new long[n];
+        int k = 0;
+        for (Map.Entry<ExpVector, ModLong> me : r.p.getMap().entrySet()) {
+            col[k] = Arrays.binarySearch(cols, r.e.sum(me.getKey()), cmp);
+            val[k] = me.getValue().getVal();
+            k++;
+        }
+        return new SparseRow(col, val);
+    }
+
+
+    /**
+     * Reduce rows by pivot rows. The rows are distributed to the threads.
+     * @param rows list of rows.
+     * @param pivot monic pivot rows by leading column.
+     * @param p modular coefficient ring.
+     * @return list of reduced rows, without entries in pivot columns.
+     */
+    protected List<SparseRow> reduceRows(final List<SparseRow> rows, final SparseRow[] pivot,
+                    final ModLongRing p) {
+        final int n = rows.size();
+        final SparseRow[] res = new SparseRow[n];
+        int th = threads;
+        if (ComputerThreads.NO_THREADS || n < 2 * th) {
+            th = 1;
+        }
+        if (th == 1) {
+            long[] acc = new long[pivot.length];
+            for (int i = 0; i < n; i++) {
+                res[i] = reduceRow(rows.get(i), pivot, acc, p);
+            }
+            return Arrays.asList(res);
+        }
+        final int step = th;
+        List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>(th);
+        for (int t = 0; t < th; t++) {
+            final int start = t;
+            tasks.add(new Callable<Boolean>() {
+
+
+                public Boolean call() {
+                    long[] acc = new long[pivot.length];
+                    for (int i = start; i < n; i += step) {
+                        res[i] = reduceRow(rows.get(i), pivot, acc, p);
+                    }
+                    return true;
+                }
+            });
+        }
+        ExecutorService pool = ComputerThreads.getPool();
+        try {
+            List<Future<Boolean>> fs = pool.invokeAll(tasks);
+            for (Future<Boolean> f : fs) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("F4 row reduction interrupted " + e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("F4 row reduction failed " + e.getCause(), e.getCause());
+        }
+        return Arrays.asList(res);
+    }
+
+
+    /**
+     * Reduce a row by pivot rows.
+     * @param r row.
+     * @param pivot monic pivot rows by leading column, null for none.
+     * @param acc dense accumulator, must be zero, is zero on return.
+     * @param p modular coefficient ring.
+     * @return reduced row, without entries in pivot columns.
+     */
+    protected static SparseRow reduceRow(SparseRow r, SparseRow[] pivot, long[] acc, ModLongRing p) {
+        for (int k = 0; k < r.col.length; k++) {
+            acc[r.col[k]] = r.val[k];
+        }
+        int[] col = new int[8];
+        long[] val = new long[8];
+        int len = 0;
+        for (int c = r.col[0]; c < acc.length; c++) {
+            long a = acc[c];
+            if (a == 0L) {
+                continue;
+            }
+            acc[c] = 0L;
+            SparseRow q = pivot[c];
+            if (q == null) {
+                if (len == col.length) {
+                    col = Arrays.copyOf(col, 2 * len);
+                    val = Arrays.copyOf(val, 2 * len);
+                }
+                col[len] = c;
+                val[len] = a;
+                len++;
+                continue;
+            }
+            // acc = acc - a * q, q is monic
+            int[] qc = q.col;
+            long[] qv = q.val;
+            for (int k = 1; k < qc.length; k++) {
+                acc[qc[k]] = p.subtract(acc[qc[k]], p.multiply(a, qv[k]));
+            }
+        }
+        return new SparseRow(Arrays.copyOf(col, len), Arrays.copyOf(val, len));
+    }
+
+
+    /**
+     * Monic sparse row.
+     * @param r non zero row.
+     * @param p modular coefficient ring.
+     * @return r / r.val[0].
+     */
+    protected static SparseRow monic(SparseRow r, ModLongRing p) {
+        long a = r.val[0];
+        if (a == 1L) {
+            return r;
+        }
+        long b = inverse(a, p.modul);
+        long[] val = new long[r.val.length];
+        for (int k = 0; k < val.length; k++) {
+            val[k] = p.multiply(r.val[k], b);
+        }
+        return new SparseRow(r.col, val);
+    }
+
+
+    /**
+     * Modular inverse.
+     * @param a non zero element.
+     * @param p prime modul.
+     * @return a<sup>-1</sup> mod p.
+     */
+    protected static long inverse(long a, long p) {
+        long x0 = 0L;
+        long x1 = 1L;
+        long r0 = p;
+        long r1 = a;
+        while (r1 != 0L) {
+            long q = r0 / r1;
+            long t = r0 - q * r1;
+            r0 = r1;
+            r1 = t;
+            t = x0 - q * x1;
+            x0 = x1;
+            x1 = t;
+        }
+        if (r0 != 1L) {
+            throw new ArithmeticException("element not invertible " + a + " mod " + p);
+        }
+        if (x0 < 0L) {
+            x0 += p;
+        }
+        return x0;
+    }
+
+}
@@ -11,6 +11,8 @@ import java.util.List;
 import org.apache.log4j.Logger;
 
 import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.GroebnerBaseSeqHilbert;
+import edu.jas.gb.HilbertSeries;
 import edu.jas.gb.PairList;
 import edu.jas.gb.Reduction;
 import edu.jas.gb.ReductionSeq;
@@ -18,6 +20,7 @@ import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.PolyUtil;
+import edu.jas.poly.PolynomialList;
 import edu.jas.poly.TermOrder;
 import edu.jas.structure.GcdRingElem;
 import edu.jas.structure.RingFactory;
@@ -25,7 +28,8 @@ import edu.jas.structure.RingFactory;
 
 /**
  * Groebner Base sequential FGLM algorithm. Implements Groebner base computation
- * via FGLM algorithm.
+ * via FGLM algorithm. Homogeneous ideals which are not zero dimensional are
+ * converted with the Hilbert series driven Buchberger algorithm.
  * @param <C> coefficient type
  * @author Jan Suess
  *
@@ -160,6 +164,14 @@ public class GroebnerBaseFGLM<C extends GcdRingElem<C>> extends GroebnerBaseAbst
             G.add(p);
             return G;
         }
+        if (commonZeroTest(Gp) > 0 && new PolynomialList<C>(gfac, Gp).isHomogeneous()) {
+            // compute invlex Groebner base via Hilbert series
+            GenPolynomialRing<C> ufac = new GenPolynomialRing<C>(gfac, new TermOrder(TermOrder.INVLEX));
+            HilbertSeries hs = HilbertSeries.leadingTermSeries(Gp);
+            logger.info("Hilbert series = " + hs);
+            GroebnerBaseAbstract<C> hbb = new GroebnerBaseSeqHilbert<C>(hs);
+            return hbb.GB(modv, ufac.copy(Gp));
+        }
         // compute invlex Groebner base via FGLM
         G = convGroebnerToLex(Gp);
         return G;
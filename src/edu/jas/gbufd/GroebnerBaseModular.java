@@ -0,0 +1,569 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ChineseRemainderTree;
+import edu.jas.arith.ModInteger;
+import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.arith.PrimeList;
+import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+
+
+/**
+ * Groebner Base multi-modular algorithm for rational coefficients. Implements
+ * Groebner bases. The reduced Groebner bases of the input polynomials are
+ * computed modulo several primes, in parallel if requested. Primes dividing
+ * a leading coefficient are skipped and the modular Groebner bases are
+ * grouped by their leading terms, the largest group is assumed to consist of
+ * lucky primes. The modular Groebner bases of this group are combined by
+ * chinese remaindering and the rational coefficients are obtained by
+ * rational reconstruction. If the reconstruction is not changed by further
+ * primes, the result is verified to be a Groebner base of an ideal containing
+ * the input polynomials.
+ * @author Heinz Kredel
+ * @see E.A. Arnold, Modular algorithms for computing Gr&ouml;bner bases, J.
+ *      Symbolic Computation 35 (2003).
+ * @see edu.jas.application.GBAlgorithmBuilder
+ * @see edu.jas.gbufd.GBFactory
+ */
+
+public class GroebnerBaseModular extends GroebnerBaseAbstract<BigRational> {
+
+
+    private static final Logger logger = Logger.getLogger(GroebnerBaseModular.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Maximal number of primes before the fraction free algorithm is used.
+     */
+    public static final int MAX_PRIMES = 500;
+
+
+    /**
+     * Number of primes to compute in parallel.
+     */
+    protected final int threads;
+
+
+    /**
+     * Modular images with equal leading terms.
+     */
+    protected static final class ModularImage {
+
+
+        /**
+         * Leading exponent vectors of the modular Groebner bases.
+         */
+        public final List<ExpVector> lt;
+
+
+        /**
+         * Primes not yet combined in cra.
+         */
+        public final List<java.math.BigInteger> primes;
+
+
+        /**
+         * Modular Groebner bases for the primes not yet combined in cra.
+         */
+        public final List<List<GenPolynomial<ModLong>>> gbs;
+
+
+        /**
+         * Product of the primes combined in cra.
+         */
+        public java.math.BigInteger modul;
+
+
+        /**
+         * Chinese remainder of the combined modular Groebner bases.
+         */
+        public List<GenPolynomial<ModInteger>> cra;
+
+
+        /**
+         * Number of used primes.
+         */
+        public int count;
+
+
+        /**
+         * Last successful rational reconstruction, or null.
+         */
+        public List<GenPolynomial<BigRational>> rat;
+
+
+        /**
+         * Number of primes for the next reconstruction.
+         */
+        public int next;
+
+
+        /**
+         * Constructor.
+         * @param lt list of leading exponent vectors.
+         */
+        public ModularImage(List<ExpVector> lt) {
+            this.lt = lt;
+            primes = new ArrayList<java.math.BigInteger>();
+            gbs = new ArrayList<List<GenPolynomial<ModLong>>>();
+            count = 0;
+            next = 1;
+        }
+    }
+
+
+    /**
+     * Constructor.
+     */
+    public GroebnerBaseModular() {
+        this(1);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of primes to compute in parallel.
+     */
+    public GroebnerBaseModular(int threads) {
+        super();
+        if (threads < 1) {
+            threads = 1;
+        }
+        this.threads = threads;
+    }
+
+
+    /**
+     * Get the String representation with GB engines.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GroebnerBaseModular(" + threads + ")";
+    }
+
+
+    /**
+     * Groebner base using multi-modular computation.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @return GB(F) a Groebner base of F.
+     */
+    @Override
+    public List<GenPolynomial<BigRational>> GB(int modv, List<GenPolynomial<BigRational>> F) {
+        List<GenPolynomial<BigRational>> G = normalizeZerosOnes(F);
+        G = PolyUtil.<BigRational> monic(G);
+        if (G.size() <= 1) {
+            return G;
+        }
+        GenPolynomialRing<BigRational> rring = G.get(0).ring;
+        GenPolynomialRing<BigInteger> iring = new GenPolynomialRing<BigInteger>(new BigInteger(), rring);
+        List<GenPolynomial<BigInteger>> Fi = PolyUtil.integerFromRationalCoefficients(iring, G);
+
+        List<ModularImage> images = new ArrayList<ModularImage>();
+        // primes below the maximal ModLong modul, for the fast modular algorithms
+        PrimitiveIterator.OfLong primes = new PrimeList(ModLongRing.MAX_LONG.bitLength()).longIterator();
+        int i = 0;
+        while (i < MAX_PRIMES) {
+            // select primes not dividing a leading coefficient
+            List<java.math.BigInteger> ps = new ArrayList<java.math.BigInteger>(threads);
+            while (ps.size() < threads) {
+                java.math.BigInteger p = java.math.BigInteger.valueOf(primes.nextLong());
+                i++;
+                if (isUnlucky(p, Fi)) {
+                    logger.info("prime divides leading coefficient: " + p);
+                    continue;
+                }
+                ps.add(p);
+            }
+            List<List<GenPolynomial<ModLong>>> Gps = modularGB(modv, ps, Fi);
+            // combine with images of equal leading terms
+            for (int k = 0; k < ps.size(); k++) {
+                List<GenPolynomial<ModLong>> Gp = Gps.get(k);
+                ModularImage im = getImage(images, Gp);
+                chineseRemainder(im, ps.get(k), Gp);
+            }
+            ModularImage mi = images.get(0);
+            for (ModularImage im : images) {
+                if (im.count > mi.count) {
+                    mi = im;
+                }
+            }
+            if (debug) {
+                logger.debug("#images = " + images.size() + ", count = " + mi.count + ", M = " + mi.modul);
+            }
+            // reconstruct and test, after failures with a growing number of primes
+            if (mi.count < mi.next) {
+                continue;
+            }
+            combine(mi);
+            List<GenPolynomial<BigRational>> R = rationalReconstruction(rring, mi.cra);
+            if (R == null) {
+                mi.rat = null;
+                mi.next = mi.count + 1 + mi.count / 4;
+                continue;
+            }
+            mi.next = mi.count + 1;
+            if (!R.equals(mi.rat)) { // not yet stable
+                mi.rat = R;
+                continue;
+            }
+            if (verify(modv, G, R)) {
+                logger.info("#primes = " + i + ", #images = " + images.size() + ", used = " + mi.count);
+                return R;
+            }
+            logger.info("verification failed, #primes = " + i);
+            mi.next = mi.count + 1 + mi.count / 4;
+        }
+        logger.warn("prime list exhausted, use fraction free algorithm");
+        GroebnerBaseAbstract<BigRational> bb = new GroebnerBaseRational<BigRational>();
+        return bb.GB(modv, G);
+    }
+
+
+    /**
+     * Test if a prime divides a leading coefficient.
+     * @param p prime.
+     * @param F list of integral polynomials.
+     * @return true, if p divides a leading coefficient of a polynomial of F,
+     *         else false.
+     */
+    protected static boolean isUnlucky(java.math.BigInteger p, List<GenPolynomial<BigInteger>> F) {
+        for (GenPolynomial<BigInteger> f : F) {
+            if (f.leadingBaseCoefficient().getVal().mod(p).signum() == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Modular Groebner bases. The Groebner bases for different primes are
+     * computed in parallel.
+     * @param modv module variable number.
+     * @param ps list of primes.
+     * @param F list of integral polynomials.
+     * @return list of reduced Groebner bases of F modulo the primes, sorted
+     *         by descending leading terms.
+     */
+    protected List<List<GenPolynomial<ModLong>>> modularGB(final int modv, List<java.math.BigInteger> ps,
+                    final List<GenPolynomial<BigInteger>> F) {
+        List<Callable<List<GenPolynomial<ModLong>>>> tasks = new ArrayList<Callable<List<GenPolynomial<ModLong>>>>(
+                        ps.size());
+        for (java.math.BigInteger p : ps) {
+            final ModLongRing mr = new ModLongRing(p, true);
+            tasks.add(new Callable<List<GenPolynomial<ModLong>>>() {
+
+
+                public List<GenPolynomial<ModLong>> call() {
+                    return modularGB(modv, mr, F);
+                }
+            });
+        }
+        List<List<GenPolynomial<ModLong>>> G = new ArrayList<List<GenPolynomial<ModLong>>>(ps.size());
+        if (tasks.size() == 1 || ComputerThreads.NO_THREADS) {
+            for (Callable<List<GenPolynomial<ModLong>>> t : tasks) {
+                try {
+                    G.add(t.call());
+                } catch (Exception e) { // not thrown
+                    throw new RuntimeException(e);
+                }
+            }
+            return G;
+        }
+        ExecutorService pool = ComputerThreads.getPool();
+        try {
+            List<Future<List<GenPolynomial<ModLong>>>> fs = pool.invokeAll(tasks);
+            for (Future<List<GenPolynomial<ModLong>>> f : fs) {
+                G.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("modular GB interrupted " + e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("modular GB failed " + e.getCause(), e.getCause());
+        }
+        return G;
+    }
+
+
+    /**
+     * Modular Groebner base.
+     * @param modv module variable number.
+     * @param mr modular coefficient ring.
+     * @param F list of integral polynomials.
+     * @return reduced Groebner base of F modulo mr, sorted by descending
+     *         leading terms.
+     */
+    protected static List<GenPolynomial<ModLong>> modularGB(int modv, ModLongRing mr,
+                    List<GenPolynomial<BigInteger>> F) {
+        GenPolynomialRing<ModLong> mfac = new GenPolynomialRing<ModLong>(mr, F.get(0).ring);
+        List<GenPolynomial<ModLong>> Fp = PolyUtil.<ModLong> fromIntegerCoefficients(mfac, F);
+        GroebnerBaseAbstract<ModLong> bb = new GroebnerBaseF4();
+        List<GenPolynomial<ModLong>> G = bb.GB(modv, Fp);
+        final Comparator<ExpVector> cmp = mfac.tord.getDescendComparator();
+        Collections.sort(G, new Comparator<GenPolynomial<ModLong>>() {
+
+
+            public int compare(GenPolynomial<ModLong> a, GenPolynomial<ModLong> b) {
+                return cmp.compare(a.leadingExpVector(), b.leadingExpVector());
+            }
+        });
+        return G;
+    }
+
+
+    /**
+     * Find or create the image for the leading terms of a modular Groebner
+     * base.
+     * @param images list of images.
+     * @param G sorted modular Groebner base.
+     * @return image with leading terms of G.
+     */
+    protected static ModularImage getImage(List<ModularImage> images, List<GenPolynomial<ModLong>> G) {
+        List<ExpVector> lt = new ArrayList<ExpVector>(G.size());
+        for (GenPolynomial<ModLong> g : G) {
+            lt.add(g.leadingExpVector());
+        }
+        for (ModularImage im : images) {
+            if (im.lt.equals(lt)) {
+                return im;
+            }
+        }
+        ModularImage im = new ModularImage(lt);
+        images.add(im);
+        return im;
+    }
+
+
+    /**
+     * Add a modular Groebner base with the same leading terms to a modular
+     * image.
+     * @param im modular image, is updated.
+     * @param p prime.
+     * @param G sorted modular Groebner base modulo p.
+     */
+    protected static void chineseRemainder(ModularImage im, java.math.BigInteger p,
+                    List<GenPolynomial<ModLong>> G) {
+        im.primes.add(p);
+        im.gbs.add(G);
+        im.count++;
+    }
+
+
+    /**
+     * Chinese remainder of the pending modular Groebner bases of a modular
+     * image. The coefficients of the pending Groebner bases are combined at
+     * once with a product tree of their primes, the result is then combined
+     * with the previous chinese remainder in one step.
+     * @param im modular image, modul and cra are updated.
+     */
+    protected static void combine(ModularImage im) {
+        if (im.primes.isEmpty()) {
+            return;
+        }
+        GenPolynomialRing<ModLong> pfac = im.gbs.get(0).get(0).ring;
+        ChineseRemainderTree crt = new ChineseRemainderTree(im.primes);
+        GenPolynomialRing<ModInteger> rfac = new GenPolynomialRing<ModInteger>(new ModIntegerRing(
+                        crt.getModul()), pfac);
+        List<GenPolynomial<ModInteger>> C = PolyUtil.<ModLong> chineseRemainder(rfac, crt, im.gbs);
+        im.primes.clear();
+        im.gbs.clear();
+        if (im.cra == null) {
+            im.modul = crt.getModul();
+            im.cra = C;
+            return;
+        }
+        List<java.math.BigInteger> ms = new ArrayList<java.math.BigInteger>(2);
+        ms.add(im.modul);
+        ms.add(crt.getModul());
+        List<List<GenPolynomial<ModInteger>>> A = new ArrayList<List<GenPolynomial<ModInteger>>>(2);
+        A.add(im.cra);
+        A.add(C);
+        crt = new ChineseRemainderTree(ms);
+        im.modul = crt.getModul();
+        rfac = new GenPolynomialRing<ModInteger>(new ModIntegerRing(im.modul), pfac);
+        im.cra = PolyUtil.<ModInteger> chineseRemainder(rfac, crt, A);
+    }
+
+
+    /**
+     * Rational reconstruction of polynomial coefficients. The coefficients of
+     * all polynomials are reconstructed at once, so that common denominators
+     * are reused.
+     * @param rring result polynomial ring.
+     * @param A list of polynomials with ModInteger coefficients of the same
+     *            modul.
+     * @return list of polynomials B with B = A mod m, or null if some
+     *         coefficient could not be reconstructed.
+     */
+    public static List<GenPolynomial<BigRational>> rationalReconstruction(GenPolynomialRing<BigRational> rring,
+                    List<GenPolynomial<ModInteger>> A) {
+        if (A.isEmpty()) {
+            return new ArrayList<GenPolynomial<BigRational>>();
+        }
+        java.math.BigInteger m = ((ModIntegerRing) A.get(0).ring.coFac).getModul();
+        int n = 0;
+        for (GenPolynomial<ModInteger> a : A) {
+            n += a.length();
+        }
+        java.math.BigInteger[] c = new java.math.BigInteger[n];
+        int i = 0;
+        for (GenPolynomial<ModInteger> a : A) {
+            for (ModInteger x : a.getMap().values()) {
+                c[i++] = x.getVal();
+            }
+        }
+        BigRational[] r = BigRational.rationalReconstruction(c, m);
+        if (r == null) {
+            return null;
+        }
+        List<GenPolynomial<BigRational>> B = new ArrayList<GenPolynomial<BigRational>>(A.size());
+        i = 0;
+        for (GenPolynomial<ModInteger> a : A) {
+            GenPolynomial<BigRational> b = rring.getZERO().copy();
+            for (ExpVector e : a.getMap().keySet()) {
+                b.doPutToMap(e, r[i++]);
+            }
+            B.add(b);
+        }
+        return B;
+    }
+
+
+    /**
+     * Rational reconstruction. Find n/d with n = a d mod m and |n|, |d| &le;
+     * sqrt(m/2).
+     * @param a residue, 0 &le; a &lt; m.
+     * @param m modul.
+     * @return the unique n/d with the required bounds, or null if no such
+     *         fraction exists.
+     */
+    public static BigRational rationalReconstruction(java.math.BigInteger a, java.math.BigInteger m) {
+        return BigRational.rationalReconstruction(a, m);
+    }
+
+
+    /**
+     * Verify a reconstructed Groebner base. The test is fraction free with
+     * the primitive integral associates of the polynomials. The normalforms
+     * of the input polynomials and of the required S-polynomials are
+     * computed in parallel.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @param G reconstructed polynomial list.
+     * @return true, if G is a Groebner base and F is contained in ideal(G),
+     *         else false.
+     */
+    protected boolean verify(int modv, List<GenPolynomial<BigRational>> F, List<GenPolynomial<BigRational>> G) {
+        GenPolynomialRing<BigInteger> iring = new GenPolynomialRing<BigInteger>(new BigInteger(), G.get(0).ring);
+        final List<GenPolynomial<BigInteger>> Fi = PolyUtil.integerFromRationalCoefficients(iring, F);
+        final List<GenPolynomial<BigInteger>> Gi = PolyUtil.integerFromRationalCoefficients(iring, G);
+        final PseudoReduction<BigInteger> ired = new PseudoReductionSeq<BigInteger>();
+        // required S-polynomials
+        final List<int[]> pairs = new ArrayList<int[]>();
+        for (int i = 0; i < Gi.size(); i++) {
+            ExpVector ei = Gi.get(i).leadingExpVector();
+            for (int j = i + 1; j < Gi.size(); j++) {
+                ExpVector ej = Gi.get(j).leadingExpVector();
+                if (!ired.moduleCriterion(modv, ei, ej)) {
+                    continue;
+                }
+                ExpVector eij = ei.lcm(ej);
+                if (!ired.criterion4(ei, ej, eij)) {
+                    continue;
+                }
+                boolean chain = false; // pairs (i,k) and (k,j) with smaller lcm
+                for (int k = 0; k < Gi.size() && !chain; k++) {
+                    ExpVector ek = Gi.get(k).leadingExpVector();
+                    chain = k != i && k != j && eij.multipleOf(ek) && !ei.lcm(ek).equals(eij)
+                                    && !ej.lcm(ek).equals(eij);
+                }
+                if (!chain) {
+                    pairs.add(new int[] { i, j });
+                }
+            }
+        }
+        final int n = Fi.size() + pairs.size();
+        int th = threads;
+        if (ComputerThreads.NO_THREADS || n < 2 * th) {
+            th = 1;
+        }
+        final int step = th;
+        List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>(th);
+        for (int t = 0; t < th; t++) {
+            final int start = t;
+            tasks.add(new Callable<Boolean>() {
+
+
+                public Boolean call() {
+                    for (int k = start; k < n; k += step) {
+                        GenPolynomial<BigInteger> h;
+                        if (k < Fi.size()) {
+                            h = Fi.get(k);
+                        } else {
+                            int[] pair = pairs.get(k - Fi.size());
+                            h = ired.SPolynomial(Gi.get(pair[0]), Gi.get(pair[1]));
+                        }
+                        if (!ired.normalform(Gi, h).isZERO()) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            });
+        }
+        if (th == 1) {
+            try {
+                return tasks.get(0).call();
+            } catch (Exception e) { // not thrown
+                throw new RuntimeException(e);
+            }
+        }
+        ExecutorService pool = ComputerThreads.getPool();
+        try {
+            List<Future<Boolean>> fs = pool.invokeAll(tasks);
+            boolean ok = true;
+            for (Future<Boolean> f : fs) {
+                ok = f.get() && ok;
+            }
+            return ok;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("verification interrupted " + e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("verification failed " + e.getCause(), e.getCause());
+        }
+    }
+
+}
@@ -379,10 +379,13 @@ class PseudoReducer<C extends GcdRingElem<C>> implements Runnable {
         //boolean set = false;
         int reduction = 0;
         int sleeps = 0;
-        while (pairlist.hasNext() || fin.hasJobs()) {
-            while (!pairlist.hasNext()) {
-                // wait
-                //fin.beIdle(); set = true;
+        while (true) {
+            long events = fin.getEvents(); // before pairlist check, no put is lost
+            if (!pairlist.hasNext()) {
+                if (!fin.hasJobs()) {
+                    break;
+                }
+                // wait for pairlist.put or termination
                 try {
                     sleeps++;
                     if (sleeps % 10 == 0) {
@@ -390,16 +393,13 @@ class PseudoReducer<C extends GcdRingElem<C>> implements Runnable {
                     } else {
                         logger.debug("r");
                     }
-                    Thread.sleep(100);
+                    fin.waitWork(events);
                 } catch (InterruptedException e) {
+                    fin.allIdle();
+                    logger.info("shutdown " + fin + " after: " + e);
                     break;
                 }
-                if (!fin.hasJobs()) {
-                    break;
-                }
-            }
-            if (!pairlist.hasNext() && !fin.hasJobs()) {
-                break;
+                continue;
             }
 
             fin.notIdle(); // before pairlist get
@@ -12,6 +12,8 @@ import java.util.SortedSet;
 import org.apache.log4j.Logger;
 
 import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.GroebnerBaseSeqHilbert;
+import edu.jas.gb.HilbertSeries;
 import edu.jas.gb.ReductionAbstract;
 import edu.jas.gb.ReductionSeq;
 import edu.jas.poly.ExpVector;
@@ -29,7 +31,8 @@ import edu.jas.structure.RingFactory;
 /**
  * Groebner Base sequential Groebner Walk algorithm. Implements Groebner base
  * computation via Groebner Walk algorithm. See "The generic Groebner walk" by
- * Fukuda, Jensen, Lauritzen, Thomas, 2005.
+ * Fukuda, Jensen, Lauritzen, Thomas, 2005. Homogeneous ideals are converted
+ * with the Hilbert series driven Buchberger algorithm.
  * @param <C> coefficient type
  * @author Heinz Kredel
  * 
@@ -142,12 +145,38 @@ public class GroebnerBaseWalk<C extends GcdRingElem<C>> extends GroebnerBaseAbst
         if (z == 0) {
             logger.info("ideal zero dimensional, can use also FGLM algorithm");
         }
+        if (modv == 0 && new PolynomialList<C>(gfac, Gp).isHomogeneous()) {
+            // compute INVLEX Groebner base via Hilbert series
+            G = hilbertGroebnerToLex(modv, Gp);
+            return G;
+        }
         // compute INVLEX Groebner base via Groebner Walk
         G = walkGroebnerToLex(modv, Gp);
         return G;
     }
 
 
+    /**
+     * Converts homogeneous Groebner bases w.r.t. total degree term order to
+     * Groebner base w.r.t to inverse lexicographical term order. The Hilbert
+     * series of the leading terms of Gl drives the Buchberger algorithm.
+     * @param modv module variable number.
+     * @param Gl homogeneous Groebner base with respect to graded term order.
+     * @return Groebner base w.r.t to inverse lexicographical term order
+     */
+    public List<GenPolynomial<C>> hilbertGroebnerToLex(int modv, List<GenPolynomial<C>> Gl) {
+        if (Gl == null || Gl.size() == 0) {
+            throw new IllegalArgumentException("G may not be null or empty");
+        }
+        GenPolynomialRing<C> ring = Gl.get(0).ring;
+        GenPolynomialRing<C> ufac = new GenPolynomialRing<C>(ring, new TermOrder(TermOrder.INVLEX));
+        HilbertSeries hs = HilbertSeries.leadingTermSeries(Gl);
+        logger.info("Hilbert series = " + hs);
+        GroebnerBaseAbstract<C> hbb = new GroebnerBaseSeqHilbert<C>(hs);
+        return hbb.GB(modv, ufac.copy(Gl));
+    }
+
+
     /**
      * Converts Groebner bases w.r.t. total degree term order to Groebner base
      * w.r.t to inverse lexicographical term order.
@@ -10,9 +10,11 @@ import java.util.Map;
 
 import org.apache.log4j.Logger;
 
+import edu.jas.gb.HeadTermIndex;
 import edu.jas.gb.ReductionAbstract;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GeoBucket;
 import edu.jas.poly.PolyUtil;
 import edu.jas.structure.RingElem;
 
@@ -86,8 +88,8 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
         boolean mt = false;
         GenPolynomial<C> R = Ap.ring.getZERO().copy();
 
-        GenPolynomial<C> S = Ap.copy();
-        while (S.length() > 0) {
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        while (!S.isZERO()) {
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
@@ -101,7 +103,7 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
                 //R = R.sum(a, e);
                 //S = S.subtract(a, e);
                 R.doPutToMap(e, a);
-                S.doRemoveFromMap(e, a);
+                S.doRemoveLeadingMonomial();
                 //System.out.println(" S = " + S);
             } else {
                 f = e.subtract(htl[i]);
@@ -110,18 +112,18 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
                 C c = (C) lbc[i];
                 if (a.remainder(c).isZERO()) { //c.isUnit() ) {
                     b = a.divide(c);
-                    GenPolynomial<C> Sp = S.subtractMultiple(b, f, p[i]);
-                    if (e.equals(Sp.leadingExpVector())) { // TODO: avoid
-                        logger.info("degree not descending: S = " + S + ", Sp = " + Sp);
+                    if (a.subtract(b.multiply(c)).isZERO()) {
+                        S.subtractMultiple(b, f, p[i]);
+                    } else { // TODO: avoid
+                        logger.info("degree not descending: e = " + e + ", a = " + a + ", c = " + c);
                         R = R.multiply(c);
                         //S = S.multiply(c);
-                        Sp = S.scaleSubtractMultiple(c, a, f, p[i]);
+                        S.scaleSubtractMultiple(c, a, f, p[i]);
                     }
-                    S = Sp;                    
                 } else {
                     R = R.multiply(c);
                     //S = S.multiply(c);
-                    S = S.scaleSubtractMultiple(c, a, f, p[i]);
+                    S.scaleSubtractMultiple(c, a, f, p[i]);
                 }
                 //Q = p[i].multiply(a, e);
                 //S = S.subtract(Q);
@@ -131,6 +133,59 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
     }
 
 
+    /**
+     * Normalform using a head term index. Computes the same result as
+     * normalform(Pp.getList(), Ap).
+     * @param Ap polynomial.
+     * @param Pp head term index of a polynomial list.
+     * @return nf(Ap) with respect to Pp.
+     */
+    @Override
+    public GenPolynomial<C> normalform(HeadTermIndex<C> Pp, GenPolynomial<C> Ap) {
+        if (Pp == null || Pp.isEmpty()) {
+            return Ap;
+        }
+        if (Ap == null || Ap.isZERO()) {
+            return Ap;
+        }
+        Map.Entry<ExpVector, C> m;
+        ExpVector e, f;
+        C a, b, c;
+        int i;
+        GenPolynomial<C> p;
+        GenPolynomial<C> R = Ap.ring.getZERO().copy();
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        while (!S.isZERO()) {
+            m = S.leadingMonomial();
+            e = m.getKey();
+            a = m.getValue();
+            i = Pp.divisorIndex(e);
+            if (i < 0) {
+                R.doPutToMap(e, a);
+                S.doRemoveLeadingMonomial();
+            } else {
+                p = Pp.get(i);
+                f = e.subtract(p.leadingExpVector());
+                c = p.leadingBaseCoefficient();
+                if (a.remainder(c).isZERO()) {
+                    b = a.divide(c);
+                    if (a.subtract(b.multiply(c)).isZERO()) {
+                        S.subtractMultiple(b, f, p);
+                    } else {
+                        logger.info("degree not descending: e = " + e + ", a = " + a + ", c = " + c);
+                        R = R.multiply(c);
+                        S.scaleSubtractMultiple(c, a, f, p);
+                    }
+                } else {
+                    R = R.multiply(c);
+                    S.scaleSubtractMultiple(c, a, f, p);
+                }
+            }
+        }
+        return R;
+    }
+
+
     /**
      * Normalform recursive.
      * @param Ap recursive polynomial.
@@ -47,7 +47,7 @@ public class AlgebraicNumber<C extends RingElem<C>> implements GcdRingElem<Algeb
      */
     public AlgebraicNumber(AlgebraicNumberRing<C> r, GenPolynomial<C> a) {
         ring = r; // assert r != 0
-        val = a.remainder(ring.modul); //.monic() no go
+        val = ring.remainder(a); //.monic() no go
         if (val.isZERO()) {
             isunit = 0;
         }
@@ -13,6 +13,8 @@ import java.util.Random;
 
 import org.apache.log4j.Logger;
 
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
 import edu.jas.kern.Scripting;
 import edu.jas.structure.RingElem;
 import edu.jas.structure.RingFactory;
@@ -48,6 +50,13 @@ public class AlgebraicNumberRing<C extends RingElem<C>> implements RingFactory<A
     protected int isField = -1; // initially unknown
 
 
+    /**
+     * Dense modulus with precomputed inverse for ModLongRing coefficients,
+     * created on demand.
+     */
+    private transient volatile ModLongDenseModulus denseModul;
+
+
     private static final Logger logger = Logger.getLogger(AlgebraicNumberRing.class);
 
 
@@ -93,6 +102,32 @@ public class AlgebraicNumberRing<C extends RingElem<C>> implements RingFactory<A
     }
 
 
+    /**
+     * Remainder modulo the module part. For ModLongRing coefficients and dense
+     * polynomials the division uses ModLongDenseModulus, whose power series
+     * inverse of the module part is computed once and reused for all
+     * reductions in this ring.
+     * @param a polynomial.
+     * @return a mod modul.
+     */
+    @SuppressWarnings({ "unchecked", "cast" })
+    public GenPolynomial<C> remainder(GenPolynomial<C> a) {
+        if (ring.coFac instanceof ModLongRing) {
+            GenPolynomial<ModLong> A = (GenPolynomial<ModLong>) (GenPolynomial) a;
+            GenPolynomial<ModLong> M = (GenPolynomial<ModLong>) (GenPolynomial) modul;
+            if (ModLongDenseModulus.isDenseDivision(A, M)) {
+                ModLongDenseModulus D = denseModul;
+                if (D == null) {
+                    D = new ModLongDenseModulus(M);
+                    denseModul = D;
+                }
+                return (GenPolynomial<C>) (GenPolynomial) D.remainder(A);
+            }
+        }
+        return a.remainder(modul);
+    }
+
+
     /**
      * Copy AlgebraicNumber element c.
      * @param c algebraic number to copy.
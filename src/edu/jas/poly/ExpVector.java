@@ -9,6 +9,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Random;
 
+import org.apache.log4j.Logger;
+
 import edu.jas.arith.BigInteger;
 import edu.jas.structure.AbelianGroupElem;
 import edu.jas.structure.AbelianGroupFactory;
@@ -26,7 +28,10 @@ import edu.jas.structure.RingFactory;
  * but exponents can be set (during construction); also the hash code is only
  * computed once, when needed. The different storage unit implementations are
  * <code>ExpVectorLong</code> <code>ExpVectorInteger</code>,
- * <code>ExpVectorShort</code> and <code>ExpVectorByte</code>. The static
+ * <code>ExpVectorShort</code>, <code>ExpVectorByte</code> and
+ * <code>ExpVectorPacked</code>. The latter stores all exponents of small
+ * rings in one or two words and falls back to <code>ExpVectorLong</code> for
+ * large or negative exponents. The static
  * factory methods <code>create()</code> of <code>ExpVector</code> select the
  * respective storage unit. The selection of the desired storage unit is
  * internally done via the static variable <code>storunit</code>. This varaible
@@ -37,6 +42,12 @@ import edu.jas.structure.RingFactory;
 public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
 
 
+    private static final Logger logger = Logger.getLogger(ExpVector.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
     /**
      * Stored hash code.
      */
@@ -49,6 +60,35 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
     transient protected long blen = -1;
 
 
+    /**
+     * Stored divisor mask with the highest bit set, 0 if not yet computed.
+     * Volatile since it is computed lazily and read by parallel reducers, so
+     * a reader never sees a half written long.
+     */
+    transient protected volatile long dmask = 0L;
+
+
+    /**
+     * Number of divisor mask bits. The highest bit is used to indicate a
+     * computed mask.
+     */
+    public final static int MASK_BITS = 63;
+
+
+    /**
+     * Number of divisibility tests with divisor masks. Statistics only,
+     * counted if debug is enabled, not synchronized.
+     */
+    private static long maskTests = 0L;
+
+
+    /**
+     * Number of divisibility tests decided by the divisor masks alone.
+     * Statistics only, counted if debug is enabled, not synchronized.
+     */
+    private static long maskRejects = 0L;
+
+
     /**
      * Random number generator.
      */
@@ -59,7 +99,7 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
      * Storage representation of exponent arrays.
      */
     public static enum StorUnit {
-        LONG, INT, SHORT, BYTE
+        LONG, INT, SHORT, BYTE, PACKED
     };
 
 
@@ -67,7 +107,7 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
      * Used storage representation of exponent arrays. <b>Note:</b> Set this
      * only statically and not dynamically.
      */
-    public final static StorUnit storunit = StorUnit.LONG;
+    public final static StorUnit storunit = StorUnit.PACKED;
 
 
     /**
@@ -92,6 +132,11 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
             return new ExpVectorShort(n);
         case BYTE:
             return new ExpVectorByte(n);
+        case PACKED:
+            if (n <= ExpVectorPacked.MAX_VARS) {
+                return new ExpVectorPacked(n);
+            }
+            return new ExpVectorLong(n);
         default:
             return new ExpVectorInteger(n);
         }
@@ -114,6 +159,11 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
             return new ExpVectorShort(n, i, e);
         case BYTE:
             return new ExpVectorByte(n, i, e);
+        case PACKED:
+            if (n <= ExpVectorPacked.MAX_VARS && e >= 0L && e <= ExpVectorPacked.maxExp) {
+                return new ExpVectorPacked(n, i, e);
+            }
+            return new ExpVectorLong(n, i, e);
         default:
             return new ExpVectorInteger(n, i, e);
         }
@@ -134,6 +184,11 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
             return new ExpVectorShort(v);
         case BYTE:
             return new ExpVectorByte(v);
+        case PACKED:
+            if (ExpVectorPacked.fits(v)) {
+                return new ExpVectorPacked(v);
+            }
+            return new ExpVectorLong(v);
         default:
             return new ExpVectorInteger(v);
         }
@@ -155,6 +210,8 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
             return new ExpVectorShort(s);
         case BYTE:
             return new ExpVectorByte(s);
+        case PACKED:
+            return ExpVectorPacked.pack(ExpVectorLong.parse(s).val);
         default:
             return new ExpVectorInteger(s);
         }
@@ -967,6 +1024,109 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
     public abstract boolean multipleOf(ExpVector V);
 
 
+    /**
+     * ExpVector divisor mask. For at most MASK_BITS variables each variable
+     * gets MASK_BITS / length() bits, bit j of variable i is set if the
+     * exponent of i is greater than j. For more variables bit (i mod
+     * MASK_BITS) is set if the exponent of variable i is positive. If this is
+     * a multiple of V, then all bits of the mask of V are also set in the
+     * mask of this. The mask is computed only once, when needed.
+     * @return divisor mask of this.
+     */
+    public long divisorMask() {
+        long m = dmask;
+        if (m == 0L) {
+            int n = length();
+            if (n <= MASK_BITS) {
+                int b = (n == 0 ? 0 : MASK_BITS / n);
+                int k = 0;
+                for (int i = 0; i < n; i++) {
+                    long e = getVal(i);
+                    for (int j = 0; j < b && j < e; j++) {
+                        m |= 1L << (k + j);
+                    }
+                    k += b;
+                }
+            } else {
+                for (int i = 0; i < n; i++) {
+                    if (getVal(i) > 0L) {
+                        m |= 1L << (i % MASK_BITS);
+                    }
+                }
+            }
+            dmask = m | Long.MIN_VALUE;
+            return m;
+        }
+        return m & Long.MAX_VALUE;
+    }
+
+
+    /**
+     * ExpVector multiple test with divisor masks. Test if this is component
+     * wise greater or equal to V. Most non multiples are rejected by one test
+     * on the divisor masks, only the remaining cases require the component
+     * wise test.
+     * @param V
+     * @return true if this is a multiple of V, else false.
+     */
+    public boolean multipleOfMasked(ExpVector V) {
+        if ((V.divisorMask() & ~divisorMask()) != 0L) {
+            if (debug) {
+                maskTests++;
+                maskRejects++;
+            }
+            return false;
+        }
+        if (debug) {
+            maskTests++;
+        }
+        return multipleOf(V);
+    }
+
+
+    /**
+     * Test if two exponent vectors have disjoint variables using the divisor
+     * masks. Can be used to detect coprime head terms.
+     * @param V
+     * @return true if this and V are known to have no common variable, false
+     *         if this can not be decided from the masks.
+     */
+    public boolean disjointMasked(ExpVector V) {
+        if ((V.divisorMask() & divisorMask()) == 0L) {
+            if (debug) {
+                maskTests++;
+                maskRejects++;
+            }
+            return true;
+        }
+        if (debug) {
+            maskTests++;
+        }
+        return false;
+    }
+
+
+    /**
+     * Divisor mask statistics. The numbers are only counted if debug is
+     * enabled for this class and are cumulative over all threads, use the
+     * difference of two calls for one computation.
+     * @return number of tests and number of tests decided by the divisor
+     *         masks alone.
+     */
+    public static long[] maskStatistics() {
+        return new long[] { maskTests, maskRejects };
+    }
+
+
+    /**
+     * Reset divisor mask statistics.
+     */
+    public static void resetMaskStatistics() {
+        maskTests = 0L;
+        maskRejects = 0L;
+    }
+
+
     /**
      * ExpVector divides test. Test if V is component wise greater or equal to
      * this.
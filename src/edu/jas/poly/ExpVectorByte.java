@@ -194,6 +194,7 @@ public final class ExpVectorByte extends ExpVector
         }
         val[i] = (byte) e;
         hash = 0; // beware of race condition
+        dmask = 0L;
         return x;
     }
 
@@ -208,6 +209,7 @@ public final class ExpVectorByte extends ExpVector
         byte x = val[i];
         val[i] = e;
         hash = 0; // beware of race condition
+        dmask = 0L;
         return x;
     }
 
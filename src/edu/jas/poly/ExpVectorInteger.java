@@ -194,6 +194,7 @@ public final class ExpVectorInteger extends ExpVector
         }
         val[i] = (int) e;
         hash = 0; // beware of race condition
+        dmask = 0L;
         return x;
     }
 
@@ -208,6 +209,7 @@ public final class ExpVectorInteger extends ExpVector
         int x = val[i];
         val[i] = e;
         hash = 0; // beware of race condition
+        dmask = 0L;
         return x;
     }
 
@@ -126,6 +126,21 @@ public final class ExpVectorLong extends ExpVector
     }
 
 
+    /**
+     * Get the exponents of an ExpVector. Used to combine with other storage
+     * units, e.g. with <code>ExpVectorPacked</code>.
+     * @param V exponent vector.
+     * @return internal representation array, if V is an ExpVectorLong, else a
+     *         copy of the exponents.
+     */
+    static long[] valOf(ExpVector V) {
+        if (V instanceof ExpVectorLong) {
+            return ((ExpVectorLong) V).val;
+        }
+        return V.getVal();
+    }
+
+
     /**
      * Clone this.
      * @see java.lang.Object#clone()
@@ -173,6 +188,7 @@ public final class ExpVectorLong extends ExpVector
         long x = val[i];
         val[i] = e;
         hash = 0; // beware of race condition
+        dmask = 0L;
         return x;
     }
 
@@ -317,13 +333,13 @@ public final class ExpVectorLong extends ExpVector
         if (V == null || V.length() == 0) {
             return this;
         }
-        ExpVectorLong Vl = (ExpVectorLong) V;
         if (val.length == 0) {
-            return Vl;
+            return new ExpVectorLong(valOf(V), false);
         }
-        long[] w = new long[val.length + Vl.val.length];
+        long[] v = valOf(V);
+        long[] w = new long[val.length + v.length];
         System.arraycopy(val, 0, w, 0, val.length);
-        System.arraycopy(Vl.val, 0, w, val.length, Vl.val.length);
+        System.arraycopy(v, 0, w, val.length, v.length);
         return new ExpVectorLong(w, true);
     }
 
@@ -360,10 +376,10 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public boolean equals(Object B) {
-        if (!(B instanceof ExpVectorLong)) {
+        if (!(B instanceof ExpVectorLong) && !(B instanceof ExpVectorPacked)) {
             return false;
         }
-        ExpVectorLong b = (ExpVectorLong) B;
+        ExpVector b = (ExpVector) B;
         int t = this.invLexCompareTo(b);
         //System.out.println("equals: this = " + this + " B = " + B + " t = " + t);
         return (0 == t);
@@ -422,7 +438,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public ExpVectorLong sum(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         long[] w = new long[u.length];
         for (int i = 0; i < u.length; i++) {
             w[i] = u[i] + v[i];
@@ -439,7 +455,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public ExpVectorLong subtract(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         long[] w = new long[u.length];
         for (int i = 0; i < u.length; i++) {
             w[i] = u[i] - v[i];
@@ -581,7 +597,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public ExpVectorLong lcm(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         long[] w = new long[u.length];
         for (int i = 0; i < u.length; i++) {
             w[i] = (u[i] >= v[i] ? u[i] : v[i]);
@@ -598,7 +614,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public ExpVectorLong gcd(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         long[] w = new long[u.length];
         for (int i = 0; i < u.length; i++) {
             w[i] = (u[i] <= v[i] ? u[i] : v[i]);
@@ -654,7 +670,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public boolean multipleOf(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         for (int i = 0; i < u.length; i++) {
             if (u[i] < v[i]) {
                 return false;
@@ -683,7 +699,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invLexCompareTo(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         int t = 0;
         for (int i = 0; i < u.length; i++) {
             if (u[i] > v[i])
@@ -705,7 +721,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invLexCompareTo(ExpVector V, int begin, int end) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         if (begin < 0) {
             begin = 0;;
         }
@@ -731,7 +747,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invGradCompareTo(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         int t = 0;
         int i;
         for (i = 0; i < u.length; i++) {
@@ -774,7 +790,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invGradCompareTo(ExpVector V, int begin, int end) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         if (begin < 0) {
             begin = 0;;
         }
@@ -821,7 +837,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int revInvLexCompareTo(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         int t = 0;
         for (int i = u.length - 1; i >= 0; i--) {
             if (u[i] > v[i])
@@ -843,7 +859,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int revInvLexCompareTo(ExpVector V, int begin, int end) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         if (begin < 0) {
             begin = 0;;
         }
@@ -869,7 +885,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int revInvGradCompareTo(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         int t = 0;
         int i;
         for (i = u.length - 1; i >= 0; i--) {
@@ -912,7 +928,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int revInvGradCompareTo(ExpVector V, int begin, int end) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         if (begin < 0) {
             begin = 0;;
         }
@@ -959,7 +975,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invTdegCompareTo(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         int t = 0;
         int i;
         for (i = 0; i < u.length; i++) {
@@ -1000,7 +1016,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int revLexInvTdegCompareTo(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         int t = 0;
         int i;
         for (i = u.length - 1; i >= 0; i--) {
@@ -1042,7 +1058,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         int t = 0;
         int i;
         for (i = 0; i < u.length; i++) {
@@ -1087,7 +1103,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V, int begin, int end) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = valOf(V);
         if (begin < 0) {
             begin = 0;;
         }
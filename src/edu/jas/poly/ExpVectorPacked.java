@@ -0,0 +1,1102 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.List;
+
+
+/**
+ * ExpVectorPacked implements exponent vectors for polynomials with few
+ * variables and small exponents using one or two machine words as storage
+ * unit. Each exponent occupies an 8 bit field, the total degree is stored in
+ * the top 16 bits of the first word. The first word holds the exponents 0 to 5
+ * below the total degree, the second word the exponents 6 to 13. Exponents are
+ * stored left aligned, so that unused fields are zero. With this layout graded
+ * and lexicographical comparisons reduce to one or two unsigned word
+ * comparisons and summation, subtraction and the multiple test reduce to word
+ * arithmetic. If a result does not fit into the packed representation, i.e.
+ * an exponent is negative or larger than 255, an <code>ExpVectorLong</code> is
+ * returned instead. Operations with an <code>ExpVectorLong</code> argument are
+ * delegated to <code>ExpVectorLong</code>. This class is used by ExpVector
+ * internally, there is no need to use this class directly.
+ * @see ExpVector
+ * @author Heinz Kredel
+ */
+
+public final class ExpVectorPacked extends ExpVector
+/*implements AbelianGroupElem<ExpVectorPacked>*/{
+
+
+    /**
+     * Maximal number of variables.
+     */
+    public static final int MAX_VARS = 14;
+
+
+    /**
+     * Largest exponent.
+     */
+    public static final long maxExp = 255L;
+
+
+    /**
+     * Number of variables in first word.
+     */
+    static final int VARS0 = 6;
+
+
+    /**
+     * Bit position of total degree in first word.
+     */
+    static final int DEG_SHIFT = 48;
+
+
+    /**
+     * Mask of exponent fields in first word.
+     */
+    static final long EXP_MASK0 = 0x0000FFFFFFFFFFFFL;
+
+
+    /**
+     * Lowest bits of all fields in first word except the lowest field, i.e.
+     * the bits a carry or borrow from a lower field would go to.
+     */
+    static final long CARRY0 = 0x0001010101010100L;
+
+
+    /**
+     * Lowest bits of all fields in second word except the lowest field.
+     */
+    static final long CARRY1 = 0x0101010101010100L;
+
+
+    /**
+     * Number of variables.
+     */
+    /*package*/final int len;
+
+
+    /**
+     * First word: total degree and exponents 0 to 5.
+     */
+    /*package*/long w0;
+
+
+    /**
+     * Second word: exponents 6 to 13.
+     */
+    /*package*/long w1;
+
+
+    /**
+     * Constructor for ExpVector.
+     * @param n length of exponent vector.
+     */
+    public ExpVectorPacked(int n) {
+        this(n, 0L, 0L);
+        if (n < 0 || n > MAX_VARS) {
+            throw new IllegalArgumentException("to many variables: " + n);
+        }
+    }
+
+
+    /**
+     * Constructor for ExpVector. Sets exponent i to e.
+     * @param n length of exponent vector.
+     * @param i index of exponent to be set.
+     * @param e exponent to be set.
+     */
+    public ExpVectorPacked(int n, int i, long e) {
+        this(n);
+        setVal(i, e);
+    }
+
+
+    /**
+     * Constructor for ExpVector. Sets val, converts from long array.
+     * @param v long representation array.
+     */
+    public ExpVectorPacked(long[] v) {
+        this(v.length);
+        for (int i = 0; i < v.length; i++) {
+            if (v[i] < 0L || v[i] > maxExp) {
+                throw new IllegalArgumentException("exponent to large: " + v[i]);
+            }
+            put(i, v[i]);
+        }
+    }
+
+
+    /**
+     * Constructor for ExpVector. Converts a String representation to an
+     * ExpVector. Accepted format = (1,2,3,4,5,6,7).
+     * @param s String representation.
+     */
+    public ExpVectorPacked(String s) throws NumberFormatException {
+        this(ExpVectorLong.parse(s).val);
+    }
+
+
+    /**
+     * Internal constructor for ExpVector. Sets words.
+     * @param n length of exponent vector.
+     * @param w0 first word.
+     * @param w1 second word.
+     */
+    protected ExpVectorPacked(int n, long w0, long w1) {
+        super();
+        this.len = n;
+        this.w0 = w0;
+        this.w1 = w1;
+    }
+
+
+    /**
+     * Test if an exponent array can be represented packed.
+     * @param v long representation array.
+     * @return true if v fits into an ExpVectorPacked, else false.
+     */
+    public static boolean fits(long[] v) {
+        if (v.length > MAX_VARS) {
+            return false;
+        }
+        for (int i = 0; i < v.length; i++) {
+            if (v[i] < 0L || v[i] > maxExp) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Factory for ExpVector. Returns a packed exponent vector if possible,
+     * else an ExpVectorLong.
+     * @param v long representation array, must not be modified afterwards.
+     * @return exponent vector with exponents v.
+     */
+    public static ExpVector pack(long[] v) {
+        if (fits(v)) {
+            return new ExpVectorPacked(v);
+        }
+        return new ExpVectorLong(v, true);
+    }
+
+
+    /**
+     * Bit position of exponent i within its word.
+     * @param i index of exponent.
+     * @return shift.
+     */
+    private static int shift(int i) {
+        if (i < VARS0) {
+            return 40 - 8 * i;
+        }
+        return 56 - 8 * (i - VARS0);
+    }
+
+
+    /**
+     * Get exponent without index check.
+     * @param i index of exponent.
+     * @return exponent i.
+     */
+    private long field(int i) {
+        if (i < VARS0) {
+            return (w0 >>> shift(i)) & 0xFFL;
+        }
+        return (w1 >>> shift(i)) & 0xFFL;
+    }
+
+
+    /**
+     * Add e to exponent i and to the total degree. The resulting exponent
+     * must be in range.
+     * @param i index of exponent.
+     * @param e exponent.
+     */
+    private void put(int i, long e) {
+        if (i < VARS0) {
+            w0 += (e << shift(i)) + (e << DEG_SHIFT);
+        } else {
+            w1 += e << shift(i);
+            w0 += e << DEG_SHIFT;
+        }
+    }
+
+
+    /**
+     * Packed exponent vector of the same length.
+     * @param V exponent vector.
+     * @return V as ExpVectorPacked, if V is packed and has the same length as
+     *         this, else null.
+     */
+    private ExpVectorPacked packed(ExpVector V) {
+        if (V instanceof ExpVectorPacked) {
+            ExpVectorPacked v = (ExpVectorPacked) V;
+            if (v.len == len) {
+                return v;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Convert to ExpVectorLong.
+     * @return this as ExpVectorLong.
+     */
+    public ExpVectorLong toLong() {
+        return new ExpVectorLong(getVal(), true);
+    }
+
+
+    /**
+     * Clone this.
+     * @see java.lang.Object#clone()
+     */
+    @Override
+    public ExpVectorPacked copy() {
+        return new ExpVectorPacked(len, w0, w1);
+    }
+
+
+    /**
+     * Get the exponent vector.
+     * @return val as long.
+     */
+    @Override
+    public long[] getVal() {
+        long[] v = new long[len];
+        for (int i = 0; i < len; i++) {
+            v[i] = field(i);
+        }
+        return v;
+    }
+
+
+    /**
+     * Get the exponent at position i.
+     * @param i position.
+     * @return val[i].
+     */
+    @Override
+    public long getVal(int i) {
+        if (i < 0 || i >= len) {
+            throw new ArrayIndexOutOfBoundsException(i);
+        }
+        return field(i);
+    }
+
+
+    /**
+     * Set the exponent at position i to e.
+     * @param i
+     * @param e
+     * @return old val[i].
+     */
+    @Override
+    protected long setVal(int i, long e) {
+        long x = getVal(i);
+        if (e < 0L || e > maxExp) {
+            throw new IllegalArgumentException("exponent to large: " + e);
+        }
+        put(i, e - x);
+        hash = 0; // beware of race condition
+        dmask = 0L;
+        return x;
+    }
+
+
+    /**
+     * Get the length of this exponent vector.
+     * @return val.length.
+     */
+    @Override
+    public int length() {
+        return len;
+    }
+
+
+    /**
+     * Extend variables. Used e.g. in module embedding. Extend this by i
+     * elements and set val[j] to e.
+     * @param i number of elements to extend.
+     * @param j index of element to be set.
+     * @param e new exponent for val[j].
+     * @return extended exponent vector.
+     */
+    @Override
+    public ExpVector extend(int i, int j, long e) {
+        long[] w = new long[len + i];
+        for (int k = 0; k < len; k++) {
+            w[i + k] = field(k);
+        }
+        if (j >= i) {
+            throw new IllegalArgumentException("i " + i + " <= j " + j + " invalid");
+        }
+        w[j] = e;
+        return pack(w);
+    }
+
+
+    /**
+     * Extend lower variables. Extend this by i lower elements and set val[j] to
+     * e.
+     * @param i number of elements to extend.
+     * @param j index of element to be set.
+     * @param e new exponent for val[j].
+     * @return extended exponent vector.
+     */
+    @Override
+    public ExpVector extendLower(int i, int j, long e) {
+        long[] w = new long[len + i];
+        for (int k = 0; k < len; k++) {
+            w[k] = field(k);
+        }
+        if (j >= i) {
+            throw new IllegalArgumentException("i " + i + " <= j " + j + " invalid");
+        }
+        w[len + j] = e;
+        return pack(w);
+    }
+
+
+    /**
+     * Contract variables. Used e.g. in module embedding. Contract this to len
+     * elements.
+     * @param i position of first element to be copied.
+     * @param n new length.
+     * @return contracted exponent vector.
+     */
+    @Override
+    public ExpVectorPacked contract(int i, int n) {
+        if (i + n > len) {
+            throw new IllegalArgumentException("len " + n + " > val.len " + len);
+        }
+        ExpVectorPacked w = new ExpVectorPacked(n);
+        for (int k = 0; k < n; k++) {
+            w.put(k, field(i + k));
+        }
+        return w;
+    }
+
+
+    /**
+     * Reverse variables. Used e.g. in opposite rings.
+     * @return reversed exponent vector.
+     */
+    @Override
+    public ExpVectorPacked reverse() {
+        ExpVectorPacked w = new ExpVectorPacked(len);
+        for (int k = 0; k < len; k++) {
+            w.put(k, field(len - 1 - k));
+        }
+        return w;
+    }
+
+
+    /**
+     * Reverse lower j variables. Used e.g. in opposite rings. Reverses the
+     * first j-1 variables, the rest is unchanged.
+     * @param j index of first variable reversed.
+     * @return reversed exponent vector.
+     */
+    @Override
+    public ExpVectorPacked reverse(int j) {
+        if (j <= 0 || j > len) {
+            return this;
+        }
+        ExpVectorPacked w = new ExpVectorPacked(len);
+        for (int k = 0; k < j; k++) {
+            w.put(k, field(k));
+        }
+        for (int k = j; k < len; k++) {
+            w.put(k, field(len + j - 1 - k));
+        }
+        return w;
+    }
+
+
+    /**
+     * Combine with ExpVector. Combine this with the other ExpVector V.
+     * @param V the other exponent vector.
+     * @return combined exponent vector.
+     */
+    @Override
+    public ExpVector combine(ExpVector V) {
+        if (V == null || V.length() == 0) {
+            return this;
+        }
+        if (len == 0) {
+            return V;
+        }
+        long[] w = new long[len + V.length()];
+        for (int k = 0; k < len; k++) {
+            w[k] = field(k);
+        }
+        for (int k = 0; k < V.length(); k++) {
+            w[len + k] = V.getVal(k);
+        }
+        return pack(w);
+    }
+
+
+    /**
+     * Permutation of exponent vector.
+     * @param P permutation.
+     * @return P(e).
+     */
+    @Override
+    public ExpVectorPacked permutation(List<Integer> P) {
+        ExpVectorPacked w = new ExpVectorPacked(len);
+        int j = 0;
+        for (Integer i : P) {
+            w.put(j++, field(i));
+        }
+        return w;
+    }
+
+
+    /**
+     * Get the string representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return super.toString() + ":packed";
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object B) {
+        if (B instanceof ExpVectorPacked) {
+            ExpVectorPacked b = (ExpVectorPacked) B;
+            return len == b.len && w0 == b.w0 && w1 == b.w1;
+        }
+        if (!(B instanceof ExpVectorLong)) {
+            return false;
+        }
+        return B.equals(this);
+    }
+
+
+    /**
+     * hashCode for this exponent vector.
+     * @see java.lang.Object#hashCode() Must be the same as for ExpVectorLong.
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+
+    /**
+     * ExpVector absolute value.
+     * @return abs(this).
+     */
+    @Override
+    public ExpVectorPacked abs() {
+        return this;
+    }
+
+
+    /**
+     * ExpVector negate.
+     * @return -this.
+     */
+    @Override
+    public ExpVector negate() {
+        if (w0 == 0L) {
+            return this;
+        }
+        return toLong().negate();
+    }
+
+
+    /**
+     * ExpVector summation.
+     * @param V
+     * @return this+V.
+     */
+    @Override
+    public ExpVector sum(ExpVector V) {
+        ExpVectorPacked v = packed(V);
+        if (v != null) {
+            long s0 = w0 + v.w0;
+            long s1 = w1 + v.w1;
+            if (((w0 ^ v.w0 ^ s0) & CARRY0) == 0L && ((w1 ^ v.w1 ^ s1) & CARRY1) == 0L
+                            && Long.compareUnsigned(s0, w0) >= 0 && Long.compareUnsigned(s1, w1) >= 0) {
+                return new ExpVectorPacked(len, s0, s1);
+            }
+        }
+        return toLong().sum(V);
+    }
+
+
+    /**
+     * ExpVector subtract. Result may have negative entries.
+     * @param V
+     * @return this-V.
+     */
+    @Override
+    public ExpVector subtract(ExpVector V) {
+        ExpVectorPacked v = packed(V);
+        if (v != null) {
+            long d0 = w0 - v.w0;
+            long d1 = w1 - v.w1;
+            if (((w0 ^ v.w0 ^ d0) & CARRY0) == 0L && ((w1 ^ v.w1 ^ d1) & CARRY1) == 0L
+                            && Long.compareUnsigned(w0, v.w0) >= 0 && Long.compareUnsigned(w1, v.w1) >= 0) {
+                return new ExpVectorPacked(len, d0, d1);
+            }
+        }
+        return toLong().subtract(V);
+    }
+
+
+    /**
+     * ExpVector multiply by scalar.
+     * @param s scalar
+     * @return s*this.
+     */
+    @Override
+    public ExpVector scalarMultiply(long s) {
+        if (s >= 0L && s * maxDeg() <= maxExp) {
+            return new ExpVectorPacked(len, s * w0, s * w1);
+        }
+        return toLong().scalarMultiply(s);
+    }
+
+
+    /**
+     * ExpVector substitution. Clone and set exponent to d at position i.
+     * @param i position.
+     * @param d new exponent.
+     * @return substituted ExpVector.
+     */
+    @Override
+    public ExpVector subst(int i, long d) {
+        if (d < 0L || d > maxExp) {
+            return toLong().subst(i, d);
+        }
+        ExpVectorPacked V = this.copy();
+        V.setVal(i, d);
+        return V;
+    }
+
+
+    /**
+     * ExpVector signum.
+     * @return 0 if this is zero, 1 else, since all entries are non negative.
+     */
+    @Override
+    public int signum() {
+        if (w0 == 0L) {
+            return 0;
+        }
+        return 1;
+    }
+
+
+    /**
+     * ExpVector total degree.
+     * @return sum of all exponents.
+     */
+    @Override
+    public long totalDeg() {
+        return w0 >>> DEG_SHIFT;
+    }
+
+
+    /**
+     * ExpVector maximal degree.
+     * @return maximal exponent.
+     */
+    @Override
+    public long maxDeg() {
+        long t = 0;
+        for (int i = 0; i < len; i++) {
+            long e = field(i);
+            if (e > t) {
+                t = e;
+            }
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector weighted degree.
+     * @param w weights.
+     * @return weighted sum of all exponents.
+     */
+    @Override
+    public long weightDeg(long[][] w) {
+        if (w == null || w.length == 0) {
+            return totalDeg(); // assume weight 1
+        }
+        long t = 0;
+        for (int j = 0; j < w.length; j++) {
+            long[] wj = w[j];
+            for (int i = 0; i < len; i++) {
+                t += wj[i] * field(i);
+            }
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector weighted degree.
+     * @param w weights.
+     * @return weighted sum of all exponents.
+     */
+    @Override
+    public long weightDeg(long[] w) {
+        if (w == null || w.length == 0) {
+            return totalDeg(); // assume weight 1
+        }
+        long t = 0;
+        for (int i = 0; i < w.length; i++) {
+            t += w[i] * field(i);
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector least common multiple.
+     * @param V
+     * @return component wise maximum of this and V.
+     */
+    @Override
+    public ExpVector lcm(ExpVector V) {
+        ExpVectorPacked v = packed(V);
+        if (v == null) {
+            return toLong().lcm(V);
+        }
+        ExpVectorPacked w = new ExpVectorPacked(len);
+        for (int i = 0; i < len; i++) {
+            long a = field(i);
+            long b = v.field(i);
+            w.put(i, (a >= b ? a : b));
+        }
+        return w;
+    }
+
+
+    /**
+     * ExpVector greatest common divisor.
+     * @param V
+     * @return component wise minimum of this and V.
+     */
+    @Override
+    public ExpVector gcd(ExpVector V) {
+        ExpVectorPacked v = packed(V);
+        if (v == null) {
+            return toLong().gcd(V);
+        }
+        ExpVectorPacked w = new ExpVectorPacked(len);
+        for (int i = 0; i < len; i++) {
+            long a = field(i);
+            long b = v.field(i);
+            w.put(i, (a <= b ? a : b));
+        }
+        return w;
+    }
+
+
+    /**
+     * ExpVector dependent variables.
+     * @return number of indices where val has positive exponents.
+     */
+    public int dependentVariables() {
+        int l = 0;
+        for (int i = 0; i < len; i++) {
+            if (field(i) > 0) {
+                l++;
+            }
+        }
+        return l;
+    }
+
+
+    /**
+     * ExpVector dependency on variables.
+     * @return array of indices where val has positive exponents.
+     */
+    @Override
+    public int[] dependencyOnVariables() {
+        int l = dependentVariables();
+        int[] dep = new int[l];
+        if (l == 0) {
+            return dep;
+        }
+        int j = 0;
+        for (int i = 0; i < len; i++) {
+            if (field(i) > 0) {
+                dep[j] = i;
+                j++;
+            }
+        }
+        return dep;
+    }
+
+
+    /**
+     * ExpVector multiple test. Test if this is component wise greater or equal
+     * to V.
+     * @param V
+     * @return true if this is a multiple of V, else false.
+     */
+    @Override
+    public boolean multipleOf(ExpVector V) {
+        ExpVectorPacked v = packed(V);
+        if (v != null) {
+            long d0 = w0 - v.w0;
+            long d1 = w1 - v.w1;
+            return ((w0 ^ v.w0 ^ d0) & CARRY0) == 0L && ((w1 ^ v.w1 ^ d1) & CARRY1) == 0L
+                            && Long.compareUnsigned(w0, v.w0) >= 0 && Long.compareUnsigned(w1, v.w1) >= 0;
+        }
+        for (int i = 0; i < len; i++) {
+            if (field(i) < V.getVal(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * ExpVector compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int compareTo(ExpVector V) {
+        return this.invLexCompareTo(V);
+    }
+
+
+    /**
+     * ExpVector inverse lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invLexCompareTo(ExpVector V) {
+        ExpVectorPacked v = packed(V);
+        if (v == null) {
+            return toLong().invLexCompareTo(V);
+        }
+        int t = Long.compare(w0 & EXP_MASK0, v.w0 & EXP_MASK0);
+        if (t != 0) {
+            return t;
+        }
+        return Long.compareUnsigned(w1, v.w1);
+    }
+
+
+    /**
+     * ExpVector inverse lexicographical compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invLexCompareTo(ExpVector V, int begin, int end) {
+        if (begin < 0) {
+            begin = 0;
+        }
+        if (end >= len) {
+            end = len;
+        }
+        for (int i = begin; i < end; i++) {
+            long u = field(i);
+            long v = V.getVal(i);
+            if (u > v)
+                return 1;
+            if (u < v)
+                return -1;
+        }
+        return 0;
+    }
+
+
+    /**
+     * ExpVector inverse graded lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invGradCompareTo(ExpVector V) {
+        ExpVectorPacked v = packed(V);
+        if (v == null) {
+            return toLong().invGradCompareTo(V);
+        }
+        int t = Long.compareUnsigned(w0, v.w0);
+        if (t != 0) {
+            return t;
+        }
+        return Long.compareUnsigned(w1, v.w1);
+    }
+
+
+    /**
+     * ExpVector inverse graded lexicographical compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invGradCompareTo(ExpVector V, int begin, int end) {
+        if (begin < 0) {
+            begin = 0;
+        }
+        if (end >= len) {
+            end = len;
+        }
+        int t = invLexCompareTo(V, begin, end);
+        if (t == 0) {
+            return t;
+        }
+        long up = 0;
+        long vp = 0;
+        for (int j = begin; j < end; j++) {
+            up += field(j);
+            vp += V.getVal(j);
+        }
+        if (up > vp) {
+            t = 1;
+        } else if (up < vp) {
+            t = -1;
+        }
+        return t;
+    }
+
+
+    /**
+     * Compare exponents in reverse order. Uses a byte reversal of the words,
+     * which places the exponent with the highest index into the most
+     * significant field.
+     * @param v other packed exponent vector.
+     * @return sign of reverse lexicographical comparison.
+     */
+    private int revLexCompare(ExpVectorPacked v) {
+        int t = Long.compareUnsigned(Long.reverseBytes(w1), Long.reverseBytes(v.w1));
+        if (t != 0) {
+            return t;
+        }
+        return Long.compare(Long.reverseBytes(w0 << 16), Long.reverseBytes(v.w0 << 16));
+    }
+
+
+    /**
+     * ExpVector reverse inverse lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvLexCompareTo(ExpVector V) {
+        ExpVectorPacked v = packed(V);
+        if (v == null) {
+            return toLong().revInvLexCompareTo(V);
+        }
+        return revLexCompare(v);
+    }
+
+
+    /**
+     * ExpVector reverse inverse lexicographical compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvLexCompareTo(ExpVector V, int begin, int end) {
+        if (begin < 0) {
+            begin = 0;
+        }
+        if (end >= len) {
+            end = len;
+        }
+        for (int i = end - 1; i >= begin; i--) {
+            long u = field(i);
+            long v = V.getVal(i);
+            if (u > v)
+                return 1;
+            if (u < v)
+                return -1;
+        }
+        return 0;
+    }
+
+
+    /**
+     * ExpVector reverse inverse graded compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvGradCompareTo(ExpVector V) {
+        ExpVectorPacked v = packed(V);
+        if (v == null) {
+            return toLong().revInvGradCompareTo(V);
+        }
+        int t = Long.compare(w0 >>> DEG_SHIFT, v.w0 >>> DEG_SHIFT);
+        if (t != 0) {
+            return t;
+        }
+        return revLexCompare(v);
+    }
+
+
+    /**
+     * ExpVector reverse inverse graded compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvGradCompareTo(ExpVector V, int begin, int end) {
+        if (begin < 0) {
+            begin = 0;
+        }
+        if (end >= len) {
+            end = len;
+        }
+        int t = revInvLexCompareTo(V, begin, end);
+        if (t == 0) {
+            return t;
+        }
+        long up = 0;
+        long vp = 0;
+        for (int j = begin; j < end; j++) {
+            up += field(j);
+            vp += V.getVal(j);
+        }
+        if (up > vp) {
+            t = 1;
+        } else if (up < vp) {
+            t = -1;
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector inverse total degree lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invTdegCompareTo(ExpVector V) {
+        ExpVectorPacked v = packed(V);
+        if (v == null) {
+            return toLong().invTdegCompareTo(V);
+        }
+        int t = Long.compare(w0 >>> DEG_SHIFT, v.w0 >>> DEG_SHIFT);
+        if (t != 0) {
+            return t;
+        }
+        t = Long.compare(w0 & EXP_MASK0, v.w0 & EXP_MASK0);
+        if (t == 0) {
+            t = Long.compareUnsigned(w1, v.w1);
+        }
+        return -t;
+    }
+
+
+    /**
+     * ExpVector reverse lexicographical inverse total degree compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revLexInvTdegCompareTo(ExpVector V) {
+        ExpVectorPacked v = packed(V);
+        if (v == null) {
+            return toLong().revLexInvTdegCompareTo(V);
+        }
+        int t = Long.compare(w0 >>> DEG_SHIFT, v.w0 >>> DEG_SHIFT);
+        if (t != 0) {
+            return t;
+        }
+        return -revLexCompare(v);
+    }
+
+
+    /**
+     * ExpVector inverse weighted lexicographical compareTo.
+     * @param w weight array.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invWeightCompareTo(long[][] w, ExpVector V) {
+        return invWeightCompareTo(w, V, 0, len);
+    }
+
+
+    /**
+     * ExpVector inverse weighted lexicographical compareTo.
+     * @param w weight array.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invWeightCompareTo(long[][] w, ExpVector V, int begin, int end) {
+        if (begin < 0) {
+            begin = 0;
+        }
+        if (end >= len) {
+            end = len;
+        }
+        int t = 0;
+        int i;
+        for (i = begin; i < end; i++) {
+            long u = field(i);
+            long v = V.getVal(i);
+            if (u > v) {
+                t = 1;
+                break;
+            }
+            if (u < v) {
+                t = -1;
+                break;
+            }
+        }
+        if (t == 0) {
+            return t;
+        }
+        for (int k = 0; k < w.length; k++) {
+            long[] wk = w[k];
+            long up = 0;
+            long vp = 0;
+            for (int j = i; j < end; j++) {
+                up += wk[j] * field(j);
+                vp += wk[j] * V.getVal(j);
+            }
+            if (up > vp) {
+                return 1;
+            } else if (up < vp) {
+                return -1;
+            }
+        }
+        return t;
+    }
+
+}
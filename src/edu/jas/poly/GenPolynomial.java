@@ -8,7 +8,9 @@ package edu.jas.poly;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -17,9 +19,12 @@ import java.util.TreeMap;
 
 import org.apache.log4j.Logger;
 
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
 import edu.jas.kern.PreemptingException;
 import edu.jas.kern.PrettyPrint;
 import edu.jas.structure.NotInvertibleException;
+import edu.jas.structure.RingAccumulator;
 import edu.jas.structure.RingElem;
 import edu.jas.structure.UnaryFunctor;
 
@@ -72,6 +77,13 @@ public class GenPolynomial<C extends RingElem<C>>
     private static final boolean debug = logger.isDebugEnabled();
 
 
+    /**
+     * Product of the number of terms of two polynomials from which on
+     * multiply() uses the heap based algorithm.
+     */
+    public static final long HEAP_MULTIPLY_THRESHOLD = 64L;
+
+
     // protected GenPolynomial() { ring = null; val = null; } // don't use
 
 
@@ -92,6 +104,24 @@ public class GenPolynomial<C extends RingElem<C>>
     }
 
 
+    /**
+     * Constructor for GenPolynomial with packed terms. The immutable map is
+     * used directly and not copied.
+     * @param r polynomial ring factory.
+     * @param v PackedTermMap with correct ordering.
+     */
+    GenPolynomial(GenPolynomialRing<C> r, PackedTermMap<C> v) {
+        ring = r;
+        val = v;
+        if (ring.checkPreempt) {
+            if (Thread.currentThread().isInterrupted()) {
+                logger.debug("throw PreemptingException");
+                throw new PreemptingException();
+            }
+        }
+    }
+
+
     /**
      * Constructor for zero GenPolynomial.
      * @param r polynomial ring factory.
@@ -1476,10 +1506,14 @@ public class GenPolynomial<C extends RingElem<C>>
 
 
     /**
-     * GenPolynomial multiplication.
+     * GenPolynomial multiplication. Uses the dense algorithms of
+     * ModLongDenseMultiply for large dense univariate operands over
+     * ModLongRing, the heap based algorithm for other large operands and the
+     * simple term by term algorithm for small operands.
      * @param S GenPolynomial.
      * @return this*S.
      */
+    @SuppressWarnings({ "unchecked", "cast" })
     public GenPolynomial<C> multiply(GenPolynomial<C> S) {
         if (S == null) {
             return ring.getZERO();
@@ -1490,7 +1524,6 @@ public class GenPolynomial<C extends RingElem<C>>
         if (this.isZERO()) {
             return this;
         }
-        assert (ring.nvar == S.ring.nvar);
         if (this instanceof GenSolvablePolynomial && S instanceof GenSolvablePolynomial) {
             //throw new RuntimeException("wrong method dispatch in JRE ");
             logger.debug("warn: wrong method dispatch in JRE multiply(S) - trying to fix");
@@ -1498,6 +1531,39 @@ public class GenPolynomial<C extends RingElem<C>>
             GenSolvablePolynomial<C> Sp = (GenSolvablePolynomial<C>) S;
             return T.multiply(Sp);
         }
+        long ts = (long) val.size() * (long) S.val.size();
+        if (ring.nvar == 1 && ring.coFac instanceof ModLongRing
+                        && ts >= ModLongDenseMultiply.DENSE_MULTIPLY_THRESHOLD) {
+            GenPolynomial<ModLong> P = ModLongDenseMultiply.multiply((GenPolynomial<ModLong>) (GenPolynomial) this,
+                            (GenPolynomial<ModLong>) (GenPolynomial) S);
+            if (P != null) { // dense univariate
+                return (GenPolynomial<C>) (GenPolynomial) P;
+            }
+        }
+        if (ts < HEAP_MULTIPLY_THRESHOLD) {
+            return multiplySimple(S);
+        }
+        return multiplyHeap(S);
+    }
+
+
+    /**
+     * GenPolynomial multiplication. Term by term multiplication with summation
+     * of the products in the TreeMap of the result.
+     * @param S GenPolynomial.
+     * @return this*S.
+     */
+    public GenPolynomial<C> multiplySimple(GenPolynomial<C> S) {
+        if (S == null) {
+            return ring.getZERO();
+        }
+        if (S.isZERO()) {
+            return ring.getZERO();
+        }
+        if (this.isZERO()) {
+            return this;
+        }
+        assert (ring.nvar == S.ring.nvar);
         GenPolynomial<C> p = ring.getZERO().copy();
         SortedMap<ExpVector, C> pv = p.val;
         for (Map.Entry<ExpVector, C> m1 : val.entrySet()) {
@@ -1527,6 +1593,165 @@ public class GenPolynomial<C extends RingElem<C>>
     }
 
 
+    /**
+     * GenPolynomial multiplication. Heap based algorithm of Johnson in the
+     * variant of Monagan and Pearce. The rows of the product matrix are
+     * given by the terms of the shorter polynomial, the heap holds at most
+     * one candidate per row. The product terms are generated in descending
+     * term order, terms with equal exponents are summed up immediately and
+     * the result map is built from the sorted terms in linear time.
+     * @param S GenPolynomial.
+     * @return this*S.
+     */
+    @SuppressWarnings("unchecked")
+    public GenPolynomial<C> multiplyHeap(GenPolynomial<C> S) {
+        if (S == null) {
+            return ring.getZERO();
+        }
+        if (S.isZERO()) {
+            return ring.getZERO();
+        }
+        if (this.isZERO()) {
+            return this;
+        }
+        assert (ring.nvar == S.ring.nvar);
+        // rows from the shorter polynomial, keep order of coefficient products
+        boolean swap = (val.size() > S.val.size());
+        SortedMap<ExpVector, C> av = (swap ? S.val : val);
+        SortedMap<ExpVector, C> bv = (swap ? val : S.val);
+        final int n = av.size();
+        final int m = bv.size();
+        ExpVector[] ae = new ExpVector[n];
+        C[] ac = (C[]) new RingElem[n];
+        int k = 0;
+        for (Map.Entry<ExpVector, C> me : av.entrySet()) {
+            ae[k] = me.getKey();
+            ac[k] = me.getValue();
+            k++;
+        }
+        ExpVector[] be = new ExpVector[m];
+        C[] bc = (C[]) new RingElem[m];
+        k = 0;
+        for (Map.Entry<ExpVector, C> me : bv.entrySet()) {
+            be[k] = me.getKey();
+            bc[k] = me.getValue();
+            k++;
+        }
+        Comparator<ExpVector> cmp = ring.tord.getDescendComparator();
+        // heap of rows ordered by the exponent of the next product in the row
+        int[] col = new int[n];
+        int[] hrow = new int[n];
+        ExpVector[] hexp = new ExpVector[n];
+        int hs = 0;
+        // result terms, pre-sized for the sparse case
+        int rs = (int) Math.min((long) n * (long) m, (long) n + m + 16);
+        ExpVector[] re = new ExpVector[rs];
+        C[] rc = (C[]) new RingElem[rs];
+        int r = 0;
+        col[0] = 0;
+        hs = heapInsert(cmp, hrow, hexp, hs, 0, ae[0].sum(be[0]));
+        RingAccumulator<C> acc = ring.coFac.getAccumulator();
+        while (hs > 0) {
+            ExpVector e = hexp[0];
+            acc.clear();
+            do {
+                int i = hrow[0];
+                hs = heapDeleteMin(cmp, hrow, hexp, hs);
+                int j = col[i];
+                if (swap) {
+                    acc.addMul(bc[j], ac[i]);
+                } else {
+                    acc.addMul(ac[i], bc[j]);
+                }
+                if (j == 0 && i + 1 < n) {
+                    col[i + 1] = 0;
+                    hs = heapInsert(cmp, hrow, hexp, hs, i + 1, ae[i + 1].sum(be[0]));
+                }
+                if (j + 1 < m) {
+                    col[i] = j + 1;
+                    hs = heapInsert(cmp, hrow, hexp, hs, i, ae[i].sum(be[j + 1]));
+                }
+            } while (hs > 0 && e.equals(hexp[0]));
+            C c = acc.getValue();
+            if (!c.isZERO()) {
+                if (r == re.length) {
+                    int ns = re.length + (re.length >> 1) + 1;
+                    re = Arrays.copyOf(re, ns);
+                    rc = Arrays.copyOf(rc, ns);
+                }
+                re[r] = e;
+                rc[r] = c;
+                r++;
+            }
+        }
+        GenPolynomial<C> p = ring.getZERO().copy();
+        p.val.putAll(new SortedTermMap<C>(cmp, re, rc, r)); // linear time tree build
+        return p;
+    }
+
+
+    /**
+     * Insert into heap used in multiplyHeap().
+     * @param cmp descending term order comparator.
+     * @param hrow row indexes of heap.
+     * @param hexp exponents of heap.
+     * @param hs current heap size.
+     * @param i row index to insert.
+     * @param e exponent to insert.
+     * @return new heap size.
+     */
+    private static int heapInsert(Comparator<ExpVector> cmp, int[] hrow, ExpVector[] hexp, int hs, int i,
+                    ExpVector e) {
+        int k = hs;
+        while (k > 0) {
+            int p = (k - 1) >>> 1;
+            if (cmp.compare(hexp[p], e) <= 0) {
+                break;
+            }
+            hrow[k] = hrow[p];
+            hexp[k] = hexp[p];
+            k = p;
+        }
+        hrow[k] = i;
+        hexp[k] = e;
+        return hs + 1;
+    }
+
+
+    /**
+     * Delete the top element from heap used in multiplyHeap().
+     * @param cmp descending term order comparator.
+     * @param hrow row indexes of heap.
+     * @param hexp exponents of heap.
+     * @param hs current heap size.
+     * @return new heap size.
+     */
+    private static int heapDeleteMin(Comparator<ExpVector> cmp, int[] hrow, ExpVector[] hexp, int hs) {
+        hs--;
+        int i = hrow[hs];
+        ExpVector e = hexp[hs];
+        hexp[hs] = null;
+        int k = 0;
+        int c;
+        while ((c = 2 * k + 1) < hs) {
+            if (c + 1 < hs && cmp.compare(hexp[c + 1], hexp[c]) < 0) {
+                c++;
+            }
+            if (cmp.compare(e, hexp[c]) <= 0) {
+                break;
+            }
+            hrow[k] = hrow[c];
+            hexp[k] = hexp[c];
+            k = c;
+        }
+        if (hs > 0) {
+            hrow[k] = i;
+            hexp[k] = e;
+        }
+        return hs;
+    }
+
+
     /**
      * GenPolynomial multiplication. Product with coefficient ring element.
      * @param s coefficient.
@@ -1706,17 +1931,28 @@ public class GenPolynomial<C extends RingElem<C>>
     /**
      * GenPolynomial division with remainder. Fails, if exact division by
      * leading base coefficient is not possible. Meaningful only for univariate
-     * polynomials over fields, but works in any case.
+     * polynomials over fields, but works in any case. Dense univariate
+     * polynomials over ModLongRing are divided with ModLongDenseModulus.
      * @param S nonzero GenPolynomial with invertible leading coefficient.
      * @return [ quotient , remainder ] with this = quotient * S + remainder and
      *         deg(remainder) &lt; deg(S) or remiander = 0.
      * @see edu.jas.poly.PolyUtil#baseSparsePseudoRemainder(edu.jas.poly.GenPolynomial,edu.jas.poly.GenPolynomial)
      */
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({ "unchecked", "cast" })
     public GenPolynomial<C>[] quotientRemainder(GenPolynomial<C> S) {
         if (S == null || S.isZERO()) {
             throw new ArithmeticException("division by zero");
         }
+        if (S instanceof PackedModLongPolynomial && !(this instanceof PackedPolynomial)) {
+            return ring.toPacked(this).quotientRemainder(S);
+        }
+        if (ring.nvar == 1 && ring.coFac instanceof ModLongRing && !(this instanceof PackedPolynomial)) {
+            GenPolynomial<ModLong>[] qr = ModLongDenseModulus.quotientRemainder(
+                            (GenPolynomial<ModLong>) (GenPolynomial) this, (GenPolynomial<ModLong>) (GenPolynomial) S);
+            if (qr != null) { // dense univariate
+                return (GenPolynomial<C>[]) (GenPolynomial[]) qr;
+            }
+        }
         C c = S.leadingBaseCoefficient();
         if (!c.isUnit()) {
             throw new ArithmeticException("lbcf not invertible " + c);
@@ -1770,11 +2006,13 @@ public class GenPolynomial<C extends RingElem<C>>
     /**
      * GenPolynomial remainder. Fails, if exact division by leading base
      * coefficient is not possible. Meaningful only for univariate polynomials
-     * over fields, but works in any case.
+     * over fields, but works in any case. Dense univariate polynomials over
+     * ModLongRing are divided with ModLongDenseModulus.
      * @param S nonzero GenPolynomial with invertible leading coefficient.
      * @return remainder with this = quotient * S + remainder.
      * @see edu.jas.poly.PolyUtil#baseSparsePseudoRemainder(edu.jas.poly.GenPolynomial,edu.jas.poly.GenPolynomial)
      */
+    @SuppressWarnings({ "unchecked", "cast" })
     public GenPolynomial<C> remainder(GenPolynomial<C> S) {
         if (this instanceof GenSolvablePolynomial || S instanceof GenSolvablePolynomial) {
             //throw new RuntimeException("wrong method dispatch in JRE ");
@@ -1786,6 +2024,16 @@ public class GenPolynomial<C extends RingElem<C>>
         if (S == null || S.isZERO()) {
             throw new ArithmeticException("division by zero");
         }
+        if (S instanceof PackedModLongPolynomial && !(this instanceof PackedPolynomial)) {
+            return ring.toPacked(this).remainder(S);
+        }
+        if (ring.nvar == 1 && ring.coFac instanceof ModLongRing && !(this instanceof PackedPolynomial)) {
+            GenPolynomial<ModLong>[] qr = ModLongDenseModulus.quotientRemainder(
+                            (GenPolynomial<ModLong>) (GenPolynomial) this, (GenPolynomial<ModLong>) (GenPolynomial) S);
+            if (qr != null) { // dense univariate
+                return (GenPolynomial<C>) (GenPolynomial) qr[1];
+            }
+        }
         C c = S.leadingBaseCoefficient();
         if (!c.isUnit()) {
             throw new ArithmeticException("lbc not invertible " + c);
@@ -1814,10 +2062,12 @@ public class GenPolynomial<C extends RingElem<C>>
 
     /**
      * GenPolynomial greatest common divisor. Only for univariate polynomials
-     * over fields.
+     * over fields. Dense polynomials over ModLongRing use the half gcd of
+     * ModLongDenseGcd.
      * @param S GenPolynomial.
      * @return gcd(this,S).
      */
+    @SuppressWarnings({ "unchecked", "cast" })
     public GenPolynomial<C> gcd(GenPolynomial<C> S) {
         if (S == null || S.isZERO()) {
             return this;
@@ -1828,6 +2078,13 @@ public class GenPolynomial<C extends RingElem<C>>
         if (ring.nvar != 1) {
             throw new IllegalArgumentException("not univariate polynomials" + ring);
         }
+        if (ring.coFac instanceof ModLongRing) {
+            GenPolynomial<ModLong> g = ModLongDenseGcd.gcd((GenPolynomial<ModLong>) (GenPolynomial) this,
+                            (GenPolynomial<ModLong>) (GenPolynomial) S);
+            if (g != null) { // dense univariate
+                return (GenPolynomial<C>) (GenPolynomial) g;
+            }
+        }
         GenPolynomial<C> x;
         GenPolynomial<C> q = this;
         GenPolynomial<C> r = S;
@@ -1842,11 +2099,12 @@ public class GenPolynomial<C extends RingElem<C>>
 
     /**
      * GenPolynomial extended greatest comon divisor. Only for univariate
-     * polynomials over fields.
+     * polynomials over fields. Dense polynomials over ModLongRing use the half
+     * gcd of ModLongDenseGcd.
      * @param S GenPolynomial.
      * @return [ gcd(this,S), a, b ] with a*this + b*S = gcd(this,S).
      */
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({ "unchecked", "cast" })
     public GenPolynomial<C>[] egcd(GenPolynomial<C> S) {
         GenPolynomial<C>[] ret = new GenPolynomial[3];
         ret[0] = null;
@@ -1879,6 +2137,13 @@ public class GenPolynomial<C extends RingElem<C>>
             ret[2] = z.sum(gg[2]);
             return ret;
         }
+        if (ring.coFac instanceof ModLongRing) {
+            GenPolynomial<ModLong>[] g = ModLongDenseGcd.egcd((GenPolynomial<ModLong>) (GenPolynomial) this,
+                            (GenPolynomial<ModLong>) (GenPolynomial) S);
+            if (g != null) { // dense univariate
+                return (GenPolynomial<C>[]) (GenPolynomial[]) g;
+            }
+        }
         GenPolynomial<C>[] qr;
         GenPolynomial<C> q = this;
         GenPolynomial<C> r = S;
@@ -1918,11 +2183,12 @@ public class GenPolynomial<C extends RingElem<C>>
 
     /**
      * GenPolynomial half extended greatest comon divisor. Only for univariate
-     * polynomials over fields.
+     * polynomials over fields. Dense polynomials over ModLongRing use the half
+     * gcd of ModLongDenseGcd.
      * @param S GenPolynomial.
      * @return [ gcd(this,S), a ] with a*this + b*S = gcd(this,S).
      */
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({ "unchecked", "cast" })
     public GenPolynomial<C>[] hegcd(GenPolynomial<C> S) {
         GenPolynomial<C>[] ret = new GenPolynomial[2];
         ret[0] = null;
@@ -1940,6 +2206,15 @@ public class GenPolynomial<C extends RingElem<C>>
             throw new IllegalArgumentException(
                             this.getClass().getName() + " not univariate polynomials" + ring);
         }
+        if (ring.coFac instanceof ModLongRing) {
+            GenPolynomial<ModLong>[] g = ModLongDenseGcd.egcd((GenPolynomial<ModLong>) (GenPolynomial) this,
+                            (GenPolynomial<ModLong>) (GenPolynomial) S);
+            if (g != null) { // dense univariate
+                ret[0] = (GenPolynomial<C>) (GenPolynomial) g[0];
+                ret[1] = (GenPolynomial<C>) (GenPolynomial) g[1];
+                return ret;
+            }
+        }
         GenPolynomial<C>[] qr;
         GenPolynomial<C> q = this;
         GenPolynomial<C> r = S;
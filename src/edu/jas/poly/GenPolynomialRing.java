@@ -20,6 +20,8 @@ import java.util.Set;
 import org.apache.log4j.Logger;
 
 import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
 import edu.jas.kern.PreemptStatus;
 import edu.jas.kern.PrettyPrint;
 import edu.jas.kern.Scripting;
@@ -726,6 +728,48 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
     }
 
 
+    /**
+     * Packed array representation of polynomial c. For ModLongRing
+     * coefficients a PackedModLongPolynomial is returned.
+     * @param c
+     * @return c as PackedPolynomial in this ring.
+     * @see edu.jas.poly.PackedPolynomial
+     * @see edu.jas.poly.PackedModLongPolynomial
+     */
+    @SuppressWarnings("unchecked")
+    public PackedPolynomial<C> toPacked(GenPolynomial<C> c) {
+        if (this instanceof GenSolvablePolynomialRing) {
+            throw new UnsupportedOperationException("packed representation only for commutative rings");
+        }
+        if (c instanceof PackedPolynomial && c.ring == this) {
+            return (PackedPolynomial<C>) c;
+        }
+        if (coFac instanceof ModLongRing) {
+            GenPolynomialRing<ModLong> r = (GenPolynomialRing<ModLong>) (GenPolynomialRing) this;
+            PackedPolynomial p = new PackedModLongPolynomial(r, (GenPolynomial<ModLong>) (GenPolynomial) c);
+            return (PackedPolynomial<C>) p;
+        }
+        return new PackedPolynomial<C>(this, c);
+    }
+
+
+    /**
+     * Packed array representation of polynomial list.
+     * @param L polynomial list
+     * @return L as list of PackedPolynomials in this ring.
+     */
+    public List<GenPolynomial<C>> toPacked(List<GenPolynomial<C>> L) {
+        if (L == null) {
+            return L;
+        }
+        List<GenPolynomial<C>> R = new ArrayList<GenPolynomial<C>>(L.size());
+        for (GenPolynomial<C> a : L) {
+            R.add(toPacked(a));
+        }
+        return R;
+    }
+
+
     /**
      * Parse a polynomial with the use of GenPolynomialTokenizer.
      * @param s String.
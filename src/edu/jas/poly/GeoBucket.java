@@ -0,0 +1,562 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import edu.jas.structure.RingElem;
+import edu.jas.util.MapEntry;
+
+
+/**
+ * GeoBucket, geometric bucket accumulator for sums of polynomials. A
+ * polynomial is represented as sum of buckets, where bucket i contains at most
+ * BASE<sup>i+2</sup> terms. Summands are merged into the bucket matching
+ * their length and full buckets are merged into the next larger bucket. So a
+ * sequence of additions of short polynomials to a long polynomial does not
+ * copy the long polynomial in each step. The leading monomial is obtained by
+ * combining the leading monomials of all buckets. Intended for reduction
+ * algorithms, where multiples of the reducers are subtracted and leading
+ * monomials are extracted. Results are identical to the corresponding
+ * GenPolynomial operations. If the accumulator is created from a
+ * PackedPolynomial, the buckets are immutable PackedPolynomials and are
+ * replaced by the results of their array merging methods, e.g. for
+ * PackedModLongPolynomial the fused long coefficient loops are used.
+ * <b>Note:</b> this class is mutable and not synchronized.
+ * @param <C> coefficient type
+ * @see G.H. Yan, The geobucket data structure for polynomials, J. Symbolic
+ *      Computation 25 (1998).
+ * @author Heinz Kredel
+ */
+
+public class GeoBucket<C extends RingElem<C>> implements Serializable {
+
+
+    /**
+     * Growth factor of the bucket sizes.
+     */
+    public static final int BASE = 4;
+
+
+    /**
+     * The polynomial ring of the accumulated polynomials.
+     */
+    public final GenPolynomialRing<C> ring;
+
+
+    /**
+     * The buckets, bucket i contains at most BASE<sup>i+2</sup> terms.
+     */
+    protected final List<GenPolynomial<C>> bucket;
+
+
+    /**
+     * Term order comparator of the buckets.
+     */
+    protected final Comparator<ExpVector> cmp;
+
+
+    /**
+     * Index of the bucket containing the combined leading monomial or -1 if
+     * it must be recomputed.
+     */
+    protected int lead;
+
+
+    /**
+     * True, if the buckets are PackedPolynomials.
+     */
+    protected final boolean packed;
+
+
+    /**
+     * Constructor for zero accumulator.
+     * @param r polynomial ring.
+     */
+    public GeoBucket(GenPolynomialRing<C> r) {
+        this(r, false);
+    }
+
+
+    /**
+     * Constructor for zero accumulator.
+     * @param r polynomial ring.
+     * @param packed true for buckets in packed array representation.
+     */
+    public GeoBucket(GenPolynomialRing<C> r, boolean packed) {
+        ring = r;
+        bucket = new ArrayList<GenPolynomial<C>>();
+        cmp = r.tord.getDescendComparator();
+        lead = -1;
+        this.packed = packed;
+    }
+
+
+    /**
+     * Constructor. The buckets are packed, if p is a PackedPolynomial.
+     * @param p initial polynomial.
+     */
+    public GeoBucket(GenPolynomial<C> p) {
+        this(p.ring, p instanceof PackedPolynomial);
+        add(p);
+    }
+
+
+    /**
+     * Bucket capacity.
+     * @param i bucket index.
+     * @return maximal number of terms in bucket i.
+     */
+    protected static int capacity(int i) {
+        if (i >= 13) {
+            return Integer.MAX_VALUE;
+        }
+        return 1 << (2 * (i + 2)); // BASE^(i+2)
+    }
+
+
+    /**
+     * Bucket index.
+     * @param n number of terms.
+     * @return smallest bucket index with capacity at least n.
+     */
+    protected static int index(int n) {
+        int i = 0;
+        while (capacity(i) < n) {
+            i++;
+        }
+        return i;
+    }
+
+
+    /**
+     * Get bucket, create empty buckets as required.
+     * @param i bucket index.
+     * @return bucket i.
+     */
+    protected GenPolynomial<C> getBucket(int i) {
+        while (bucket.size() <= i) {
+            bucket.add(empty());
+        }
+        return bucket.get(i);
+    }
+
+
+    /**
+     * Empty bucket.
+     * @return new zero polynomial for a bucket.
+     */
+    protected GenPolynomial<C> empty() {
+        if (packed) {
+            return ring.toPacked(ring.getZERO());
+        }
+        return new GenPolynomial<C>(ring);
+    }
+
+
+    /**
+     * Add a multiple of a polynomial to a bucket and merge overfull buckets.
+     * @param i bucket index.
+     * @param a coefficient, null for one.
+     * @param e exponent, null for zero.
+     * @param S polynomial.
+     * @param neg true for subtraction.
+     */
+    protected void merge(int i, C a, ExpVector e, GenPolynomial<C> S, boolean neg) {
+        if (packed) {
+            mergePacked(i, a, e, S, neg);
+            return;
+        }
+        lead = -1;
+        SortedMap<ExpVector, C> nv = getBucket(i).val;
+        for (Map.Entry<ExpVector, C> me : S.val.entrySet()) {
+            ExpVector f = me.getKey();
+            if (e != null) {
+                f = e.sum(f);
+            }
+            C y = me.getValue();
+            if (a != null) {
+                y = a.multiply(y); // now y can be zero
+            }
+            C x = nv.get(f);
+            if (x != null) {
+                if (neg) {
+                    x = x.subtract(y);
+                } else {
+                    x = x.sum(y);
+                }
+                if (!x.isZERO()) {
+                    nv.put(f, x);
+                } else {
+                    nv.remove(f);
+                }
+            } else if (!y.isZERO()) {
+                if (neg) {
+                    nv.put(f, y.negate());
+                } else {
+                    nv.put(f, y);
+                }
+            }
+        }
+        while (nv.size() > capacity(i)) {
+            GenPolynomial<C> b = bucket.get(i);
+            bucket.set(i, empty());
+            i++;
+            GenPolynomial<C> c = getBucket(i);
+            if (c.val.size() < b.val.size()) { // merge smaller into larger
+                bucket.set(i, b);
+                b = c;
+            }
+            nv = bucket.get(i).val;
+            for (Map.Entry<ExpVector, C> me : b.val.entrySet()) {
+                ExpVector f = me.getKey();
+                C y = me.getValue();
+                C x = nv.get(f);
+                if (x != null) {
+                    x = x.sum(y);
+                    if (!x.isZERO()) {
+                        nv.put(f, x);
+                    } else {
+                        nv.remove(f);
+                    }
+                } else {
+                    nv.put(f, y);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Add a multiple of a polynomial to a packed bucket and merge overfull
+     * buckets.
+     * @param i bucket index.
+     * @param a coefficient, null for one.
+     * @param e exponent, null for zero.
+     * @param S polynomial.
+     * @param neg true for subtraction.
+     */
+    protected void mergePacked(int i, C a, ExpVector e, GenPolynomial<C> S, boolean neg) {
+        lead = -1;
+        GenPolynomial<C> b = getBucket(i);
+        if (a == null) {
+            b = (neg ? b.subtract(S) : b.sum(S));
+        } else {
+            b = b.subtractMultiple((neg ? a : a.negate()), e, S);
+        }
+        b = ring.toPacked(b);
+        while (b.length() > capacity(i)) {
+            bucket.set(i, empty());
+            i++;
+            b = ring.toPacked(getBucket(i).sum(b));
+        }
+        bucket.set(i, b);
+    }
+
+
+    /**
+     * Add a polynomial.
+     * @param S polynomial.
+     */
+    public void add(GenPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return;
+        }
+        merge(index(S.length()), null, null, S, false);
+    }
+
+
+    /**
+     * Subtract a polynomial.
+     * @param S polynomial.
+     */
+    public void subtract(GenPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return;
+        }
+        merge(index(S.length()), null, null, S, true);
+    }
+
+
+    /**
+     * Add a multiple of a polynomial.
+     * @param a coefficient.
+     * @param e exponent.
+     * @param S polynomial.
+     */
+    public void addMultiple(C a, ExpVector e, GenPolynomial<C> S) {
+        if (a == null || a.isZERO()) {
+            return;
+        }
+        if (S == null || S.isZERO()) {
+            return;
+        }
+        merge(index(S.length()), a, e, S, false);
+    }
+
+
+    /**
+     * Subtract a multiple of a polynomial.
+     * @param a coefficient.
+     * @param e exponent.
+     * @param S polynomial.
+     */
+    public void subtractMultiple(C a, ExpVector e, GenPolynomial<C> S) {
+        if (a == null || a.isZERO()) {
+            return;
+        }
+        if (S == null || S.isZERO()) {
+            return;
+        }
+        merge(index(S.length()), a, e, S, true);
+    }
+
+
+    /**
+     * Scale and subtract a multiple of a polynomial.
+     * @param b scale factor.
+     * @param a coefficient.
+     * @param e exponent.
+     * @param S polynomial.
+     */
+    public void scaleSubtractMultiple(C b, C a, ExpVector e, GenPolynomial<C> S) {
+        multiply(b);
+        subtractMultiple(a, e, S);
+    }
+
+
+    /**
+     * Multiply by a coefficient.
+     * @param s coefficient.
+     */
+    public void multiply(C s) {
+        lead = -1;
+        if (packed) {
+            for (int i = 0; i < bucket.size(); i++) {
+                bucket.set(i, ring.toPacked(bucket.get(i).multiply(s)));
+            }
+            return;
+        }
+        for (GenPolynomial<C> b : bucket) {
+            Iterator<Map.Entry<ExpVector, C>> it = b.val.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<ExpVector, C> me = it.next();
+                C c = me.getValue().multiply(s);
+                if (c.isZERO()) {
+                    it.remove();
+                } else {
+                    me.setValue(c);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Leading monomial. The leading terms of all buckets with maximal
+     * exponent are combined into one bucket, cancelled terms are removed.
+     * @return first map entry of the accumulated polynomial, or null if it
+     *         is zero.
+     */
+    public Map.Entry<ExpVector, C> leadingMonomial() {
+        if (lead >= 0) {
+            return bucket.get(lead).val.entrySet().iterator().next();
+        }
+        while (true) {
+            int j = -1;
+            ExpVector e = null;
+            for (int i = 0; i < bucket.size(); i++) {
+                SortedMap<ExpVector, C> v = bucket.get(i).val;
+                if (v.isEmpty()) {
+                    continue;
+                }
+                ExpVector f = v.firstKey();
+                if (j < 0 || cmp.compare(f, e) < 0) {
+                    j = i;
+                    e = f;
+                }
+            }
+            if (j < 0) {
+                return null;
+            }
+            if (packed) {
+                if (combinePacked(j, e)) {
+                    lead = j;
+                    return bucket.get(j).val.entrySet().iterator().next();
+                }
+                continue;
+            }
+            SortedMap<ExpVector, C> nv = bucket.get(j).val;
+            C x = nv.get(e);
+            boolean combined = false;
+            for (int i = j + 1; i < bucket.size(); i++) {
+                SortedMap<ExpVector, C> v = bucket.get(i).val;
+                if (v.isEmpty() || !e.equals(v.firstKey())) {
+                    continue;
+                }
+                x = x.sum(v.remove(e));
+                combined = true;
+            }
+            if (!x.isZERO()) {
+                if (combined) {
+                    nv.put(e, x);
+                }
+                lead = j;
+                return nv.entrySet().iterator().next();
+            }
+            nv.remove(e);
+        }
+    }
+
+
+    /**
+     * Combine the leading monomials of packed buckets with exponent e into
+     * bucket j.
+     * @param j bucket index with maximal leading exponent.
+     * @param e maximal leading exponent.
+     * @return true if the combined leading monomial is non zero, else false.
+     */
+    protected boolean combinePacked(int j, ExpVector e) {
+        GenPolynomial<C> b = bucket.get(j);
+        C x = b.leadingBaseCoefficient();
+        boolean combined = false;
+        for (int i = j + 1; i < bucket.size(); i++) {
+            GenPolynomial<C> v = bucket.get(i);
+            if (v.isZERO() || !e.equals(v.leadingExpVector())) {
+                continue;
+            }
+            x = x.sum(v.leadingBaseCoefficient());
+            bucket.set(i, ring.toPacked(v.reductum()));
+            combined = true;
+        }
+        if (x.isZERO()) {
+            bucket.set(j, ring.toPacked(b.reductum()));
+            return false;
+        }
+        if (combined) { // j is the smallest bucket with e
+            bucket.set(j, ring.toPacked(ring.toPacked(b.reductum()).sum(ring.valueOf(x, e))));
+        }
+        return true;
+    }
+
+
+    /**
+     * Leading exponent vector.
+     * @return first exponent of the accumulated polynomial, or null if it is
+     *         zero.
+     */
+    public ExpVector leadingExpVector() {
+        Map.Entry<ExpVector, C> m = leadingMonomial();
+        if (m == null) {
+            return null;
+        }
+        return m.getKey();
+    }
+
+
+    /**
+     * Remove the leading monomial.
+     * @return the removed leading monomial, or null if the accumulated
+     *         polynomial is zero.
+     */
+    public Map.Entry<ExpVector, C> doRemoveLeadingMonomial() {
+        Map.Entry<ExpVector, C> m = leadingMonomial();
+        if (m == null) {
+            return null;
+        }
+        m = new MapEntry<ExpVector, C>(m.getKey(), m.getValue());
+        if (packed) {
+            bucket.set(lead, ring.toPacked(bucket.get(lead).reductum()));
+        } else {
+            bucket.get(lead).val.remove(m.getKey());
+        }
+        lead = -1;
+        return m;
+    }
+
+
+    /**
+     * Is zero.
+     * @return true if the accumulated polynomial is zero, else false.
+     */
+    public boolean isZERO() {
+        return leadingMonomial() == null;
+    }
+
+
+    /**
+     * Number of terms. The terms of different buckets are not combined, so
+     * this is only an upper bound.
+     * @return number of terms in all buckets.
+     */
+    public int length() {
+        int n = 0;
+        for (GenPolynomial<C> b : bucket) {
+            n += b.val.size();
+        }
+        return n;
+    }
+
+
+    /**
+     * Get the accumulated polynomial.
+     * @return sum of all buckets as new polynomial.
+     */
+    public GenPolynomial<C> getPolynomial() {
+        if (packed) {
+            GenPolynomial<C> p = empty();
+            for (GenPolynomial<C> b : bucket) {
+                p = p.sum(b);
+            }
+            return ring.toPacked(p);
+        }
+        GenPolynomial<C> p = ring.getZERO().copy();
+        SortedMap<ExpVector, C> nv = p.val;
+        for (GenPolynomial<C> b : bucket) {
+            for (Map.Entry<ExpVector, C> me : b.val.entrySet()) {
+                ExpVector f = me.getKey();
+                C y = me.getValue();
+                C x = nv.get(f);
+                if (x != null) {
+                    x = x.sum(y);
+                    if (!x.isZERO()) {
+                        nv.put(f, x);
+                    } else {
+                        nv.remove(f);
+                    }
+                } else {
+                    nv.put(f, y);
+                }
+            }
+        }
+        return p;
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer("GeoBucket(");
+        for (int i = 0; i < bucket.size(); i++) {
+            if (i > 0) {
+                s.append(", ");
+            }
+            s.append(bucket.get(i).val.size());
+        }
+        s.append(")");
+        return s.toString();
+    }
+
+}
@@ -0,0 +1,442 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Arrays;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * Dense univariate greatest common divisors over ModLongRing with the half
+ * gcd algorithm. The half gcd computes the 2x2 transformation matrix of the
+ * first half of the Euclidean remainder sequence from the upper halves of the
+ * coefficients only, so the gcd is computed with O(M(n) log(n)) operations,
+ * where M(n) is the cost of ModLongDenseMultiply. Below HALF_GCD_THRESHOLD the
+ * classical Euclidean algorithm on the dense arrays is used. The remainder
+ * sequence and the cofactors are the same as for the classical algorithm.
+ * Dense arrays are normalized, i.e. have no leading zero coefficients, the
+ * zero polynomial is the empty array.
+ * @author Heinz Kredel
+ * @see J. von zur Gathen, J. Gerhard, Modern Computer Algebra, section 11.1.
+ * @see K. Thull, C. Yap, A unified approach to HGCD algorithms for
+ *      polynomials and integers, 1990.
+ */
+
+public final class ModLongDenseGcd {
+
+
+    private static final Logger logger = Logger.getLogger(ModLongDenseGcd.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Length of the polynomials below which the half gcd uses the classical
+     * Euclidean algorithm.
+     */
+    public static final int HALF_GCD_THRESHOLD = 128;
+
+
+    /**
+     * Minimal degree of the polynomials from which on GenPolynomial.gcd() and
+     * egcd() use the dense algorithms.
+     */
+    public static final long DENSE_GCD_THRESHOLD = 32L;
+
+
+    /**
+     * Empty array for the zero polynomial.
+     */
+    private static final long[] ZERO = new long[0];
+
+
+    /**
+     * Array for the one polynomial.
+     */
+    private static final long[] ONE = new long[] { 1L };
+
+
+    /**
+     * No public constructor.
+     */
+    private ModLongDenseGcd() {
+    }
+
+
+    /**
+     * Dense greatest common divisor.
+     * @param p coefficient field.
+     * @param a dense coefficients, normalized and reduced modulo p.
+     * @param b dense coefficients, normalized and reduced modulo p.
+     * @return monic gcd(a,b), or the empty array if a and b are zero.
+     */
+    public static long[] gcd(ModLongRing p, long[] a, long[] b) {
+        long[][] r = euclidean(p, a, b, false);
+        if (r[0].length == 0) {
+            return r[0];
+        }
+        long c = new ModLong(p, r[0][r[0].length - 1]).inverse().getVal();
+        return multiply(p, c, r[0]);
+    }
+
+
+    /**
+     * Dense extended greatest common divisor.
+     * @param p coefficient field.
+     * @param a dense coefficients, normalized and reduced modulo p.
+     * @param b dense coefficients, normalized and reduced modulo p.
+     * @return [ g, s, t ] with g = monic gcd(a,b) = s a + t b.
+     */
+    public static long[][] egcd(ModLongRing p, long[] a, long[] b) {
+        long[][] r = euclidean(p, a, b, true);
+        if (r[0].length == 0) {
+            return r;
+        }
+        long c = new ModLong(p, r[0][r[0].length - 1]).inverse().getVal();
+        return new long[][] { multiply(p, c, r[0]), multiply(p, c, r[1]), multiply(p, c, r[2]) };
+    }
+
+
+    /**
+     * Euclidean algorithm with half gcd steps.
+     * @param p coefficient field.
+     * @param a dense coefficients.
+     * @param b dense coefficients.
+     * @param cofactors if true, the cofactors are computed.
+     * @return [ g, s, t ] with g = gcd(a,b) = s a + t b, g not normalized, s
+     *         and t null if cofactors is false.
+     */
+    private static long[][] euclidean(ModLongRing p, long[] a, long[] b, boolean cofactors) {
+        long[][] r = new long[][] { a, b };
+        long[][] R = null;
+        if (a.length < b.length) {
+            r = new long[][] { b, a };
+            if (cofactors) {
+                R = new long[][] { ZERO, ONE, ONE, ZERO };
+            }
+        } else if (cofactors) {
+            R = identity();
+        }
+        int steps = 0;
+        while (r[1].length > 0) {
+            if (r[0].length < HALF_GCD_THRESHOLD) {
+                euclid(p, R, r, 0);
+                break;
+            }
+            long[][] M = halfGcd(p, r[0], r[1]);
+            r = apply(p, M, r[0], r[1]);
+            if (r[1].length > 0) {
+                step(p, M, r);
+            }
+            if (R != null) {
+                R = multiply(p, M, R);
+            }
+            steps++;
+        }
+        if (debug) {
+            logger.debug("half gcd steps = " + steps + ", deg(gcd) = " + (r[0].length - 1));
+        }
+        if (R == null) {
+            return new long[][] { r[0], null, null };
+        }
+        return new long[][] { r[0], R[0], R[1] };
+    }
+
+
+    /**
+     * Half gcd. Computes the transformation matrix M of the Euclidean
+     * remainder sequence of a and b up to the first remainder of length at
+     * most a.length / 2.
+     * @param p coefficient field.
+     * @param a dense coefficients.
+     * @param b dense coefficients, b.length &le; a.length.
+     * @return M = [ m00, m01, m10, m11 ] with (m00 a + m01 b, m10 a + m11 b)
+     *         two consecutive remainders and length(m10 a + m11 b) &le;
+     *         a.length / 2 &lt; length(m00 a + m01 b).
+     */
+    static long[][] halfGcd(ModLongRing p, long[] a, long[] b) {
+        final int k = a.length / 2;
+        long[][] M = identity();
+        if (b.length <= k) {
+            return M;
+        }
+        if (a.length < HALF_GCD_THRESHOLD) {
+            euclid(p, M, new long[][] { a, b }, k);
+            return M;
+        }
+        // the first quotients are determined by the upper halves
+        M = halfGcd(p, shift(a, k), shift(b, k));
+        long[][] r = apply(p, M, a, b);
+        if (r[1].length <= k) {
+            return M;
+        }
+        step(p, M, r);
+        if (r[1].length <= k) {
+            return M;
+        }
+        int j = 2 * k - (r[0].length - 1);
+        long[][] N = halfGcd(p, shift(r[0], j), shift(r[1], j));
+        return multiply(p, N, M);
+    }
+
+
+    /**
+     * Classical Euclidean algorithm.
+     * @param p coefficient field.
+     * @param M transformation matrix, is updated, or null.
+     * @param r pair of consecutive remainders, is updated.
+     * @param k stop if length(r[1]) &le; k.
+     */
+    private static void euclid(ModLongRing p, long[][] M, long[][] r, int k) {
+        while (r[1].length > k) {
+            step(p, M, r);
+        }
+    }
+
+
+    /**
+     * One Euclidean division step.
+     * @param p coefficient field.
+     * @param M transformation matrix, is updated, or null.
+     * @param r pair of consecutive remainders, is replaced by (r[1], r[0] mod
+     *            r[1]).
+     */
+    private static void step(ModLongRing p, long[][] M, long[][] r) {
+        long[][] qr = new ModLongDenseModulus(p, r[1]).quotientRemainder(r[0]);
+        long[] q = normalize(qr[0]);
+        r[0] = r[1];
+        r[1] = normalize(qr[1]);
+        if (M == null) {
+            return;
+        }
+        long[] x0 = subtract(p, M[0], multiply(p, q, M[2]));
+        long[] x1 = subtract(p, M[1], multiply(p, q, M[3]));
+        M[0] = M[2];
+        M[1] = M[3];
+        M[2] = x0;
+        M[3] = x1;
+    }
+
+
+    /**
+     * Identity matrix.
+     * @return [ 1, 0, 0, 1 ].
+     */
+    private static long[][] identity() {
+        return new long[][] { ONE, ZERO, ZERO, ONE };
+    }
+
+
+    /**
+     * Matrix times vector.
+     * @param p coefficient ring.
+     * @param M matrix.
+     * @param a dense coefficients.
+     * @param b dense coefficients.
+     * @return M (a, b).
+     */
+    private static long[][] apply(ModLongRing p, long[][] M, long[] a, long[] b) {
+        return new long[][] { sum(p, multiply(p, M[0], a), multiply(p, M[1], b)),
+                sum(p, multiply(p, M[2], a), multiply(p, M[3], b)) };
+    }
+
+
+    /**
+     * Matrix product.
+     * @param p coefficient ring.
+     * @param N matrix.
+     * @param M matrix.
+     * @return N M.
+     */
+    private static long[][] multiply(ModLongRing p, long[][] N, long[][] M) {
+        return new long[][] { sum(p, multiply(p, N[0], M[0]), multiply(p, N[1], M[2])),
+                sum(p, multiply(p, N[0], M[1]), multiply(p, N[1], M[3])),
+                sum(p, multiply(p, N[2], M[0]), multiply(p, N[3], M[2])),
+                sum(p, multiply(p, N[2], M[1]), multiply(p, N[3], M[3])) };
+    }
+
+
+    /**
+     * Dense product.
+     * @param p coefficient ring.
+     * @param a dense coefficients.
+     * @param b dense coefficients.
+     * @return a*b.
+     */
+    private static long[] multiply(ModLongRing p, long[] a, long[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return ZERO;
+        }
+        if (a.length == 1 && a[0] == 1L) {
+            return b;
+        }
+        if (b.length == 1 && b[0] == 1L) {
+            return a;
+        }
+        return normalize(ModLongDenseMultiply.multiply(p, a, b));
+    }
+
+
+    /**
+     * Dense product with a scalar.
+     * @param p coefficient ring.
+     * @param c unit.
+     * @param a dense coefficients.
+     * @return c*a.
+     */
+    private static long[] multiply(ModLongRing p, long c, long[] a) {
+        long[] b = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            b[i] = p.multiply(c, a[i]);
+        }
+        return b;
+    }
+
+
+    /**
+     * Dense sum.
+     * @param p coefficient ring.
+     * @param a dense coefficients.
+     * @param b dense coefficients.
+     * @return a+b.
+     */
+    private static long[] sum(ModLongRing p, long[] a, long[] b) {
+        if (a.length < b.length) {
+            long[] t = a;
+            a = b;
+            b = t;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        long[] c = a.clone();
+        for (int i = 0; i < b.length; i++) {
+            c[i] = p.sum(c[i], b[i]);
+        }
+        return normalize(c);
+    }
+
+
+    /**
+     * Dense difference.
+     * @param p coefficient ring.
+     * @param a dense coefficients.
+     * @param b dense coefficients.
+     * @return a-b.
+     */
+    private static long[] subtract(ModLongRing p, long[] a, long[] b) {
+        long[] c = new long[Math.max(a.length, b.length)];
+        System.arraycopy(a, 0, c, 0, a.length);
+        for (int i = 0; i < b.length; i++) {
+            c[i] = p.subtract(c[i], b[i]);
+        }
+        return normalize(c);
+    }
+
+
+    /**
+     * Division by a power of x.
+     * @param a dense coefficients.
+     * @param j exponent.
+     * @return a div x<sup>j</sup>.
+     */
+    private static long[] shift(long[] a, int j) {
+        if (j >= a.length) {
+            return ZERO;
+        }
+        return Arrays.copyOfRange(a, j, a.length);
+    }
+
+
+    /**
+     * Remove leading zero coefficients.
+     * @param a dense coefficients.
+     * @return a with a[a.length-1] != 0, or the empty array.
+     */
+    private static long[] normalize(long[] a) {
+        int n = a.length;
+        while (n > 0 && a[n - 1] == 0L) {
+            n--;
+        }
+        return (n == a.length ? a : Arrays.copyOf(a, n));
+    }
+
+
+    /**
+     * Test for dense univariate gcd. The term order must have x &gt; 1.
+     * @param A polynomial.
+     * @param S polynomial.
+     * @return true, if A and S are univariate over a prime field, deg(A),
+     *         deg(S) &ge; DENSE_GCD_THRESHOLD and deg(A) + 1, deg(S) + 1
+     *         &le; DENSE_RATIO * (#A + #S).
+     */
+    public static boolean isDenseGcd(GenPolynomial<ModLong> A, GenPolynomial<ModLong> S) {
+        if (A.ring.nvar != 1 || A.isZERO() || S.isZERO()) {
+            return false;
+        }
+        long da = A.degree(0);
+        long ds = S.degree(0);
+        if (Math.min(da, ds) < DENSE_GCD_THRESHOLD) {
+            return false;
+        }
+        if (A.leadingExpVector().getVal(0) != da || S.leadingExpVector().getVal(0) != ds) {
+            return false; // term order with 1 > x
+        }
+        if (!A.ring.coFac.isField()) {
+            return false;
+        }
+        long n = (long) ModLongDenseMultiply.DENSE_RATIO * (A.length() + S.length());
+        return da + 1 <= n && ds + 1 <= n;
+    }
+
+
+    /**
+     * Dense univariate greatest common divisor.
+     * @param A univariate polynomial.
+     * @param S univariate polynomial.
+     * @return monic gcd(A,S), or null if the gcd is not dense, see
+     *         isDenseGcd().
+     */
+    public static GenPolynomial<ModLong> gcd(GenPolynomial<ModLong> A, GenPolynomial<ModLong> S) {
+        if (!isDenseGcd(A, S)) {
+            return null;
+        }
+        ModLongRing p = (ModLongRing) A.ring.coFac;
+        long[] a = ModLongDenseMultiply.toDense(A, 0L, (int) A.degree(0) + 1);
+        long[] s = ModLongDenseMultiply.toDense(S, 0L, (int) S.degree(0) + 1);
+        return ModLongDenseMultiply.fromDense(A.ring, gcd(p, a, s), 0L);
+    }
+
+
+    /**
+     * Dense univariate extended greatest common divisor.
+     * @param A univariate polynomial.
+     * @param S univariate polynomial.
+     * @return [ g, a, b ] with g = monic gcd(A,S) = a A + b S, or null if the
+     *         gcd is not dense, see isDenseGcd().
+     */
+    @SuppressWarnings("unchecked")
+    public static GenPolynomial<ModLong>[] egcd(GenPolynomial<ModLong> A, GenPolynomial<ModLong> S) {
+        if (!isDenseGcd(A, S)) {
+            return null;
+        }
+        ModLongRing p = (ModLongRing) A.ring.coFac;
+        long[] a = ModLongDenseMultiply.toDense(A, 0L, (int) A.degree(0) + 1);
+        long[] s = ModLongDenseMultiply.toDense(S, 0L, (int) S.degree(0) + 1);
+        long[][] g = egcd(p, a, s);
+        GenPolynomial<ModLong>[] ret = new GenPolynomial[3];
+        for (int i = 0; i < 3; i++) {
+            ret[i] = ModLongDenseMultiply.fromDense(A.ring, g[i], 0L);
+        }
+        return ret;
+    }
+
+}
@@ -0,0 +1,334 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * Dense univariate modulus over ModLongRing. Division with remainder by a
+ * fixed polynomial S on dense coefficient arrays. For large quotients and
+ * large S the quotient is computed with the inverse of the reversed polynomial
+ * rev(S) = x<sup>deg(S)</sup> S(1/x) as power series. The inverse is computed
+ * with Newton iteration once and extended on demand, so it is reused for all
+ * divisions by S. The products are computed with ModLongDenseMultiply. For
+ * small quotients or small S the classical algorithm is used.
+ * @author Heinz Kredel
+ * @see J. von zur Gathen, J. Gerhard, Modern Computer Algebra, section 9.1.
+ */
+
+public final class ModLongDenseModulus implements Serializable {
+
+
+    private static final Logger logger = Logger.getLogger(ModLongDenseModulus.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Minimal degree of the modulus and length of the quotient from which on
+     * the division with the power series inverse is used.
+     */
+    public static final int NEWTON_THRESHOLD = 128;
+
+
+    /**
+     * Product of the length of the quotient and the number of terms of the
+     * divisor from which on GenPolynomial.remainder() uses the dense
+     * algorithms.
+     */
+    public static final long DENSE_DIVISION_THRESHOLD = 256L;
+
+
+    /**
+     * Coefficient ring.
+     */
+    public final ModLongRing ring;
+
+
+    /**
+     * Dense coefficients of the modulus, s[k] the coefficient of
+     * x<sup>k</sup>.
+     */
+    private final long[] s;
+
+
+    /**
+     * Inverse of the leading coefficient.
+     */
+    private final long ci;
+
+
+    /**
+     * Power series inverse of rev(S) modulo x<sup>inv.length</sup>, extended
+     * on demand.
+     */
+    private transient volatile long[] inv;
+
+
+    /**
+     * Constructor.
+     * @param p coefficient ring.
+     * @param s dense coefficients of the modulus, s[s.length-1] invertible.
+     * @throws ArithmeticException if the leading coefficient is not
+     *             invertible.
+     */
+    public ModLongDenseModulus(ModLongRing p, long[] s) {
+        if (s.length == 0 || s[s.length - 1] == 0L) {
+            throw new IllegalArgumentException("modulus zero or not normalized");
+        }
+        ModLong c = new ModLong(p, s[s.length - 1]);
+        if (!c.isUnit()) {
+            throw new ArithmeticException("lbc not invertible " + c);
+        }
+        ring = p;
+        this.s = s;
+        ci = c.inverse().getVal();
+        inv = null;
+    }
+
+
+    /**
+     * Constructor.
+     * @param S univariate polynomial with invertible leading coefficient.
+     * @throws ArithmeticException if the leading coefficient is not
+     *             invertible.
+     */
+    public ModLongDenseModulus(GenPolynomial<ModLong> S) {
+        this((ModLongRing) S.ring.coFac, ModLongDenseMultiply.toDense(S, 0L, (int) S.degree(0) + 1));
+    }
+
+
+    /**
+     * Degree of the modulus.
+     * @return deg(S).
+     */
+    public int degree() {
+        return s.length - 1;
+    }
+
+
+    /**
+     * Dense quotient and remainder.
+     * @param a dense coefficients of the dividend, reduced modulo p.
+     * @return [ q, r ] with a = q * S + r and r.length = deg(S).
+     */
+    public long[][] quotientRemainder(long[] a) {
+        final int m = s.length - 1;
+        final int k = a.length - m; // length of the quotient
+        if (k <= 0) {
+            return new long[][] { new long[0], Arrays.copyOf(a, m) };
+        }
+        if (Math.min(k, m) < NEWTON_THRESHOLD) {
+            long[] r = a.clone();
+            long[] q = new long[k];
+            divideClassic(r, q);
+            return new long[][] { q, Arrays.copyOf(r, m) };
+        }
+        // rev(q) = rev(a) / rev(S) mod x^k
+        long[] ra = new long[k];
+        for (int i = 0; i < k; i++) {
+            ra[i] = a[a.length - 1 - i];
+        }
+        long[] rq = multiplyLow(ring, ra, reverseInverse(k), k);
+        long[] q = new long[k];
+        for (int i = 0; i < k; i++) {
+            q[i] = rq[k - 1 - i];
+        }
+        // r = a - q S mod x^m
+        long[] qs = multiplyLow(ring, q, s, m);
+        long[] r = new long[m];
+        for (int i = 0; i < m; i++) {
+            r[i] = ring.subtract(a[i], qs[i]);
+        }
+        return new long[][] { q, r };
+    }
+
+
+    /**
+     * Dense remainder.
+     * @param a dense coefficients of the dividend, reduced modulo p.
+     * @return r with a = q * S + r and r.length = deg(S).
+     */
+    public long[] remainder(long[] a) {
+        return quotientRemainder(a)[1];
+    }
+
+
+    /**
+     * Dense division with fused multiply and subtract loop.
+     * @param r dense dividend, is replaced by the remainder in r[0], ...,
+     *            r[deg(S)-1].
+     * @param q dense quotient, is set.
+     */
+    private void divideClassic(long[] r, long[] q) {
+        final ModLongRing p = ring;
+        final int db = s.length - 1;
+        for (int k = r.length - 1; k >= db; k--) {
+            long a = r[k];
+            if (a == 0L) {
+                continue;
+            }
+            a = p.multiply(a, ci);
+            int o = k - db;
+            q[o] = a;
+            long na = p.subtract(0L, a);
+            for (int j = 0; j < db; j++) {
+                r[o + j] = p.sum(r[o + j], p.multiply(na, s[j]));
+            }
+            r[k] = 0L;
+        }
+    }
+
+
+    /**
+     * Power series inverse of rev(S). The cached inverse is extended with
+     * Newton iteration g = g (2 - rev(S) g) if it is too short.
+     * @param k precision.
+     * @return g with g rev(S) = 1 mod x<sup>k</sup>, g.length &ge; k.
+     */
+    long[] reverseInverse(int k) {
+        long[] g = inv;
+        if (g != null && g.length >= k) {
+            return g;
+        }
+        final ModLongRing p = ring;
+        final int m = s.length - 1;
+        if (g == null) {
+            g = new long[] { ci };
+        }
+        while (g.length < k) {
+            int l = Math.min(2 * g.length, k);
+            long[] f = new long[Math.min(l, m + 1)];
+            for (int i = 0; i < f.length; i++) {
+                f[i] = s[m - i];
+            }
+            long[] e = multiplyLow(p, f, g, l);
+            for (int i = 0; i < l; i++) {
+                e[i] = p.subtract(0L, e[i]);
+            }
+            e[0] = p.sum(e[0], 2L % p.getLongModul());
+            g = multiplyLow(p, g, e, l);
+        }
+        if (debug) {
+            logger.debug("reverse inverse: deg(S) = " + m + ", precision = " + g.length);
+        }
+        inv = g;
+        return g;
+    }
+
+
+    /**
+     * Truncated product.
+     * @param p coefficient ring.
+     * @param a dense coefficients.
+     * @param b dense coefficients.
+     * @param k precision.
+     * @return a*b mod x<sup>k</sup> as array of length k.
+     */
+    private static long[] multiplyLow(ModLongRing p, long[] a, long[] b, int k) {
+        long[] x = (a.length > k ? Arrays.copyOf(a, k) : a);
+        long[] y = (b.length > k ? Arrays.copyOf(b, k) : b);
+        return Arrays.copyOf(ModLongDenseMultiply.multiply(p, x, y), k);
+    }
+
+
+    /**
+     * Remainder of a univariate polynomial.
+     * @param A univariate polynomial with deg(A) - ldeg(A) small compared to
+     *            the number of terms.
+     * @return r with A = q * S + r and deg(r) &lt; deg(S).
+     */
+    public GenPolynomial<ModLong> remainder(GenPolynomial<ModLong> A) {
+        if (A.isZERO() || A.degree(0) < s.length - 1) {
+            return A;
+        }
+        long[] a = ModLongDenseMultiply.toDense(A, 0L, (int) A.degree(0) + 1);
+        return ModLongDenseMultiply.fromDense(A.ring, remainder(a), 0L);
+    }
+
+
+    /**
+     * Quotient and remainder of a univariate polynomial.
+     * @param A univariate polynomial with deg(A) - ldeg(A) small compared to
+     *            the number of terms.
+     * @return [ q, r ] with A = q * S + r and deg(r) &lt; deg(S).
+     */
+    @SuppressWarnings("unchecked")
+    public GenPolynomial<ModLong>[] quotientRemainder(GenPolynomial<ModLong> A) {
+        GenPolynomial<ModLong>[] ret = new GenPolynomial[2];
+        if (A.isZERO() || A.degree(0) < s.length - 1) {
+            ret[0] = A.ring.getZERO();
+            ret[1] = A;
+            return ret;
+        }
+        long[] a = ModLongDenseMultiply.toDense(A, 0L, (int) A.degree(0) + 1);
+        long[][] qr = quotientRemainder(a);
+        ret[0] = ModLongDenseMultiply.fromDense(A.ring, qr[0], 0L);
+        ret[1] = ModLongDenseMultiply.fromDense(A.ring, qr[1], 0L);
+        return ret;
+    }
+
+
+    /**
+     * Test for dense univariate division. The dense arrays start with degree
+     * zero, the term order must have x &gt; 1.
+     * @param A polynomial.
+     * @param S polynomial.
+     * @return true, if A and S are univariate, deg(A) &ge; deg(S), the length
+     *         of the quotient times the number of terms of S is at least
+     *         DENSE_DIVISION_THRESHOLD and deg(A) + 1, deg(S) + 1 &le;
+     *         DENSE_RATIO * (#A + #S).
+     */
+    public static boolean isDenseDivision(GenPolynomial<ModLong> A, GenPolynomial<ModLong> S) {
+        if (A.ring.nvar != 1 || A.isZERO() || S.isZERO()) {
+            return false;
+        }
+        long da = A.degree(0);
+        long ds = S.degree(0);
+        if (da < ds || A.leadingExpVector().getVal(0) != da || S.leadingExpVector().getVal(0) != ds) {
+            return false; // term order with 1 > x
+        }
+        if ((da - ds + 1) * S.length() < DENSE_DIVISION_THRESHOLD) {
+            return false;
+        }
+        long n = (long) ModLongDenseMultiply.DENSE_RATIO * (A.length() + S.length());
+        return da + 1 <= n && ds + 1 <= n;
+    }
+
+
+    /**
+     * Dense univariate quotient and remainder.
+     * @param A univariate polynomial.
+     * @param S univariate polynomial with invertible leading coefficient.
+     * @return [ q, r ] with A = q * S + r and deg(r) &lt; deg(S), or null if
+     *         the division is not dense, see isDenseDivision().
+     */
+    public static GenPolynomial<ModLong>[] quotientRemainder(GenPolynomial<ModLong> A, GenPolynomial<ModLong> S) {
+        if (!isDenseDivision(A, S)) {
+            return null;
+        }
+        return new ModLongDenseModulus(S).quotientRemainder(A);
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ModLongDenseModulus(deg = " + degree() + ", mod " + ring.getModul() + ")";
+    }
+
+}
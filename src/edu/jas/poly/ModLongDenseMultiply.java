@@ -0,0 +1,585 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.arith.PrimeList;
+
+
+/**
+ * Dense univariate multiplication over ModLongRing. The polynomials are
+ * represented by coefficient arrays c with c[k] the coefficient of
+ * x<sup>k</sup>. Depending on the length of the shorter factor the products
+ * are computed with the schoolbook algorithm, with Karatsuba's algorithm or
+ * with number theoretic transforms modulo up to three primes p = c 2<sup>32</sup>
+ * + 1 and chinese remaindering of the exact integer product. Used by
+ * GenPolynomial.multiply() and PackedModLongPolynomial.multiply() for dense
+ * univariate polynomials.
+ * @author Heinz Kredel
+ * @see J. von zur Gathen, J. Gerhard, Modern Computer Algebra, sections 8.1
+ *      and 8.2.
+ */
+
+public final class ModLongDenseMultiply {
+
+
+    private static final Logger logger = Logger.getLogger(ModLongDenseMultiply.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Length of the shorter factor from which on Karatsuba's algorithm is
+     * used.
+     */
+    public static final int KARATSUBA_THRESHOLD = 32;
+
+
+    /**
+     * Length of the shorter factor per transform prime from which on number
+     * theoretic transforms are used.
+     */
+    public static final int NTT_THRESHOLD = 512;
+
+
+    /**
+     * Product of the number of terms of two univariate polynomials from which
+     * on GenPolynomial.multiply() uses the dense algorithms.
+     */
+    public static final long DENSE_MULTIPLY_THRESHOLD = 256L;
+
+
+    /**
+     * Maximal ratio of dense array length to number of terms for dense
+     * polynomials.
+     */
+    public static final int DENSE_RATIO = 4;
+
+
+    /**
+     * Exponent of 2 in p - 1 for the transform primes p, the maximal
+     * transform length is 2<sup>NTT_ORDER</sup>.
+     */
+    private static final int NTT_ORDER = 32;
+
+
+    /**
+     * Transform primes c 2<sup>32</sup> + 1 &lt; 2<sup>62</sup> in
+     * descending order.
+     */
+    private static final ModLongRing[] NTT_RINGS = new ModLongRing[3];
+
+
+    /**
+     * Roots of unity of order 2<sup>NTT_ORDER</sup> modulo the transform
+     * primes.
+     */
+    private static final long[] NTT_ROOTS = new long[NTT_RINGS.length];
+
+
+    /**
+     * Montgomery constants p<sup>-1</sup> mod 2<sup>64</sup> of the transform
+     * primes.
+     */
+    private static final long[] NTT_NINV = new long[NTT_RINGS.length];
+
+
+    /**
+     * Montgomery constants R<sup>2</sup> mod p of the transform primes, R =
+     * 2<sup>64</sup>.
+     */
+    private static final long[] NTT_R2 = new long[NTT_RINGS.length];
+
+
+    /**
+     * Garner constants, p_0<sup>-1</sup> mod p_1 and (p_0 p_1)<sup>-1</sup>
+     * mod p_2.
+     */
+    private static final long INV01, INV012;
+
+
+    static {
+        PrimitiveIterator.OfLong it = PrimeList.nttPrimes(62, NTT_ORDER);
+        java.math.BigInteger r = java.math.BigInteger.ONE.shiftLeft(64);
+        for (int i = 0; i < NTT_RINGS.length; i++) {
+            long q = it.nextLong();
+            java.math.BigInteger qb = java.math.BigInteger.valueOf(q);
+            NTT_RINGS[i] = new ModLongRing(q, true);
+            NTT_ROOTS[i] = PrimeList.rootOfUnity(q, 1L << NTT_ORDER);
+            NTT_NINV[i] = qb.modInverse(r).longValue();
+            NTT_R2[i] = r.multiply(r).mod(qb).longValue();
+        }
+        java.math.BigInteger q0 = NTT_RINGS[0].getModul();
+        java.math.BigInteger q1 = NTT_RINGS[1].getModul();
+        java.math.BigInteger q2 = NTT_RINGS[2].getModul();
+        INV01 = q0.modInverse(q1).longValue();
+        INV012 = q0.multiply(q1).modInverse(q2).longValue();
+    }
+
+
+    private ModLongDenseMultiply() {
+    }
+
+
+    /**
+     * Dense product. The algorithm is selected by the length of the shorter
+     * factor and the number of transform primes needed for the modul, see
+     * KARATSUBA_THRESHOLD and NTT_THRESHOLD.
+     * @param p coefficient ring.
+     * @param a dense coefficients, reduced modulo p, a.length &gt; 0.
+     * @param b dense coefficients, reduced modulo p, b.length &gt; 0.
+     * @return c = a*b with c.length = a.length + b.length - 1.
+     */
+    public static long[] multiply(ModLongRing p, long[] a, long[] b) {
+        int n = Math.min(a.length, b.length);
+        if (n < KARATSUBA_THRESHOLD) {
+            return multiplySchool(p, a, b);
+        }
+        if (n < NTT_THRESHOLD * transformPrimes(p.getLongModul(), n)) {
+            return multiplyKaratsuba(p, a, b);
+        }
+        return multiplyNTT(p, a, b);
+    }
+
+
+    /**
+     * Dense product with the schoolbook algorithm. The coefficients of the
+     * product are summed up in 128 bits and reduced once.
+     * @param p coefficient ring.
+     * @param a dense coefficients, reduced modulo p, a.length &gt; 0.
+     * @param b dense coefficients, reduced modulo p, b.length &gt; 0.
+     * @return c = a*b with c.length = a.length + b.length - 1.
+     */
+    public static long[] multiplySchool(ModLongRing p, long[] a, long[] b) {
+        final int la = a.length;
+        final int lb = b.length;
+        final long m = p.getLongModul();
+        final long r64 = Long.remainderUnsigned(-m, m); // 2^64 mod m
+        long[] c = new long[la + lb - 1];
+        for (int k = 0; k < c.length; k++) {
+            int i0 = Math.max(0, k - lb + 1);
+            int i1 = Math.min(k, la - 1);
+            long hi = 0L;
+            long lo = 0L;
+            for (int i = i0; i <= i1; i++) {
+                long x = a[i];
+                long y = b[k - i];
+                long l = x * y;
+                lo += l;
+                hi += Math.multiplyHigh(x, y) + (Long.compareUnsigned(lo, l) < 0 ? 1L : 0L);
+                if (hi >= (1L << 62)) { // hi 2^64 + lo = (hi mod m) 2^64 + lo
+                    hi %= m;
+                }
+            }
+            c[k] = p.sum(p.multiply(hi % m, r64), Long.remainderUnsigned(lo, m));
+        }
+        return c;
+    }
+
+
+    /**
+     * Dense product with Karatsuba's algorithm. The recursion uses the
+     * schoolbook algorithm for factors shorter than KARATSUBA_THRESHOLD, the
+     * longer factor of unbalanced products is cut into pieces of the length
+     * of the shorter factor.
+     * @param p coefficient ring.
+     * @param a dense coefficients, reduced modulo p, a.length &gt; 0.
+     * @param b dense coefficients, reduced modulo p, b.length &gt; 0.
+     * @return c = a*b with c.length = a.length + b.length - 1.
+     */
+    public static long[] multiplyKaratsuba(ModLongRing p, long[] a, long[] b) {
+        if (a.length < b.length) {
+            long[] t = a;
+            a = b;
+            b = t;
+        }
+        final int la = a.length;
+        final int lb = b.length;
+        if (lb < KARATSUBA_THRESHOLD) {
+            return multiplySchool(p, a, b);
+        }
+        long[] c = new long[la + lb - 1];
+        if (lb <= (la + 1) / 2) { // unbalanced
+            for (int i = 0; i < la; i += lb) {
+                long[] ai = Arrays.copyOfRange(a, i, Math.min(i + lb, la));
+                addTo(p, c, i, multiplyKaratsuba(p, ai, b));
+            }
+            return c;
+        }
+        final int h = (la + 1) / 2; // h < lb
+        long[] a0 = Arrays.copyOf(a, h);
+        long[] a1 = Arrays.copyOfRange(a, h, la);
+        long[] b0 = Arrays.copyOf(b, h);
+        long[] b1 = Arrays.copyOfRange(b, h, lb);
+        long[] z0 = multiplyKaratsuba(p, a0, b0);
+        long[] z2 = multiplyKaratsuba(p, a1, b1);
+        // a0 + a1 and b0 + b1 inplace, a1 and b1 are not longer than h
+        for (int i = 0; i < a1.length; i++) {
+            a0[i] = p.sum(a0[i], a1[i]);
+        }
+        for (int i = 0; i < b1.length; i++) {
+            b0[i] = p.sum(b0[i], b1[i]);
+        }
+        long[] z1 = multiplyKaratsuba(p, a0, b0);
+        for (int i = 0; i < z0.length; i++) {
+            z1[i] = p.subtract(z1[i], z0[i]);
+        }
+        for (int i = 0; i < z2.length; i++) {
+            z1[i] = p.subtract(z1[i], z2[i]);
+        }
+        System.arraycopy(z0, 0, c, 0, z0.length);
+        System.arraycopy(z2, 0, c, 2 * h, z2.length);
+        addTo(p, c, h, z1);
+        return c;
+    }
+
+
+    /**
+     * Dense product with number theoretic transforms. The exact integer
+     * product of the coefficients is computed modulo as many transform primes
+     * as needed for its size and reconstructed with Garner's algorithm.
+     * Squares need only one forward transform.
+     * @param p coefficient ring.
+     * @param a dense coefficients, reduced modulo p, a.length &gt; 0.
+     * @param b dense coefficients, reduced modulo p, b.length &gt; 0.
+     * @return c = a*b with c.length = a.length + b.length - 1.
+     */
+    public static long[] multiplyNTT(ModLongRing p, long[] a, long[] b) {
+        final int l = a.length + b.length - 1;
+        int k = 32 - Integer.numberOfLeadingZeros(l - 1); // 2^k >= l
+        if (k > NTT_ORDER || l < 0) {
+            throw new IllegalArgumentException("product too long for transforms: " + l);
+        }
+        final int n = 1 << k;
+        int np = transformPrimes(p.getLongModul(), Math.min(a.length, b.length));
+        long[][] r = new long[np][];
+        for (int j = 0; j < np; j++) {
+            ModLongRing qr = NTT_RINGS[j];
+            final long q = qr.getLongModul();
+            final long qi = NTT_NINV[j];
+            final long r2 = NTT_R2[j];
+            long w = NTT_ROOTS[j];
+            for (int i = k; i < NTT_ORDER; i++) {
+                w = qr.multiply(w, w);
+            }
+            long wi = new ModLong(qr, w).inverse().getVal();
+            long[] x = reduced(q, a, n);
+            transform(q, qi, x, twiddles(q, qi, montMul(w, r2, q, qi), n));
+            // pointwise products x*y/R
+            if (a == b) {
+                for (int i = 0; i < n; i++) {
+                    x[i] = montMul(x[i], x[i], q, qi);
+                }
+            } else {
+                long[] y = reduced(q, b, n);
+                transform(q, qi, y, twiddles(q, qi, montMul(w, r2, q, qi), n));
+                for (int i = 0; i < n; i++) {
+                    x[i] = montMul(x[i], y[i], q, qi);
+                }
+            }
+            inverseTransform(q, qi, x, twiddles(q, qi, montMul(wi, r2, q, qi), n));
+            // scale with R/n
+            long ni = q - (q - 1L) / n; // n^-1 mod q
+            long s = montMul(montMul(ni, r2, q, qi), r2, q, qi);
+            for (int i = 0; i < l; i++) {
+                x[i] = montMul(x[i], s, q, qi);
+            }
+            r[j] = x;
+        }
+        if (debug) {
+            logger.debug("multiplyNTT: l = " + l + ", n = " + n + ", #primes = " + np);
+        }
+        return garner(p, r, l);
+    }
+
+
+    /**
+     * Number of transform primes for a product.
+     * @param m modul.
+     * @param n length of the shorter factor.
+     * @return number of primes with n (m-1)<sup>2</sup> &lt; product of the
+     *         primes.
+     */
+    private static int transformPrimes(long m, int n) {
+        // each prime has more than 61 bits
+        int bits = 2 * (64 - Long.numberOfLeadingZeros(m - 1L)) + (32 - Integer.numberOfLeadingZeros(n));
+        return Math.max(1, (bits + 60) / 61);
+    }
+
+
+    /**
+     * Chinese remainder with Garner's algorithm.
+     * @param p coefficient ring.
+     * @param r r[j][i] the residue of coefficient i modulo the transform prime
+     *            j.
+     * @param l number of coefficients.
+     * @return c with c[i] = the integer with residues r[j][i] modulo p.
+     */
+    private static long[] garner(ModLongRing p, long[][] r, int l) {
+        final long m = p.getLongModul();
+        long[] c = new long[l];
+        if (r.length == 1) {
+            for (int i = 0; i < l; i++) {
+                c[i] = r[0][i] % m;
+            }
+            return c;
+        }
+        ModLongRing q1 = NTT_RINGS[1];
+        long q0p = NTT_RINGS[0].getLongModul() % m;
+        if (r.length == 2) {
+            for (int i = 0; i < l; i++) {
+                long v0 = r[0][i];
+                long v1 = q1.multiply(q1.subtract(r[1][i], v0 % q1.getLongModul()), INV01);
+                c[i] = p.sum(v0 % m, p.multiply(v1 % m, q0p));
+            }
+            return c;
+        }
+        ModLongRing q2 = NTT_RINGS[2];
+        long q0q2 = NTT_RINGS[0].getLongModul() % q2.getLongModul();
+        long q01p = p.multiply(q0p, NTT_RINGS[1].getLongModul() % m);
+        for (int i = 0; i < l; i++) {
+            long v0 = r[0][i];
+            long v1 = q1.multiply(q1.subtract(r[1][i], v0 % q1.getLongModul()), INV01);
+            long s = q2.sum(v0 % q2.getLongModul(), q2.multiply(v1 % q2.getLongModul(), q0q2));
+            long v2 = q2.multiply(q2.subtract(r[2][i], s), INV012);
+            c[i] = p.sum(p.sum(v0 % m, p.multiply(v1 % m, q0p)), p.multiply(v2 % m, q01p));
+        }
+        return c;
+    }
+
+
+    /**
+     * Montgomery multiplication. The low words of a b and m q are equal, so
+     * the difference of the high words is the exact quotient.
+     * @param a long, 0 &le; a &lt; q.
+     * @param b long, 0 &le; b &lt; q.
+     * @param q odd modul &lt; 2<sup>62</sup>.
+     * @param qi q<sup>-1</sup> mod 2<sup>64</sup>.
+     * @return a b / 2<sup>64</sup> mod q.
+     */
+    private static long montMul(long a, long b, long q, long qi) {
+        long m = (a * b) * qi;
+        long t = Math.multiplyHigh(a, b) - Math.multiplyHigh(m, q); // -q < t < q
+        return t + ((t >> 63) & q);
+    }
+
+
+    /**
+     * Twiddle factors of all levels of a transform in Montgomery form.
+     * @param q transform prime.
+     * @param qi q<sup>-1</sup> mod 2<sup>64</sup>.
+     * @param w root of unity of order n in Montgomery form.
+     * @param n transform length, a power of 2.
+     * @return t with t[h + j] = (w<sup>n/(2h)</sup>)<sup>j</sup> for h a
+     *         power of 2 less than n and 0 &le; j &lt; h.
+     */
+    private static long[] twiddles(long q, long qi, long w, int n) {
+        long[] t = new long[Math.max(n, 2)];
+        int h = n >> 1;
+        if (h == 0) {
+            return t;
+        }
+        t[h] = Long.remainderUnsigned(-q, q); // R mod q
+        for (int j = 1; j < h; j++) {
+            t[h + j] = montMul(t[h + j - 1], w, q, qi);
+        }
+        for (h >>= 1; h > 0; h >>= 1) {
+            for (int j = 0; j < h; j++) {
+                t[h + j] = t[2 * h + 2 * j];
+            }
+        }
+        return t;
+    }
+
+
+    /**
+     * Coefficients reduced modulo a transform prime.
+     * @param q transform prime.
+     * @param a non negative coefficients.
+     * @param n length of the result, n &ge; a.length.
+     * @return a mod q padded with zeros to length n.
+     */
+    private static long[] reduced(long q, long[] a, int n) {
+        long[] x = Arrays.copyOf(a, n);
+        for (int i = 0; i < a.length; i++) {
+            if (x[i] >= q) {
+                x[i] %= q;
+            }
+        }
+        return x;
+    }
+
+
+    /**
+     * Forward transform, decimation in frequency. The result is in bit
+     * reversed order.
+     * @param q transform prime.
+     * @param qi q<sup>-1</sup> mod 2<sup>64</sup>.
+     * @param a coefficients, length a power of 2.
+     * @param t twiddle factors in Montgomery form.
+     */
+    private static void transform(long q, long qi, long[] a, long[] t) {
+        final int n = a.length;
+        for (int h = n >> 1; h > 0; h >>= 1) {
+            for (int i = 0; i < n; i += 2 * h) {
+                for (int j = 0; j < h; j++) {
+                    long u = a[i + j];
+                    long v = a[i + j + h];
+                    long s = u + v;
+                    long d = u - v;
+                    a[i + j] = (s >= q ? s - q : s);
+                    a[i + j + h] = montMul((d < 0L ? d + q : d), t[h + j], q, qi);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Inverse transform without the factor 1/n, decimation in time. The input
+     * is in bit reversed order.
+     * @param q transform prime.
+     * @param qi q<sup>-1</sup> mod 2<sup>64</sup>.
+     * @param a coefficients, length a power of 2.
+     * @param t twiddle factors of the inverse root in Montgomery form.
+     */
+    private static void inverseTransform(long q, long qi, long[] a, long[] t) {
+        final int n = a.length;
+        for (int h = 1; h < n; h <<= 1) {
+            for (int i = 0; i < n; i += 2 * h) {
+                for (int j = 0; j < h; j++) {
+                    long u = a[i + j];
+                    long v = montMul(a[i + j + h], t[h + j], q, qi);
+                    long s = u + v;
+                    long d = u - v;
+                    a[i + j] = (s >= q ? s - q : s);
+                    a[i + j + h] = (d < 0L ? d + q : d);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Add a shifted array.
+     * @param p coefficient ring.
+     * @param c summand and result.
+     * @param s shift.
+     * @param z summand, s + z.length &le; c.length.
+     */
+    private static void addTo(ModLongRing p, long[] c, int s, long[] z) {
+        for (int i = 0; i < z.length; i++) {
+            c[s + i] = p.sum(c[s + i], z[i]);
+        }
+    }
+
+
+    /**
+     * Test for dense univariate polynomial.
+     * @param A polynomial.
+     * @return true, if A is univariate, non zero and deg(A) - ldeg(A) + 1
+     *         &le; DENSE_RATIO * #A.
+     */
+    public static boolean isDense(GenPolynomial<ModLong> A) {
+        if (A.ring.nvar != 1 || A.isZERO()) {
+            return false;
+        }
+        long hi = A.degree(0);
+        long lo = lowDegree(A);
+        return hi - lo + 1 <= (long) DENSE_RATIO * A.length();
+    }
+
+
+    /**
+     * Dense coefficient array of a univariate polynomial.
+     * @param A univariate polynomial.
+     * @param lo degree of c[0], lo &le; ldeg(A).
+     * @param l length of the array, deg(A) - lo &lt; l.
+     * @return c with c[k] = coefficient of x<sup>lo+k</sup>.
+     */
+    public static long[] toDense(GenPolynomial<ModLong> A, long lo, int l) {
+        long[] c = new long[l];
+        for (Map.Entry<ExpVector, ModLong> me : A.val.entrySet()) {
+            c[(int) (me.getKey().getVal(0) - lo)] = me.getValue().val;
+        }
+        return c;
+    }
+
+
+    /**
+     * Univariate polynomial from a dense coefficient array.
+     * @param ring univariate polynomial ring.
+     * @param c dense coefficients.
+     * @param lo degree of c[0].
+     * @return sum_k c[k] x<sup>lo+k</sup>.
+     */
+    public static GenPolynomial<ModLong> fromDense(GenPolynomialRing<ModLong> ring, long[] c, long lo) {
+        ModLongRing p = (ModLongRing) ring.coFac;
+        int n = 0;
+        for (int k = 0; k < c.length; k++) {
+            if (c[k] != 0L) {
+                n++;
+            }
+        }
+        ExpVector[] re = new ExpVector[n];
+        ModLong[] rc = new ModLong[n];
+        Comparator<ExpVector> cmp = ring.tord.getDescendComparator();
+        boolean descending = (cmp.compare(ExpVector.create(1, 0, 1L), ring.evzero) < 0);
+        int r = (descending ? 0 : n - 1);
+        for (int k = c.length - 1; k >= 0; k--) {
+            if (c[k] != 0L) {
+                re[r] = ExpVector.create(1, 0, lo + k);
+                rc[r] = new ModLong(p, c[k]);
+                r += (descending ? 1 : -1);
+            }
+        }
+        GenPolynomial<ModLong> P = ring.getZERO().copy();
+        P.val.putAll(new SortedTermMap<ModLong>(cmp, re, rc, n)); // linear time tree build
+        return P;
+    }
+
+
+    /**
+     * Dense univariate polynomial multiplication.
+     * @param A univariate polynomial.
+     * @param B univariate polynomial.
+     * @return A*B, or null if A or B is not dense.
+     */
+    public static GenPolynomial<ModLong> multiply(GenPolynomial<ModLong> A, GenPolynomial<ModLong> B) {
+        if (!isDense(A) || !isDense(B)) {
+            return null;
+        }
+        long alo = lowDegree(A);
+        long blo = lowDegree(B);
+        int la = (int) (A.degree(0) - alo + 1);
+        int lb = (int) (B.degree(0) - blo + 1);
+        ModLongRing p = (ModLongRing) A.ring.coFac;
+        long[] a = toDense(A, alo, la);
+        long[] b = (A == B ? a : toDense(B, blo, lb));
+        long[] c = multiply(p, a, b);
+        return fromDense(A.ring, c, alo + blo);
+    }
+
+
+    /**
+     * Low degree of a univariate polynomial.
+     * @param A non zero univariate polynomial.
+     * @return the minimal exponent of the terms of A.
+     */
+    private static long lowDegree(GenPolynomial<ModLong> A) {
+        return Math.min(A.val.firstKey().getVal(0), A.val.lastKey().getVal(0));
+    }
+
+}
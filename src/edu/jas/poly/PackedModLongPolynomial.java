@@ -0,0 +1,576 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * PackedModLongPolynomial polynomials over ModLongRing with array based term
+ * storage. Same representation as PackedPolynomial, but the coefficients are
+ * kept as <code>long[]</code> of values modulo the modul, see
+ * PackedModLongTermMap. The arithmetic methods run fused multiply and
+ * subtract loops with the long arithmetic of ModLongRing, so no ModLong
+ * objects are created. These are only created on demand, e.g. for
+ * leadingBaseCoefficient() or during iteration. Products and remainders of
+ * dense univariate polynomials are computed on dense coefficient arrays with
+ * ModLongDenseMultiply and ModLongDenseModulus.
+ * Instances are created with <code>GenPolynomialRing.toPacked()</code> if
+ * the coefficient factory is a ModLongRing.
+ * @author Heinz Kredel
+ */
+
+public class PackedModLongPolynomial extends PackedPolynomial<ModLong> {
+
+
+    private static final Logger logger = Logger.getLogger(PackedModLongPolynomial.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Maximal ratio of dense array length to number of terms for dense
+     * univariate algorithms.
+     */
+    static final int DENSE_RATIO = 4;
+
+
+    /**
+     * The packed terms, same object as val.
+     */
+    protected final PackedModLongTermMap mval;
+
+
+    /**
+     * Coefficient factory.
+     */
+    protected final ModLongRing cofac;
+
+
+    /**
+     * Constructor for PackedModLongPolynomial.
+     * @param r polynomial ring factory.
+     * @param v packed terms.
+     */
+    protected PackedModLongPolynomial(GenPolynomialRing<ModLong> r, PackedModLongTermMap v) {
+        super(r, v);
+        mval = v;
+        cofac = (ModLongRing) r.coFac;
+    }
+
+
+    /**
+     * Constructor for PackedModLongPolynomial.
+     * @param r polynomial ring factory with ModLongRing coefficients.
+     * @param a polynomial to be converted.
+     */
+    public PackedModLongPolynomial(GenPolynomialRing<ModLong> r, GenPolynomial<ModLong> a) {
+        this(r, packLong(r, a));
+    }
+
+
+    /**
+     * Constructor for zero PackedModLongPolynomial.
+     * @param r polynomial ring factory with ModLongRing coefficients.
+     */
+    public PackedModLongPolynomial(GenPolynomialRing<ModLong> r) {
+        this(r, r.getZERO());
+    }
+
+
+    /**
+     * Packed terms with long coefficients of a polynomial.
+     * @param r polynomial ring factory.
+     * @param a polynomial.
+     * @return packed terms of a.
+     */
+    static PackedModLongTermMap packLong(GenPolynomialRing<ModLong> r, GenPolynomial<ModLong> a) {
+        if (a instanceof PackedModLongPolynomial) {
+            return ((PackedModLongPolynomial) a).mval;
+        }
+        int nv = r.nvar;
+        int n = a.length();
+        long[] ex = new long[n * nv];
+        long[] cv = new long[n];
+        int k = 0;
+        for (Map.Entry<ExpVector, ModLong> me : a.val.entrySet()) {
+            ExpVector e = me.getKey();
+            int ko = k * nv;
+            for (int j = 0; j < nv; j++) {
+                ex[ko + j] = e.getVal(j);
+            }
+            cv[k] = me.getValue().getVal();
+            k++;
+        }
+        return new PackedModLongTermMap(r.tord, nv, ex, (ModLongRing) r.coFac, cv, 0, n);
+    }
+
+
+    /**
+     * Create a PackedModLongPolynomial from sorted arrays.
+     * @param ex packed exponents.
+     * @param cv coefficient values.
+     * @param n number of terms.
+     * @return new PackedModLongPolynomial.
+     */
+    private PackedModLongPolynomial create(long[] ex, long[] cv, int n) {
+        int nv = mval.nvar;
+        if (n < cv.length) { // trim
+            ex = Arrays.copyOf(ex, n * nv);
+            cv = Arrays.copyOf(cv, n);
+        }
+        return new PackedModLongPolynomial(ring, new PackedModLongTermMap(ring.tord, nv, ex, cofac, cv, 0, n));
+    }
+
+
+    /**
+     * Linear combination by merging with fused multiply and sum loop.
+     * @param b scale factor for this or null for one.
+     * @param g scale exponent for this or null for zero.
+     * @param a coefficient for S or null for one.
+     * @param e exponent for S or null for zero.
+     * @param S GenPolynomial.
+     * @param neg true for subtraction, false for summation.
+     * @return this * b x<sup>g</sup> +/- a x<sup>e</sup> S.
+     */
+    @Override
+    protected PackedModLongPolynomial combine(ModLong b, ExpVector g, ModLong a, ExpVector e,
+                    GenPolynomial<ModLong> S, boolean neg) {
+        final ModLongRing p = cofac;
+        PackedModLongTermMap A = mval;
+        PackedModLongTermMap B = packLong(ring, S);
+        final int nv = A.nvar;
+        long[] ax = A.exps;
+        int ao = A.off * nv;
+        if (g != null && !g.isZERO()) {
+            ax = shift(A, g);
+            ao = 0;
+        }
+        long[] bx = B.exps;
+        int bo = B.off * nv;
+        if (e != null && !e.isZERO()) {
+            bx = shift(B, e);
+            bo = 0;
+        }
+        final long bv = (b == null ? 1L : b.getVal());
+        final boolean sb = (bv != 1L);
+        long av = (a == null ? 1L : a.getVal());
+        if (neg) {
+            av = p.subtract(0L, av);
+        }
+        final boolean sa = (av != 1L);
+        final long[] aval = A.vals;
+        final long[] bval = B.vals;
+        final int n = A.len;
+        final int m = B.len;
+        long[] rx = new long[(n + m) * nv];
+        long[] rc = new long[n + m];
+        int r = 0;
+        int i = 0;
+        int j = 0;
+        while (i < n || j < m) {
+            int s;
+            if (i >= n) {
+                s = 1;
+            } else if (j >= m) {
+                s = -1;
+            } else {
+                s = A.compare(ax, ao + i * nv, bx, bo + j * nv);
+            }
+            long x;
+            if (s < 0) {
+                x = aval[A.off + i];
+                if (sb) {
+                    x = p.multiply(x, bv);
+                }
+                System.arraycopy(ax, ao + i * nv, rx, r * nv, nv);
+                i++;
+            } else {
+                long y = bval[B.off + j];
+                if (sa) {
+                    y = p.multiply(av, y);
+                }
+                if (s > 0) {
+                    x = y;
+                } else {
+                    x = aval[A.off + i];
+                    if (sb) {
+                        x = p.multiply(x, bv);
+                    }
+                    x = p.sum(x, y);
+                    i++;
+                }
+                System.arraycopy(bx, bo + j * nv, rx, r * nv, nv);
+                j++;
+            }
+            if (x != 0L) {
+                rc[r] = x;
+                r++;
+            }
+        }
+        return create(rx, rc, r);
+    }
+
+
+    /**
+     * Reductum.
+     * @return this - leading monomial.
+     */
+    @Override
+    public GenPolynomial<ModLong> reductum() {
+        if (mval.len <= 1) {
+            return ring.getZERO();
+        }
+        return new PackedModLongPolynomial(ring, mval.view(mval.off + 1, mval.len - 1));
+    }
+
+
+    /**
+     * PackedModLongPolynomial negation.
+     * @return -this.
+     */
+    @Override
+    public GenPolynomial<ModLong> negate() {
+        final int nv = mval.nvar;
+        final int n = mval.len;
+        long[] rc = new long[n];
+        for (int i = 0; i < n; i++) {
+            rc[i] = cofac.subtract(0L, mval.vals[mval.off + i]);
+        }
+        long[] ex = Arrays.copyOfRange(mval.exps, mval.off * nv, (mval.off + n) * nv);
+        return create(ex, rc, n);
+    }
+
+
+    /**
+     * PackedModLongPolynomial multiplication. Product with exponent vector.
+     * @param e exponent.
+     * @return this * x<sup>e</sup>.
+     */
+    @Override
+    public GenPolynomial<ModLong> multiply(ExpVector e) {
+        if (e == null) {
+            return ring.getZERO();
+        }
+        if (this.isZERO() || e.isZERO()) {
+            return this;
+        }
+        long[] ex = shift(mval, e);
+        long[] rc = Arrays.copyOfRange(mval.vals, mval.off, mval.off + mval.len);
+        return create(ex, rc, mval.len);
+    }
+
+
+    /**
+     * PackedModLongPolynomial multiplication. Product with ring element and
+     * exponent vector.
+     * @param s coefficient.
+     * @param e exponent or null for zero.
+     * @return this * s x<sup>e</sup>.
+     */
+    @Override
+    public GenPolynomial<ModLong> multiply(ModLong s, ExpVector e) {
+        if (s == null || s.isZERO()) {
+            return ring.getZERO();
+        }
+        if (this.isZERO()) {
+            return this;
+        }
+        final int nv = mval.nvar;
+        final int n = mval.len;
+        long[] ax = mval.exps;
+        int ao = mval.off * nv;
+        if (e != null && !e.isZERO()) {
+            ax = shift(mval, e);
+            ao = 0;
+        }
+        final long sv = s.getVal();
+        long[] rx = new long[n * nv];
+        long[] rc = new long[n];
+        int r = 0;
+        for (int i = 0; i < n; i++) {
+            long c = cofac.multiply(mval.vals[mval.off + i], sv);
+            if (c != 0L) { // modul may be composite
+                System.arraycopy(ax, ao + i * nv, rx, r * nv, nv);
+                rc[r++] = c;
+            }
+        }
+        return create(rx, rc, r);
+    }
+
+
+    /**
+     * PackedModLongPolynomial multiplication. Dense algorithm for dense
+     * univariate polynomials, otherwise the heap based algorithm on the
+     * packed arrays, see PackedPolynomial.multiply().
+     * @param S GenPolynomial.
+     * @return this*S.
+     */
+    @Override
+    public GenPolynomial<ModLong> multiply(GenPolynomial<ModLong> S) {
+        if (S == null || S.isZERO()) {
+            return ring.getZERO();
+        }
+        if (this.isZERO()) {
+            return this;
+        }
+        assert (ring.nvar == S.ring.nvar);
+        PackedModLongTermMap A = mval;
+        PackedModLongTermMap B = packLong(ring, S);
+        if (isDense(A, A.len) && isDense(B, B.len)) {
+            return multiplyDense(A, B);
+        }
+        final ModLongRing p = cofac;
+        boolean swap = (A.len > B.len);
+        PackedModLongTermMap X = (swap ? B : A); // rows
+        PackedModLongTermMap Y = (swap ? A : B);
+        final int nv = A.nvar;
+        final int n = X.len;
+        final int m = Y.len;
+        int[] col = new int[n];
+        int[] heap = new int[n];
+        long[] hx = new long[n * nv]; // exponent of current product per row
+        int hs = 0;
+        int rs = (int) Math.min((long) n * (long) m, (long) n + m + 16);
+        long[] rx = new long[rs * nv];
+        long[] rc = new long[rs];
+        int r = 0;
+        long[] cur = new long[nv];
+        rowExponent(X, Y, hx, 0, 0);
+        hs = heapInsert(A, heap, hx, hs, 0);
+        while (hs > 0) {
+            System.arraycopy(hx, heap[0] * nv, cur, 0, nv);
+            long c = 0L;
+            do {
+                int i = heap[0];
+                hs = heapDeleteMin(A, heap, hx, hs);
+                int j = col[i];
+                c = p.sum(c, p.multiply(X.vals[X.off + i], Y.vals[Y.off + j]));
+                if (j == 0 && i + 1 < n) {
+                    col[i + 1] = 0;
+                    rowExponent(X, Y, hx, i + 1, 0);
+                    hs = heapInsert(A, heap, hx, hs, i + 1);
+                }
+                if (j + 1 < m) {
+                    col[i] = j + 1;
+                    rowExponent(X, Y, hx, i, j + 1);
+                    hs = heapInsert(A, heap, hx, hs, i);
+                }
+            } while (hs > 0 && A.compare(hx, heap[0] * nv, cur, 0) == 0);
+            if (c != 0L) {
+                if (r == rc.length) {
+                    int ns = rc.length + (rc.length >> 1) + 1;
+                    rx = Arrays.copyOf(rx, ns * nv);
+                    rc = Arrays.copyOf(rc, ns);
+                }
+                System.arraycopy(cur, 0, rx, r * nv, nv);
+                rc[r++] = c;
+            }
+        }
+        if (debug) {
+            logger.debug("multiply: #this = " + A.len + ", #S = " + B.len + ", #product = " + r);
+        }
+        return create(rx, rc, r);
+    }
+
+
+    /**
+     * Test for dense univariate polynomial. The terms of a univariate
+     * polynomial must be sorted by descending degree.
+     * @param A packed terms.
+     * @param n number of terms to compare with the degree.
+     * @return true, if A is univariate and deg(A) - ldeg(A) + 1 &le;
+     *         DENSE_RATIO * n.
+     */
+    private static boolean isDense(PackedModLongTermMap A, int n) {
+        if (A.nvar != 1 || A.len == 0) {
+            return false;
+        }
+        long hi = A.exps[A.off];
+        long lo = A.exps[A.off + A.len - 1];
+        if (hi < lo) { // term order with 1 > x
+            return false;
+        }
+        return hi - lo + 1 <= (long) DENSE_RATIO * n;
+    }
+
+
+    /**
+     * Test for dense univariate division. The dense arrays start with degree
+     * zero.
+     * @param A packed terms of dividend.
+     * @param B packed terms of divisor.
+     * @return true, if A and B are univariate and deg(A) + 1 &le; DENSE_RATIO
+     *         * (#A + #B).
+     */
+    private static boolean isDenseDivision(PackedModLongTermMap A, PackedModLongTermMap B) {
+        if (A.nvar != 1 || A.len == 0 || B.len == 0) {
+            return false;
+        }
+        if (A.exps[A.off] < A.exps[A.off + A.len - 1] || B.exps[B.off] < B.exps[B.off + B.len - 1]) {
+            return false; // term order with 1 > x
+        }
+        long n = (long) DENSE_RATIO * (A.len + B.len);
+        return A.exps[A.off] + 1 <= n && B.exps[B.off] + 1 <= n;
+    }
+
+
+    /**
+     * Dense coefficient array of a univariate polynomial.
+     * @param A packed terms.
+     * @param lo degree of c[0].
+     * @param l length of the array.
+     * @return c with c[k] = coefficient of x<sup>lo+k</sup>.
+     */
+    private static long[] dense(PackedModLongTermMap A, long lo, int l) {
+        long[] c = new long[l];
+        for (int i = 0; i < A.len; i++) {
+            c[(int) (A.exps[A.off + i] - lo)] = A.vals[A.off + i];
+        }
+        return c;
+    }
+
+
+    /**
+     * Univariate PackedModLongPolynomial from a dense coefficient array.
+     * @param c dense coefficients.
+     * @param lo degree of c[0].
+     * @param l number of used entries of c.
+     * @return sum_k c[k] x<sup>lo+k</sup>.
+     */
+    private PackedModLongPolynomial sparse(long[] c, long lo, int l) {
+        int n = 0;
+        for (int k = 0; k < l; k++) {
+            if (c[k] != 0L) {
+                n++;
+            }
+        }
+        long[] ex = new long[n];
+        long[] cv = new long[n];
+        int r = 0;
+        for (int k = l - 1; k >= 0; k--) {
+            if (c[k] != 0L) {
+                ex[r] = lo + k;
+                cv[r] = c[k];
+                r++;
+            }
+        }
+        return create(ex, cv, n);
+    }
+
+
+    /**
+     * Dense univariate multiplication, see ModLongDenseMultiply.
+     * @param A dense univariate packed terms.
+     * @param B dense univariate packed terms.
+     * @return A*B.
+     */
+    private PackedModLongPolynomial multiplyDense(PackedModLongTermMap A, PackedModLongTermMap B) {
+        long alo = A.exps[A.off + A.len - 1];
+        long blo = B.exps[B.off + B.len - 1];
+        int la = (int) (A.exps[A.off] - alo + 1);
+        int lb = (int) (B.exps[B.off] - blo + 1);
+        long[] a = dense(A, alo, la);
+        long[] b = (A == B ? a : dense(B, blo, lb));
+        long[] c = ModLongDenseMultiply.multiply(cofac, a, b);
+        return sparse(c, alo + blo, c.length);
+    }
+
+
+    /**
+     * Inverse of the leading coefficient.
+     * @param B packed terms.
+     * @return lbc(B)<sup>-1</sup>.
+     */
+    private long leadingInverse(PackedModLongTermMap B) {
+        ModLong c = B.coefficient(0);
+        if (!c.isUnit()) {
+            throw new ArithmeticException("lbc not invertible " + c);
+        }
+        return c.inverse().getVal();
+    }
+
+
+    /**
+     * PackedModLongPolynomial remainder. ModLongDenseModulus for dense
+     * univariate polynomials, otherwise the leading terms are eliminated with
+     * subtractMultiple().
+     * @param S nonzero GenPolynomial with invertible leading coefficient.
+     * @return remainder with this = quotient * S + remainder.
+     */
+    @Override
+    public GenPolynomial<ModLong> remainder(GenPolynomial<ModLong> S) {
+        if (S == null || S.isZERO()) {
+            throw new ArithmeticException("division by zero");
+        }
+        assert (ring.nvar == S.ring.nvar);
+        PackedModLongTermMap B = packLong(ring, S);
+        long ci = leadingInverse(B);
+        if (this.isZERO()) {
+            return this;
+        }
+        PackedModLongTermMap A = mval;
+        if (isDenseDivision(A, B)) {
+            long da = A.exps[A.off];
+            long db = B.exps[B.off];
+            if (da < db) {
+                return this;
+            }
+            ModLongDenseModulus D = new ModLongDenseModulus(cofac, dense(B, 0L, (int) db + 1));
+            long[] r = D.remainder(dense(A, 0L, (int) da + 1));
+            return sparse(r, 0L, r.length);
+        }
+        ModLong c = cofac.create(ci);
+        ExpVector e = S.leadingExpVector();
+        GenPolynomial<ModLong> r = this;
+        while (!r.isZERO()) {
+            ExpVector f = r.leadingExpVector();
+            if (!f.multipleOf(e)) {
+                break;
+            }
+            ModLong a = r.leadingBaseCoefficient().multiply(c);
+            r = r.subtractMultiple(a, f.subtract(e), S);
+        }
+        return r;
+    }
+
+
+    /**
+     * PackedModLongPolynomial quotient and remainder. ModLongDenseModulus for
+     * dense univariate polynomials, otherwise see GenPolynomial.
+     * @param S nonzero GenPolynomial with invertible leading coefficient.
+     * @return [ quotient , remainder ] with this = quotient * S + remainder.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public GenPolynomial<ModLong>[] quotientRemainder(GenPolynomial<ModLong> S) {
+        if (S == null || S.isZERO()) {
+            throw new ArithmeticException("division by zero");
+        }
+        assert (ring.nvar == S.ring.nvar);
+        PackedModLongTermMap A = mval;
+        PackedModLongTermMap B = packLong(ring, S);
+        if (A.len == 0 || !isDenseDivision(A, B) || A.exps[A.off] < B.exps[B.off]) {
+            return super.quotientRemainder(S);
+        }
+        long da = A.exps[A.off];
+        long db = B.exps[B.off];
+        ModLongDenseModulus D = new ModLongDenseModulus(cofac, dense(B, 0L, (int) db + 1));
+        long[][] qr = D.quotientRemainder(dense(A, 0L, (int) da + 1));
+        GenPolynomial<ModLong>[] ret = new GenPolynomial[2];
+        ret[0] = sparse(qr[0], 0L, qr[0].length);
+        ret[1] = sparse(qr[1], 0L, qr[1].length);
+        return ret;
+    }
+
+}
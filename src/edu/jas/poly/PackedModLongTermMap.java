@@ -0,0 +1,75 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * PackedModLongTermMap immutable sorted map from exponent vectors to ModLong
+ * coefficients. Same layout as PackedTermMap, but the coefficients are stored
+ * as <code>long[]</code> of values 0 &le; v &lt; modul. ModLong objects are
+ * only created on demand, e.g. by get() or during iteration.
+ * @author Heinz Kredel
+ */
+
+final class PackedModLongTermMap extends PackedTermMap<ModLong> {
+
+
+    /**
+     * Coefficient factory.
+     */
+    final ModLongRing cofac;
+
+
+    /**
+     * Coefficient values.
+     */
+    final long[] vals;
+
+
+    /**
+     * Constructor.
+     * @param tord term order.
+     * @param nvar number of variables.
+     * @param exps packed exponents of terms sorted descending.
+     * @param cofac coefficient factory.
+     * @param vals non zero coefficient values.
+     * @param off index of first term.
+     * @param len number of terms.
+     */
+    PackedModLongTermMap(TermOrder tord, int nvar, long[] exps, ModLongRing cofac, long[] vals, int off,
+                    int len) {
+        super(tord, nvar, exps, null, off, len);
+        this.cofac = cofac;
+        this.vals = vals;
+    }
+
+
+    /**
+     * Get coefficient of a term.
+     * @param i term index relative to off.
+     * @return coefficient of term i.
+     */
+    @Override
+    ModLong coefficient(int i) {
+        return cofac.create(vals[off + i]);
+    }
+
+
+    /**
+     * View of a range of terms sharing the arrays.
+     * @param o index of first term.
+     * @param l number of terms.
+     * @return packed terms o, ..., o+l-1.
+     */
+    @Override
+    PackedModLongTermMap view(int o, int l) {
+        return new PackedModLongTermMap(tord, nvar, exps, cofac, vals, o, l);
+    }
+
+}
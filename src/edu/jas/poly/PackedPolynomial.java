@@ -0,0 +1,670 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * PackedPolynomial generic polynomials with array based term storage. The
+ * terms are kept in sorted parallel arrays, the exponents packed in one
+ * <code>long[]</code> and the coefficients in a <code>C[]</code>, see
+ * PackedTermMap. This saves the TreeMap entries and ExpVector objects of
+ * GenPolynomial. Objects of this class are immutable, the arithmetic methods
+ * sum, subtract, subtractMultiple, scaleSubtractMultiple and multiply are
+ * implemented by merging the sorted arrays and return PackedPolynomials.
+ * Since PackedPolynomial extends GenPolynomial all algorithms, e.g.
+ * reductions and Groebner bases, can be used without changes. <b>Note:</b>
+ * copy() returns a GenPolynomial with TreeMap representation, since it is
+ * used to construct new polynomials with the destructive
+ * <code>doPutToMap()</code> and <code>doAddTo()</code> methods. Instances
+ * are created with <code>GenPolynomialRing.toPacked()</code>.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ */
+
+public class PackedPolynomial<C extends RingElem<C>> extends GenPolynomial<C> {
+
+
+    private static final Logger logger = Logger.getLogger(PackedPolynomial.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * The packed terms, same object as val.
+     */
+    protected final PackedTermMap<C> pval;
+
+
+    /**
+     * Constructor for PackedPolynomial.
+     * @param r polynomial ring factory.
+     * @param v packed terms.
+     */
+    protected PackedPolynomial(GenPolynomialRing<C> r, PackedTermMap<C> v) {
+        super(r, v);
+        pval = v;
+    }
+
+
+    /**
+     * Constructor for PackedPolynomial.
+     * @param r polynomial ring factory.
+     * @param a polynomial to be converted.
+     */
+    public PackedPolynomial(GenPolynomialRing<C> r, GenPolynomial<C> a) {
+        this(r, PackedPolynomial.<C> pack(r, a));
+    }
+
+
+    /**
+     * Constructor for zero PackedPolynomial.
+     * @param r polynomial ring factory.
+     */
+    public PackedPolynomial(GenPolynomialRing<C> r) {
+        this(r, r.getZERO());
+    }
+
+
+    /**
+     * Packed terms of a polynomial.
+     * @param r polynomial ring factory.
+     * @param a polynomial.
+     * @return packed terms of a.
+     */
+    @SuppressWarnings("unchecked")
+    static <C extends RingElem<C>> PackedTermMap<C> pack(GenPolynomialRing<C> r, GenPolynomial<C> a) {
+        if (a instanceof PackedPolynomial) {
+            return ((PackedPolynomial<C>) a).pval;
+        }
+        int nv = r.nvar;
+        int n = a.length();
+        long[] ex = new long[n * nv];
+        C[] cf = (C[]) new RingElem[n];
+        int k = 0;
+        for (Map.Entry<ExpVector, C> me : a.val.entrySet()) {
+            ExpVector e = me.getKey();
+            int ko = k * nv;
+            for (int j = 0; j < nv; j++) {
+                ex[ko + j] = e.getVal(j);
+            }
+            cf[k] = me.getValue();
+            k++;
+        }
+        return new PackedTermMap<C>(r.tord, nv, ex, cf, 0, n);
+    }
+
+
+    /**
+     * Convert to GenPolynomial with TreeMap representation.
+     * @return this as GenPolynomial.
+     */
+    public GenPolynomial<C> toGenPolynomial() {
+        return copy();
+    }
+
+
+    /**
+     * Convert a list of polynomials to TreeMap representation.
+     * @param L list of polynomials.
+     * @return list of GenPolynomials.
+     */
+    public static <C extends RingElem<C>> List<GenPolynomial<C>> toGenPolynomial(List<GenPolynomial<C>> L) {
+        if (L == null) {
+            return L;
+        }
+        List<GenPolynomial<C>> P = new ArrayList<GenPolynomial<C>>(L.size());
+        for (GenPolynomial<C> a : L) {
+            if (a instanceof PackedPolynomial) {
+                a = ((PackedPolynomial<C>) a).toGenPolynomial();
+            }
+            P.add(a);
+        }
+        return P;
+    }
+
+
+    /**
+     * Create a PackedPolynomial from sorted arrays.
+     * @param ex packed exponents.
+     * @param cf coefficients.
+     * @param n number of terms.
+     * @return new PackedPolynomial.
+     */
+    private PackedPolynomial<C> create(long[] ex, C[] cf, int n) {
+        int nv = pval.nvar;
+        if (n < cf.length) { // trim
+            ex = Arrays.copyOf(ex, n * nv);
+            cf = Arrays.copyOf(cf, n);
+        }
+        return new PackedPolynomial<C>(ring, new PackedTermMap<C>(ring.tord, nv, ex, cf, 0, n));
+    }
+
+
+    /**
+     * Packed exponents of terms shifted by an exponent vector.
+     * @param A packed terms.
+     * @param e exponent vector.
+     * @return packed exponents of x<sup>e</sup> A.
+     */
+    static <C extends RingElem<C>> long[] shift(PackedTermMap<C> A, ExpVector e) {
+        int nv = A.nvar;
+        long[] ev = new long[nv];
+        for (int j = 0; j < nv; j++) {
+            ev[j] = e.getVal(j);
+        }
+        long[] ex = new long[A.len * nv];
+        int ao = A.off * nv;
+        for (int i = 0; i < A.len; i++) {
+            int k = i * nv;
+            for (int j = 0; j < nv; j++) {
+                ex[k + j] = A.exps[ao + k + j] + ev[j];
+            }
+        }
+        return ex;
+    }
+
+
+    /**
+     * Linear combination by merging. All coefficient multiplications are done
+     * in the same order as in GenPolynomial.
+     * @param b scale factor for this or null for one.
+     * @param g scale exponent for this or null for zero.
+     * @param a coefficient for S or null for one.
+     * @param e exponent for S or null for zero.
+     * @param S GenPolynomial.
+     * @param neg true for subtraction, false for summation.
+     * @return this * b x<sup>g</sup> +/- a x<sup>e</sup> S.
+     */
+    @SuppressWarnings("unchecked")
+    protected PackedPolynomial<C> combine(C b, ExpVector g, C a, ExpVector e, GenPolynomial<C> S, boolean neg) {
+        PackedTermMap<C> A = pval;
+        PackedTermMap<C> B = pack(ring, S);
+        final int nv = A.nvar;
+        long[] ax = A.exps;
+        int ao = A.off * nv;
+        if (g != null && !g.isZERO()) {
+            ax = shift(A, g);
+            ao = 0;
+        }
+        long[] bx = B.exps;
+        int bo = B.off * nv;
+        if (e != null && !e.isZERO()) {
+            bx = shift(B, e);
+            bo = 0;
+        }
+        final int n = A.len;
+        final int m = B.len;
+        long[] rx = new long[(n + m) * nv];
+        C[] rc = (C[]) new RingElem[n + m];
+        int r = 0;
+        int i = 0;
+        int j = 0;
+        while (i < n || j < m) {
+            int s;
+            if (i >= n) {
+                s = 1;
+            } else if (j >= m) {
+                s = -1;
+            } else {
+                s = A.compare(ax, ao + i * nv, bx, bo + j * nv);
+            }
+            C x;
+            if (s < 0) {
+                x = A.coefficient(i);
+                if (b != null) {
+                    x = x.multiply(b);
+                }
+                System.arraycopy(ax, ao + i * nv, rx, r * nv, nv);
+                i++;
+            } else {
+                C y = B.coefficient(j);
+                if (a != null) {
+                    y = a.multiply(y);
+                }
+                if (s > 0) {
+                    x = (neg ? y.negate() : y);
+                } else {
+                    x = A.coefficient(i);
+                    if (b != null) {
+                        x = x.multiply(b);
+                    }
+                    x = (neg ? x.subtract(y) : x.sum(y));
+                    i++;
+                }
+                System.arraycopy(bx, bo + j * nv, rx, r * nv, nv);
+                j++;
+            }
+            if (!x.isZERO()) {
+                rc[r] = x;
+                r++;
+            }
+        }
+        return create(rx, rc, r);
+    }
+
+
+    /**
+     * Copy this PackedPolynomial.
+     * @return copy of this as GenPolynomial with TreeMap representation.
+     */
+    @Override
+    public GenPolynomial<C> copy() {
+        return new GenPolynomial<C>(ring, this.val);
+    }
+
+
+    /**
+     * Leading base coefficient.
+     * @return first coefficient.
+     */
+    @Override
+    public C leadingBaseCoefficient() {
+        if (pval.len == 0) {
+            return ring.coFac.getZERO();
+        }
+        return pval.coefficient(0);
+    }
+
+
+    /**
+     * Reductum.
+     * @return this - leading monomial.
+     */
+    @Override
+    public GenPolynomial<C> reductum() {
+        if (pval.len <= 1) {
+            return ring.getZERO();
+        }
+        return new PackedPolynomial<C>(ring, pval.view(pval.off + 1, pval.len - 1));
+    }
+
+
+    /**
+     * PackedPolynomial summation.
+     * @param S GenPolynomial.
+     * @return this+S.
+     */
+    @Override
+    public GenPolynomial<C> sum(GenPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return this;
+        }
+        if (this.isZERO()) {
+            return S;
+        }
+        assert (ring.nvar == S.ring.nvar);
+        return combine(null, null, null, null, S, false);
+    }
+
+
+    /**
+     * PackedPolynomial subtraction.
+     * @param S GenPolynomial.
+     * @return this-S.
+     */
+    @Override
+    public GenPolynomial<C> subtract(GenPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return this;
+        }
+        if (this.isZERO()) {
+            return S.negate();
+        }
+        assert (ring.nvar == S.ring.nvar);
+        return combine(null, null, null, null, S, true);
+    }
+
+
+    /**
+     * PackedPolynomial subtract a multiple.
+     * @param a coefficient.
+     * @param S GenPolynomial.
+     * @return this - a S.
+     */
+    @Override
+    public GenPolynomial<C> subtractMultiple(C a, GenPolynomial<C> S) {
+        if (a == null || a.isZERO()) {
+            return this;
+        }
+        if (S == null || S.isZERO()) {
+            return this;
+        }
+        if (this.isZERO()) {
+            return ring.toPacked(S).multiply(a.negate());
+        }
+        assert (ring.nvar == S.ring.nvar);
+        return combine(null, null, a, null, S, true);
+    }
+
+
+    /**
+     * PackedPolynomial subtract a multiple.
+     * @param a coefficient.
+     * @param e exponent.
+     * @param S GenPolynomial.
+     * @return this - a x<sup>e</sup> S.
+     */
+    @Override
+    public GenPolynomial<C> subtractMultiple(C a, ExpVector e, GenPolynomial<C> S) {
+        if (a == null || a.isZERO()) {
+            return this;
+        }
+        if (S == null || S.isZERO()) {
+            return this;
+        }
+        if (this.isZERO()) {
+            return ring.toPacked(S).multiply(a.negate(), e);
+        }
+        assert (ring.nvar == S.ring.nvar);
+        return combine(null, null, a, e, S, true);
+    }
+
+
+    /**
+     * PackedPolynomial scale and subtract a multiple.
+     * @param b scale factor.
+     * @param a coefficient.
+     * @param S GenPolynomial.
+     * @return this * b - a S.
+     */
+    @Override
+    public GenPolynomial<C> scaleSubtractMultiple(C b, C a, GenPolynomial<C> S) {
+        if (a == null || S == null || a.isZERO() || S.isZERO()) {
+            return this.multiply(b);
+        }
+        if (this.isZERO() || b == null || b.isZERO()) {
+            return ring.toPacked(S).multiply(a.negate());
+        }
+        if (b.isONE()) {
+            return subtractMultiple(a, S);
+        }
+        assert (ring.nvar == S.ring.nvar);
+        return combine(b, null, a, null, S, true);
+    }
+
+
+    /**
+     * PackedPolynomial scale and subtract a multiple.
+     * @param b scale factor.
+     * @param a coefficient.
+     * @param e exponent.
+     * @param S GenPolynomial.
+     * @return this * b - a x<sup>e</sup> S.
+     */
+    @Override
+    public GenPolynomial<C> scaleSubtractMultiple(C b, C a, ExpVector e, GenPolynomial<C> S) {
+        if (a == null || S == null || a.isZERO() || S.isZERO()) {
+            return this.multiply(b);
+        }
+        if (this.isZERO() || b == null || b.isZERO()) {
+            return ring.toPacked(S).multiply(a.negate(), e);
+        }
+        if (b.isONE()) {
+            return subtractMultiple(a, e, S);
+        }
+        assert (ring.nvar == S.ring.nvar);
+        return combine(b, null, a, e, S, true);
+    }
+
+
+    /**
+     * PackedPolynomial scale and subtract a multiple.
+     * @param b scale factor.
+     * @param g scale exponent.
+     * @param a coefficient.
+     * @param e exponent.
+     * @param S GenPolynomial.
+     * @return this * b x<sup>g</sup> - a x<sup>e</sup> S.
+     */
+    @Override
+    public GenPolynomial<C> scaleSubtractMultiple(C b, ExpVector g, C a, ExpVector e, GenPolynomial<C> S) {
+        if (a == null || S == null || a.isZERO() || S.isZERO()) {
+            return this.multiply(b, g);
+        }
+        if (this.isZERO() || b == null || b.isZERO()) {
+            return ring.toPacked(S).multiply(a.negate(), e);
+        }
+        if (b.isONE() && g.isZERO()) {
+            return subtractMultiple(a, e, S);
+        }
+        assert (ring.nvar == S.ring.nvar);
+        return combine(b, g, a, e, S, true);
+    }
+
+
+    /**
+     * PackedPolynomial negation.
+     * @return -this.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public GenPolynomial<C> negate() {
+        final int nv = pval.nvar;
+        final int n = pval.len;
+        C[] rc = (C[]) new RingElem[n];
+        for (int i = 0; i < n; i++) {
+            rc[i] = pval.coefficient(i).negate();
+        }
+        long[] ex = Arrays.copyOfRange(pval.exps, pval.off * nv, (pval.off + n) * nv);
+        return new PackedPolynomial<C>(ring, new PackedTermMap<C>(ring.tord, nv, ex, rc, 0, n));
+    }
+
+
+    /**
+     * PackedPolynomial multiplication. Product with coefficient ring element.
+     * @param s coefficient.
+     * @return this*s.
+     */
+    @Override
+    public GenPolynomial<C> multiply(C s) {
+        return multiply(s, null);
+    }
+
+
+    /**
+     * PackedPolynomial multiplication. Product with exponent vector.
+     * @param e exponent.
+     * @return this * x<sup>e</sup>.
+     */
+    @Override
+    public GenPolynomial<C> multiply(ExpVector e) {
+        if (e == null) {
+            return ring.getZERO();
+        }
+        if (this.isZERO() || e.isZERO()) {
+            return this;
+        }
+        long[] ex = shift(pval, e);
+        C[] rc = Arrays.copyOfRange(pval.coeffs, pval.off, pval.off + pval.len);
+        return new PackedPolynomial<C>(ring, new PackedTermMap<C>(ring.tord, pval.nvar, ex, rc, 0, pval.len));
+    }
+
+
+    /**
+     * PackedPolynomial multiplication. Product with ring element and exponent
+     * vector.
+     * @param s coefficient.
+     * @param e exponent or null for zero.
+     * @return this * s x<sup>e</sup>.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public GenPolynomial<C> multiply(C s, ExpVector e) {
+        if (s == null || s.isZERO()) {
+            return ring.getZERO();
+        }
+        if (this.isZERO()) {
+            return this;
+        }
+        final int nv = pval.nvar;
+        final int n = pval.len;
+        long[] ax = pval.exps;
+        int ao = pval.off * nv;
+        if (e != null && !e.isZERO()) {
+            ax = shift(pval, e);
+            ao = 0;
+        }
+        long[] rx = new long[n * nv];
+        C[] rc = (C[]) new RingElem[n];
+        int r = 0;
+        for (int i = 0; i < n; i++) {
+            C c = pval.coefficient(i).multiply(s);
+            if (!c.isZERO()) {
+                System.arraycopy(ax, ao + i * nv, rx, r * nv, nv);
+                rc[r++] = c;
+            }
+        }
+        return create(rx, rc, r);
+    }
+
+
+    /**
+     * PackedPolynomial multiplication. Heap based algorithm on the packed
+     * arrays, see GenPolynomial.multiplyHeap().
+     * @param S GenPolynomial.
+     * @return this*S.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public GenPolynomial<C> multiply(GenPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return ring.getZERO();
+        }
+        if (this.isZERO()) {
+            return this;
+        }
+        assert (ring.nvar == S.ring.nvar);
+        PackedTermMap<C> A = pval;
+        PackedTermMap<C> B = pack(ring, S);
+        boolean swap = (A.len > B.len);
+        PackedTermMap<C> X = (swap ? B : A); // rows
+        PackedTermMap<C> Y = (swap ? A : B);
+        final int nv = A.nvar;
+        final int n = X.len;
+        final int m = Y.len;
+        final int xo = X.off * nv;
+        final int yo = Y.off * nv;
+        int[] col = new int[n];
+        int[] heap = new int[n];
+        long[] hx = new long[n * nv]; // exponent of current product per row
+        int hs = 0;
+        int rs = (int) Math.min((long) n * (long) m, (long) n + m + 16);
+        long[] rx = new long[rs * nv];
+        C[] rc = (C[]) new RingElem[rs];
+        int r = 0;
+        long[] cur = new long[nv];
+        rowExponent(X, Y, hx, 0, 0);
+        hs = heapInsert(A, heap, hx, hs, 0);
+        while (hs > 0) {
+            System.arraycopy(hx, heap[0] * nv, cur, 0, nv);
+            C c = null;
+            do {
+                int i = heap[0];
+                hs = heapDeleteMin(A, heap, hx, hs);
+                int j = col[i];
+                C xc = X.coefficient(i);
+                C yc = Y.coefficient(j);
+                C p = (swap ? yc.multiply(xc) : xc.multiply(yc));
+                c = (c == null ? p : c.sum(p));
+                if (j == 0 && i + 1 < n) {
+                    col[i + 1] = 0;
+                    rowExponent(X, Y, hx, i + 1, 0);
+                    hs = heapInsert(A, heap, hx, hs, i + 1);
+                }
+                if (j + 1 < m) {
+                    col[i] = j + 1;
+                    rowExponent(X, Y, hx, i, j + 1);
+                    hs = heapInsert(A, heap, hx, hs, i);
+                }
+            } while (hs > 0 && A.compare(hx, heap[0] * nv, cur, 0) == 0);
+            if (!c.isZERO()) {
+                if (r == rc.length) {
+                    int ns = rc.length + (rc.length >> 1) + 1;
+                    rx = Arrays.copyOf(rx, ns * nv);
+                    rc = Arrays.copyOf(rc, ns);
+                }
+                System.arraycopy(cur, 0, rx, r * nv, nv);
+                rc[r++] = c;
+            }
+        }
+        if (debug) {
+            logger.debug("multiply: #this = " + A.len + ", #S = " + B.len + ", #product = " + r);
+        }
+        return create(rx, rc, r);
+    }
+
+
+    /**
+     * Set exponent of product of row i and column j.
+     */
+    static <C extends RingElem<C>> void rowExponent(PackedTermMap<C> X, PackedTermMap<C> Y,
+                    long[] hx, int i, int j) {
+        int nv = X.nvar;
+        int k = i * nv;
+        int xk = (X.off + i) * nv;
+        int yk = (Y.off + j) * nv;
+        for (int l = 0; l < nv; l++) {
+            hx[k + l] = X.exps[xk + l] + Y.exps[yk + l];
+        }
+    }
+
+
+    /**
+     * Insert row into heap.
+     */
+    static <C extends RingElem<C>> int heapInsert(PackedTermMap<C> A, int[] heap, long[] hx, int hs,
+                    int i) {
+        int nv = A.nvar;
+        int k = hs;
+        while (k > 0) {
+            int p = (k - 1) >>> 1;
+            if (A.compare(hx, heap[p] * nv, hx, i * nv) <= 0) {
+                break;
+            }
+            heap[k] = heap[p];
+            k = p;
+        }
+        heap[k] = i;
+        return hs + 1;
+    }
+
+
+    /**
+     * Delete top row from heap.
+     */
+    static <C extends RingElem<C>> int heapDeleteMin(PackedTermMap<C> A, int[] heap, long[] hx, int hs) {
+        int nv = A.nvar;
+        hs--;
+        int i = heap[hs];
+        int k = 0;
+        int c;
+        while ((c = 2 * k + 1) < hs) {
+            if (c + 1 < hs && A.compare(hx, heap[c + 1] * nv, hx, heap[c] * nv) < 0) {
+                c++;
+            }
+            if (A.compare(hx, i * nv, hx, heap[c] * nv) <= 0) {
+                break;
+            }
+            heap[k] = heap[c];
+            k = c;
+        }
+        if (hs > 0) {
+            heap[k] = i;
+        }
+        return hs;
+    }
+
+}
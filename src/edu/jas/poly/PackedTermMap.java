@@ -0,0 +1,520 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * PackedTermMap immutable sorted map from exponent vectors to coefficients
+ * based on sorted parallel arrays. The exponents of all terms are stored
+ * consecutively in one <code>long[]</code>, term i occupies the entries
+ * <code>exps[i*nvar]</code> to <code>exps[i*nvar+nvar-1]</code>. The
+ * coefficients are stored in a <code>C[]</code>. The terms are sorted
+ * descending with respect to the term order, i.e. the same order as the
+ * TreeMap of a GenPolynomial. Head, tail and sub maps are views sharing the
+ * arrays. ExpVector objects are only created on demand, e.g. during iteration.
+ * All modifying methods throw an UnsupportedOperationException. Subclasses
+ * with a different coefficient storage override coefficient() and view().
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ */
+
+class PackedTermMap<C extends RingElem<C>> extends AbstractMap<ExpVector, C>
+                implements SortedMap<ExpVector, C> {
+
+
+    /**
+     * Term order of the exponents.
+     */
+    final TermOrder tord;
+
+
+    /**
+     * Number of variables.
+     */
+    final int nvar;
+
+
+    /**
+     * Packed exponents, nvar entries per term.
+     */
+    final long[] exps;
+
+
+    /**
+     * Coefficients.
+     */
+    final C[] coeffs;
+
+
+    /**
+     * Index of first term.
+     */
+    final int off;
+
+
+    /**
+     * Number of terms.
+     */
+    final int len;
+
+
+    /**
+     * Raw comparison mode, 0 for comparison via the TermOrder comparator.
+     */
+    private final int mode;
+
+
+    /**
+     * Cached leading exponent vector.
+     */
+    private transient ExpVector first;
+
+
+    /**
+     * Constructor.
+     * @param tord term order.
+     * @param nvar number of variables.
+     * @param exps packed exponents of terms sorted descending.
+     * @param coeffs non zero coefficients.
+     * @param off index of first term.
+     * @param len number of terms.
+     */
+    PackedTermMap(TermOrder tord, int nvar, long[] exps, C[] coeffs, int off, int len) {
+        this.tord = tord;
+        this.nvar = nvar;
+        this.exps = exps;
+        this.coeffs = coeffs;
+        this.off = off;
+        this.len = len;
+        this.mode = rawMode(tord);
+    }
+
+
+    /**
+     * Raw comparison mode of a term order.
+     * @param tord term order.
+     * @return evord if the order can be compared on the raw arrays, else 0.
+     */
+    static int rawMode(TermOrder tord) {
+        if (tord.getEvord2() != 0) { // split order
+            return 0;
+        }
+        return tord.getEvord(); // 0 for weight order
+    }
+
+
+    /**
+     * Get the comparator.
+     * @see java.util.SortedMap#comparator()
+     */
+    public Comparator<? super ExpVector> comparator() {
+        return tord.getDescendComparator();
+    }
+
+
+    /**
+     * Number of entries.
+     * @see java.util.Map#size()
+     */
+    @Override
+    public int size() {
+        return len;
+    }
+
+
+    /**
+     * Test if map is empty.
+     * @see java.util.Map#isEmpty()
+     */
+    @Override
+    public boolean isEmpty() {
+        return len == 0;
+    }
+
+
+    /**
+     * Get exponent vector of a term.
+     * @param i term index relative to off.
+     * @return ExpVector of term i.
+     */
+    ExpVector exponent(int i) {
+        int k = (off + i) * nvar;
+        return ExpVector.create(Arrays.copyOfRange(exps, k, k + nvar));
+    }
+
+
+    /**
+     * Get coefficient of a term.
+     * @param i term index relative to off.
+     * @return coefficient of term i.
+     */
+    C coefficient(int i) {
+        return coeffs[off + i];
+    }
+
+
+    /**
+     * View of a range of terms sharing the arrays.
+     * @param o index of first term.
+     * @param l number of terms.
+     * @return packed terms o, ..., o+l-1.
+     */
+    PackedTermMap<C> view(int o, int l) {
+        return new PackedTermMap<C>(tord, nvar, exps, coeffs, o, l);
+    }
+
+
+    /**
+     * First key.
+     * @see java.util.SortedMap#firstKey()
+     */
+    public ExpVector firstKey() {
+        if (len == 0) {
+            throw new NoSuchElementException();
+        }
+        ExpVector e = first;
+        if (e == null) {
+            e = exponent(0);
+            first = e;
+        }
+        return e;
+    }
+
+
+    /**
+     * Last key.
+     * @see java.util.SortedMap#lastKey()
+     */
+    public ExpVector lastKey() {
+        if (len == 0) {
+            throw new NoSuchElementException();
+        }
+        return exponent(len - 1);
+    }
+
+
+    /**
+     * Get coefficient.
+     * @see java.util.Map#get(java.lang.Object)
+     */
+    @Override
+    public C get(Object key) {
+        if (!(key instanceof ExpVector)) {
+            return null;
+        }
+        int i = search((ExpVector) key);
+        if (i < 0) {
+            return null;
+        }
+        return coefficient(i);
+    }
+
+
+    /**
+     * Test if key is contained.
+     * @see java.util.Map#containsKey(java.lang.Object)
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof ExpVector)) {
+            return false;
+        }
+        return search((ExpVector) key) >= 0;
+    }
+
+
+    /**
+     * Binary search of exponent vector.
+     * @param e exponent vector.
+     * @return index relative to off of e, if found, else (-(insertion
+     *         point) - 1).
+     */
+    int search(ExpVector e) {
+        long[] ev = new long[nvar];
+        for (int j = 0; j < nvar; j++) {
+            ev[j] = e.getVal(j);
+        }
+        int lo = 0;
+        int hi = len - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = compare(exps, (off + mid) * nvar, ev, 0);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+
+    /**
+     * Sub map view.
+     * @see java.util.SortedMap#subMap(java.lang.Object,java.lang.Object)
+     */
+    public SortedMap<ExpVector, C> subMap(ExpVector from, ExpVector to) {
+        int i = position(from);
+        int j = position(to);
+        if (j < i) {
+            throw new IllegalArgumentException("from > to");
+        }
+        return view(off + i, j - i);
+    }
+
+
+    /**
+     * Head map view, all terms greater than to.
+     * @see java.util.SortedMap#headMap(java.lang.Object)
+     */
+    public SortedMap<ExpVector, C> headMap(ExpVector to) {
+        int j = position(to);
+        return view(off, j);
+    }
+
+
+    /**
+     * Tail map view, all terms less or equal to from.
+     * @see java.util.SortedMap#tailMap(java.lang.Object)
+     */
+    public SortedMap<ExpVector, C> tailMap(ExpVector from) {
+        int i = position(from);
+        return view(off + i, len - i);
+    }
+
+
+    /**
+     * Position of first term not greater than e.
+     * @param e exponent vector.
+     * @return position relative to off.
+     */
+    private int position(ExpVector e) {
+        int i = search(e);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return i;
+    }
+
+
+    /**
+     * Unsupported modification.
+     * @see java.util.Map#put(java.lang.Object,java.lang.Object)
+     */
+    @Override
+    public C put(ExpVector e, C c) {
+        throw new UnsupportedOperationException("PackedTermMap is immutable");
+    }
+
+
+    /**
+     * Unsupported modification.
+     * @see java.util.Map#remove(java.lang.Object)
+     */
+    @Override
+    public C remove(Object e) {
+        throw new UnsupportedOperationException("PackedTermMap is immutable");
+    }
+
+
+    /**
+     * Entry set in term order.
+     * @see java.util.Map#entrySet()
+     */
+    @Override
+    public Set<Map.Entry<ExpVector, C>> entrySet() {
+        return new AbstractSet<Map.Entry<ExpVector, C>>() {
+
+
+            @Override
+            public int size() {
+                return len;
+            }
+
+
+            @Override
+            public Iterator<Map.Entry<ExpVector, C>> iterator() {
+                return new Iterator<Map.Entry<ExpVector, C>>() {
+
+
+                    int i = 0;
+
+
+                    public boolean hasNext() {
+                        return i < len;
+                    }
+
+
+                    public Map.Entry<ExpVector, C> next() {
+                        if (i >= len) {
+                            throw new NoSuchElementException();
+                        }
+                        ExpVector e = (i == 0 ? firstKey() : exponent(i));
+                        Map.Entry<ExpVector, C> me = new AbstractMap.SimpleImmutableEntry<ExpVector, C>(e,
+                                        coefficient(i));
+                        i++;
+                        return me;
+                    }
+
+
+                    public void remove() {
+                        throw new UnsupportedOperationException("PackedTermMap is immutable");
+                    }
+                };
+            }
+        };
+    }
+
+
+    /**
+     * Compare two packed exponents with respect to the descending term order.
+     * @param a packed exponent array.
+     * @param ai start index of first exponent in a.
+     * @param b packed exponent array.
+     * @param bi start index of second exponent in b.
+     * @return the same value as tord.getDescendComparator() for the
+     *         corresponding ExpVectors.
+     */
+    int compare(long[] a, int ai, long[] b, int bi) {
+        switch (mode) {
+        case TermOrder.LEX:
+            return invLex(a, ai, b, bi);
+        case TermOrder.INVLEX:
+            return -invLex(a, ai, b, bi);
+        case TermOrder.GRLEX:
+            return invGrad(a, ai, b, bi);
+        case TermOrder.IGRLEX:
+            return -invGrad(a, ai, b, bi);
+        case TermOrder.REVLEX:
+            return revInvLex(a, ai, b, bi);
+        case TermOrder.REVILEX:
+            return -revInvLex(a, ai, b, bi);
+        case TermOrder.REVTDEG:
+            return revInvGrad(a, ai, b, bi);
+        case TermOrder.REVITDG:
+            return -revInvGrad(a, ai, b, bi);
+        default:
+            ExpVector e = ExpVector.create(Arrays.copyOfRange(a, ai, ai + nvar));
+            ExpVector f = ExpVector.create(Arrays.copyOfRange(b, bi, bi + nvar));
+            return tord.getDescendComparator().compare(e, f);
+        }
+    }
+
+
+    /*
+     * Raw versions of the ExpVectorLong comparisons.
+     */
+
+    private int invLex(long[] a, int ai, long[] b, int bi) {
+        for (int i = 0; i < nvar; i++) {
+            long u = a[ai + i];
+            long v = b[bi + i];
+            if (u > v) {
+                return 1;
+            }
+            if (u < v) {
+                return -1;
+            }
+        }
+        return 0;
+    }
+
+
+    private int invGrad(long[] a, int ai, long[] b, int bi) {
+        int t = 0;
+        int i;
+        for (i = 0; i < nvar; i++) {
+            long u = a[ai + i];
+            long v = b[bi + i];
+            if (u > v) {
+                t = 1;
+                break;
+            }
+            if (u < v) {
+                t = -1;
+                break;
+            }
+        }
+        if (t == 0) {
+            return t;
+        }
+        long up = 0;
+        long vp = 0;
+        for (int j = i; j < nvar; j++) {
+            up += a[ai + j];
+            vp += b[bi + j];
+        }
+        if (up > vp) {
+            t = 1;
+        } else if (up < vp) {
+            t = -1;
+        }
+        return t;
+    }
+
+
+    private int revInvLex(long[] a, int ai, long[] b, int bi) {
+        for (int i = nvar - 1; i >= 0; i--) {
+            long u = a[ai + i];
+            long v = b[bi + i];
+            if (u > v) {
+                return 1;
+            }
+            if (u < v) {
+                return -1;
+            }
+        }
+        return 0;
+    }
+
+
+    private int revInvGrad(long[] a, int ai, long[] b, int bi) {
+        int t = 0;
+        int i;
+        for (i = nvar - 1; i >= 0; i--) {
+            long u = a[ai + i];
+            long v = b[bi + i];
+            if (u > v) {
+                t = 1;
+                break;
+            }
+            if (u < v) {
+                t = -1;
+                break;
+            }
+        }
+        if (t == 0) {
+            return t;
+        }
+        long up = 0;
+        long vp = 0;
+        for (int j = i; j >= 0; j--) {
+            up += a[ai + j];
+            vp += b[bi + j];
+        }
+        if (up > vp) {
+            t = 1;
+        } else if (up < vp) {
+            t = -1;
+        }
+        return t;
+    }
+
+}
@@ -17,8 +17,10 @@ import edu.jas.arith.BigComplex;
 import edu.jas.arith.BigDecimal;
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
+import edu.jas.arith.ChineseRemainderTree;
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLongRing;
 import edu.jas.arith.Modular;
 import edu.jas.arith.ModularRingFactory;
 import edu.jas.arith.Product;
@@ -570,6 +572,80 @@ public class PolyUtil {
     }
 
 
+    /**
+     * Chinese remainder algorithm on coefficients with a product tree.
+     * @param fac GenPolynomial&lt;ModInteger&gt; result factory with modul
+     *            the product of the moduli of the coefficients of A.
+     * @param A list of polynomials, the coefficient moduli must be pairwise
+     *            coprime.
+     * @return S = cra(A), with S mod A_i.coFac.modul == A_i for all i.
+     */
+    public static <C extends RingElem<C> & Modular> GenPolynomial<ModInteger> chineseRemainder(
+                    GenPolynomialRing<ModInteger> fac, List<GenPolynomial<C>> A) {
+        List<java.math.BigInteger> moduli = new ArrayList<java.math.BigInteger>(A.size());
+        for (GenPolynomial<C> a : A) {
+            moduli.add(((ModularRingFactory<C>) a.ring.coFac).getIntegerModul().getVal());
+        }
+        ChineseRemainderTree crt = new ChineseRemainderTree(moduli);
+        List<List<GenPolynomial<C>>> B = new ArrayList<List<GenPolynomial<C>>>(A.size());
+        for (GenPolynomial<C> a : A) {
+            List<GenPolynomial<C>> b = new ArrayList<GenPolynomial<C>>(1);
+            b.add(a);
+            B.add(b);
+        }
+        return chineseRemainder(fac, crt, B).get(0);
+    }
+
+
+    /**
+     * Chinese remainder algorithm on coefficients of lists of polynomials with
+     * a product tree. The tree with the inverses is used for all
+     * coefficients.
+     * @param fac GenPolynomial&lt;ModInteger&gt; result factory with modul
+     *            crt.getModul().
+     * @param crt chinese remainder tree of the moduli m_i.
+     * @param A list of polynomial lists, A_i with coefficients modulo m_i
+     *            and all A_i of equal length.
+     * @return list S with S_j mod m_i == A_i_j for all i, j.
+     */
+    public static <C extends RingElem<C> & Modular> List<GenPolynomial<ModInteger>> chineseRemainder(
+                    GenPolynomialRing<ModInteger> fac, ChineseRemainderTree crt, List<List<GenPolynomial<C>>> A) {
+        final int k = A.size();
+        if (k != crt.size()) {
+            throw new IllegalArgumentException("wrong number of images " + k + " != " + crt.size());
+        }
+        ModIntegerRing cfac = (ModIntegerRing) fac.coFac;
+        int n = A.get(0).size();
+        List<GenPolynomial<ModInteger>> S = new ArrayList<GenPolynomial<ModInteger>>(n);
+        java.math.BigInteger[] r = new java.math.BigInteger[k];
+        for (int j = 0; j < n; j++) {
+            // residues of all terms, 0 for missing terms
+            SortedMap<ExpVector, java.math.BigInteger[]> rv = new TreeMap<ExpVector, java.math.BigInteger[]>(
+                            fac.tord.getDescendComparator());
+            for (int i = 0; i < k; i++) {
+                for (Map.Entry<ExpVector, C> me : A.get(i).get(j).getMap().entrySet()) {
+                    java.math.BigInteger[] c = rv.get(me.getKey());
+                    if (c == null) {
+                        c = new java.math.BigInteger[k];
+                        rv.put(me.getKey(), c);
+                    }
+                    c[i] = me.getValue().getInteger().getVal();
+                }
+            }
+            GenPolynomial<ModInteger> s = fac.getZERO().copy();
+            for (Map.Entry<ExpVector, java.math.BigInteger[]> me : rv.entrySet()) {
+                java.math.BigInteger[] c = me.getValue();
+                for (int i = 0; i < k; i++) {
+                    r[i] = (c[i] == null ? java.math.BigInteger.ZERO : c[i]);
+                }
+                s.doPutToMap(me.getKey(), new ModInteger(cfac, crt.chineseRemainder(r)));
+            }
+            S.add(s);
+        }
+        return S;
+    }
+
+
     /**
      * GenPolynomial monic, i.e. leadingBaseCoefficient == 1. If
      * leadingBaseCoefficient is not invertible returns this unmodified.
@@ -883,6 +959,9 @@ public class PolyUtil {
             return P.ring.getZERO();
         }
         C c = S.leadingBaseCoefficient();
+        if (P.ring.nvar == 1 && P.ring.coFac instanceof ModLongRing && c.isUnit()) {
+            return P.remainder(S); // same result, dense algorithms, see ModLongDenseModulus
+        }
         ExpVector e = S.leadingExpVector();
         GenPolynomial<C> h;
         GenPolynomial<C> r = P;
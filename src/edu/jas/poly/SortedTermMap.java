@@ -0,0 +1,188 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * SortedTermMap read only sorted map view on parallel arrays of exponents and
+ * coefficients. The terms must already be sorted with respect to the given
+ * comparator and must not contain zero coefficients. The only purpose of this
+ * class is to transfer sorted terms into the TreeMap of a GenPolynomial in
+ * linear time via <code>TreeMap.putAll()</code>, which builds the tree directly
+ * if the source is a SortedMap with the same comparator.
+ * @param <C> coefficient type
+ * @author Heinz Kredel
+ */
+
+final class SortedTermMap<C extends RingElem<C>> extends AbstractMap<ExpVector, C>
+                implements SortedMap<ExpVector, C> {
+
+
+    /**
+     * The exponent vectors in order.
+     */
+    final ExpVector[] exps;
+
+
+    /**
+     * The coefficients in order.
+     */
+    final C[] coeffs;
+
+
+    /**
+     * Number of valid entries.
+     */
+    final int size;
+
+
+    /**
+     * The comparator the terms are sorted with.
+     */
+    final Comparator<ExpVector> cmp;
+
+
+    /**
+     * Constructor.
+     * @param cmp comparator of the terms.
+     * @param exps sorted exponent vectors.
+     * @param coeffs coefficients.
+     * @param size number of valid entries in exps and coeffs.
+     */
+    SortedTermMap(Comparator<ExpVector> cmp, ExpVector[] exps, C[] coeffs, int size) {
+        this.cmp = cmp;
+        this.exps = exps;
+        this.coeffs = coeffs;
+        this.size = size;
+    }
+
+
+    /**
+     * Get the comparator.
+     * @see java.util.SortedMap#comparator()
+     */
+    public Comparator<? super ExpVector> comparator() {
+        return cmp;
+    }
+
+
+    /**
+     * Number of entries.
+     * @see java.util.Map#size()
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * First key.
+     * @see java.util.SortedMap#firstKey()
+     */
+    public ExpVector firstKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return exps[0];
+    }
+
+
+    /**
+     * Last key.
+     * @see java.util.SortedMap#lastKey()
+     */
+    public ExpVector lastKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return exps[size - 1];
+    }
+
+
+    /**
+     * Sub map, not supported.
+     */
+    public SortedMap<ExpVector, C> subMap(ExpVector from, ExpVector to) {
+        throw new UnsupportedOperationException("not supported for SortedTermMap");
+    }
+
+
+    /**
+     * Head map, not supported.
+     */
+    public SortedMap<ExpVector, C> headMap(ExpVector to) {
+        throw new UnsupportedOperationException("not supported for SortedTermMap");
+    }
+
+
+    /**
+     * Tail map, not supported.
+     */
+    public SortedMap<ExpVector, C> tailMap(ExpVector from) {
+        throw new UnsupportedOperationException("not supported for SortedTermMap");
+    }
+
+
+    /**
+     * Entry set in term order.
+     * @see java.util.Map#entrySet()
+     */
+    @Override
+    public Set<Map.Entry<ExpVector, C>> entrySet() {
+        return new AbstractSet<Map.Entry<ExpVector, C>>() {
+
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+
+            @Override
+            public Iterator<Map.Entry<ExpVector, C>> iterator() {
+                return new Iterator<Map.Entry<ExpVector, C>>() {
+
+
+                    int i = 0;
+
+
+                    public boolean hasNext() {
+                        return i < size;
+                    }
+
+
+                    public Map.Entry<ExpVector, C> next() {
+                        if (i >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        Map.Entry<ExpVector, C> me = new AbstractMap.SimpleImmutableEntry<ExpVector, C>(
+                                        exps[i], coeffs[i]);
+                        i++;
+                        return me;
+                    }
+
+
+                    public void remove() {
+                        throw new UnsupportedOperationException("not supported for SortedTermMap");
+                    }
+                };
+            }
+        };
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.structure;
+
+
+/**
+ * Generic ring accumulator. Uses the immutable sum, subtract and multiply
+ * methods of the elements, for rings without a specialized accumulator.
+ * @param <C> element type
+ * @author Heinz Kredel
+ */
+
+public class GenericAccumulator<C extends RingElem<C>> implements RingAccumulator<C> {
+
+
+    /**
+     * Ring factory.
+     */
+    protected final RingFactory<C> fac;
+
+
+    /**
+     * Accumulated value.
+     */
+    protected C val;
+
+
+    /**
+     * Constructor.
+     * @param fac ring factory.
+     */
+    public GenericAccumulator(RingFactory<C> fac) {
+        this.fac = fac;
+        val = fac.getZERO();
+    }
+
+
+    /**
+     * Set the accumulator to zero.
+     */
+    public void clear() {
+        val = fac.getZERO();
+    }
+
+
+    /**
+     * Add an element.
+     * @param a ring element.
+     */
+    public void add(C a) {
+        val = val.sum(a);
+    }
+
+
+    /**
+     * Subtract an element.
+     * @param a ring element.
+     */
+    public void subtract(C a) {
+        val = val.subtract(a);
+    }
+
+
+    /**
+     * Add a product.
+     * @param a ring element.
+     * @param b ring element.
+     */
+    public void addMul(C a, C b) {
+        val = val.sum(a.multiply(b));
+    }
+
+
+    /**
+     * Subtract a product.
+     * @param a ring element.
+     * @param b ring element.
+     */
+    public void subMul(C a, C b) {
+        val = val.subtract(a.multiply(b));
+    }
+
+
+    /**
+     * Get the accumulated value.
+     * @return the accumulated value.
+     */
+    public C getValue() {
+        return val;
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.structure;
+
+
+/**
+ * Ring accumulator interface. Defines a mutable sum of ring elements and of
+ * products of ring elements for inner loops like scalar products. The
+ * elements themselves stay immutable, only the accumulator is changed. Obtain
+ * an accumulator from RingFactory.getAccumulator(). <b>Note:</b>
+ * implementations are not synchronized.
+ * @param <C> element type
+ * @author Heinz Kredel
+ */
+
+public interface RingAccumulator<C extends RingElem<C>> {
+
+
+    /**
+     * Set the accumulator to zero.
+     */
+    public void clear();
+
+
+    /**
+     * Add an element.
+     * @param a ring element.
+     */
+    public void add(C a);
+
+
+    /**
+     * Subtract an element.
+     * @param a ring element.
+     */
+    public void subtract(C a);
+
+
+    /**
+     * Add a product.
+     * @param a ring element.
+     * @param b ring element.
+     */
+    public void addMul(C a, C b);
+
+
+    /**
+     * Subtract a product.
+     * @param a ring element.
+     * @param b ring element.
+     */
+    public void subMul(C a, C b);
+
+
+    /**
+     * Get the accumulated value.
+     * @return the sum of all added and subtracted elements and products as
+     *         new immutable element.
+     */
+    public C getValue();
+
+}
@@ -27,4 +27,15 @@ public interface RingFactory<C extends RingElem<C>> extends AbelianGroupFactory<
      */
     public java.math.BigInteger characteristic();
 
+
+    /**
+     * Get a new accumulator for sums of elements and products. Rings with
+     * mutable number representations override this.
+     * @return a new zero accumulator.
+     * Java 8 only
+     */
+    default public RingAccumulator<C> getAccumulator() {
+        return new GenericAccumulator<C>(this);
+    }
+
 }
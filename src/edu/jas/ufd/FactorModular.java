@@ -19,8 +19,11 @@ import edu.jas.arith.BigInteger;
 import edu.jas.arith.ModLongRing;
 import edu.jas.arith.Modular;
 import edu.jas.arith.ModularRingFactory;
+import edu.jas.poly.AlgebraicNumber;
+import edu.jas.poly.AlgebraicNumberRing;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PackedPolynomial;
 import edu.jas.poly.PolyUtil;
 import edu.jas.structure.GcdRingElem;
 import edu.jas.structure.Power;
@@ -87,15 +90,17 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         GenPolynomial<MOD> h = x;
         GenPolynomial<MOD> f = P;
         GenPolynomial<MOD> g;
-        Power<GenPolynomial<MOD>> pow = new Power<GenPolynomial<MOD>>(pfac);
+        // reductions modulo f reuse the precomputed inverse of f
+        AlgebraicNumberRing<MOD> afac = new AlgebraicNumberRing<MOD>(f);
         long d = 0;
         while (d + 1 <= f.degree(0) / 2) {
             d++;
-            h = pow.modPower(h, m, f);
+            h = Power.<AlgebraicNumber<MOD>> positivePower(new AlgebraicNumber<MOD>(afac, h), m).getVal();
             g = engine.gcd(h.subtract(x), f);
             if (!g.isONE()) {
                 facs.put(d, g);
                 f = f.divide(g);
+                afac = new AlgebraicNumberRing<MOD>(f);
             }
         }
         if (!f.isONE()) {
@@ -142,7 +147,7 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         GenPolynomial<MOD> h;
         GenPolynomial<MOD> f = P;
         //GreatestCommonDivisor<MOD> engine = GCDFactory.<MOD> getImplementation(pfac.coFac);
-        Power<GenPolynomial<MOD>> pow = new Power<GenPolynomial<MOD>>(pfac);
+        AlgebraicNumberRing<MOD> afac = new AlgebraicNumberRing<MOD>(f); // reductions modulo f
         GenPolynomial<MOD> g = null;
         int degi = (int) deg; //f.degree(0);
         //System.out.println("deg = " + deg);
@@ -156,18 +161,19 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
                 h = t;
                 for (int i = 1; i < degi; i++) {
                     h = t.sum(h.multiply(h));
-                    h = h.remainder(f);
+                    h = afac.remainder(h);
                 }
                 t = t.multiply(pfac.univariate(0, 2L));
                 //System.out.println("h = " + h);
             } else {
                 r = pfac.random(17, degi, 2 * degi, 1.0f);
                 if (r.degree(0) >= f.degree(0)) {
-                    r = r.remainder(f);
+                    r = afac.remainder(r);
                 }
                 r = r.monic();
                 //System.out.println("r = " + r);
-                h = pow.modPower(r, d, f).subtract(one);
+                h = Power.<AlgebraicNumber<MOD>> positivePower(new AlgebraicNumber<MOD>(afac, r), d).getVal();
+                h = h.subtract(one);
                 degi++;
             }
             g = engine.gcd(h, f);
@@ -205,6 +211,10 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         if (!P.leadingBaseCoefficient().isONE()) {
             throw new IllegalArgumentException("ldcf(P) != 1: " + P);
         }
+        boolean packed = (pfac.coFac instanceof ModLongRing);
+        if (packed) { // long coefficient arithmetic
+            P = pfac.toPacked(P);
+        }
         SortedMap<Long, GenPolynomial<MOD>> dfacs = baseDistinctDegreeFactors(P);
         if (debug) {
             logger.info("dfacs    = " + dfacs);
@@ -222,6 +232,9 @@ public class FactorModular<MOD extends GcdRingElem<MOD> & Modular> extends Facto
         }
         //System.out.println("factors  = " + factors);
         factors = PolyUtil.<MOD> monic(factors);
+        if (packed) {
+            factors = PackedPolynomial.<MOD> toGenPolynomial(factors);
+        }
         SortedSet<GenPolynomial<MOD>> ss = new TreeSet<GenPolynomial<MOD>>(factors);
         //System.out.println("sorted   = " + ss);
         factors.clear();
@@ -78,14 +78,15 @@ public class GCDFactory {
 
 
     /**
-     * Determine suitable implementation of gcd algorithms, case ModLong.
+     * Determine suitable implementation of gcd algorithms, case ModLong. For
+     * fields the univariate gcds use the half gcd algorithm.
      * @param fac ModLongRing.
      * @return gcd algorithm implementation.
      */
     public static GreatestCommonDivisorAbstract<ModLong> getImplementation(ModLongRing fac) {
         GreatestCommonDivisorAbstract<ModLong> ufd;
         if (fac.isField()) {
-            ufd = new GreatestCommonDivisorModEval<ModLong>();
+            ufd = new GreatestCommonDivisorModEval<ModLong>(new GreatestCommonDivisorHalfGcd<ModLong>());
             //ufd = new GreatestCommonDivisorSimple<ModLong>();
             return ufd;
         }
@@ -103,7 +104,7 @@ public class GCDFactory {
         GreatestCommonDivisorAbstract<ModLong> ufd1, ufd2;
         ufd1 = new GreatestCommonDivisorSubres<ModLong>();
         if (fac.isField()) {
-            ufd2 = new GreatestCommonDivisorModEval<ModLong>();
+            ufd2 = new GreatestCommonDivisorModEval<ModLong>(new GreatestCommonDivisorHalfGcd<ModLong>());
         } else {
             ufd2 = new GreatestCommonDivisorSimple<ModLong>();
         }
@@ -228,7 +229,7 @@ public class GCDFactory {
             ufd = new GreatestCommonDivisorModEval<ModInteger>();
             //ufd = new GreatestCommonDivisorSimple<ModInteger>();
         } else if (ofac instanceof ModLongRing) {
-            ufd = new GreatestCommonDivisorModEval<ModLong>();
+            ufd = new GreatestCommonDivisorModEval<ModLong>(new GreatestCommonDivisorHalfGcd<ModLong>());
             //ufd = new GreatestCommonDivisorSimple<ModLong>();
         } else if (ofac instanceof BigRational) {
             ufd = new GreatestCommonDivisorSubres<BigRational>();
@@ -267,7 +268,7 @@ public class GCDFactory {
                             new GreatestCommonDivisorModEval<ModInteger>());
         } else if (ofac instanceof ModLongRing) {
             ufd = new GCDProxy<ModLong>(new GreatestCommonDivisorSimple<ModLong>(), // Subres
-                            new GreatestCommonDivisorModEval<ModLong>());
+                            new GreatestCommonDivisorModEval<ModLong>(new GreatestCommonDivisorHalfGcd<ModLong>()));
         } else if (ofac instanceof BigRational) {
             ufd = new GCDProxy<BigRational>(new GreatestCommonDivisorSubres<BigRational>(),
                             new GreatestCommonDivisorSimple<BigRational>());
@@ -0,0 +1,105 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.ufd;
+
+
+import org.apache.log4j.Logger;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.ModLongDenseGcd;
+import edu.jas.structure.GcdRingElem;
+
+
+/**
+ * Greatest common divisor algorithms with the half gcd for univariate
+ * polynomials. Dense univariate polynomials over ModLongRing fields use the
+ * subquadratic half gcd of ModLongDenseGcd, based on the fast multiplication
+ * of ModLongDenseMultiply. All other cases, in particular small or sparse
+ * polynomials, use the monic polynomial remainder sequence of
+ * GreatestCommonDivisorSimple.
+ * @author Heinz Kredel
+ * @see edu.jas.poly.ModLongDenseGcd
+ */
+
+public class GreatestCommonDivisorHalfGcd<C extends GcdRingElem<C>> extends GreatestCommonDivisorSimple<C> {
+
+
+    private static final Logger logger = Logger.getLogger(GreatestCommonDivisorHalfGcd.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Univariate GenPolynomial greatest comon divisor. Uses the half gcd for
+     * dense polynomials over ModLongRing.
+     * @param P univariate GenPolynomial.
+     * @param S univariate GenPolynomial.
+     * @return gcd(P,S).
+     */
+    @Override
+    @SuppressWarnings({ "unchecked", "cast" })
+    public GenPolynomial<C> baseGcd(GenPolynomial<C> P, GenPolynomial<C> S) {
+        if (P != null && S != null && P.ring.coFac instanceof ModLongRing) {
+            GenPolynomial<ModLong> g = ModLongDenseGcd.gcd((GenPolynomial<ModLong>) (GenPolynomial) P,
+                            (GenPolynomial<ModLong>) (GenPolynomial) S);
+            if (g != null) {
+                if (debug) {
+                    logger.debug("half gcd: deg(P) = " + P.degree(0) + ", deg(S) = " + S.degree(0));
+                }
+                return (GenPolynomial<C>) (GenPolynomial) g;
+            }
+        }
+        return super.baseGcd(P, S);
+    }
+
+
+    /**
+     * Univariate GenPolynomial extended greatest common divisor. Uses the
+     * half gcd for dense polynomials over ModLongRing.
+     * @param P univariate GenPolynomial.
+     * @param S univariate GenPolynomial.
+     * @return [ gcd(P,S), a, b ] with a*P + b*S = gcd(P,S).
+     */
+    @Override
+    @SuppressWarnings({ "unchecked", "cast" })
+    public GenPolynomial<C>[] baseExtendedGcd(GenPolynomial<C> P, GenPolynomial<C> S) {
+        if (P != null && S != null && P.ring.coFac instanceof ModLongRing) {
+            GenPolynomial<ModLong>[] g = ModLongDenseGcd.egcd((GenPolynomial<ModLong>) (GenPolynomial) P,
+                            (GenPolynomial<ModLong>) (GenPolynomial) S);
+            if (g != null) {
+                return (GenPolynomial<C>[]) (GenPolynomial[]) g;
+            }
+        }
+        return super.baseExtendedGcd(P, S);
+    }
+
+
+    /**
+     * Univariate GenPolynomial half extended greatest comon divisor. Uses the
+     * half gcd for dense polynomials over ModLongRing.
+     * @param P univariate GenPolynomial.
+     * @param S univariate GenPolynomial.
+     * @return [ gcd(P,S), a ] with a*P + b*S = gcd(P,S).
+     */
+    @Override
+    @SuppressWarnings({ "unchecked", "cast" })
+    public GenPolynomial<C>[] baseHalfExtendedGcd(GenPolynomial<C> P, GenPolynomial<C> S) {
+        if (P != null && S != null && P.ring.coFac instanceof ModLongRing) {
+            GenPolynomial<ModLong>[] g = ModLongDenseGcd.egcd((GenPolynomial<ModLong>) (GenPolynomial) P,
+                            (GenPolynomial<ModLong>) (GenPolynomial) S);
+            if (g != null) {
+                GenPolynomial<C>[] ret = (GenPolynomial<C>[]) new GenPolynomial[2];
+                ret[0] = (GenPolynomial<C>) (GenPolynomial) g[0];
+                ret[1] = (GenPolynomial<C>) (GenPolynomial) g[1];
+                return ret;
+            }
+        }
+        return super.baseHalfExtendedGcd(P, S);
+    }
+
+}
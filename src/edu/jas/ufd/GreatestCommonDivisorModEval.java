@@ -35,12 +35,30 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
     /**
      * Modular gcd algorithm to use.
      */
-    protected final GreatestCommonDivisorAbstract<MOD> mufd 
-       = new GreatestCommonDivisorSimple<MOD>();
+    protected final GreatestCommonDivisorAbstract<MOD> mufd;
     // = new GreatestCommonDivisorPrimitive<MOD>();
     // not okay: = new GreatestCommonDivisorSubres<MOD>();
 
 
+    /**
+     * Constructor. Use the monic polynomial remainder sequence for univariate
+     * polynomials.
+     */
+    public GreatestCommonDivisorModEval() {
+        this(new GreatestCommonDivisorSimple<MOD>());
+    }
+
+
+    /**
+     * Constructor to set the univariate algorithm.
+     * @param mufd gcd algorithm for univariate polynomials, e.g.
+     *            GreatestCommonDivisorHalfGcd.
+     */
+    public GreatestCommonDivisorModEval(GreatestCommonDivisorAbstract<MOD> mufd) {
+        this.mufd = mufd;
+    }
+
+
     /**
      * Univariate GenPolynomial greatest common divisor. 
      * @param P univariate GenPolynomial.
@@ -5,10 +5,15 @@
 package edu.jas.ufd;
 
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.log4j.Logger;
 
 import edu.jas.arith.BigInteger;
+import edu.jas.arith.ChineseRemainderTree;
 import edu.jas.arith.Combinatoric;
+import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
 import edu.jas.arith.ModLongRing;
 import edu.jas.arith.Modular;
@@ -175,17 +180,15 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
         ExpVector wdegv = rdegv.subst(0, rdegv.getVal(0) + 1);
         // +1 seems to be a hack for the unlucky prime test
         ModularRingFactory<MOD> cofac;
-        ModularRingFactory<MOD> cofacM = null;
         GenPolynomial<MOD> qm;
         GenPolynomial<MOD> rm;
         GenPolynomialRing<MOD> mfac;
-        GenPolynomialRing<MOD> rfac = null;
         int i = 0;
         BigInteger M = null;
         BigInteger cfe = null;
-        GenPolynomial<MOD> cp = null;
+        List<java.math.BigInteger> ps = new ArrayList<java.math.BigInteger>();
+        List<List<GenPolynomial<MOD>>> cms = new ArrayList<List<GenPolynomial<MOD>>>();
         GenPolynomial<MOD> cm = null;
-        GenPolynomial<BigInteger> cpi = null;
         if (debug) {
             logger.debug("c = " + c);
             logger.debug("cc = " + cc);
@@ -259,68 +262,33 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
                 }
             }
             //--wdegv = mdegv;
-            // prepare chinese remainder algorithm
+            // collect images for the chinese remainder algorithm
             cm = cm.multiply(nf);
             if (M == null) {
                 // initialize chinese remainder algorithm
                 M = new BigInteger(p);
-                cofacM = cofac;
-                rfac = mfac;
-                cp = cm;
+                ps.clear();
+                cms.clear();
                 wdegv = wdegv.gcd(mdegv); //EVGCD(wdegv,mdegv);
                 cfe = cf;
                 for (int k = 0; k < wdegv.length(); k++) {
                     cfe = cfe.multiply(new BigInteger(wdegv.getVal(k) + 1));
                 }
             } else {
-                // apply chinese remainder algorithm
-                BigInteger Mp = M;
-                MOD mi = cofac.fromInteger(Mp.getVal());
-                mi = mi.inverse(); // mod p
                 M = M.multiply(new BigInteger(p));
-                if (ModLongRing.MAX_LONG.compareTo(M.getVal()) > 0) {
-                    cofacM = (ModularRingFactory) new ModLongRing(M.getVal());
-                } else {
-                    cofacM = (ModularRingFactory) new ModIntegerRing(M.getVal());
-                }
-                rfac = new GenPolynomialRing<MOD>(cofacM, fac);
-                if (!cofac.getClass().equals(cofacM.getClass())) {
-                    logger.info("adjusting coefficents: cofacM = " + cofacM.getClass() + ", cofacP = "
-                                    + cofac.getClass());
-                    cofac = (ModularRingFactory) new ModIntegerRing(p);
-                    mfac = new GenPolynomialRing<MOD>(cofac, fac);
-                    GenPolynomial<BigInteger> mm = PolyUtil.<MOD> integerFromModularCoefficients(fac, cm);
-                    cm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, mm);
-                    mi = cofac.fromInteger(Mp.getVal());
-                    mi = mi.inverse(); // mod p
-                }
-                if (!cp.ring.coFac.getClass().equals(cofacM.getClass())) {
-                    logger.info("adjusting coefficents: cofacM = " + cofacM.getClass() + ", cofacM' = "
-                                    + cp.ring.coFac.getClass());
-                    ModularRingFactory cop = (ModularRingFactory) cp.ring.coFac;
-                    cofac = (ModularRingFactory) new ModIntegerRing(cop.getIntegerModul().getVal());
-                    mfac = new GenPolynomialRing<MOD>(cofac, fac);
-                    GenPolynomial<BigInteger> mm = PolyUtil.<MOD> integerFromModularCoefficients(fac, cp);
-                    cp = PolyUtil.<MOD> fromIntegerCoefficients(mfac, mm);
-                }
-                cp = PolyUtil.<MOD> chineseRemainder(rfac, cp, mi, cm);
             }
+            ps.add(p);
+            List<GenPolynomial<MOD>> cl = new ArrayList<GenPolynomial<MOD>>(1);
+            cl.add(cm);
+            cms.add(cl);
             // test for completion
             if (n.compareTo(M) <= 0) {
                 break;
             }
-            // must use integer.sumNorm
-            cpi = PolyUtil.<MOD> integerFromModularCoefficients(fac, cp);
-            BigInteger cmn = cpi.sumNorm();
-            cmn = cmn.multiply(cmn.fromInteger(4));
-            //if ( cmn.compareTo( M ) <= 0 ) {
-            // does not work: only if cofactors are also considered?
-            // break;
-            //}
-            if (i % 2 != 0 && !cp.isZERO()) {
+            if (i % 2 != 0) {
                 // check if done on every second prime
                 GenPolynomial<BigInteger> x;
-                x = PolyUtil.<MOD> integerFromModularCoefficients(fac, cp);
+                x = chineseRemainder(fac, ps, cms);
                 x = basePrimitivePart(x);
                 if (!PolyUtil.<BigInteger> baseSparsePseudoRemainder(q, x).isZERO()) {
                     continue;
@@ -336,7 +304,7 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
             logger.info("done on M = " + M + ", #primes = " + i);
         }
         // remove normalization
-        q = PolyUtil.<MOD> integerFromModularCoefficients(fac, cp);
+        q = chineseRemainder(fac, ps, cms);
         q = basePrimitivePart(q);
         return q.abs().multiply(c);
     }
@@ -420,14 +388,13 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
         PrimeList primes = new PrimeList();
         int pn = 30; //primes.size();
         ModularRingFactory<MOD> cofac;
-        ModularRingFactory<MOD> cofacM = null;
         GenPolynomial<MOD> qm;
         GenPolynomial<MOD> rm;
         GenPolynomialRing<MOD> mfac;
-        GenPolynomialRing<MOD> rfac = null;
         int i = 0;
         BigInteger M = null;
-        GenPolynomial<MOD> cp = null;
+        List<java.math.BigInteger> ps = new ArrayList<java.math.BigInteger>();
+        List<List<GenPolynomial<MOD>>> cms = new ArrayList<List<GenPolynomial<MOD>>>();
         GenPolynomial<MOD> cm = null;
         //GenPolynomial<BigInteger> cpi = null;
         if (debug) {
@@ -485,46 +452,12 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
                 logger.info("res_p = " + cm);
             }
 
-            // prepare chinese remainder algorithm
-            if (M == null) {
-                // initialize chinese remainder algorithm
-                M = new BigInteger(p);
-                cofacM = cofac;
-                //rfac = mfac;
-                cp = cm;
-            } else {
-                // apply chinese remainder algorithm
-                BigInteger Mp = M;
-                MOD mi = cofac.fromInteger(Mp.getVal());
-                mi = mi.inverse(); // mod p
-                M = M.multiply(new BigInteger(p));
-                if (ModLongRing.MAX_LONG.compareTo(M.getVal()) > 0) {
-                    cofacM = (ModularRingFactory) new ModLongRing(M.getVal());
-                } else {
-                    cofacM = (ModularRingFactory) new ModIntegerRing(M.getVal());
-                }
-                rfac = new GenPolynomialRing<MOD>(cofacM, fac);
-                if (!cofac.getClass().equals(cofacM.getClass())) {
-                    logger.info("adjusting coefficents: cofacM = " + cofacM.getClass() + ", cofacP = "
-                                    + cofac.getClass());
-                    cofac = (ModularRingFactory) new ModIntegerRing(p);
-                    mfac = new GenPolynomialRing<MOD>(cofac, fac);
-                    GenPolynomial<BigInteger> mm = PolyUtil.<MOD> integerFromModularCoefficients(fac, cm);
-                    cm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, mm);
-                    mi = cofac.fromInteger(Mp.getVal());
-                    mi = mi.inverse(); // mod p
-                }
-                if (!cp.ring.coFac.getClass().equals(cofacM.getClass())) {
-                    logger.info("adjusting coefficents: cofacM = " + cofacM.getClass() + ", cofacM' = "
-                                    + cp.ring.coFac.getClass());
-                    ModularRingFactory cop = (ModularRingFactory) cp.ring.coFac;
-                    cofac = (ModularRingFactory) new ModIntegerRing(cop.getIntegerModul().getVal());
-                    mfac = new GenPolynomialRing<MOD>(cofac, fac);
-                    GenPolynomial<BigInteger> mm = PolyUtil.<MOD> integerFromModularCoefficients(fac, cp);
-                    cp = PolyUtil.<MOD> fromIntegerCoefficients(mfac, mm);
-                }
-                cp = PolyUtil.<MOD> chineseRemainder(rfac, cp, mi, cm);
-            }
+            // collect images for the chinese remainder algorithm
+            M = (M == null ? new BigInteger(p) : M.multiply(new BigInteger(p)));
+            ps.add(p);
+            List<GenPolynomial<MOD>> cl = new ArrayList<GenPolynomial<MOD>>(1);
+            cl.add(cm);
+            cms.add(cl);
             // test for completion
             if (n.compareTo(M) <= 0) {
                 break;
@@ -534,8 +467,27 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
             logger.info("done on M = " + M + ", #primes = " + i);
         }
         // convert to integer polynomial
-        q = PolyUtil.<MOD> integerFromModularCoefficients(fac, cp);
+        q = chineseRemainder(fac, ps, cms);
         return q;
     }
 
+
+    /**
+     * Chinese remainder of modular images. All coefficients are combined at
+     * once with a product tree of the primes.
+     * @param fac integer polynomial ring.
+     * @param ps list of primes.
+     * @param cms list of images, cms.get(i).get(0) modulo ps.get(i).
+     * @return integer polynomial with symmetric coefficients congruent to
+     *         the images.
+     */
+    protected GenPolynomial<BigInteger> chineseRemainder(GenPolynomialRing<BigInteger> fac,
+                    List<java.math.BigInteger> ps, List<List<GenPolynomial<MOD>>> cms) {
+        ChineseRemainderTree crt = new ChineseRemainderTree(ps);
+        GenPolynomialRing<ModInteger> rfac = new GenPolynomialRing<ModInteger>(new ModIntegerRing(
+                        crt.getModul()), fac);
+        GenPolynomial<ModInteger> cp = PolyUtil.<MOD> chineseRemainder(rfac, crt, cms).get(0);
+        return PolyUtil.<ModInteger> integerFromModularCoefficients(fac, cp);
+    }
+
 }
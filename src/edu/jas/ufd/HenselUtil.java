@@ -16,6 +16,7 @@ import edu.jas.arith.ModIntegerRing;
 import edu.jas.arith.ModLongRing;
 import edu.jas.arith.Modular;
 import edu.jas.arith.ModularRingFactory;
+import edu.jas.poly.AlgebraicNumberRing;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
@@ -1616,6 +1617,11 @@ public class HenselUtil {
         GenPolynomialRing<MOD> mfac = new GenPolynomialRing<MOD>(mcfac, fac);
         List<GenPolynomial<MOD>> Sp = PolyUtil.fromIntegerCoefficients(mfac, Si);
         //System.out.println("Sp = " + Sp);
+        // reductions modulo f_i reuse the precomputed inverses of f_i
+        List<AlgebraicNumberRing<MOD>> Fr = new ArrayList<AlgebraicNumberRing<MOD>>(F.size());
+        for (GenPolynomial<MOD> f : F) {
+            Fr.add(new AlgebraicNumberRing<MOD>(f));
+        }
         for (int i = 1; i < k; i++) {
             //System.out.println("i = " + i);
             GenPolynomial<BigInteger> e = fac.getONE();
@@ -1645,7 +1651,7 @@ public class HenselUtil {
                 f = f.multiply(c);
                 //System.out.println("f = " + f + " : " + f.ring.coFac);
                 //System.out.println("F,i = " + F.get(j) + " : " + F.get(j).ring.coFac);
-                f = f.remainder(F.get(j++));
+                f = Fr.get(j++).remainder(f);
                 //System.out.println("f = " + f + " : " + f.ring.coFac);
                 s.add(f);
             }
@@ -1782,6 +1788,11 @@ public class HenselUtil {
         GenPolynomialRing<MOD> mfac = new GenPolynomialRing<MOD>(mcfac, fac);
         List<GenPolynomial<MOD>> Sp = PolyUtil.fromIntegerCoefficients(mfac, Si);
         //System.out.println("Sp = " + Sp);
+        // reductions modulo f_i reuse the precomputed inverses of f_i
+        List<AlgebraicNumberRing<MOD>> Fr = new ArrayList<AlgebraicNumberRing<MOD>>(F.size());
+        for (GenPolynomial<MOD> f : F) {
+            Fr.add(new AlgebraicNumberRing<MOD>(f));
+        }
         for (int i = 1; i < k; i++) {
             //System.out.println("i = " + i);
             GenPolynomial<BigInteger> e = fac.getONE();
@@ -1811,7 +1822,7 @@ public class HenselUtil {
                 f = f.multiply(c);
                 //System.out.println("f = " + f + " : " + f.ring.coFac);
                 //System.out.println("F,i = " + F.get(j) + " : " + F.get(j).ring.coFac);
-                f = f.remainder(F.get(j++));
+                f = Fr.get(j++).remainder(f);
                 //System.out.println("f = " + f + " : " + f.ring.coFac);
                 s.add(f);
             }
@@ -35,6 +35,9 @@ public class Terminator {
     private /*volatile*/ boolean done;
 
 
+    private long events;
+
+
     /**
      * Terminator.
      * @param workers number of expected threads.
@@ -44,6 +47,7 @@ public class Terminator {
         fin = new Semaphore(0);
         done = false;
         idler = 0;
+        events = 0;
         logger.info("constructor, workers = " + workers);
     }
 
@@ -68,6 +72,7 @@ public class Terminator {
             done = true;
             fin.release(); //fin.V();
         }
+        signal();
     }
 
 
@@ -86,6 +91,7 @@ public class Terminator {
                 throw new RuntimeException("idler > workers");
             }
         }
+        signal();
     }
 
 
@@ -101,6 +107,7 @@ public class Terminator {
             done = true;
             fin.release(); //fin.V();
         }
+        signal();
     }
 
 
@@ -113,6 +120,7 @@ public class Terminator {
         logger.info("allIdle");
         done = true;
         fin.release(); //fin.V();
+        signal();
     }
 
 
@@ -156,6 +164,50 @@ public class Terminator {
             fin.release(); 
         }
         //logger.info("release, idler = " + idler);
+        signal();
+    }
+
+
+    /**
+     * Notify waiting threads about new work, e.g. after pairs have been
+     * added to a pair list.
+     */
+    public synchronized void notifyWork() {
+        signal();
+    }
+
+
+    /**
+     * Count a state change and wake up threads in waitWork().
+     * Must be called with the monitor held.
+     */
+    private void signal() {
+        events++;
+        notifyAll();
+    }
+
+
+    /**
+     * getEvents.
+     * @return number of state changes so far, to be read before checking
+     *         for available work and passed to waitWork().
+     */
+    public synchronized long getEvents() {
+        return events;
+    }
+
+
+    /**
+     * Wait for new work or termination. Returns immediately if the state
+     * has changed since getEvents() returned e.
+     * @param e number of state changes seen by the caller.
+     * @return true, if there are possibly jobs, else false.
+     */
+    public synchronized boolean waitWork(long e) throws InterruptedException {
+        while (events == e && idler < workers) {
+            wait();
+        }
+        return (idler < workers);
     }
 
 
@@ -162,14 +162,20 @@ public class ThreadPool {
      * Terminates the threads.
      */
     public void terminate() {
-        while (hasJobs()) {
-            try {
-                Thread.sleep(100);
-                //logger.info("waiting for termination in " + this);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+        boolean interrupted = false;
+        synchronized (this) {
+            while (hasJobs()) {
+                try {
+                    wait(); // notified in jobDone()
+                    //logger.info("waiting for termination in " + this);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
             }
         }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
         if (workers == null) {
             return;
         }
@@ -270,6 +276,14 @@ public class ThreadPool {
     }
 
 
+    /**
+     * a job has been finished, wakes up terminate().
+     */
+    protected synchronized void jobDone() {
+        notifyAll();
+    }
+
+
     /**
      * check if there are jobs for processing.
      */
@@ -368,8 +382,12 @@ class PoolThread extends Thread {
                 }
                 t = System.currentTimeMillis();
                 isWorking = true;
-                job.run();
-                isWorking = false;
+                try {
+                    job.run();
+                } finally {
+                    isWorking = false;
+                    pool.jobDone();
+                }
                 time += System.currentTimeMillis() - t;
                 done++;
                 if (debug) {
@@ -12,7 +12,9 @@ import java.util.List;
 
 import org.apache.log4j.Logger;
 
+import edu.jas.structure.RingAccumulator;
 import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
 
 
 /**
@@ -45,8 +47,9 @@ public class BasicLinAlg<C extends RingElem<C>> implements Serializable {
      * @param F a ring element list.
      * @return the scalar product of G and F.
      */
+    @SuppressWarnings("unchecked")
     public C scalarProduct(List<C> G, List<C> F) {
-        C sp = null;
+        RingAccumulator<C> sp = null;
         Iterator<C> it = G.iterator();
         Iterator<C> jt = F.iterator();
         while (it.hasNext() && jt.hasNext()) {
@@ -56,15 +59,17 @@ public class BasicLinAlg<C extends RingElem<C>> implements Serializable {
                 continue;
             }
             if (sp == null) {
-                sp = pi.multiply(pj);
-            } else {
-                sp = sp.sum(pi.multiply(pj));
+                sp = ((RingFactory<C>) pi.factory()).getAccumulator();
             }
+            sp.addMul(pi, pj);
         }
         if (it.hasNext() || jt.hasNext()) {
             logger.error("scalarProduct wrong sizes");
         }
-        return sp;
+        if (sp == null) {
+            return null;
+        }
+        return sp.getValue();
     }
 
 
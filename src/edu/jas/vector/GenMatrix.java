@@ -12,6 +12,7 @@ import org.apache.log4j.Logger;
 
 import edu.jas.kern.PrettyPrint;
 import edu.jas.structure.AlgebraElem;
+import edu.jas.structure.RingAccumulator;
 import edu.jas.structure.RingElem;
 
 
@@ -616,6 +617,7 @@ public class GenMatrix<C extends RingElem<C>> implements AlgebraElem<GenMatrix<C
         ArrayList<ArrayList<C>> p = P.matrix;
         //System.out.println("P = " + P); 
 
+        RingAccumulator<C> acc = ring.coFac.getAccumulator();
         for (int ii = 0; ii < m.size(); ii += na) {
             for (int jj = 0; jj < t.size(); jj += nb) {
 
@@ -623,12 +625,12 @@ public class GenMatrix<C extends RingElem<C>> implements AlgebraElem<GenMatrix<C
                     ArrayList<C> Ai = m.get(i); //A[i];
                     for (int j = jj; j < Math.min((jj + nb), t.size()); j++) {
                         ArrayList<C> Bj = t.get(j); //B[j];
-                        C c = ring.coFac.getZERO();
+                        acc.clear();
                         for (int k = 0; k < Bj.size(); k++) {
-                            c = c.sum(Ai.get(k).multiply(Bj.get(k)));
+                            acc.addMul(Ai.get(k), Bj.get(k));
                             //  c += Ai[k] * Bj[k];
                         }
-                        (p.get(i)).set(j, c); // C[i][j] = c;
+                        (p.get(i)).set(j, acc.getValue()); // C[i][j] = c;
                     }
                 }
 
@@ -5,6 +5,7 @@
 package edu.jas.application;
 
 
+import java.util.ArrayList;
 import java.util.List;
 
 import junit.framework.Test;
@@ -15,6 +16,8 @@ import org.apache.log4j.BasicConfigurator;
 
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
 import edu.jas.gb.DGroebnerBaseSeq;
 import edu.jas.gb.EGroebnerBaseSeq;
 import edu.jas.gb.GBOptimized;
@@ -26,15 +29,19 @@ import edu.jas.gb.GroebnerBaseSeqIter;
 import edu.jas.gb.GroebnerBaseSigSeqIter;
 import edu.jas.gb.GroebnerBaseF5zSigSeqIter;
 import edu.jas.gb.GroebnerBaseGGVSigSeqIter;
+import edu.jas.gb.GroebnerBaseSigParIter;
 import edu.jas.gb.GroebnerBaseArriSigSeqIter;
 import edu.jas.gb.GroebnerBaseParIter;
 import edu.jas.gbufd.GBFactory;
+import edu.jas.gbufd.GroebnerBaseF4;
 import edu.jas.gbufd.GroebnerBaseFGLM;
+import edu.jas.gbufd.GroebnerBaseModular;
 import edu.jas.gbufd.GroebnerBasePseudoSeq;
 import edu.jas.gbufd.GroebnerBaseRational;
 import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.OrderedPolynomialList;
 
 
 /**
@@ -375,6 +382,14 @@ public class GBAlgorithmBuilderTest extends TestCase {
         //System.out.println("time(gb) = " + t);
         assertTrue("isGB: ", bb.isGB(gb));
 
+        bb = GBAlgorithmBuilder.<BigRational> polynomialRing(pf).concurrentPairlist().parallel().build();
+        t = System.currentTimeMillis();
+        gb = bb.GB(cp);
+        t = System.currentTimeMillis() - t;
+        //System.out.println("time(gb) = " + t);
+        assertTrue("isGB: ", bb.isGB(gb));
+        bb.terminate();
+
         assertTrue("t >= 0: ", t >= 0L); // for findbugs
     }
 
@@ -449,6 +464,90 @@ public class GBAlgorithmBuilderTest extends TestCase {
         //System.out.println("bb = " + bb);
         assertTrue("instance of " + bb, bb instanceof GroebnerBaseSigSeqIter);
         assertTrue("instance of " + bb, bb instanceof GroebnerBaseArriSigSeqIter);
+
+
+        ab = GBAlgorithmBuilder.<BigRational> polynomialRing(pf);
+        ab = ab.GGV().parallel(2);
+        //System.out.println("ab = " + ab);
+
+        bb = ab.build();
+        //System.out.println("bb = " + bb);
+        assertTrue("instance of " + bb, bb instanceof GroebnerBaseSigParIter);
+        bb.terminate();
+    }
+
+
+    /**
+     * Test construction for ModLong and F4.
+     */
+    public void testConstructionModLongF4() {
+        ModLongRing mf = new ModLongRing(32003L, true);
+        String[] vars = new String[] { "a", "b", "c" };
+        GenPolynomialRing<ModLong> pf = new GenPolynomialRing<ModLong>(mf, vars);
+
+        GBAlgorithmBuilder<ModLong> ab = GBAlgorithmBuilder.<ModLong> polynomialRing(pf);
+        ab = ab.F4();
+        //System.out.println("ab = " + ab);
+
+        GroebnerBaseAbstract<ModLong> bb = ab.build();
+        //System.out.println("bb = " + bb);
+        assertTrue("instance of " + bb, bb instanceof GroebnerBaseF4);
+
+        ab = GBAlgorithmBuilder.<ModLong> polynomialRing(pf).F4().parallel(2);
+        bb = ab.build();
+        //System.out.println("bb = " + bb);
+        assertTrue("instance of " + bb, bb instanceof GroebnerBaseF4);
+
+        List<GenPolynomial<ModLong>> L = new ArrayList<GenPolynomial<ModLong>>();
+        L.add(pf.parse("a^2 + b c - 1"));
+        L.add(pf.parse("a b - c^2 + 2"));
+        L.add(pf.parse("b^2 + a - c"));
+        //System.out.println("L = " + L);
+        List<GenPolynomial<ModLong>> G = bb.GB(L);
+        assertTrue("isGB(G): " + G, new GroebnerBaseSeq<ModLong>().isGB(G));
+
+        BigRational bf = new BigRational(1);
+        GenPolynomialRing<BigRational> rf = new GenPolynomialRing<BigRational>(bf, vars);
+        GroebnerBaseAbstract<BigRational> rb = GBAlgorithmBuilder.<BigRational> polynomialRing(rf).F4().build();
+        assertTrue("instance of " + rb, rb instanceof GroebnerBaseSeq);
+    }
+
+
+    /**
+     * Test construction for BigRational and multi-modular algorithm.
+     */
+    public void testConstructionRationalModular() {
+        BigRational bf = new BigRational(1);
+        String[] vars = new String[] { "a", "b", "c" };
+        GenPolynomialRing<BigRational> pf = new GenPolynomialRing<BigRational>(bf, vars);
+
+        GBAlgorithmBuilder<BigRational> ab = GBAlgorithmBuilder.<BigRational> polynomialRing(pf);
+        ab = ab.modular();
+        //System.out.println("ab = " + ab);
+
+        GroebnerBaseAbstract<BigRational> bb = ab.build();
+        //System.out.println("bb = " + bb);
+        assertTrue("instance of " + bb, bb instanceof GroebnerBaseModular);
+
+        ab = GBAlgorithmBuilder.<BigRational> polynomialRing(pf).modular().parallel(2);
+        bb = ab.build();
+        //System.out.println("bb = " + bb);
+        assertTrue("instance of " + bb, bb instanceof GroebnerBaseModular);
+
+        List<GenPolynomial<BigRational>> L = new ArrayList<GenPolynomial<BigRational>>();
+        L.add(pf.parse("a^2 + 3/2 b c - 1"));
+        L.add(pf.parse("a b - c^2 + 2"));
+        L.add(pf.parse("5 b^2 + a - 7/3 c"));
+        //System.out.println("L = " + L);
+        List<GenPolynomial<BigRational>> G = bb.GB(L);
+        List<GenPolynomial<BigRational>> Gs = new GroebnerBaseSeq<BigRational>().GB(L);
+        assertEquals("GB(L) == GBmod(L): ", OrderedPolynomialList.<BigRational> sort(Gs),
+                        OrderedPolynomialList.<BigRational> sort(G));
+
+        ModLongRing mf = new ModLongRing(32003L, true);
+        GenPolynomialRing<ModLong> mpf = new GenPolynomialRing<ModLong>(mf, vars);
+        GroebnerBaseAbstract<ModLong> mb = GBAlgorithmBuilder.<ModLong> polynomialRing(mpf).modular().build();
+        assertTrue("instance of " + mb, mb instanceof GroebnerBaseSeq);
     }
 
 }
@@ -15,6 +15,7 @@ import org.apache.log4j.Logger;
 import edu.jas.arith.BigDecimal;
 import edu.jas.arith.BigRational;
 import edu.jas.gb.GroebnerBase;
+import edu.jas.gb.HilbertSeries;
 import edu.jas.gbufd.GBFactory;
 import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.Complex;
@@ -830,6 +831,41 @@ public class IdealTest extends TestCase {
     }
 
 
+    /**
+     * Test Ideal Hilbert series.
+     */
+    @SuppressWarnings("unchecked")
+    public void testIdealHilbertSeries() {
+        Ideal<BigRational> I;
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        HilbertSeries hs;
+
+        I = new Ideal<BigRational>(fac, L, true);
+        hs = I.hilbertSeries();
+        assertEquals("dimension( HS(I) )", rl, hs.dimension());
+        assertEquals("multiplicity( HS(I) )", 1L, hs.multiplicity());
+
+        L.add(fac.getONE());
+        I = new Ideal<BigRational>(fac, L, true);
+        assertEquals("dimension( HS(I) )", -1, I.hilbertSeries().dimension());
+
+        L = (List<GenPolynomial<BigRational>>) fac.univariateList();
+        I = new Ideal<BigRational>(fac, L, true);
+        I = I.product(I);
+        hs = I.hilbertSeries();
+        assertEquals("dimension( HS(I) )", 0, hs.dimension());
+        assertEquals("multiplicity( HS(I) )", rl + 1L, hs.multiplicity());
+
+        L = I.getList();
+        while (L.size() > 0) {
+            L.remove(0);
+            I = new Ideal<BigRational>(fac, L, true);
+            hs = I.hilbertSeries();
+            assertEquals("dimension( HS(I) ) == dimension( I )", I.dimension().d, hs.dimension());
+        }
+    }
+
+
     /**
      * Test Ideal term order optimization.
      */
@@ -250,6 +250,49 @@ public class BigIntegerTest extends TestCase {
     }
 
 
+    /**
+     * Test long values and overflow to java.math.BigInteger.
+     */
+    public void testLongOverflow() {
+        long[] vs = new long[] { 0L, 1L, -1L, 2L, -3L, 12345L, 3037000499L, -3037000500L, 4294967296L,
+                Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 1L,
+                Long.MIN_VALUE + 1L };
+        for (long x : vs) {
+            a = new BigInteger(x);
+            java.math.BigInteger ax = java.math.BigInteger.valueOf(x);
+            assertEquals("hash(a) == hash(ax): ", ax.hashCode(), a.hashCode());
+            assertEquals("a == ax: ", ax.toString(), a.toString());
+            assertEquals("a == new(ax): ", new BigInteger(ax), a);
+            assertEquals("len(a): ", new BigInteger(ax.multiply(ax).add(ax)).bitLength(),
+                            a.multiply(a).sum(a).bitLength());
+            assertEquals("-a: ", ax.negate(), a.negate().getVal());
+            assertEquals("|a|: ", ax.abs(), a.abs().getVal());
+            assertEquals("a << 3: ", ax.shiftLeft(3), a.shiftLeft(3).getVal());
+            assertEquals("a << 40: ", ax.shiftLeft(40), a.shiftLeft(40).getVal());
+            for (long y : vs) {
+                b = new BigInteger(y);
+                java.math.BigInteger bx = java.math.BigInteger.valueOf(y);
+                assertEquals("a+b: ", ax.add(bx), a.sum(b).getVal());
+                assertEquals("a-b: ", ax.subtract(bx), a.subtract(b).getVal());
+                assertEquals("a*b: ", ax.multiply(bx), a.multiply(b).getVal());
+                assertEquals("gcd(a,b): ", ax.gcd(bx), a.gcd(b).getVal());
+                assertEquals("cmp(a,b): ", ax.compareTo(bx), a.compareTo(b));
+                c = a.multiply(b).sum(a);
+                assertEquals("cmp(a*b+a,b): ", ax.multiply(bx).add(ax).compareTo(bx), c.compareTo(b));
+                assertEquals("cmp(b,a*b+a): ", bx.compareTo(ax.multiply(bx).add(ax)), b.compareTo(c));
+                assertEquals("a*b+a-a*b == a: ", a, c.subtract(a.multiply(b)));
+                if (y == 0L) {
+                    continue;
+                }
+                assertEquals("a/b: ", ax.divide(bx), a.divide(b).getVal());
+                assertEquals("a%b: ", ax.remainder(bx), a.remainder(b).getVal());
+                BigInteger[] qr = a.quotientRemainder(b);
+                assertEquals("a = q*b+r: ", a, qr[0].multiply(b).sum(qr[1]));
+            }
+        }
+    }
+
+
     /**
      * Test iterator.
      */
@@ -0,0 +1,222 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.gb.GroebnerBaseSeq;
+import edu.jas.gb.Katsura;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolynomialList;
+import edu.jas.vector.GenMatrix;
+import edu.jas.vector.GenMatrixRing;
+
+
+/**
+ * BigRationalLazy tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class BigRationalLazyTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>BigRationalLazyTest</CODE> object.
+     * @param name String.
+     */
+    public BigRationalLazyTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(BigRationalLazyTest.class);
+        return suite;
+    }
+
+
+    BigRationalLazy fac = new BigRationalLazy();
+
+
+    BigRationalLazy a, b, c, d, e;
+
+
+    int bitlen = 100;
+
+
+    @Override
+    protected void setUp() {
+        a = b = c = d = e = null;
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = e = null;
+    }
+
+
+    /**
+     * Test constants and constructors.
+     */
+    public void testConstructor() {
+        a = fac.getZERO();
+        b = fac.getONE();
+        assertTrue("0 == 0: ", a.isZERO());
+        assertTrue("1 == 1: ", b.isONE());
+        assertTrue("1-1 == 0: ", b.subtract(b).isZERO());
+
+        a = new BigRationalLazy("6/4");
+        b = BigRationalLazy.create(new BigInteger(-9), new BigInteger(-6));
+        assertEquals("6/4 == 9/6: ", a, b);
+        assertEquals("hash(6/4) == hash(9/6): ", a.hashCode(), b.hashCode());
+        assertEquals("toString(6/4) == 3/2: ", "3/2", b.toString());
+        assertEquals("num(9/6) == 3: ", new BigInteger(3), b.numerator());
+        assertEquals("den(9/6) == 2: ", new BigInteger(2), b.denominator());
+        assertTrue("2/2 == 1: ", BigRationalLazy.create(new BigInteger(2), new BigInteger(2)).isONE());
+        try {
+            a = BigRationalLazy.create(new BigInteger(2), BigInteger.ZERO);
+            fail("2/0 must fail");
+        } catch (ArithmeticException ok) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test arithmetic compared to BigRational.
+     */
+    public void testArithmetic() {
+        for (int i = 0; i < 10; i++) {
+            BigRational ar = BigRational.ONE.random(bitlen);
+            BigRational br = BigRational.ONE.random(bitlen / 2);
+            BigRational cr = BigRational.ONE.random(bitlen / 4);
+            a = new BigRationalLazy(ar);
+            b = new BigRationalLazy(br);
+            c = new BigRationalLazy(cr);
+            assertEquals("a == a: ", ar, a.getRational());
+
+            assertEquals("a+b: ", ar.sum(br), a.sum(b).getRational());
+            assertEquals("a-b: ", ar.subtract(br), a.subtract(b).getRational());
+            assertEquals("a*b: ", ar.multiply(br), a.multiply(b).getRational());
+            if (!br.isZERO()) {
+                assertEquals("a/b: ", ar.divide(br), a.divide(b).getRational());
+                assertEquals("1/b: ", br.inverse(), b.inverse().getRational());
+            }
+            assertEquals("-a: ", ar.negate(), a.negate().getRational());
+            assertEquals("|a|: ", ar.abs(), a.abs().getRational());
+            assertEquals("cmp(a,b): ", ar.compareTo(br), a.compareTo(b));
+            assertEquals("sign(a-b): ", ar.subtract(br).signum(), a.subtract(b).signum());
+            assertEquals("toString(a): ", ar.toString(), a.toString());
+            assertEquals("hash(a): ", ar.hashCode(), a.hashCode());
+
+            // long chain without reduction
+            d = a.multiply(b).sum(c).multiply(a).subtract(c.multiply(b));
+            BigRational dr = ar.multiply(br).sum(cr).multiply(ar).subtract(cr.multiply(br));
+            assertEquals("(a*b+c)*a-c*b: ", dr, d.getRational());
+            assertEquals("(a*b+c)*a-c*b: ", new BigRationalLazy(dr), d);
+            assertEquals("hash((a*b+c)*a-c*b): ", new BigRationalLazy(dr).hashCode(), d.hashCode());
+            assertEquals("reduce(d) == d: ", d, d.reduce());
+            assertEquals("d-d == 0: ", fac.getZERO(), d.subtract(d.reduce()));
+        }
+    }
+
+
+    /**
+     * Test distributive law.
+     */
+    public void testDistributive() {
+        a = fac.random(bitlen);
+        b = fac.random(bitlen);
+        c = fac.random(bitlen);
+
+        d = a.multiply(b.sum(c));
+        e = a.multiply(b).sum(a.multiply(c));
+
+        assertEquals("a(b+c) = ab+ac", d, e);
+        assertEquals("a(b+c) = ab+ac", 0, d.compareTo(e));
+        assertEquals("a(b+c) = ab+ac", d.hashCode(), e.hashCode());
+    }
+
+
+    /**
+     * Test matrix products compared to BigRational.
+     */
+    public void testMatrix() {
+        int n = 5;
+        GenMatrixRing<BigRational> mfac = new GenMatrixRing<BigRational>(new BigRational(), n, n);
+        GenMatrixRing<BigRationalLazy> mlfac = new GenMatrixRing<BigRationalLazy>(fac, n, n);
+        Random rnd = new Random(17);
+        for (int k = 0; k < 3; k++) {
+            List<List<BigRational>> m = new ArrayList<List<BigRational>>(n);
+            List<List<BigRationalLazy>> ml = new ArrayList<List<BigRationalLazy>>(n);
+            for (int i = 0; i < n; i++) {
+                List<BigRational> row = new ArrayList<BigRational>(n);
+                List<BigRationalLazy> rowl = new ArrayList<BigRationalLazy>(n);
+                for (int j = 0; j < n; j++) {
+                    BigRational r = BigRational.ONE.random(8, rnd);
+                    row.add(r);
+                    rowl.add(new BigRationalLazy(r));
+                }
+                m.add(row);
+                ml.add(rowl);
+            }
+            GenMatrix<BigRational> A = mfac.fromList(m);
+            GenMatrix<BigRationalLazy> Al = mlfac.fromList(ml);
+            GenMatrix<BigRational> C = A.multiply(A).multiply(A);
+            GenMatrix<BigRationalLazy> Cl = Al.multiply(Al).multiply(Al);
+            assertEquals("A^3 == Al^3: ", C.toString(), Cl.toString());
+        }
+    }
+
+
+    /**
+     * Test Groebner base compared to BigRational.
+     */
+    @SuppressWarnings("unchecked")
+    public void testGB() {
+        Katsura k = new Katsura(2);
+        String exam = k.varList("Rat", "G") + " " + k.polyList();
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(new StringReader(exam));
+        PolynomialList<BigRational> K = null;
+        try {
+            K = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        GenPolynomialRing<BigRationalLazy> pfac = new GenPolynomialRing<BigRationalLazy>(fac, K.ring.nvar,
+                        K.ring.tord, K.ring.getVars());
+        List<GenPolynomial<BigRationalLazy>> F = new ArrayList<GenPolynomial<BigRationalLazy>>();
+        for (GenPolynomial<BigRational> p : K.list) {
+            F.add(pfac.parse(p.toString()));
+        }
+        List<GenPolynomial<BigRational>> G = new GroebnerBaseSeq<BigRational>().GB(K.list);
+        List<GenPolynomial<BigRationalLazy>> Gl = new GroebnerBaseSeq<BigRationalLazy>().GB(F);
+        assertEquals("G == Gl: ", G.toString(), Gl.toString());
+    }
+
+}
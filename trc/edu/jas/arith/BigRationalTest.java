@@ -324,4 +324,39 @@ public class BigRationalTest extends TestCase {
         }
         assertEquals("a = decimal(d): " + d, as, ds);
     }
+
+
+    /**
+     * Test rational reconstruction.
+     */
+    public void testRationalReconstruction() {
+        java.math.BigInteger m = new java.math.BigInteger("1000000007").multiply(
+                        new java.math.BigInteger("998244353")).multiply(new java.math.BigInteger("1000000009"));
+        BigRational fac = new BigRational();
+        BigRational dn = fac.random(20).abs().sum(fac.getONE());
+        java.math.BigInteger[] as = new java.math.BigInteger[30];
+        BigRational[] rs = new BigRational[as.length];
+        for (int i = 0; i < as.length; i++) {
+            // mostly common denominators
+            BigRational r = (i % 7 == 3 ? fac.random(30) : fac.random(20).multiply(dn));
+            rs[i] = r;
+            as[i] = r.numerator().multiply(r.denominator().modInverse(m)).mod(m);
+            BigRational s = BigRational.rationalReconstruction(as[i], m);
+            assertEquals("rr(n/d mod m) == n/d: ", r, s);
+        }
+        BigRational[] ss = BigRational.rationalReconstruction(as, m);
+        for (int i = 0; i < as.length; i++) {
+            assertEquals("rr(a)[i] == n/d: ", rs[i], ss[i]);
+        }
+        // numerator and denominator too large
+        a = new BigRational(new BigInteger(m.shiftRight(10)), new BigInteger(m.shiftRight(12).add(
+                        java.math.BigInteger.ONE)));
+        as[as.length - 1] = a.numerator().multiply(a.denominator().modInverse(m)).mod(m);
+        b = BigRational.rationalReconstruction(as[as.length - 1], m);
+        assertFalse("rr(n/d mod m) != n/d: ", a.equals(b));
+        ss = BigRational.rationalReconstruction(as, m);
+        assertTrue("rr(a) == null or rr(a)[i] == rr(a[i]): ",
+                        ss == null || (b != null && b.equals(ss[as.length - 1])));
+    }
+
 }
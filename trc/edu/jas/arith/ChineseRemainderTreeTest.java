@@ -0,0 +1,152 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * ChineseRemainderTree tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class ChineseRemainderTreeTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ChineseRemainderTreeTest</CODE> object.
+     * @param name String.
+     */
+    public ChineseRemainderTreeTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ChineseRemainderTreeTest.class);
+        return suite;
+    }
+
+
+    Random rnd = new Random();
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * List of primes.
+     * @param k number of primes.
+     * @return the first k primes of a PrimeList.
+     */
+    List<java.math.BigInteger> primes(int k) {
+        List<java.math.BigInteger> ps = new ArrayList<java.math.BigInteger>(k);
+        for (java.math.BigInteger p : new PrimeList(PrimeList.Range.large)) {
+            if (ps.size() >= k) {
+                break;
+            }
+            if (!ps.contains(p)) { // iterator may repeat primes
+                ps.add(p);
+            }
+        }
+        return ps;
+    }
+
+
+    /**
+     * Test chinese remainder for different numbers of moduli.
+     */
+    public void testChineseRemainder() {
+        for (int k : new int[] { 1, 2, 3, 7, 16, 33 }) {
+            List<java.math.BigInteger> ps = primes(k);
+            ChineseRemainderTree crt = new ChineseRemainderTree(ps);
+            assertEquals("#moduli == k: ", k, crt.size());
+            java.math.BigInteger M = java.math.BigInteger.ONE;
+            for (java.math.BigInteger p : ps) {
+                M = M.multiply(p);
+            }
+            assertEquals("M == prod(p): ", M, crt.getModul());
+            java.math.BigInteger[][] r = new java.math.BigInteger[5][k];
+            java.math.BigInteger[] x = new java.math.BigInteger[r.length];
+            for (int j = 0; j < r.length; j++) {
+                x[j] = new java.math.BigInteger(M.bitLength() + 8, rnd).mod(M);
+                for (int i = 0; i < k; i++) {
+                    r[j][i] = x[j].mod(ps.get(i));
+                }
+            }
+            r[0][0] = r[0][0].subtract(ps.get(0)); // negative residue
+            java.math.BigInteger[] y = crt.chineseRemainder(r);
+            for (int j = 0; j < r.length; j++) {
+                assertEquals("cra(x mod p_i) == x: ", x[j], y[j]);
+            }
+        }
+    }
+
+
+    /**
+     * Test chinese remainder compared to ModIntegerRing.
+     */
+    public void testCompare() {
+        List<java.math.BigInteger> ps = primes(10);
+        ChineseRemainderTree crt = new ChineseRemainderTree(ps);
+        java.math.BigInteger[] r = new java.math.BigInteger[ps.size()];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = new java.math.BigInteger(60, rnd).mod(ps.get(i));
+        }
+        // one modul after the other
+        java.math.BigInteger M = ps.get(0);
+        ModInteger x = new ModInteger(new ModIntegerRing(M), r[0]);
+        for (int i = 1; i < r.length; i++) {
+            ModIntegerRing pr = new ModIntegerRing(ps.get(i));
+            ModInteger mi = pr.fromInteger(M).inverse();
+            M = M.multiply(ps.get(i));
+            ModIntegerRing mr = new ModIntegerRing(M);
+            x = mr.chineseRemainder(x, mi, pr.fromInteger(r[i]));
+        }
+        assertEquals("M == M: ", M, crt.getModul());
+        assertEquals("cra == cra: ", x.getVal(), crt.chineseRemainder(r));
+    }
+
+
+    /**
+     * Test moduli which are not coprime.
+     */
+    public void testNotCoprime() {
+        List<java.math.BigInteger> ps = primes(3);
+        ps.add(ps.get(1).multiply(java.math.BigInteger.valueOf(3)));
+        try {
+            ChineseRemainderTree crt = new ChineseRemainderTree(ps);
+            fail("not coprime moduli " + crt);
+        } catch (ArithmeticException e) {
+            // pass
+        }
+    }
+
+}
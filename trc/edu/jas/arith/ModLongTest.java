@@ -276,6 +276,54 @@ public class ModLongTest extends TestCase {
     }
 
 
+    /**
+     * Test multiplication with large moduli.
+     */
+    public void testMultiplicationLarge() {
+        java.util.Random rnd = new java.util.Random();
+        long[] ms = new long[] { 2L, 3L, 1L << 31, (1L << 31) - 1L, (1L << 61), PrimeList.getLongPrime(59, 55)
+                        .longValue(), PrimeList.getLongPrime(62, 57).longValue(), (1L << 62) - 1L };
+        for (long m : ms) {
+            zm = new ModLongRing(m);
+            java.math.BigInteger M = java.math.BigInteger.valueOf(m);
+            for (int i = 0; i < 100; i++) {
+                a = zm.random(62, rnd);
+                b = zm.random(62, rnd);
+                if (i == 0) {
+                    a = new ModLong(zm, m - 1L);
+                    b = a;
+                }
+                c = a.multiply(b);
+                java.math.BigInteger d = java.math.BigInteger.valueOf(a.getVal())
+                                .multiply(java.math.BigInteger.valueOf(b.getVal())).mod(M);
+                assertEquals("a*b = (a*b mod m): " + m, d.longValue(), c.getVal());
+
+                c = a.sum(b);
+                d = java.math.BigInteger.valueOf(a.getVal()).add(java.math.BigInteger.valueOf(b.getVal()))
+                                .mod(M);
+                assertEquals("a+b = (a+b mod m): " + m, d.longValue(), c.getVal());
+
+                c = a.subtract(b).sum(b);
+                assertEquals("a-b+b = a: " + m, a, c);
+            }
+        }
+        zm = new ModLongRing(PrimeList.getLongPrime(62, 57).longValue());
+        a = zm.random(62);
+        if (a.isZERO()) {
+            a = zm.getONE();
+        }
+        c = a.multiply(a.inverse());
+        assertTrue("a*1/a = 1", c.isONE());
+
+        try {
+            zm = new ModLongRing(Long.MAX_VALUE);
+            fail("modul to large");
+        } catch (IllegalArgumentException expected) {
+            //ok
+        }
+    }
+
+
     /**
      * Test chinese remainder.
      */
@@ -0,0 +1,193 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * PrimeList tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class PrimeListTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>PrimeListTest</CODE> object.
+     * @param name String.
+     */
+    public PrimeListTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(PrimeListTest.class);
+        return suite;
+    }
+
+
+    Random rnd = new Random();
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Test long prime test.
+     */
+    public void testIsPrime() {
+        assertFalse("isPrime(-5): ", PrimeList.isPrime(-5L));
+        for (long n = 0L; n < 2000L; n++) {
+            assertEquals("isPrime(" + n + "): ", java.math.BigInteger.valueOf(n).isProbablePrime(50),
+                            PrimeList.isPrime(n));
+        }
+        // strong pseudoprimes and Carmichael numbers
+        long[] cs = new long[] { 561L, 1373653L, 25326001L, 3215031751L, 2152302898747L, 3474749660383L,
+                341550071728321L, 3825123056546413051L, 318665857834031151L };
+        for (long c : cs) {
+            assertFalse("isPrime(" + c + "): ", PrimeList.isPrime(c));
+        }
+        assertTrue("isPrime(2^63-25): ", PrimeList.isPrime(Long.MAX_VALUE - 24L));
+        assertTrue("isPrime(2^61-1): ", PrimeList.isPrime((1L << 61) - 1L));
+        assertFalse("isPrime(2^63-1): ", PrimeList.isPrime(Long.MAX_VALUE));
+        for (int i = 0; i < 1000; i++) {
+            long n = rnd.nextLong() >>> (1 + rnd.nextInt(40));
+            assertEquals("isPrime(" + n + "): ", java.math.BigInteger.valueOf(n).isProbablePrime(50),
+                            PrimeList.isPrime(n));
+        }
+    }
+
+
+    /**
+     * Test generated primes of given bit size.
+     */
+    public void testBits() {
+        for (int bits : new int[] { 10, 31, 32, 33, 59, 62, 63 }) {
+            PrimeList pl = new PrimeList(bits);
+            PrimitiveIterator.OfLong it = pl.longIterator();
+            java.math.BigInteger p = java.math.BigInteger.ONE.shiftLeft(bits);
+            for (int i = 0; i < 50; i++) {
+                // previous prime
+                p = p.subtract(java.math.BigInteger.ONE);
+                while (!p.isProbablePrime(50)) {
+                    p = p.subtract(java.math.BigInteger.ONE);
+                }
+                assertEquals("p_i == pl.get(i): ", p, pl.get(i));
+                assertEquals("p_i == it.next(): ", p.longValue(), it.nextLong());
+            }
+        }
+        // all primes less than 2^10
+        PrimitiveIterator.OfLong it = new PrimeList.LongPrimeIterator(1023L, false);
+        int n = 0;
+        long q = 1024L;
+        while (it.hasNext()) {
+            long p = it.nextLong();
+            assertTrue("p < q: ", p < q);
+            assertTrue("isPrime(p): ", PrimeList.isPrime(p));
+            q = p;
+            n++;
+        }
+        assertEquals("#primes < 1024: ", 172, n);
+        assertEquals("last == 2: ", 2L, q);
+        it = new PrimeList.LongPrimeIterator(0L, true);
+        for (int i = 0; i < 172; i++) {
+            q = it.nextLong();
+        }
+        assertEquals("p_172 == 1021: ", 1021L, q);
+    }
+
+
+    /**
+     * Test the fixed lists and their continuation.
+     */
+    public void testRanges() {
+        for (PrimeList.Range r : new PrimeList.Range[] { PrimeList.Range.small, PrimeList.Range.low,
+                PrimeList.Range.medium, PrimeList.Range.large }) {
+            PrimeList pl = new PrimeList(r);
+            int n = pl.size() + 40;
+            Set<java.math.BigInteger> ps = new HashSet<java.math.BigInteger>();
+            Iterator<java.math.BigInteger> it = pl.iterator();
+            PrimitiveIterator.OfLong lit = new PrimeList(r).longIterator();
+            for (int i = 0; i < n; i++) {
+                java.math.BigInteger p = it.next();
+                assertTrue("isPrime(p): " + p, p.isProbablePrime(50));
+                assertTrue("no duplicates: " + p, ps.add(p));
+                assertEquals("iterator == longIterator: ", p.longValue(), lit.nextLong());
+            }
+        }
+        PrimeList pl = new PrimeList(PrimeList.Range.small);
+        assertEquals("next small prime: ", java.math.BigInteger.valueOf(31L), pl.get(pl.size()));
+    }
+
+
+    /**
+     * Test primes for number theoretic transforms.
+     */
+    public void testNttPrimes() {
+        assertEquals("g(998244353) == 3: ", 3L, PrimeList.primitiveRoot(998244353L));
+        assertEquals("g(469762049) == 3: ", 3L, PrimeList.primitiveRoot(469762049L));
+        assertEquals("g(2013265921) == 31: ", 31L, PrimeList.primitiveRoot(2013265921L));
+        for (int[] bk : new int[][] { { 31, 20 }, { 62, 32 }, { 63, 40 } }) {
+            int bits = bk[0];
+            int k = bk[1];
+            PrimitiveIterator.OfLong it = PrimeList.nttPrimes(bits, k);
+            long q = Long.MAX_VALUE;
+            for (int i = 0; i < 5; i++) {
+                long p = it.nextLong();
+                java.math.BigInteger pb = java.math.BigInteger.valueOf(p);
+                assertTrue("p < q: ", p < q);
+                assertTrue("p < 2^bits: ", pb.bitLength() <= bits);
+                assertTrue("isPrime(p): ", pb.isProbablePrime(50));
+                assertEquals("2^k | p-1: ", 0L, (p - 1L) & ((1L << k) - 1L));
+                q = p;
+                // primitive root of unity of order 2^k
+                long n = 1L << k;
+                java.math.BigInteger w = java.math.BigInteger.valueOf(PrimeList.rootOfUnity(p, n));
+                assertEquals("w^n == 1: ", java.math.BigInteger.ONE, w.modPow(java.math.BigInteger.valueOf(n), pb));
+                assertFalse("w^(n/2) != 1: ",
+                                w.modPow(java.math.BigInteger.valueOf(n / 2), pb).equals(java.math.BigInteger.ONE));
+                long g = PrimeList.primitiveRoot(p);
+                java.math.BigInteger gb = java.math.BigInteger.valueOf(g);
+                assertFalse("g^((p-1)/2) != 1: ",
+                                gb.modPow(pb.shiftRight(1), pb).equals(java.math.BigInteger.ONE));
+            }
+        }
+        PrimitiveIterator.OfLong it = PrimeList.nttPrimes(8, 4);
+        for (long p : new long[] { 241L, 193L, 113L, 97L, 17L }) {
+            assertEquals("c 2^4 + 1: ", p, it.nextLong());
+        }
+        assertFalse("no more: ", it.hasNext());
+    }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.structure.GenericAccumulator;
+import edu.jas.structure.RingAccumulator;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * RingAccumulator tests with JUnit. Compares the accumulators with the
+ * immutable ring operations.
+ * @author Heinz Kredel.
+ */
+
+public class RingAccumulatorTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>RingAccumulatorTest</CODE> object.
+     * @param name String.
+     */
+    public RingAccumulatorTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(RingAccumulatorTest.class);
+        return suite;
+    }
+
+
+    int n = 50;
+
+
+    Random rnd = new Random();
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Compare an accumulator with the immutable ring operations.
+     * @param fac ring factory.
+     * @param acc accumulator of fac.
+     * @param L list of ring elements.
+     */
+    <C extends RingElem<C>> void check(RingFactory<C> fac, RingAccumulator<C> acc, List<C> L) {
+        assertTrue("acc == 0: ", acc.getValue().isZERO());
+        C s = fac.getZERO();
+        for (int i = 0; i + 1 < L.size(); i++) {
+            C a = L.get(i);
+            C b = L.get(i + 1);
+            switch (i % 4) {
+            case 0:
+                s = s.sum(a.multiply(b));
+                acc.addMul(a, b);
+                break;
+            case 1:
+                s = s.subtract(a.multiply(b));
+                acc.subMul(a, b);
+                break;
+            case 2:
+                s = s.sum(a);
+                acc.add(a);
+                break;
+            default:
+                s = s.subtract(b);
+                acc.subtract(b);
+                break;
+            }
+            assertEquals("acc == s: ", s, acc.getValue());
+        }
+        C t = acc.getValue();
+        assertEquals("hash(acc) == hash(s): ", s.hashCode(), t.hashCode());
+        acc.subtract(t);
+        assertTrue("acc - acc == 0: ", acc.getValue().isZERO());
+        acc.addMul(t, t);
+        acc.clear();
+        assertTrue("clear(): ", acc.getValue().isZERO());
+        acc.add(t);
+        assertEquals("0 + s == s: ", s, acc.getValue());
+    }
+
+
+    /**
+     * Random elements.
+     * @param fac ring factory.
+     * @param bits maximal bit length of the elements.
+     * @return list of n random elements.
+     */
+    <C extends RingElem<C>> List<C> randomList(RingFactory<C> fac, int bits) {
+        List<C> L = new ArrayList<C>(n);
+        for (int i = 0; i < n; i++) {
+            L.add(fac.random(1 + rnd.nextInt(bits), rnd));
+        }
+        return L;
+    }
+
+
+    /**
+     * Test BigInteger accumulator.
+     */
+    public void testBigInteger() {
+        BigInteger fac = new BigInteger();
+        for (int bits : new int[] { 10, 62, 64, 200 }) {
+            check(fac, fac.getAccumulator(), randomList(fac, bits));
+        }
+        // long overflow in the 128 bit part
+        List<BigInteger> L = new ArrayList<BigInteger>();
+        for (int i = 0; i < n; i++) {
+            L.add(new BigInteger(i % 3 == 0 ? Long.MIN_VALUE : Long.MAX_VALUE - i));
+        }
+        check(fac, fac.getAccumulator(), L);
+        RingAccumulator<BigInteger> acc = fac.getAccumulator();
+        BigInteger s = fac.getZERO();
+        BigInteger a = new BigInteger(Long.MAX_VALUE);
+        for (int i = 0; i < 100; i++) {
+            acc.addMul(a, a);
+            s = s.sum(a.multiply(a));
+        }
+        assertEquals("100 * max^2: ", s, acc.getValue());
+        for (int i = 0; i < 100; i++) {
+            acc.subMul(a, a);
+        }
+        assertTrue("sum - sum == 0: ", acc.getValue().isZERO());
+    }
+
+
+    /**
+     * Test BigRational accumulator.
+     */
+    public void testBigRational() {
+        BigRational fac = new BigRational();
+        for (int bits : new int[] { 10, 100 }) {
+            check(fac, fac.getAccumulator(), randomList(fac, bits));
+        }
+    }
+
+
+    /**
+     * Test ModLong accumulator.
+     */
+    public void testModLong() {
+        ModLongRing[] facs = new ModLongRing[] { new ModLongRing(19), new ModLongRing(2147483647L),
+                new ModLongRing(4611686018427387847L) };
+        for (ModLongRing fac : facs) {
+            check(fac, fac.getAccumulator(), randomList(fac, 62));
+        }
+    }
+
+
+    /**
+     * Test ModInteger accumulator.
+     */
+    public void testModInteger() {
+        ModIntegerRing[] facs = new ModIntegerRing[] { new ModIntegerRing(19),
+                new ModIntegerRing("170141183460469231731687303715884105727") };
+        for (ModIntegerRing fac : facs) {
+            check(fac, fac.getAccumulator(), randomList(fac, 127));
+        }
+    }
+
+
+    /**
+     * Test generic accumulator.
+     */
+    public void testGeneric() {
+        BigComplex fac = new BigComplex();
+        assertTrue("generic: ", fac.getAccumulator() instanceof GenericAccumulator);
+        check(fac, fac.getAccumulator(), randomList(fac, 50));
+        BigQuaternion qfac = new BigQuaternion();
+        check(qfac, qfac.getAccumulator(), randomList(qfac, 50)); // non commutative
+    }
+
+}
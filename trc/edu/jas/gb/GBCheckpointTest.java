@@ -0,0 +1,217 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigRational;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.PolynomialList;
+
+
+/**
+ * Groebner base checkpoint and resume tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class GBCheckpointTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Constructs a <CODE>GBCheckpointTest</CODE> object.
+     * @param name String.
+     */
+    public GBCheckpointTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GBCheckpointTest.class);
+        return suite;
+    }
+
+
+    List<GenPolynomial<BigRational>> F;
+
+
+    GenPolynomialRing<BigRational> fac;
+
+
+    File file;
+
+
+    int threads = 2;
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setUp() {
+        Katsura k = new Katsura(3);
+        String exam = k.varList("Rat", "G") + " " + k.polyList();
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            PolynomialList<BigRational> P = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+            F = PolyUtil.<BigRational> monic(P.list);
+            fac = P.ring;
+            file = File.createTempFile("jasgb", ".cp");
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+    }
+
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".tmp").delete();
+        F = null;
+        fac = null;
+    }
+
+
+    /**
+     * Test checkpoint and restore of a pairlist.
+     */
+    public void testPairlist() throws IOException {
+        OrderedPairlist<BigRational> pl = new OrderedPairlist<BigRational>(fac);
+        pl.put(F);
+        Pair<BigRational> pair = pl.removeNext();
+        assertTrue("pair != null: ", pair != null);
+
+        GBCheckpoint<BigRational> cp = pl.checkpoint();
+        cp.write(file.getPath());
+        GBCheckpoint<BigRational> rcp = GBCheckpoint.<BigRational> read(file.getPath());
+        assertEquals("ring(cp) == ring(rcp): ", cp.getRing(), rcp.getRing());
+        assertEquals("list(cp) == list(rcp): ", cp.list, rcp.list);
+        assertEquals("red(cp) == red(rcp): ", cp.red, rcp.red);
+        assertEquals("cp == rcp: ", cp.toString(), rcp.toString());
+
+        OrderedPairlist<BigRational> rpl = new OrderedPairlist<BigRational>(fac);
+        rpl.restore(rcp);
+        assertEquals("#put(pl) == #put(rpl): ", pl.putCount(), rpl.putCount());
+        assertEquals("#rem(pl) == #rem(rpl): ", pl.remCount(), rpl.remCount());
+        while (pl.hasNext()) {
+            assertTrue("hasNext(rpl): ", rpl.hasNext());
+            Pair<BigRational> p = pl.removeNext();
+            Pair<BigRational> q = rpl.removeNext();
+            if (p == null) {
+                assertTrue("q == null: " + q, q == null);
+                continue;
+            }
+            assertEquals("p.i == q.i: ", p.i, q.i);
+            assertEquals("p.j == q.j: ", p.j, q.j);
+        }
+        assertFalse("hasNext(rpl): ", rpl.hasNext());
+    }
+
+
+    /**
+     * Test resume with pending pairs.
+     */
+    public void testPending() {
+        GroebnerBaseAbstract<BigRational> bb = new GroebnerBaseSeq<BigRational>();
+        List<GenPolynomial<BigRational>> G = bb.GB(F);
+
+        // interrupted computation with pairs in reduction
+        OrderedPairlist<BigRational> pl = new OrderedPairlist<BigRational>(fac);
+        pl.put(F);
+        GBCheckpointer<BigRational> cpr = new GBCheckpointer<BigRational>(file.getPath());
+        cpr.start(pl);
+        List<Pair<BigRational>> pending = new ArrayList<Pair<BigRational>>();
+        while (pl.hasNext() && pending.size() < 3) {
+            Pair<BigRational> pair = cpr.removeNext();
+            if (pair != null) {
+                pending.add(pair);
+            }
+        }
+        Pair<BigRational> pair = pending.remove(0);
+        GenPolynomial<BigRational> H = bb.red.normalform(pl.getList(), bb.red.SPolynomial(pair.pi, pair.pj));
+        if (H.isZERO()) {
+            cpr.done(pair.i, pair.j);
+        } else {
+            cpr.put(pair.i, pair.j, H.monic());
+        }
+        GBCheckpoint<BigRational> cp = cpr.checkpoint();
+        for (Pair<BigRational> p : pending) {
+            assertTrue("pending pair outstanding: " + p, cp.red.get(p.j).get(p.i));
+        }
+
+        GroebnerBaseParallel<BigRational> pbb = new GroebnerBaseParallel<BigRational>(threads);
+        List<GenPolynomial<BigRational>> Gr = pbb.resume(cp);
+        pbb.terminate();
+        assertTrue("isGB(Gr): ", bb.isGB(Gr));
+        assertEquals("resume == seq: ", new PolynomialList<BigRational>(fac, G), new PolynomialList<BigRational>(
+                        fac, Gr));
+    }
+
+
+    /**
+     * Test parallel GB with checkpoints and resume from the file.
+     */
+    public void testParallel() throws IOException {
+        GroebnerBaseAbstract<BigRational> bb = new GroebnerBaseSeq<BigRational>();
+        List<GenPolynomial<BigRational>> G = bb.GB(F);
+
+        // write a checkpoint at every new polynomial
+        GroebnerBaseParallel<BigRational> pbb = new GroebnerBaseParallel<BigRational>(threads);
+        GBCheckpointer<BigRational> cpr = new GBCheckpointer<BigRational>(file.getPath(), 0L, 1.0);
+        pbb.setCheckpointer(cpr);
+        List<GenPolynomial<BigRational>> Gp = pbb.GB(F);
+        assertEquals("par == seq: ", new PolynomialList<BigRational>(fac, G), new PolynomialList<BigRational>(
+                        fac, Gp));
+        assertTrue("checkpoint written: " + cpr, file.length() > 0);
+
+        GBCheckpoint<BigRational> cp = GBCheckpoint.<BigRational> read(file.getPath());
+        List<GenPolynomial<BigRational>> Gr = pbb.resume(cp);
+        assertEquals("resume == seq: ", new PolynomialList<BigRational>(fac, G), new PolynomialList<BigRational>(
+                        fac, Gr));
+
+        // syzygy pairlist
+        pbb.terminate();
+        pbb = new GroebnerBaseParallel<BigRational>(threads, new ReductionPar<BigRational>(),
+                        new OrderedSyzPairlist<BigRational>());
+        pbb.setCheckpointer(cpr);
+        Gp = pbb.GB(F);
+        cp = GBCheckpoint.<BigRational> read(file.getPath());
+        Gr = pbb.resume(cp);
+        pbb.terminate();
+        assertEquals("resume == seq: ", new PolynomialList<BigRational>(fac, G), new PolynomialList<BigRational>(
+                        fac, Gr));
+    }
+
+}
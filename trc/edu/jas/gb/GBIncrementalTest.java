@@ -0,0 +1,151 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigRational;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.PolynomialList;
+
+
+/**
+ * Incremental Groebner base tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class GBIncrementalTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Constructs a <CODE>GBIncrementalTest</CODE> object.
+     * @param name String.
+     */
+    public GBIncrementalTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GBIncrementalTest.class);
+        return suite;
+    }
+
+
+    List<GenPolynomial<BigRational>> F;
+
+
+    GenPolynomialRing<BigRational> fac;
+
+
+    GroebnerBaseAbstract<BigRational> bb;
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setUp() {
+        Katsura k = new Katsura(3);
+        String exam = k.varList("Rat", "G") + " " + k.polyList();
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            PolynomialList<BigRational> P = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+            F = PolyUtil.<BigRational> monic(P.list);
+            fac = P.ring;
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (java.io.IOException e) {
+            fail("" + e);
+        }
+        bb = new GroebnerBaseSeq<BigRational>();
+    }
+
+
+    @Override
+    protected void tearDown() {
+        F = null;
+        fac = null;
+        bb = null;
+    }
+
+
+    /**
+     * Test incremental session.
+     */
+    public void testSession() {
+        List<GenPolynomial<BigRational>> G = bb.GB(F);
+
+        GBIncremental<BigRational> gbi = bb.incremental(0, fac, bb.GB(F.subList(0, 2)));
+        for (GenPolynomial<BigRational> f : F.subList(2, F.size())) {
+            assertTrue("add(f): " + f, gbi.add(f));
+        }
+        assertTrue("isGB(list): ", bb.isGB(gbi.getList()));
+        List<GenPolynomial<BigRational>> Gi = gbi.getGB();
+        assertTrue("isMinimalGB(Gi): ", bb.isMinimalGB(Gi));
+        assertEquals("GB(F) == Gi: ", new PolynomialList<BigRational>(fac, G), new PolynomialList<BigRational>(
+                        fac, Gi));
+
+        // elements of the ideal do not change the session
+        GenPolynomial<BigRational> p = F.get(0).multiply(F.get(1)).sum(F.get(2));
+        int n = gbi.getList().size();
+        assertFalse("add(p): ", gbi.add(p));
+        assertEquals("#list: ", n, gbi.getList().size());
+        assertEquals("getGB() == Gi: ", Gi, gbi.getGB());
+
+        assertTrue("add(1): ", gbi.add(fac.getONE()));
+        assertTrue("isONE(): ", gbi.isONE());
+        assertTrue("getGB() == (1): ", gbi.getGB().get(0).isONE());
+        assertFalse("add(p): ", gbi.add(p));
+    }
+
+
+    /**
+     * Test Groebner base of a Groebner base and polynomials.
+     */
+    public void testGB() {
+        List<GenPolynomial<BigRational>> G = bb.GB(F);
+        PolynomialList<BigRational> P = new PolynomialList<BigRational>(fac, G);
+
+        List<GenPolynomial<BigRational>> G1 = bb.GB(F.subList(0, 1));
+        List<GenPolynomial<BigRational>> Gi = bb.GB(G1, F.subList(1, F.size()));
+        assertEquals("GB(F) == GB(G1,F): ", P, new PolynomialList<BigRational>(fac, Gi));
+
+        Gi = bb.GB(G, F);
+        assertEquals("GB(F) == GB(G,F): ", P, new PolynomialList<BigRational>(fac, Gi));
+
+        GroebnerBaseAbstract<BigRational> sbb = new GroebnerBaseSeq<BigRational>(
+                        new OrderedSyzPairlist<BigRational>());
+        G1 = sbb.GB(F.subList(0, 2));
+        Gi = sbb.GB(G1, F.subList(2, F.size()));
+        assertEquals("GB(F) == GB(G1,F): ", P, new PolynomialList<BigRational>(fac, Gi));
+    }
+
+}
@@ -7,6 +7,7 @@ package edu.jas.gb;
 
 // import edu.jas.poly.GroebnerBase;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
@@ -24,6 +25,7 @@ import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolyUtil;
 import edu.jas.poly.PolynomialList;
 import edu.jas.util.ExecutableServer;
 
@@ -308,4 +310,53 @@ public class GroebnerBaseDistHybridECTest extends TestCase {
         //System.out.println("G = " + trinks);
     }
 
+
+    /**
+     * Test Trinks7 GBase with checkpoints and resume.
+     */
+    @SuppressWarnings("cast")
+    public void testTrinks7Checkpoint() throws IOException {
+        List<GenPolynomial<BigRational>> Gs, Gp, Gr;
+        String exam = "(B,S,T,Z,P,W) L " + "( " + "( 45 P + 35 S - 165 B - 36 ), "
+                        + "( 35 P + 40 Z + 25 T - 27 S ), " + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), "
+                        + "( - 9 W + 15 T P + 20 S Z ), " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 99 W - 11 B S + 3 B**2 ), " + "( B**2 + 33/50 B + 2673/10000 ) " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        Gs = bbseq.GB(F.list);
+
+        File file = File.createTempFile("jasgb", ".cp");
+        try {
+            GroebnerBaseDistributedHybridEC<BigRational> bbh = (GroebnerBaseDistributedHybridEC<BigRational>) bbdist;
+            GBCheckpointer<BigRational> cpr = new GBCheckpointer<BigRational>(file.getPath(), 0L, 1.0);
+            bbh.setCheckpointer(cpr);
+            Gp = bbh.GB(F.list);
+            assertTrue("Gs.containsAll(Gp)" + Gs + ", " + Gp + ", " + F, Gs.containsAll(Gp));
+            assertTrue("checkpoint written: " + cpr, file.length() > 0);
+
+            // checkpoint with pending pairs
+            OrderedPairlist<BigRational> pl = new OrderedPairlist<BigRational>(F.ring);
+            pl.put(PolyUtil.<BigRational> monic(F.list));
+            cpr.start(pl);
+            cpr.removeNext();
+            cpr.removeNext();
+            cpr.checkpoint().write(file.getPath());
+            GBCheckpoint<BigRational> cp = GBCheckpoint.<BigRational> read(file.getPath());
+            assertTrue("#pairs(cp) > 0: " + cp, cp.pairCount() > 0);
+
+            bbh.setCheckpointer(null);
+            Gr = bbh.resume(cp);
+            assertTrue("isGB( GB(Trinks7) )", bbseq.isGB(Gr));
+            assertTrue("Gs.containsAll(Gr)" + Gs + ", " + Gr + ", " + F, Gs.containsAll(Gr));
+            assertTrue("Gr.containsAll(Gs)" + Gs + ", " + Gr + ", " + F, Gr.containsAll(Gs));
+        } finally {
+            file.delete();
+        }
+    }
+
 }
@@ -0,0 +1,157 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.PolynomialList;
+import edu.jas.poly.TermOrder;
+
+
+/**
+ * Groebner base sequential Hilbert series driven tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class GroebnerBaseSeqHilbertTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GroebnerBaseSeqHilbertTest</CODE> object.
+     * @param name String.
+     */
+    public GroebnerBaseSeqHilbertTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GroebnerBaseSeqHilbertTest.class);
+        return suite;
+    }
+
+
+    List<GenPolynomial<BigRational>> F;
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setUp() {
+        Katsura k = new Katsura(3);
+        String exam = k.varList("Rat", "G") + " " + k.polyList();
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            PolynomialList<BigRational> P = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+            F = P.homogenize().list;
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+    }
+
+
+    @Override
+    protected void tearDown() {
+        F = null;
+    }
+
+
+    /**
+     * Test Hilbert series driven conversion to lexicographical term order.
+     */
+    public void testRationalConversion() {
+        GroebnerBaseAbstract<BigRational> bb = new GroebnerBaseSeq<BigRational>();
+        List<GenPolynomial<BigRational>> G = bb.GB(F);
+        HilbertSeries hs = HilbertSeries.<BigRational> leadingTermSeries(G);
+        assertEquals("dim(G) == 1: " + hs, 1, hs.dimension());
+        assertEquals("mult(G) == 8: " + hs, 8L, hs.multiplicity());
+
+        GenPolynomialRing<BigRational> lfac = new GenPolynomialRing<BigRational>(F.get(0).ring,
+                        new TermOrder(TermOrder.INVLEX));
+        List<GenPolynomial<BigRational>> Fl = lfac.copy(F);
+        GroebnerBaseSeqHilbert<BigRational> hbb = new GroebnerBaseSeqHilbert<BigRational>(hs);
+        List<GenPolynomial<BigRational>> Gl = hbb.GB(Fl);
+        assertTrue("isGB(Gl): ", bb.isGB(Gl));
+        assertEquals("hilbert == seq: ", new PolynomialList<BigRational>(lfac, bb.GB(lfac.copy(F))),
+                        new PolynomialList<BigRational>(lfac, Gl));
+        assertEquals("HS(Gl) == HS(G): ", hs, HilbertSeries.<BigRational> leadingTermSeries(Gl));
+    }
+
+
+    /**
+     * Test Hilbert series from a modular Groebner base.
+     */
+    public void testModularSeries() {
+        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), F.get(0).ring);
+        List<GenPolynomial<BigInteger>> Fi = PolyUtil.integerFromRationalCoefficients(ifac, F);
+        GenPolynomialRing<ModLong> mfac = new GenPolynomialRing<ModLong>(new ModLongRing(32003L, true),
+                        F.get(0).ring);
+        List<GenPolynomial<ModLong>> Fp = PolyUtil.<ModLong> fromIntegerCoefficients(mfac, Fi);
+        List<GenPolynomial<ModLong>> Gp = new GroebnerBaseSeq<ModLong>().GB(Fp);
+        HilbertSeries hs = HilbertSeries.<ModLong> leadingTermSeries(Gp);
+
+        GroebnerBaseAbstract<BigRational> bb = new GroebnerBaseSeq<BigRational>();
+        GroebnerBaseSeqHilbert<BigRational> hbb = new GroebnerBaseSeqHilbert<BigRational>(hs);
+        List<GenPolynomial<BigRational>> G = hbb.GB(F);
+        assertEquals("hilbert == seq: ", new PolynomialList<BigRational>(F.get(0).ring, bb.GB(F)),
+                        new PolynomialList<BigRational>(F.get(0).ring, G));
+
+        GenPolynomialRing<ModLong> lfac = new GenPolynomialRing<ModLong>(mfac, new TermOrder(TermOrder.INVLEX));
+        GroebnerBaseSeqHilbert<ModLong> mbb = new GroebnerBaseSeqHilbert<ModLong>(hs);
+        List<GenPolynomial<ModLong>> Gl = mbb.GB(lfac.copy(Fp));
+        assertEquals("hilbert == seq: ", new PolynomialList<ModLong>(lfac,
+                        new GroebnerBaseSeq<ModLong>().GB(lfac.copy(Fp))), new PolynomialList<ModLong>(lfac, Gl));
+    }
+
+
+    /**
+     * Test fall back for non homogeneous input or missing series.
+     */
+    public void testFallBack() {
+        GroebnerBaseAbstract<BigRational> bb = new GroebnerBaseSeq<BigRational>();
+        GroebnerBaseSeqHilbert<BigRational> hbb = new GroebnerBaseSeqHilbert<BigRational>();
+        assertNull("no series: ", hbb.getHilbertSeries());
+        assertEquals("no series == seq: ", bb.GB(F), hbb.GB(F));
+
+        HilbertSeries hs = HilbertSeries.<BigRational> leadingTermSeries(bb.GB(F));
+        hbb.setHilbertSeries(hs);
+        PolynomialList<BigRational> P = new PolynomialList<BigRational>(F.get(0).ring, F);
+        List<GenPolynomial<BigRational>> Fd = P.deHomogenize().list;
+        assertEquals("not homogeneous == seq: ", bb.GB(Fd), hbb.GB(Fd));
+    }
+
+}
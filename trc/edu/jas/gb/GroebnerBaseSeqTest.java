@@ -423,4 +423,34 @@ public class GroebnerBaseSeqTest extends TestCase {
         assertEquals("isGBsimple(G) == isGBidem(G)", bb.isGB(G), bb.isGB(G, false));
     }
 
+
+    /**
+     * Test Trinks7 GBase with packed polynomials.
+     */
+    @SuppressWarnings("cast")
+    public void testTrinks7GBasePacked() {
+        String exam = "(B,S,T,Z,P,W) L " + "( " + "( 45 P + 35 S - 165 B - 36 ), "
+                        + "( 35 P + 40 Z + 25 T - 27 S ), " + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), "
+                        + "( - 9 W + 15 T P + 20 S Z ), " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 99 W - 11 B S + 3 B**2 ), " + "( B**2 + 33/50 B + 2673/10000 ) " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        G = bb.GB(F.list);
+        L = F.ring.toPacked(F.list);
+        //System.out.println("L = " + L);
+        List<GenPolynomial<BigRational>> Gp = bb.GB(L);
+        assertTrue("isGB( GB(Trinks7) )", bb.isGB(Gp));
+        assertEquals("GB(Trinks7) == GB(packed(Trinks7))", G, Gp);
+        Gp = F.ring.toPacked(G);
+        assertTrue("isGB( packed(GB(Trinks7)) )", bb.isGB(Gp));
+        assertEquals("GB(GB) == GB", G, bb.GB(Gp));
+    }
+
 }
@@ -0,0 +1,213 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.PolynomialList;
+
+
+/**
+ * Groebner base sequential trace learning and replay tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class GroebnerBaseSeqTraceTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GroebnerBaseSeqTraceTest</CODE> object.
+     * @param name String.
+     */
+    public GroebnerBaseSeqTraceTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GroebnerBaseSeqTraceTest.class);
+        return suite;
+    }
+
+
+    List<GenPolynomial<BigRational>> F;
+
+
+    List<GenPolynomial<BigInteger>> Fi;
+
+
+    long[] primes = new long[] { 32003L, 2147483647L, 1000003L, 4611686018427387847L };
+
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void setUp() {
+        Katsura k = new Katsura(3);
+        String exam = k.varList("Rat", "G") + " " + k.polyList();
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            F = ((PolynomialList<BigRational>) parser.nextPolynomialSet()).list;
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), F.get(0).ring);
+        Fi = PolyUtil.integerFromRationalCoefficients(ifac, F);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        F = null;
+        Fi = null;
+    }
+
+
+    /**
+     * Input polynomials modulo a prime.
+     * @param p prime.
+     * @return Fi mod p.
+     */
+    List<GenPolynomial<ModLong>> modular(long p) {
+        GenPolynomialRing<ModLong> mfac = new GenPolynomialRing<ModLong>(new ModLongRing(p, true),
+                        F.get(0).ring);
+        return PolyUtil.<ModLong> fromIntegerCoefficients(mfac, Fi);
+    }
+
+
+    /**
+     * Test learning and replay modulo primes.
+     */
+    public void testModularReplay() {
+        GroebnerBaseSeqTrace<ModLong> tbb = new GroebnerBaseSeqTrace<ModLong>();
+        GroebnerBaseAbstract<ModLong> bb = new GroebnerBaseSeq<ModLong>();
+        assertNull("no trace: ", tbb.getTrace());
+
+        List<GenPolynomial<ModLong>> G = tbb.GB(modular(primes[0]));
+        GBTrace trace = tbb.getTrace();
+        assertTrue("trace learned: " + trace, trace != null && trace.size() > 0);
+        assertEquals("learn == seq: ", bb.GB(modular(primes[0])), G);
+
+        for (long p : primes) {
+            List<GenPolynomial<ModLong>> Fp = modular(p);
+            G = tbb.GB(Fp);
+            assertTrue("isGB(G): ", bb.isGB(G));
+            assertEquals("replay == seq: " + p, bb.GB(Fp), G);
+            assertTrue("same trace: ", trace == tbb.getTrace());
+        }
+    }
+
+
+    /**
+     * Test replay of a serialized trace.
+     */
+    public void testSerializedReplay() {
+        GroebnerBaseSeqTrace<ModLong> tbb = new GroebnerBaseSeqTrace<ModLong>();
+        tbb.GB(modular(primes[0]));
+        GBTrace trace = tbb.getTrace();
+
+        GBTrace rtrace = null;
+        try {
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bout);
+            out.writeObject(trace);
+            out.close();
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()));
+            rtrace = (GBTrace) in.readObject();
+            in.close();
+        } catch (IOException e) {
+            fail("" + e);
+        } catch (ClassNotFoundException e) {
+            fail("" + e);
+        }
+        assertEquals("size(trace) == size(rtrace): ", trace.size(), rtrace.size());
+        assertEquals("trace == rtrace: ", trace.toString(), rtrace.toString());
+
+        GroebnerBaseSeqTrace<ModLong> rbb = new GroebnerBaseSeqTrace<ModLong>(rtrace);
+        List<GenPolynomial<ModLong>> Fp = modular(primes[1]);
+        List<GenPolynomial<ModLong>> G = rbb.GB(Fp);
+        assertEquals("replay == seq: ", new GroebnerBaseSeq<ModLong>().GB(Fp), G);
+    }
+
+
+    /**
+     * Test replay over rational numbers.
+     */
+    public void testRationalReplay() {
+        GroebnerBaseSeqTrace<ModLong> tbb = new GroebnerBaseSeqTrace<ModLong>();
+        tbb.GB(modular(primes[1]));
+
+        GroebnerBaseSeqTrace<BigRational> rbb = new GroebnerBaseSeqTrace<BigRational>(tbb.getTrace());
+        List<GenPolynomial<BigRational>> G = rbb.GB(F);
+        GroebnerBaseAbstract<BigRational> bb = new GroebnerBaseSeq<BigRational>();
+        assertTrue("isGB(G): ", bb.isGB(G));
+        assertEquals("replay == seq: ", bb.GB(F), G);
+    }
+
+
+    /**
+     * Test fall back for a diverging trace.
+     */
+    public void testDivergence() {
+        GroebnerBaseSeqTrace<ModLong> tbb = new GroebnerBaseSeqTrace<ModLong>();
+        tbb.GB(modular(primes[0]));
+        GroebnerBaseAbstract<ModLong> bb = new GroebnerBaseSeq<ModLong>();
+
+        // other input shape
+        List<GenPolynomial<ModLong>> Fp = modular(primes[1]);
+        Fp.remove(Fp.size() - 1);
+        List<GenPolynomial<ModLong>> G = tbb.GB(Fp);
+        assertEquals("fall back == seq: ", bb.GB(Fp), G);
+
+        // same input head terms, other ideal
+        Fp = modular(primes[1]);
+        List<GenPolynomial<ModLong>> Fq = new ArrayList<GenPolynomial<ModLong>>();
+        GenPolynomial<ModLong> x = Fp.get(0).ring.univariate(0);
+        for (GenPolynomial<ModLong> f : Fp) {
+            Fq.add(f.sum(x));
+        }
+        G = tbb.GB(Fq);
+        assertTrue("isGB(G): ", bb.isGB(G));
+        assertEquals("fall back == seq: ", bb.GB(Fq), G);
+    }
+
+}
@@ -0,0 +1,258 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.OrderedPolynomialList;
+import edu.jas.poly.PolynomialList;
+import edu.jas.poly.TermOrderByName;
+
+
+/**
+ * Groebner base signature based parallel iterative GB tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class GroebnerBaseSigParIterTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GroebnerBaseSigParIterTest</CODE> object.
+     * @param name String.
+     */
+    public GroebnerBaseSigParIterTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GroebnerBaseSigParIterTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<BigRational> fac;
+
+
+    List<GenPolynomial<BigRational>> L, G, Gp;
+
+
+    PolynomialList<BigRational> F;
+
+
+    List<GroebnerBaseSigSeqIter<BigRational>> bbs;
+
+
+    GenPolynomial<BigRational> a, b, c, d, e;
+
+
+    int threads = 2;
+
+
+    int kl = 3;
+
+
+    int ll = 5;
+
+
+    int el = 3;
+
+
+    float q = 0.2f;
+
+
+    @Override
+    protected void setUp() {
+        BigRational coeff = new BigRational(9);
+        String[] vars = new String[] { "u", "x", "y", "z" };
+        fac = new GenPolynomialRing<BigRational>(coeff, vars, TermOrderByName.IGRLEX);
+        a = b = c = d = e = null;
+        bbs = new ArrayList<GroebnerBaseSigSeqIter<BigRational>>();
+        //bbs.add(new GroebnerBaseSigSeqIter<BigRational>()); // too many pairs
+        bbs.add(new GroebnerBaseGGVSigSeqIter<BigRational>());
+        bbs.add(new GroebnerBaseArriSigSeqIter<BigRational>());
+        bbs.add(new GroebnerBaseF5zSigSeqIter<BigRational>());
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = e = null;
+        fac = null;
+        bbs = null;
+    }
+
+
+    /**
+     * Parallel GBase compared to the sequential GBase. For some random input
+     * the sequential signature algorithms do not return a Groebner base,
+     * such input is not checked further.
+     * @param name description of L.
+     * @param sbb sequential algorithm.
+     * @param bb parallel driver of sbb.
+     * @param L list of polynomials.
+     * @return parallel GB of L, or null if the sequential result is not a GB.
+     */
+    List<GenPolynomial<BigRational>> parallelGB(String name, GroebnerBaseSigSeqIter<BigRational> sbb,
+                    GroebnerBaseSigParIter<BigRational> bb, List<GenPolynomial<BigRational>> L) {
+        Gp = sbb.GB(L);
+        if (!bb.isGB(Gp)) {
+            return null;
+        }
+        G = bb.GB(L);
+        assertTrue("isGB( " + name + " ): " + G, bb.isGB(G));
+        assertEquals("GB == GBp", OrderedPolynomialList.<BigRational> sort(Gp),
+                        OrderedPolynomialList.<BigRational> sort(G));
+        return G;
+    }
+
+
+    /**
+     * Test random parallel GBase. Arri is only tested with the fixed
+     * examples, it does not return a GB for many random inputs.
+     */
+    public void testRandomParallelGBase() {
+        a = fac.random(kl, ll, el, q);
+        b = fac.random(kl, ll, el, q);
+        c = fac.univariate(0);
+        d = fac.random(kl, ll, el, q);
+        e = d;
+
+        for (GroebnerBaseSigSeqIter<BigRational> sbb : bbs) {
+            if (sbb instanceof GroebnerBaseArriSigSeqIter) {
+                continue;
+            }
+            GroebnerBaseSigParIter<BigRational> bb = new GroebnerBaseSigParIter<BigRational>(sbb, threads);
+            L = new ArrayList<GenPolynomial<BigRational>>();
+            L.add(a);
+            L = parallelGB("{ a }", sbb, bb, L);
+            if (L != null) {
+                L.add(b);
+                L = parallelGB("{ a, b }", sbb, bb, L);
+            }
+            if (L != null) {
+                L.add(c);
+                L = parallelGB("{ a, b, c }", sbb, bb, L);
+            }
+            if (L != null) {
+                L.add(d);
+                L.add(e);
+                L = parallelGB("{ a, b, c, d, e }", sbb, bb, L);
+            }
+            bb.terminate();
+        }
+    }
+
+
+    /**
+     * Test Trinks7 GBase.
+     */
+    @SuppressWarnings({ "unchecked", "cast" })
+    public void testTrinks7GBase() {
+        String exam = "(B,S,T,Z,P,W) L " + "( " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 45 P + 35 S - 165 B - 36 ), " + "( 35 P + 40 Z + 25 T - 27 S ), "
+                        + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), " + "( - 9 W + 15 T P + 20 S Z ), "
+                        + "( 99 W - 11 B S + 3 B**2 ), " + ") ";
+
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        //System.out.println("F = " + F);
+
+        G = new GroebnerBaseSeqIter<BigRational>().GB(F.list);
+        G = OrderedPolynomialList.<BigRational> sort(G);
+        assertEquals("#GB(Trinks7) == 6", 6, G.size());
+        for (GroebnerBaseSigSeqIter<BigRational> sbb : bbs) {
+            for (int t = 1; t <= 3; t++) {
+                GroebnerBaseSigParIter<BigRational> bb = new GroebnerBaseSigParIter<BigRational>(sbb, t);
+                Gp = bb.GB(F.list);
+                assertTrue("isGB( GB(Trinks7) )", bb.isGB(Gp));
+                Gp = OrderedPolynomialList.<BigRational> sort(Gp);
+                assertEquals("GB == GBp: " + bb, G, Gp);
+                bb.terminate();
+            }
+        }
+    }
+
+
+    /**
+     * Test Katsura GBase.
+     */
+    @SuppressWarnings({ "unchecked", "cast" })
+    public void testKatsuraGBase() {
+        Katsura k = new Katsura(3);
+        String exam = k.varList("Mod 32003", "G") + " " + k.polyList();
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        PolynomialList<ModLong> K = null;
+        try {
+            K = (PolynomialList<ModLong>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        //System.out.println("K = " + K);
+
+        GroebnerBaseSigSeqIter<ModLong> sbb = new GroebnerBaseGGVSigSeqIter<ModLong>();
+        GroebnerBaseSigParIter<ModLong> bb = new GroebnerBaseSigParIter<ModLong>(sbb, threads);
+
+        List<GenPolynomial<ModLong>> Ks = sbb.GB(K.list);
+        long t1 = System.currentTimeMillis();
+        Ks = sbb.GB(K.list);
+        t1 = System.currentTimeMillis() - t1;
+        assertTrue("isGB( GB(Katsura3) )", sbb.isGB(Ks));
+
+        List<GenPolynomial<ModLong>> Kp = bb.GB(K.list);
+        long t2 = System.currentTimeMillis();
+        Kp = bb.GB(K.list);
+        t2 = System.currentTimeMillis() - t2;
+        assertTrue("isGB( GB(Katsura3) )", bb.isGB(Kp));
+        assertEquals("GB == GBp", OrderedPolynomialList.<ModLong> sort(Ks),
+                        OrderedPolynomialList.<ModLong> sort(Kp));
+        bb.terminate();
+
+        //System.out.println("seq executed in " + t1 + " milliseconds");
+        //System.out.println("par executed in " + t2 + " milliseconds");
+        long t = t1 + t2;
+        assertTrue("times >= 0: " + t, t >= 0); //findbugs and compiler
+    }
+
+}
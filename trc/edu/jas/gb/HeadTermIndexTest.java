@@ -0,0 +1,195 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.gbufd.PseudoReductionSeq;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenSolvablePolynomial;
+import edu.jas.poly.GenSolvablePolynomialRing;
+import edu.jas.poly.RelationGenerator;
+import edu.jas.poly.WeylRelations;
+
+
+/**
+ * HeadTermIndex tests with JUnit. Compares the index search with the linear
+ * scan and the normalforms with and without index.
+ * @author Heinz Kredel.
+ */
+
+public class HeadTermIndexTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>HeadTermIndexTest</CODE> object.
+     * @param name String.
+     */
+    public HeadTermIndexTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(HeadTermIndexTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<BigRational> fac;
+
+
+    int rl = 4;
+
+
+    int kl = 10;
+
+
+    int ll = 7;
+
+
+    int el = 4;
+
+
+    float q = 0.4f;
+
+
+    @Override
+    protected void setUp() {
+        fac = new GenPolynomialRing<BigRational>(new BigRational(0), rl);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        fac = null;
+    }
+
+
+    /**
+     * Test index search against linear scan.
+     */
+    public void testDivisorIndex() {
+        HeadTermIndex<BigRational> index = new HeadTermIndex<BigRational>();
+        assertTrue("isEmpty: ", index.isEmpty());
+        assertEquals("no divisor: ", -1, index.divisorIndex(ExpVector.EVRAND(rl, el, q)));
+        for (int k = 0; k < 30; k++) {
+            GenPolynomial<BigRational> a = fac.random(kl, ll, el, q);
+            if (k % 10 == 0) {
+                a = fac.getZERO();
+            }
+            int i = index.add(a);
+            assertEquals("position: ", k, i);
+            assertEquals("get: ", a, index.get(i));
+            for (int j = 0; j < 20; j++) {
+                ExpVector e = ExpVector.EVRAND(rl, 2 * el, q);
+                int l = index.divisorIndex(e);
+                assertEquals("index == linear: ", index.divisorIndexLinear(e), l);
+                if (l >= 0) {
+                    assertTrue("e | ht(p): ", e.multipleOf(index.get(l).leadingExpVector()));
+                    assertEquals("divisor: ", index.get(l), index.divisor(e));
+                } else {
+                    assertNull("divisor: ", index.divisor(e));
+                }
+            }
+            if (!a.isZERO()) {
+                ExpVector e = a.leadingExpVector();
+                assertTrue("divisor(ht(a)): ", index.divisorIndex(e) >= 0);
+            }
+        }
+        assertEquals("size: ", 30, index.size());
+        assertEquals("size: ", 30, index.getList().size());
+
+        GenPolynomialRing<BigRational> gac = new GenPolynomialRing<BigRational>(new BigRational(0), rl + 1);
+        try {
+            index.add(gac.univariate(0));
+            fail("wrong number of variables not detected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test normalform with and without index.
+     */
+    public void testNormalform() {
+        Reduction<BigRational> red = new ReductionSeq<BigRational>();
+        Reduction<BigRational> redpar = new ReductionPar<BigRational>();
+        for (int k = 0; k < 5; k++) {
+            List<GenPolynomial<BigRational>> L = new ArrayList<GenPolynomial<BigRational>>();
+            for (int i = 0; i < 4; i++) {
+                L.add(fac.random(kl, ll, el, q));
+            }
+            HeadTermIndex<BigRational> index = new HeadTermIndex<BigRational>(L);
+            GenPolynomial<BigRational> a = fac.random(kl, ll, el + 2, q);
+            GenPolynomial<BigRational> b = red.normalform(L, a);
+            assertEquals("nf(index,a) == nf(L,a): ", b, red.normalform(index, a));
+            assertEquals("nf(index,a) == nf(L,a): ", redpar.normalform(L, a), redpar.normalform(index, a));
+            assertTrue("isNF(nf(a)): ", red.isNormalform(L, b));
+        }
+
+        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(0), rl);
+        Reduction<BigInteger> pred = new PseudoReductionSeq<BigInteger>();
+        for (int k = 0; k < 5; k++) {
+            List<GenPolynomial<BigInteger>> L = new ArrayList<GenPolynomial<BigInteger>>();
+            for (int i = 0; i < 4; i++) {
+                L.add(ifac.random(kl, ll, el, q));
+            }
+            HeadTermIndex<BigInteger> index = new HeadTermIndex<BigInteger>(L);
+            GenPolynomial<BigInteger> a = ifac.random(kl, ll, el + 2, q);
+            assertEquals("nf(index,a) == nf(L,a): ", pred.normalform(L, a), pred.normalform(index, a));
+        }
+    }
+
+
+    /**
+     * Test left normalform with and without index in the Weyl algebra.
+     */
+    @SuppressWarnings("unchecked")
+    public void testLeftNormalform() {
+        GenSolvablePolynomialRing<BigRational> sfac = new GenSolvablePolynomialRing<BigRational>(
+                        new BigRational(0), rl);
+        RelationGenerator<BigRational> wl = new WeylRelations<BigRational>();
+        wl.generate(sfac);
+        SolvableReduction<BigRational> sred = new SolvableReductionSeq<BigRational>();
+        for (int k = 0; k < 5; k++) {
+            List<GenSolvablePolynomial<BigRational>> L = new ArrayList<GenSolvablePolynomial<BigRational>>();
+            HeadTermIndex<BigRational> index = new HeadTermIndex<BigRational>();
+            for (int i = 0; i < 3; i++) {
+                GenSolvablePolynomial<BigRational> p = sfac.random(kl, ll - 3, el - 1, q);
+                L.add(p);
+                index.add(p);
+            }
+            GenSolvablePolynomial<BigRational> a = sfac.random(kl, ll, el, q);
+            assertEquals("nf(index,a) == nf(L,a): ", sred.leftNormalform(L, a), sred.leftNormalform(index, a));
+        }
+    }
+
+}
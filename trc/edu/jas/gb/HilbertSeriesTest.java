@@ -0,0 +1,184 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigRational;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+
+
+/**
+ * HilbertSeries tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class HilbertSeriesTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>HilbertSeriesTest</CODE> object.
+     * @param name String.
+     */
+    public HilbertSeriesTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(HilbertSeriesTest.class);
+        return suite;
+    }
+
+
+    Random rnd = new Random();
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Number of standard monomials of degree d by enumeration.
+     * @param M generators of the monomial ideal.
+     * @param n number of variables.
+     * @param d degree.
+     * @return number of monomials of degree d not in ideal(M).
+     */
+    long standardMonomials(List<ExpVector> M, int n, int d) {
+        long c = 0;
+        long[] e = new long[n];
+        e[0] = d;
+        while (true) {
+            ExpVector f = ExpVector.create(e);
+            boolean mt = false;
+            for (ExpVector m : M) {
+                if (f.multipleOf(m)) {
+                    mt = true;
+                    break;
+                }
+            }
+            if (!mt) {
+                c++;
+            }
+            // next exponent vector of degree d
+            int i = 0;
+            while (i < n - 1 && e[i] == 0) {
+                i++;
+            }
+            if (i == n - 1) {
+                return c;
+            }
+            long x = e[i];
+            e[i] = 0;
+            e[0] = x - 1;
+            e[i + 1]++;
+        }
+    }
+
+
+    /**
+     * Test simple cases.
+     */
+    public void testSimple() {
+        List<ExpVector> M = new ArrayList<ExpVector>();
+        HilbertSeries hs = new HilbertSeries(M, 3);
+        assertEquals("dim(R) == 3: ", 3, hs.dimension());
+        assertEquals("mult(R) == 1: ", 1L, hs.multiplicity());
+        assertEquals("H(R,4) == 15: ", 15L, hs.hilbertFunction(4));
+
+        // (x^2, y^3)
+        M.add(ExpVector.create(new long[] { 2, 0 }));
+        M.add(ExpVector.create(new long[] { 0, 3 }));
+        hs = new HilbertSeries(M, 2);
+        assertEquals("dim == 0: ", 0, hs.dimension());
+        assertEquals("mult == 6: ", 6L, hs.multiplicity());
+        long[] q = hs.getReducedNumerator();
+        assertEquals("Q == 1 + 2t + 2t^2 + t^3: ", "[1, 2, 2, 1]", java.util.Arrays.toString(q));
+        assertEquals("H(4) == 0: ", 0L, hs.hilbertFunction(4));
+
+        // (xy, xz, yz)
+        M.clear();
+        M.add(ExpVector.create(new long[] { 1, 1, 0 }));
+        M.add(ExpVector.create(new long[] { 1, 0, 1 }));
+        M.add(ExpVector.create(new long[] { 0, 1, 1 }));
+        hs = new HilbertSeries(M, 3);
+        assertEquals("dim == 1: ", 1, hs.dimension());
+        assertEquals("mult == 3: ", 3L, hs.multiplicity());
+        assertEquals("H(5) == 3: ", 3L, hs.hilbertFunction(5));
+
+        // unit ideal
+        M.clear();
+        M.add(ExpVector.create(3));
+        hs = new HilbertSeries(M, 3);
+        assertEquals("dim == -1: ", -1, hs.dimension());
+        assertEquals("H(0) == 0: ", 0L, hs.hilbertFunction(0));
+    }
+
+
+    /**
+     * Test random monomial ideals.
+     */
+    public void testRandom() {
+        GenPolynomialRing<BigRational> tfac = new GenPolynomialRing<BigRational>(new BigRational(),
+                        new String[] { "t" });
+        for (int k = 0; k < 10; k++) {
+            int n = 2 + rnd.nextInt(4);
+            List<ExpVector> M = new ArrayList<ExpVector>();
+            int l = 1 + rnd.nextInt(8);
+            for (int i = 0; i < l; i++) {
+                long[] e = new long[n];
+                for (int j = 0; j < n; j++) {
+                    e[j] = rnd.nextInt(4);
+                }
+                M.add(ExpVector.create(e));
+            }
+            HilbertSeries hs = new HilbertSeries(M, n);
+            for (int d = 0; d < 14; d++) {
+                assertEquals("H(" + d + ") == #standard(" + d + "): " + M + ", " + hs,
+                                standardMonomials(M, n, d), hs.hilbertFunction(d));
+            }
+            GenPolynomial<BigRational> P = hs.hilbertPolynomial(tfac);
+            long d = 4 * n + 12; // beyond the regularity
+            BigRational h = PolyUtil_evaluate(P, d);
+            assertEquals("P(d) == H(d): " + P, new BigRational(hs.hilbertFunction(d)), h);
+        }
+    }
+
+
+    /**
+     * Evaluate a univariate polynomial.
+     */
+    BigRational PolyUtil_evaluate(GenPolynomial<BigRational> P, long d) {
+        return edu.jas.poly.PolyUtil.<BigRational> evaluateMain(new BigRational(), P, new BigRational(d));
+    }
+
+}
@@ -198,4 +198,90 @@ public class PairListTest extends TestCase {
         assertFalse("#pairlist == #spl ", t);
     }
 
+
+    /**
+     * Test and compare random OrderedPairlist and OrderedConcurrentPairlist.
+     */
+    public void testRandomConcurrentPL() {
+        pairlist = new OrderedPairlist<BigRational>(fac);
+        //System.out.println("pairlist = " + pairlist);
+
+        OrderedConcurrentPairlist<BigRational> cpl = new OrderedConcurrentPairlist<BigRational>(fac);
+        //System.out.println("cpl = " + cpl);
+
+        for (int i = 0; i < 7; i++) {
+            a = fac.random(kl, ll, el, q);
+            if (a.isZERO()) {
+                continue;
+            }
+            pairlist.put(a);
+            cpl.put(a);
+        }
+        //System.out.println("pairlist = " + pairlist);
+        //System.out.println("cpl = " + cpl);
+
+        while (pairlist.hasNext() && cpl.hasNext()) {
+            Pair<BigRational> pair = pairlist.removeNext();
+            //System.out.println("pair = " + pair);
+            Pair<BigRational> cpair = cpl.removeNext();
+            //System.out.println("cpair = " + cpair);
+            if (pair == null || cpair == null) {
+                assertTrue("pair == cpair == null ", pair == cpair);
+                continue;
+            }
+            boolean t = (pair.i == cpair.i) && (pair.j == cpair.j);
+            assertTrue("pair == cpair ", t);
+        }
+        boolean t = pairlist.hasNext() || cpl.hasNext();
+        assertFalse("#pairlist == #cpl ", t);
+        assertEquals("remCount ", pairlist.remCount(), cpl.remCount());
+    }
+
+
+    /**
+     * Test OrderedConcurrentPairlist with concurrent removeNext.
+     */
+    public void testConcurrentRemoveNext() throws InterruptedException {
+        final OrderedConcurrentPairlist<BigRational> cpl = new OrderedConcurrentPairlist<BigRational>(fac);
+        for (int i = 0; i < 15; i++) {
+            a = fac.random(kl, ll, el, q);
+            if (a.isZERO()) {
+                continue;
+            }
+            cpl.put(a);
+        }
+        final int n = cpl.size();
+        final boolean[] seen = new boolean[n * n];
+        Thread[] th = new Thread[4];
+        for (int k = 0; k < th.length; k++) {
+            th[k] = new Thread() {
+                @Override
+                public void run() {
+                    while (cpl.hasNext()) {
+                        Pair<BigRational> pair = cpl.removeNext();
+                        if (pair == null) {
+                            continue;
+                        }
+                        synchronized (seen) {
+                            assertFalse("pair twice ", seen[pair.i * n + pair.j]);
+                            seen[pair.i * n + pair.j] = true;
+                        }
+                    }
+                }
+            };
+            th[k].start();
+        }
+        for (int k = 0; k < th.length; k++) {
+            th[k].join();
+        }
+        assertFalse("cpl.hasNext() ", cpl.hasNext());
+        int c = 0;
+        for (int k = 0; k < seen.length; k++) {
+            if (seen[k]) {
+                c++;
+            }
+        }
+        assertEquals("remCount ", c, cpl.remCount());
+    }
+
 }
@@ -0,0 +1,205 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigRational;
+import edu.jas.arith.BigRationalLazy;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolynomialList;
+import edu.jas.structure.GcdRingElem;
+import edu.jas.structure.RingFactory;
+import edu.jas.vector.GenMatrix;
+import edu.jas.vector.GenMatrixRing;
+
+
+/**
+ * BigRational and BigRationalLazy timing tests with JUnit. Compares matrix
+ * products and Groebner bases with eager and lazy normalized rational
+ * coefficients, with integer entries, entries with a common denominator and
+ * random rational entries.
+ * @author Heinz Kredel
+ */
+
+public class RationalLazyTimingTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>RationalLazyTimingTest</CODE> object.
+     * @param name String.
+     */
+    public RationalLazyTimingTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(RationalLazyTimingTest.class);
+        return suite;
+    }
+
+
+    int n = 30;
+
+
+    int loops = 3;
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Random matrix with entries of the form i/d or with random entries.
+     * @param mfac matrix ring.
+     * @param d common denominator of the entries, 0 for random denominators.
+     * @param rnd random source.
+     * @return random matrix.
+     */
+    <C extends GcdRingElem<C>> GenMatrix<C> matrix(GenMatrixRing<C> mfac, int d, Random rnd) {
+        RingFactory<C> cfac = mfac.coFac;
+        C di = cfac.fromInteger(Math.max(d, 1)).inverse();
+        List<List<C>> m = new ArrayList<List<C>>(mfac.rows);
+        for (int i = 0; i < mfac.rows; i++) {
+            List<C> row = new ArrayList<C>(mfac.cols);
+            for (int j = 0; j < mfac.cols; j++) {
+                if (d == 0) {
+                    row.add(cfac.random(8, rnd));
+                } else {
+                    row.add(cfac.fromInteger(rnd.nextInt(1000) - 500).multiply(di));
+                }
+            }
+            m.add(row);
+        }
+        return mfac.fromList(m);
+    }
+
+
+    /**
+     * Time products of matrices.
+     * @param cfac coefficient factory.
+     * @param d common denominator of the entries, 0 for random denominators.
+     * @return product a*b*a*b.
+     */
+    <C extends GcdRingElem<C>> GenMatrix<C> timeMatrix(RingFactory<C> cfac, int d) {
+        GenMatrixRing<C> mfac = new GenMatrixRing<C>(cfac, n, n);
+        Random rnd = new Random(17);
+        GenMatrix<C> a = matrix(mfac, d, rnd);
+        GenMatrix<C> b = matrix(mfac, d, rnd);
+        GenMatrix<C> c = a.multiply(b).multiply(a).multiply(b); // warm up
+        long t = System.currentTimeMillis();
+        for (int i = 0; i < loops; i++) {
+            c = a.multiply(b).multiply(a).multiply(b);
+        }
+        t = System.currentTimeMillis() - t;
+        System.out.println(cfac.getClass().getSimpleName() + ", n = " + n + ", d = " + d + ", time = " + t);
+        return c;
+    }
+
+
+    /**
+     * Katsura example.
+     * @param m number of variables - 1.
+     * @return Katsura polynomials over BigRational.
+     */
+    @SuppressWarnings("unchecked")
+    PolynomialList<BigRational> katsura(int m) {
+        Katsura k = new Katsura(m);
+        String exam = k.varList("Rat", "G") + " " + k.polyList();
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(new StringReader(exam));
+        PolynomialList<BigRational> K = null;
+        try {
+            K = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        return K;
+    }
+
+
+    /**
+     * Time Groebner bases.
+     * @param cfac coefficient factory.
+     * @param K polynomial list over BigRational.
+     * @return Groebner base of K.
+     */
+    <C extends GcdRingElem<C>> List<GenPolynomial<C>> timeGB(RingFactory<C> cfac, PolynomialList<BigRational> K) {
+        GenPolynomialRing<C> pfac = new GenPolynomialRing<C>(cfac, K.ring.nvar, K.ring.tord, K.ring.getVars());
+        List<GenPolynomial<C>> F = new ArrayList<GenPolynomial<C>>();
+        for (GenPolynomial<BigRational> p : K.list) {
+            F.add(pfac.parse(p.toString()));
+        }
+        GroebnerBase<C> bb = new GroebnerBaseSeq<C>();
+        List<GenPolynomial<C>> G = bb.GB(F); // warm up
+        long t = System.currentTimeMillis();
+        for (int i = 0; i < loops; i++) {
+            G = bb.GB(F);
+        }
+        t = System.currentTimeMillis() - t;
+        System.out.println(cfac.getClass().getSimpleName() + ", #F = " + F.size() + ", #G = " + G.size()
+                        + ", time = " + t);
+        return G;
+    }
+
+
+    /**
+     * Test dummy for junit.
+     */
+    public void testDummy() {
+        assertTrue("n > 0", n > 0);
+    }
+
+
+    /**
+     * Test matrix products.
+     */
+    public void xtestMatrix() {
+        for (int d : new int[] { 1, 12, 0 }) {
+            GenMatrix<BigRational> c = timeMatrix(new BigRational(), d);
+            GenMatrix<BigRationalLazy> cl = timeMatrix(new BigRationalLazy(), d);
+            assertEquals("c == cl: ", c.toString(), cl.toString());
+        }
+    }
+
+
+    /**
+     * Test Groebner bases.
+     */
+    public void xtestGB() {
+        PolynomialList<BigRational> K = katsura(4);
+        List<GenPolynomial<BigRational>> G = timeGB(new BigRational(), K);
+        List<GenPolynomial<BigRationalLazy>> Gl = timeGB(new BigRationalLazy(), K);
+        assertEquals("G == Gl: ", G.toString(), Gl.toString());
+    }
+
+}
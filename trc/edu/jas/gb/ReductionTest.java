@@ -252,6 +252,26 @@ public class ReductionTest extends TestCase {
     }
 
 
+    /**
+     * Test rational coefficient reduction with geobuckets, compared with
+     * the parallel reduction.
+     * 
+     */
+    public void testRatReductionGeoBucket() {
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        for ( int i = 0; i < 3; i++ ) {
+            L.add( fac.random(kl, ll, el, q ) );
+        }
+        for ( int i = 0; i < 3; i++ ) {
+            a = fac.random(kl, ll * 2, el + 2, q );
+            d = red.normalform( L, a );
+            e = redpar.normalform( L, a );
+            assertEquals("nf_seq( a ) == nf_par( a )", e, d );
+            assertTrue("isNF( d )", red.isNormalform(L,d) ); 
+        }
+    }
+
+
     /**
      * Test complex coefficient reduction.
      * 
@@ -0,0 +1,191 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.GroebnerBaseSeq;
+import edu.jas.gb.Katsura;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.OrderedPolynomialList;
+import edu.jas.poly.PolynomialList;
+import edu.jas.poly.TermOrder;
+
+
+/**
+ * Groebner base F4 tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class GroebnerBaseF4Test extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Constructs a <CODE>GroebnerBaseF4Test</CODE> object.
+     * @param name String.
+     */
+    public GroebnerBaseF4Test(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GroebnerBaseF4Test.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<ModLong> fac;
+
+
+    List<GenPolynomial<ModLong>> L, G, Gp;
+
+
+    GroebnerBaseAbstract<ModLong> bb, bbf4, bbf4p;
+
+
+    int rl = 4;
+
+
+    int kl = 3;
+
+
+    int ll = 5;
+
+
+    int el = 3;
+
+
+    float q = 0.3f;
+
+
+    @Override
+    protected void setUp() {
+        ModLongRing cfac = new ModLongRing(2147483647L, true);
+        fac = new GenPolynomialRing<ModLong>(cfac, rl);
+        bb = new GroebnerBaseSeq<ModLong>();
+        bbf4 = new GroebnerBaseF4();
+        bbf4p = new GroebnerBaseF4(3);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        fac = null;
+        bb = null;
+        bbf4 = null;
+        bbf4p = null;
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Test random polynomial GBs.
+     */
+    public void testRandomGBase() {
+        for (int i = 0; i < 3; i++) {
+            L = new ArrayList<GenPolynomial<ModLong>>();
+            for (int k = 0; k < 3 + i; k++) {
+                L.add(fac.random(kl, ll, el, q));
+            }
+            G = bb.GB(L);
+            Gp = bbf4.GB(L);
+            assertTrue("isGB( GB(L) )", bb.isGB(Gp));
+            assertEquals("GB == GBf4", OrderedPolynomialList.<ModLong> sort(G),
+                            OrderedPolynomialList.<ModLong> sort(Gp));
+            Gp = bbf4p.GB(L);
+            assertEquals("GB == GBf4p", OrderedPolynomialList.<ModLong> sort(G),
+                            OrderedPolynomialList.<ModLong> sort(Gp));
+        }
+        L = new ArrayList<GenPolynomial<ModLong>>();
+        L.add(fac.univariate(0).sum(fac.getONE()));
+        L.add(fac.univariate(0));
+        G = bbf4.GB(L);
+        assertTrue("GB(x, x+1) == 1", G.size() == 1 && G.get(0).isONE());
+    }
+
+
+    /**
+     * Test Katsura GBs.
+     */
+    @SuppressWarnings("unchecked")
+    public void testKatsuraGBase() {
+        Katsura k = new Katsura(4);
+        String exam = k.varList("Mod 32003", "G") + " " + k.polyList();
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        PolynomialList<ModLong> F = null;
+        try {
+            F = (PolynomialList<ModLong>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        G = bb.GB(F.list);
+        Gp = bbf4p.GB(F.list);
+        assertTrue("isGB( GB(Katsura4) )", bb.isGB(Gp));
+        assertEquals("GB == GBf4", OrderedPolynomialList.<ModLong> sort(G),
+                        OrderedPolynomialList.<ModLong> sort(Gp));
+
+        // lexicographical term order
+        GenPolynomialRing<ModLong> lfac = new GenPolynomialRing<ModLong>(F.ring.coFac, F.ring.nvar,
+                        new TermOrder(TermOrder.INVLEX), F.ring.getVars());
+        L = lfac.copy(F.list);
+        G = bb.GB(L);
+        Gp = bbf4.GB(L);
+        assertEquals("GB == GBf4", OrderedPolynomialList.<ModLong> sort(G),
+                        OrderedPolynomialList.<ModLong> sort(Gp));
+    }
+
+
+    /**
+     * Test factory.
+     */
+    public void testConstruction() {
+        ModLongRing cfac = (ModLongRing) fac.coFac;
+        GroebnerBaseAbstract<ModLong> bbf = GBFactory.getImplementation(cfac, GBFactory.Algo.f4);
+        assertTrue("F4: " + bbf, bbf instanceof GroebnerBaseF4);
+        bbf = GBFactory.getImplementation(cfac, GBFactory.Algo.qgb);
+        assertTrue("Seq: " + bbf, bbf instanceof GroebnerBaseSeq);
+        try {
+            bbf = GBFactory.getImplementation(new ModLongRing(12L, false), GBFactory.Algo.f4);
+            fail("F4 over non field");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+}
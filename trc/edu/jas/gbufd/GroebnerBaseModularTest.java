@@ -0,0 +1,203 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigRational;
+import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.GroebnerBaseSeq;
+import edu.jas.gb.Katsura;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.OrderedPolynomialList;
+import edu.jas.poly.PolynomialList;
+import edu.jas.poly.TermOrder;
+
+
+/**
+ * Groebner base multi-modular tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class GroebnerBaseModularTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Constructs a <CODE>GroebnerBaseModularTest</CODE> object.
+     * @param name String.
+     */
+    public GroebnerBaseModularTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GroebnerBaseModularTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<BigRational> fac;
+
+
+    List<GenPolynomial<BigRational>> L, G, Gp;
+
+
+    GroebnerBaseAbstract<BigRational> bb, bbm, bbmp;
+
+
+    int rl = 3;
+
+
+    int kl = 5;
+
+
+    int ll = 4;
+
+
+    int el = 2;
+
+
+    float q = 0.3f;
+
+
+    @Override
+    protected void setUp() {
+        fac = new GenPolynomialRing<BigRational>(new BigRational(), rl);
+        bb = new GroebnerBaseSeq<BigRational>();
+        bbm = new GroebnerBaseModular();
+        bbmp = new GroebnerBaseModular(3);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        fac = null;
+        bb = null;
+        bbm = null;
+        bbmp = null;
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Test rational reconstruction.
+     */
+    public void testRationalReconstruction() {
+        java.math.BigInteger m = new java.math.BigInteger("1000000007").multiply(
+                        new java.math.BigInteger("998244353"));
+        for (int i = 0; i < 20; i++) {
+            BigRational r = new BigRational().random(25);
+            java.math.BigInteger a = r.numerator().multiply(r.denominator().modInverse(m)).mod(m);
+            BigRational s = GroebnerBaseModular.rationalReconstruction(a, m);
+            assertEquals("rr(n/d mod m) == n/d: ", r, s);
+        }
+        // numerator and denominator too large
+        BigRational r = new BigRational(new edu.jas.arith.BigInteger(m.shiftRight(10)),
+                        new edu.jas.arith.BigInteger(m.shiftRight(12).add(java.math.BigInteger.ONE)));
+        java.math.BigInteger a = r.numerator().multiply(r.denominator().modInverse(m)).mod(m);
+        BigRational s = GroebnerBaseModular.rationalReconstruction(a, m);
+        assertFalse("rr(n/d mod m) != n/d: ", r.equals(s));
+    }
+
+
+    /**
+     * Test random polynomial GBs.
+     */
+    public void testRandomGBase() {
+        for (int i = 0; i < 3; i++) {
+            L = new ArrayList<GenPolynomial<BigRational>>();
+            for (int k = 0; k < 2 + i; k++) {
+                L.add(fac.random(kl, ll, el, q));
+            }
+            G = bb.GB(L);
+            Gp = bbm.GB(L);
+            assertTrue("isGB( GB(L) )", bb.isGB(Gp));
+            assertEquals("GB == GBmod", OrderedPolynomialList.<BigRational> sort(G),
+                            OrderedPolynomialList.<BigRational> sort(Gp));
+            Gp = bbmp.GB(L);
+            assertEquals("GB == GBmodp", OrderedPolynomialList.<BigRational> sort(G),
+                            OrderedPolynomialList.<BigRational> sort(Gp));
+        }
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        L.add(fac.univariate(0).sum(fac.getONE()));
+        L.add(fac.univariate(0));
+        G = bbm.GB(L);
+        assertTrue("GB(x, x+1) == 1", G.size() == 1 && G.get(0).isONE());
+    }
+
+
+    /**
+     * Test Katsura GBs.
+     */
+    @SuppressWarnings("unchecked")
+    public void testKatsuraGBase() {
+        Katsura k = new Katsura(3);
+        String exam = k.varList("Rat", "G") + " " + k.polyList();
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        PolynomialList<BigRational> F = null;
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        G = bb.GB(F.list);
+        Gp = bbmp.GB(F.list);
+        assertEquals("GB == GBmod", OrderedPolynomialList.<BigRational> sort(G),
+                        OrderedPolynomialList.<BigRational> sort(Gp));
+
+        // lexicographical term order
+        GenPolynomialRing<BigRational> lfac = new GenPolynomialRing<BigRational>(F.ring.coFac, F.ring.nvar,
+                        new TermOrder(TermOrder.INVLEX), F.ring.getVars());
+        L = lfac.copy(F.list);
+        G = bb.GB(L);
+        Gp = bbm.GB(L);
+        assertEquals("GB == GBmod", OrderedPolynomialList.<BigRational> sort(G),
+                        OrderedPolynomialList.<BigRational> sort(Gp));
+    }
+
+
+    /**
+     * Test factory.
+     */
+    public void testConstruction() {
+        BigRational cfac = (BigRational) fac.coFac;
+        GroebnerBaseAbstract<BigRational> bbf = GBFactory.getImplementation(cfac, GBFactory.Algo.mgb);
+        assertTrue("Modular: " + bbf, bbf instanceof GroebnerBaseModular);
+        bbf = GBFactory.getImplementation(cfac, GBFactory.Algo.qgb);
+        assertTrue("Seq: " + bbf, bbf instanceof GroebnerBaseSeq);
+    }
+
+}
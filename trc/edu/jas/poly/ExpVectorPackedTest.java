@@ -0,0 +1,200 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * ExpVectorPacked tests with JUnit. Compares all operations with
+ * ExpVectorLong.
+ * @author Heinz Kredel
+ */
+
+public class ExpVectorPackedTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ExpVectorPackedTest</CODE> object.
+     * @param name String.
+     */
+    public ExpVectorPackedTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ExpVectorPackedTest.class);
+        return suite;
+    }
+
+
+    Random rnd = new Random();
+
+
+    int loops = 200;
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Random exponent array.
+     * @param n length.
+     * @param k maximal exponent.
+     * @return random exponents.
+     */
+    long[] random(int n, int k) {
+        long[] v = new long[n];
+        for (int i = 0; i < n; i++) {
+            if (rnd.nextBoolean()) {
+                v[i] = rnd.nextInt(k + 1);
+            }
+        }
+        return v;
+    }
+
+
+    /**
+     * Test constructors and conversion.
+     */
+    public void testConstructor() {
+        ExpVectorPacked a = new ExpVectorPacked(0);
+        assertTrue("() = 0", a.isZERO());
+        for (int n = 1; n <= ExpVectorPacked.MAX_VARS; n++) {
+            long[] v = random(n, 255);
+            ExpVectorPacked p = new ExpVectorPacked(v);
+            ExpVectorLong l = new ExpVectorLong(v);
+            assertEquals("len(p) == n", n, p.length());
+            assertEquals("p == l", l, p);
+            assertEquals("l == p", p, l);
+            assertEquals("p == l.toLong()", l, p.toLong());
+            assertEquals("hash(p) == hash(l)", l.hashCode(), p.hashCode());
+            assertEquals("tdeg(p) == tdeg(l)", l.totalDeg(), p.totalDeg());
+            assertEquals("maxdeg(p) == maxdeg(l)", l.maxDeg(), p.maxDeg());
+            assertEquals("p == parse(p)", p, new ExpVectorPacked(l.toString().replace(":long", "")));
+            for (int i = 0; i < n; i++) {
+                assertEquals("p[i] == l[i]", l.getVal(i), p.getVal(i));
+                assertEquals("subst(p) == subst(l)", l.subst(i, 7), p.subst(i, 7));
+                assertEquals("subst(p) == subst(l)", l.subst(i, 300), p.subst(i, 300));
+            }
+        }
+        assertTrue("fits", ExpVectorPacked.fits(new long[] { 255, 0, 1 }));
+        assertFalse("not fits", ExpVectorPacked.fits(new long[] { 256, 0, 1 }));
+        assertFalse("not fits", ExpVectorPacked.fits(new long[] { -1, 0, 1 }));
+        assertFalse("not fits", ExpVectorPacked.fits(new long[ExpVectorPacked.MAX_VARS + 1]));
+        assertTrue("packed", ExpVectorPacked.pack(new long[] { 1, 2 }) instanceof ExpVectorPacked);
+        assertTrue("long", ExpVectorPacked.pack(new long[] { 1, 1000 }) instanceof ExpVectorLong);
+        try {
+            a = new ExpVectorPacked(new long[] { 1, 256 });
+            fail("exponent to large not detected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test arithmetic with and without overflow.
+     */
+    public void testArithmetic() {
+        for (int k = 0; k < loops; k++) {
+            int n = 1 + rnd.nextInt(ExpVectorPacked.MAX_VARS);
+            long[] u = random(n, 200);
+            long[] v = random(n, 200);
+            ExpVector ap = new ExpVectorPacked(u);
+            ExpVector bp = new ExpVectorPacked(v);
+            ExpVector al = new ExpVectorLong(u);
+            ExpVector bl = new ExpVectorLong(v);
+
+            ExpVector s = ap.sum(bp);
+            assertEquals("a+b", al.sum(bl), s);
+            assertEquals("tdeg(a+b)", al.sum(bl).totalDeg(), s.totalDeg());
+            assertEquals("a+b mixed", al.sum(bl), ap.sum(bl));
+            assertEquals("a+b mixed", al.sum(bl), al.sum(bp));
+            assertEquals("a-b", al.subtract(bl), ap.subtract(bp));
+            assertEquals("a+b-b", ap, s.subtract(bp));
+            assertEquals("a+b-b mixed", ap, al.sum(bl).subtract(bp));
+            assertEquals("lcm(a,b)", al.lcm(bl), ap.lcm(bp));
+            assertEquals("gcd(a,b)", al.gcd(bl), ap.gcd(bp));
+            assertEquals("2a", al.scalarMultiply(2), ap.scalarMultiply(2));
+            assertEquals("-a", al.negate(), ap.negate());
+            assertEquals("sign(a-b)", al.subtract(bl).signum(), ap.subtract(bp).signum());
+            assertEquals("a|b", al.multipleOf(bl), ap.multipleOf(bp));
+            assertEquals("a|b mixed", al.multipleOf(bl), ap.multipleOf(bl));
+            assertEquals("b|a", bl.multipleOf(al), bp.multipleOf(ap));
+            assertTrue("a+b|a", s.multipleOf(ap));
+            assertTrue("lcm(a,b)|a", ap.lcm(bp).multipleOf(ap));
+            assertTrue("a|gcd(a,b)", ap.multipleOf(ap.gcd(bp)));
+            assertEquals("deps(a)", al.dependentVariables(), ap.dependentVariables());
+            assertEquals("rev(a)", al.reverse(), ap.reverse());
+            assertEquals("ext(a)", al.extend(1, 0, 3), ap.extend(1, 0, 3));
+            assertEquals("extl(a)", al.extendLower(2, 1, 3), ap.extendLower(2, 1, 3));
+            assertEquals("comb(a,b)", al.combine(bl), ap.combine(bp));
+        }
+    }
+
+
+    /**
+     * Test comparisons of all term orders.
+     */
+    public void testCompare() {
+        long[][] w = new long[][] { { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14 } };
+        for (int k = 0; k < loops; k++) {
+            int n = 1 + rnd.nextInt(ExpVectorPacked.MAX_VARS);
+            long[] u = random(n, 3);
+            long[] v = random(n, 3);
+            ExpVector ap = new ExpVectorPacked(u);
+            ExpVector bp = new ExpVectorPacked(v);
+            ExpVector al = new ExpVectorLong(u);
+            ExpVector bl = new ExpVectorLong(v);
+            assertEquals("a == b", al.equals(bl), ap.equals(bp));
+            assertEquals("invLex", al.invLexCompareTo(bl), ap.invLexCompareTo(bp));
+            assertEquals("invGrad", al.invGradCompareTo(bl), ap.invGradCompareTo(bp));
+            assertEquals("revInvLex", al.revInvLexCompareTo(bl), ap.revInvLexCompareTo(bp));
+            assertEquals("revInvGrad", al.revInvGradCompareTo(bl), ap.revInvGradCompareTo(bp));
+            assertEquals("invTdeg", al.invTdegCompareTo(bl), ap.invTdegCompareTo(bp));
+            assertEquals("revLexInvTdeg", al.revLexInvTdegCompareTo(bl), ap.revLexInvTdegCompareTo(bp));
+            assertEquals("invWeight", al.invWeightCompareTo(w, bl), ap.invWeightCompareTo(w, bp));
+            assertEquals("invGrad mixed", al.invGradCompareTo(bl), ap.invGradCompareTo(bl));
+            assertEquals("invGrad mixed", al.invGradCompareTo(bl), al.invGradCompareTo(bp));
+            int b = rnd.nextInt(n);
+            int e = b + rnd.nextInt(n - b + 1);
+            assertEquals("invLex", al.invLexCompareTo(bl, b, e), ap.invLexCompareTo(bp, b, e));
+            assertEquals("invGrad", al.invGradCompareTo(bl, b, e), ap.invGradCompareTo(bp, b, e));
+            assertEquals("revInvLex", al.revInvLexCompareTo(bl, b, e), ap.revInvLexCompareTo(bp, b, e));
+            assertEquals("revInvGrad", al.revInvGradCompareTo(bl, b, e), ap.revInvGradCompareTo(bp, b, e));
+            assertEquals("invWeight", al.invWeightCompareTo(w, bl, b, e), ap.invWeightCompareTo(w, bp, b, e));
+            for (int i = TermOrder.MIN_EVORD; i <= TermOrder.MAX_EVORD; i++) {
+                TermOrder to = new TermOrder(i);
+                assertEquals("cmp(a,b)", to.getAscendComparator().compare(al, bl),
+                                to.getAscendComparator().compare(ap, bp));
+            }
+        }
+    }
+
+}
@@ -573,4 +573,37 @@ public class ExpVectorTest extends TestCase {
         }
     }
 
+
+    /**
+     * Test divisor mask.
+     */
+    public void testDivisorMask() {
+        float q = (float) 0.5;
+        for (int rl : new int[] { 1, 5, 20, 70 }) {
+            for (int i = 0; i < 50; i++) {
+                a = ExpVector.EVRAND(rl, 5, q);
+                b = ExpVector.EVRAND(rl, 5, q);
+                c = a.sum(b);
+                assertTrue("a+b | a ", c.multipleOfMasked(a));
+                assertTrue("a+b | b ", c.multipleOfMasked(b));
+                assertEquals("a | b ", a.multipleOf(b), a.multipleOfMasked(b));
+                assertEquals("b | a ", b.multipleOf(a), b.multipleOfMasked(a));
+                long m = a.divisorMask();
+                assertTrue("mask(a) != -1 ", m != -1L);
+                assertTrue("mask(a) <= mask(a+b) ", (m & ~c.divisorMask()) == 0L);
+                if (a.disjointMasked(b)) {
+                    assertTrue("gcd(a,b) == 0 ", a.gcd(b).isZERO());
+                }
+                if (rl <= ExpVector.MASK_BITS) { // exact
+                    assertEquals("disjoint(a,b) == (gcd(a,b) == 0) ", a.gcd(b).isZERO(),
+                                    a.disjointMasked(b));
+                }
+            }
+        }
+        c = ExpVector.create(0);
+        assertEquals("mask(()) == 0 ", 0L, c.divisorMask());
+        long[] ms = ExpVector.maskStatistics();
+        assertTrue("#tests >= #decided ", ms[0] >= ms[1]);
+    }
+
 }
@@ -17,6 +17,7 @@ import junit.framework.TestSuite;
 import org.apache.log4j.BasicConfigurator;
 
 import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigQuaternion;
 import edu.jas.arith.BigRational;
 import edu.jas.structure.RingElem;
 import edu.jas.structure.UnaryFunctor;
@@ -606,6 +607,42 @@ public class GenPolynomialTest extends TestCase {
                         a.bitLength() + b.bitLength() >= c.bitLength());
     }
 
+
+    /**
+     * Test heap multiplication.
+     */
+    public void testMultiplyHeap() {
+        GenPolynomialRing<BigInteger> pf = new GenPolynomialRing<BigInteger>(new BigInteger(1), rl);
+        for (int i = 0; i < 5; i++) {
+            GenPolynomial<BigInteger> a = pf.random(kl, ll * (i + 1), el, q);
+            GenPolynomial<BigInteger> b = pf.random(kl, ll * (i + 2), el, q);
+            GenPolynomial<BigInteger> c = a.multiplyHeap(b);
+            GenPolynomial<BigInteger> d = a.multiplySimple(b);
+            //System.out.println("c = " + c);
+            assertEquals("a*b == a*b: ", c, d);
+            assertEquals("a*b == a*b: ", c, b.multiplyHeap(a));
+            assertEquals("a*b == a*b: ", c, a.multiply(b));
+
+            // zero products and cancellations
+            c = a.subtract(b).multiplyHeap(a.sum(b));
+            d = a.multiply(a).subtract(b.multiply(b));
+            assertEquals("(a-b)*(a+b) == a^2-b^2: ", c, d);
+            c = a.multiplyHeap(pf.getZERO());
+            assertTrue("a*0 == 0: ", c.isZERO());
+        }
+
+        // non commutative coefficients
+        GenPolynomialRing<BigQuaternion> qpf = new GenPolynomialRing<BigQuaternion>(new BigQuaternion(1), 3);
+        GenPolynomial<BigQuaternion> a = qpf.random(kl, ll, el, q);
+        GenPolynomial<BigQuaternion> b = qpf.random(kl, 2 * ll, el, q);
+        GenPolynomial<BigQuaternion> c = a.multiplyHeap(b);
+        GenPolynomial<BigQuaternion> d = a.multiplySimple(b);
+        assertEquals("a*b == a*b: ", c, d);
+        c = b.multiplyHeap(a);
+        d = b.multiplySimple(a);
+        assertEquals("b*a == b*a: ", c, d);
+    }
+
 }
 
 
@@ -0,0 +1,182 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModInteger;
+import edu.jas.arith.ModIntegerRing;
+
+
+/**
+ * GeoBucket tests with JUnit. Compares the accumulated polynomials with
+ * GenPolynomial arithmetic.
+ * @author Heinz Kredel.
+ */
+
+public class GeoBucketTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GeoBucketTest</CODE> object.
+     * @param name String.
+     */
+    public GeoBucketTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GeoBucketTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<BigRational> fac;
+
+
+    int rl = 5;
+
+
+    int kl = 7;
+
+
+    int ll = 10;
+
+
+    int el = 4;
+
+
+    float q = 0.5f;
+
+
+    @Override
+    protected void setUp() {
+        fac = new GenPolynomialRing<BigRational>(new BigRational(), rl);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        fac = null;
+    }
+
+
+    /**
+     * Test accumulation of sums and multiples.
+     */
+    public void testAccumulate() {
+        GeoBucket<BigRational> g = new GeoBucket<BigRational>(fac);
+        assertTrue("isZERO: ", g.isZERO());
+        assertNull("lm(0) == null: ", g.leadingMonomial());
+        assertTrue("p(0) == 0: ", g.getPolynomial().isZERO());
+
+        GenPolynomial<BigRational> s = fac.getZERO();
+        for (int k = 0; k < 100; k++) {
+            GenPolynomial<BigRational> a = fac.random(kl, ll + k, el, q);
+            BigRational c = fac.coFac.random(kl);
+            ExpVector e = ExpVector.EVRAND(rl, el, q);
+            switch (k % 4) {
+            case 0:
+                g.add(a);
+                s = s.sum(a);
+                break;
+            case 1:
+                g.subtract(a);
+                s = s.subtract(a);
+                break;
+            case 2:
+                g.addMultiple(c, e, a);
+                s = s.sum(a.multiply(c, e));
+                break;
+            default:
+                g.subtractMultiple(c, e, a);
+                s = s.subtractMultiple(c, e, a);
+            }
+            assertEquals("g == s: ", s, g.getPolynomial());
+            assertEquals("lt(g) == lt(s): ", s.leadingExpVector(), g.leadingExpVector());
+            assertTrue("#g >= #s: ", g.length() >= s.length());
+        }
+        BigRational d = fac.coFac.random(kl);
+        g.multiply(d);
+        s = s.multiply(d);
+        assertEquals("g*d == s*d: ", s, g.getPolynomial());
+
+        g.subtract(g.getPolynomial());
+        assertTrue("g-g == 0: ", g.isZERO());
+    }
+
+
+    /**
+     * Test leading monomial extraction and cancellation.
+     */
+    public void testLeadingMonomial() {
+        GenPolynomial<BigRational> a = fac.random(kl, ll, el, q);
+        GenPolynomial<BigRational> b = fac.random(kl, 3 * ll, el, q);
+        GeoBucket<BigRational> g = new GeoBucket<BigRational>(a);
+        g.add(b);
+        GenPolynomial<BigRational> s = a.sum(b);
+        GenPolynomial<BigRational> r = fac.getZERO().copy();
+        while (!g.isZERO()) {
+            Map.Entry<ExpVector, BigRational> m = g.leadingMonomial();
+            assertEquals("lm(g) == lm(s): ", s.leadingMonomial(), m);
+            ExpVector e = m.getKey();
+            BigRational c = m.getValue();
+            Map.Entry<ExpVector, BigRational> n = g.doRemoveLeadingMonomial();
+            assertEquals("lt(g) == removed: ", e, n.getKey());
+            assertEquals("lc(g) == removed: ", c, n.getValue());
+            r.doPutToMap(n.getKey(), n.getValue());
+            s = s.reductum();
+        }
+        assertTrue("s == 0: ", s.isZERO());
+        assertEquals("a+b == r: ", a.sum(b), r);
+
+        // leading terms cancel in different buckets
+        g = new GeoBucket<BigRational>(b);
+        g.subtract(fac.getONE().multiply(b.leadingBaseCoefficient(), b.leadingExpVector()));
+        assertEquals("lt(b-lm(b)): ", b.reductum().leadingExpVector(), g.leadingExpVector());
+        assertEquals("b-lm(b): ", b.reductum(), g.getPolynomial());
+    }
+
+
+    /**
+     * Test with zero divisors.
+     */
+    public void testZeroDivisors() {
+        ModIntegerRing mf = new ModIntegerRing(12);
+        GenPolynomialRing<ModInteger> pf = new GenPolynomialRing<ModInteger>(mf, rl);
+        ModInteger c = mf.fromInteger(4);
+        ModInteger d = mf.fromInteger(3);
+        GenPolynomial<ModInteger> a = pf.random(kl, ll, el, q);
+        GenPolynomial<ModInteger> b = pf.random(kl, ll, el, q);
+        GeoBucket<ModInteger> g = new GeoBucket<ModInteger>(a);
+        g.scaleSubtractMultiple(d, c, pf.evzero, b);
+        assertEquals("a*d-c*b: ", a.scaleSubtractMultiple(d, c, pf.evzero, b), g.getPolynomial());
+        g.multiply(c);
+        assertEquals("(a*d-c*b)*c: ", a.scaleSubtractMultiple(d, c, pf.evzero, b).multiply(c),
+                        g.getPolynomial());
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * ModLongDenseGcd tests with JUnit. Compares the half gcd with the classical
+ * Euclidean algorithm.
+ * @author Heinz Kredel
+ */
+
+public class ModLongDenseGcdTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ModLongDenseGcdTest</CODE> object.
+     * @param name String.
+     */
+    public ModLongDenseGcdTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ModLongDenseGcdTest.class);
+        return suite;
+    }
+
+
+    ModLongRing[] mfs = new ModLongRing[] { new ModLongRing(2L, true), new ModLongRing(19L, true),
+            new ModLongRing(2147483647L, true), new ModLongRing(4611686018427387847L, true) };
+
+
+    Random rnd = new Random();
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Random dense univariate polynomial.
+     * @param fac univariate polynomial ring.
+     * @param l degree.
+     * @return polynomial of degree l with about 3/4 of the coefficients non
+     *         zero.
+     */
+    GenPolynomial<ModLong> random(GenPolynomialRing<ModLong> fac, int l) {
+        ModLongRing p = (ModLongRing) fac.coFac;
+        ModLong c = p.random(62, rnd);
+        GenPolynomial<ModLong> a = fac.univariate(0, l).multiply(c.isZERO() ? p.getONE() : c);
+        for (int i = 0; i < l; i++) {
+            if (rnd.nextInt(4) != 0) {
+                a = a.sum(fac.univariate(0, i).multiply(p.random(62, rnd)));
+            }
+        }
+        return a;
+    }
+
+
+    /**
+     * Classical extended Euclidean algorithm.
+     * @param A polynomial.
+     * @param S polynomial.
+     * @return [ g, a, b ] with monic g = a A + b S.
+     */
+    @SuppressWarnings("unchecked")
+    GenPolynomial<ModLong>[] egcd(GenPolynomial<ModLong> A, GenPolynomial<ModLong> S) {
+        GenPolynomialRing<ModLong> fac = A.ring;
+        GenPolynomial<ModLong> q = A;
+        GenPolynomial<ModLong> r = S;
+        GenPolynomial<ModLong> c1 = fac.getONE();
+        GenPolynomial<ModLong> d1 = fac.getZERO();
+        GenPolynomial<ModLong> c2 = fac.getZERO();
+        GenPolynomial<ModLong> d2 = fac.getONE();
+        while (!r.isZERO()) {
+            ModLong ci = r.leadingBaseCoefficient().inverse();
+            ExpVector e = r.leadingExpVector();
+            GenPolynomial<ModLong> x = fac.getZERO();
+            GenPolynomial<ModLong> y = q;
+            while (!y.isZERO() && y.leadingExpVector().multipleOf(e)) {
+                ExpVector f = y.leadingExpVector().subtract(e);
+                ModLong a = y.leadingBaseCoefficient().multiply(ci);
+                x = x.sum(a, f);
+                y = y.subtract(r.multiply(a, f));
+            }
+            GenPolynomial<ModLong> x1 = c1.subtract(x.multiplyHeap(d1));
+            GenPolynomial<ModLong> x2 = c2.subtract(x.multiplyHeap(d2));
+            c1 = d1;
+            c2 = d2;
+            d1 = x1;
+            d2 = x2;
+            q = r;
+            r = y;
+        }
+        ModLong h = q.leadingBaseCoefficient().inverse();
+        return new GenPolynomial[] { q.multiply(h), c1.multiply(h), c2.multiply(h) };
+    }
+
+
+    /**
+     * Test gcd and extended gcd.
+     */
+    public void testGcd() {
+        int[][] ds = new int[][] { { 40, 33, 0 }, { 300, 200, 0 }, { 300, 299, 17 }, { 1000, 130, 3 },
+                { 700, 700, 100 }, { 129, 500, 0 }, { 1000, 800, 200 } };
+        for (ModLongRing p : mfs) {
+            GenPolynomialRing<ModLong> fac = new GenPolynomialRing<ModLong>(p, 1);
+            for (int[] d : ds) {
+                GenPolynomial<ModLong> C = random(fac, d[2]);
+                GenPolynomial<ModLong> A = random(fac, d[0]).multiply(C);
+                GenPolynomial<ModLong> B = random(fac, d[1]).multiply(C);
+                assertTrue("dense(A,B): ", ModLongDenseGcd.isDenseGcd(A, B));
+                GenPolynomial<ModLong>[] e = egcd(A, B);
+                assertTrue("C | gcd(A,B): ", e[0].remainder(C).isZERO());
+                GenPolynomial<ModLong> g = ModLongDenseGcd.gcd(A, B);
+                assertEquals("gcd == classical: ", e[0], g);
+                assertEquals("gcd == A.gcd(B): ", g, A.gcd(B));
+                GenPolynomial<ModLong>[] f = ModLongDenseGcd.egcd(A, B);
+                assertEquals("egcd == classical: ", e[0], f[0]);
+                assertEquals("a == classical: ", e[1], f[1]);
+                assertEquals("b == classical: ", e[2], f[2]);
+                assertEquals("a A + b S == g: ", g, f[1].multiply(A).sum(f[2].multiply(B)));
+                f = A.egcd(B);
+                assertEquals("A.egcd(B) == classical: ", e[0], f[0]);
+                assertEquals("a == classical: ", e[1], f[1]);
+                assertEquals("b == classical: ", e[2], f[2]);
+                f = A.hegcd(B);
+                assertEquals("A.hegcd(B) == classical: ", e[0], f[0]);
+                assertEquals("a == classical: ", e[1], f[1]);
+            }
+        }
+    }
+
+
+    /**
+     * Test modular inverse.
+     */
+    public void testModInverse() {
+        ModLongRing p = mfs[2];
+        GenPolynomialRing<ModLong> fac = new GenPolynomialRing<ModLong>(p, 1);
+        GenPolynomial<ModLong> m = random(fac, 600);
+        GenPolynomial<ModLong> a = random(fac, 500);
+        while (!a.gcd(m).isONE()) {
+            a = random(fac, 500);
+        }
+        GenPolynomial<ModLong> b = a.modInverse(m);
+        assertTrue("a b == 1 mod m: ", a.multiply(b).remainder(m).isONE());
+    }
+
+
+    /**
+     * Test sparse polynomials.
+     */
+    public void testSparse() {
+        GenPolynomialRing<ModLong> fac = new GenPolynomialRing<ModLong>(mfs[2], 1);
+        GenPolynomial<ModLong> x = fac.univariate(0);
+        GenPolynomial<ModLong> a = x.power(1000).subtract(fac.getONE());
+        GenPolynomial<ModLong> b = x.power(600).subtract(fac.getONE());
+        assertFalse("dense(a,b): ", ModLongDenseGcd.isDenseGcd(a, b));
+        assertNull("sparse gcd(a,b): ", ModLongDenseGcd.gcd(a, b));
+        assertEquals("gcd(a,b) == x^200-1: ", x.power(200).subtract(fac.getONE()), a.gcd(b));
+    }
+
+}
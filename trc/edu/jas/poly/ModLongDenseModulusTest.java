@@ -0,0 +1,178 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * ModLongDenseModulus tests with JUnit. Compares the division with the power
+ * series inverse with the classical division.
+ * @author Heinz Kredel
+ */
+
+public class ModLongDenseModulusTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ModLongDenseModulusTest</CODE> object.
+     * @param name String.
+     */
+    public ModLongDenseModulusTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ModLongDenseModulusTest.class);
+        return suite;
+    }
+
+
+    ModLongRing[] mfs = new ModLongRing[] { new ModLongRing(2L, true), new ModLongRing(19L, true),
+            new ModLongRing(2147483647L, true), new ModLongRing(4611686018427387847L, true) };
+
+
+    Random rnd = new Random();
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Random dense univariate polynomial.
+     * @param fac univariate polynomial ring.
+     * @param l degree.
+     * @return polynomial of degree l with about 3/4 of the coefficients non
+     *         zero.
+     */
+    GenPolynomial<ModLong> random(GenPolynomialRing<ModLong> fac, int l) {
+        ModLongRing p = (ModLongRing) fac.coFac;
+        ModLong c = p.random(62, rnd);
+        GenPolynomial<ModLong> a = fac.univariate(0, l).multiply(c.isZERO() ? p.getONE() : c);
+        for (int i = 0; i < l; i++) {
+            if (rnd.nextInt(4) != 0) {
+                a = a.sum(fac.univariate(0, i).multiply(p.random(62, rnd)));
+            }
+        }
+        return a;
+    }
+
+
+    /**
+     * Classical remainder.
+     * @param A polynomial.
+     * @param S polynomial.
+     * @return A mod S.
+     */
+    GenPolynomial<ModLong> remainder(GenPolynomial<ModLong> A, GenPolynomial<ModLong> S) {
+        ModLong ci = S.leadingBaseCoefficient().inverse();
+        ExpVector e = S.leadingExpVector();
+        GenPolynomial<ModLong> r = A;
+        while (!r.isZERO() && r.leadingExpVector().multipleOf(e)) {
+            ExpVector f = r.leadingExpVector().subtract(e);
+            r = r.subtract(S.multiply(r.leadingBaseCoefficient().multiply(ci), f));
+        }
+        return r;
+    }
+
+
+    /**
+     * Test quotient and remainder.
+     */
+    public void testQuotientRemainder() {
+        int[][] ds = new int[][] { { 10, 3 }, { 300, 200 }, { 300, 100 }, { 1000, 130 }, { 2000, 1000 },
+                { 600, 599 }, { 4000, 129 } };
+        for (ModLongRing p : mfs) {
+            GenPolynomialRing<ModLong> fac = new GenPolynomialRing<ModLong>(p, 1);
+            for (int[] d : ds) {
+                GenPolynomial<ModLong> A = random(fac, d[0]);
+                GenPolynomial<ModLong> S = random(fac, d[1]);
+                ModLongDenseModulus D = new ModLongDenseModulus(S);
+                assertEquals("deg(D) == deg(S): ", d[1], D.degree());
+                GenPolynomial<ModLong>[] qr = D.quotientRemainder(A);
+                assertEquals("A == q S + r: ", A, qr[0].multiply(S).sum(qr[1]));
+                assertTrue("deg(r) < deg(S): ", qr[1].isZERO() || qr[1].degree(0) < d[1]);
+                GenPolynomial<ModLong> r = remainder(A, S);
+                assertEquals("r == classical: ", r, qr[1]);
+                assertEquals("r == D.remainder(A): ", r, D.remainder(A));
+                assertEquals("r == A.remainder(S): ", r, A.remainder(S));
+                assertEquals("r == packed: ", r, fac.toPacked(A).remainder(S));
+                assertEquals("r == prem(A,S): ", r, PolyUtil.baseSparsePseudoRemainder(A, S));
+                GenPolynomial<ModLong>[] qr2 = A.quotientRemainder(S);
+                assertEquals("q == q2: ", qr[0], qr2[0]);
+                assertEquals("r == r2: ", qr[1], qr2[1]);
+                // multiple of S, the cached inverse is extended
+                GenPolynomial<ModLong> B = random(fac, 2 * d[0]).multiply(S);
+                assertTrue("S | B: ", D.remainder(B).isZERO());
+                assertEquals("(B S)/S == B: ", B, D.quotientRemainder(B.multiply(S))[0]);
+            }
+        }
+    }
+
+
+    /**
+     * Test not invertible leading coefficient.
+     */
+    public void testNotInvertible() {
+        ModLongRing p = new ModLongRing(12L);
+        GenPolynomialRing<ModLong> fac = new GenPolynomialRing<ModLong>(p, 1);
+        GenPolynomial<ModLong> S = fac.univariate(0, 3).multiply(p.fromInteger(4));
+        try {
+            ModLongDenseModulus D = new ModLongDenseModulus(S);
+            fail("lbc not invertible " + D);
+        } catch (ArithmeticException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test algebraic numbers with a dense modul.
+     */
+    public void testAlgebraicNumber() {
+        ModLongRing p = mfs[2];
+        GenPolynomialRing<ModLong> fac = new GenPolynomialRing<ModLong>(p, 1);
+        GenPolynomial<ModLong> m = random(fac, 300).monic();
+        AlgebraicNumberRing<ModLong> afac = new AlgebraicNumberRing<ModLong>(m);
+        AlgebraicNumber<ModLong> a = afac.random(30);
+        AlgebraicNumber<ModLong> b = afac.random(30);
+        AlgebraicNumber<ModLong> c = a.multiply(b);
+        assertEquals("a*b mod m: ", remainder(a.getVal().multiply(b.getVal()), m), c.getVal());
+        assertEquals("afac.remainder(a b): ", c.getVal(), afac.remainder(a.getVal().multiply(b.getVal())));
+        AlgebraicNumber<ModLong> d = a.power(5);
+        GenPolynomial<ModLong> e = a.getVal();
+        for (int i = 1; i < 5; i++) {
+            e = remainder(e.multiply(a.getVal()), m);
+        }
+        assertEquals("a^5 mod m: ", e, d.getVal());
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * ModLongDenseMultiply tests with JUnit. Compares the dense algorithms with
+ * the heap based multiplication of GenPolynomial.
+ * @author Heinz Kredel
+ */
+
+public class ModLongDenseMultiplyTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ModLongDenseMultiplyTest</CODE> object.
+     * @param name String.
+     */
+    public ModLongDenseMultiplyTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ModLongDenseMultiplyTest.class);
+        return suite;
+    }
+
+
+    ModLongRing[] mfs = new ModLongRing[] { new ModLongRing(2L), new ModLongRing(19L),
+            new ModLongRing(2147483647L), new ModLongRing(4294967291L), new ModLongRing(1000000000000L),
+            new ModLongRing(4611686018427387847L) };
+
+
+    Random rnd = new Random();
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Random dense coefficients.
+     * @param p coefficient ring.
+     * @param l length.
+     * @return array of l random values modulo p.
+     */
+    long[] random(ModLongRing p, int l) {
+        long[] a = new long[l];
+        for (int i = 0; i < l; i++) {
+            a[i] = (rnd.nextLong() >>> 1) % p.getLongModul();
+        }
+        if (rnd.nextInt(3) == 0) {
+            a[l - 1] = p.getLongModul() - 1L; // maximal coefficients
+        }
+        return a;
+    }
+
+
+    /**
+     * Random dense univariate polynomial.
+     * @param fac univariate polynomial ring.
+     * @param l bound for the degree.
+     * @return polynomial of degree l with about 3/4 of the coefficients non
+     *         zero, at least every fourth coefficient is non zero, so the
+     *         polynomial is always dense.
+     */
+    GenPolynomial<ModLong> random(GenPolynomialRing<ModLong> fac, int l) {
+        ModLongRing p = (ModLongRing) fac.coFac;
+        GenPolynomial<ModLong> a = fac.univariate(0, l);
+        for (int i = 0; i < l; i++) {
+            if (i % 4 == 0 || rnd.nextInt(4) != 0) {
+                ModLong c = p.random(62, rnd);
+                while (c.isZERO()) {
+                    c = p.random(62, rnd);
+                }
+                a = a.sum(fac.univariate(0, i).multiply(c));
+            }
+        }
+        return a;
+    }
+
+
+    /**
+     * Test the algorithms on coefficient arrays.
+     */
+    public void testArrays() {
+        int[][] ls = new int[][] { { 1, 1 }, { 1, 7 }, { 31, 33 }, { 64, 64 }, { 100, 37 }, { 37, 170 },
+                { 257, 300 }, { 300, 1000 }, { 1025, 1025 } };
+        for (ModLongRing p : mfs) {
+            for (int[] l : ls) {
+                long[] a = random(p, l[0]);
+                long[] b = random(p, l[1]);
+                long[] c = ModLongDenseMultiply.multiplySchool(p, a, b);
+                assertEquals("#(a*b) == #a + #b - 1: ", l[0] + l[1] - 1, c.length);
+                long[] d = ModLongDenseMultiply.multiplyKaratsuba(p, a, b);
+                assertTrue("school == karatsuba: " + p, java.util.Arrays.equals(c, d));
+                d = ModLongDenseMultiply.multiplyNTT(p, a, b);
+                assertTrue("school == ntt: " + p, java.util.Arrays.equals(c, d));
+                d = ModLongDenseMultiply.multiply(p, b, a);
+                assertTrue("a*b == b*a: " + p, java.util.Arrays.equals(c, d));
+                c = ModLongDenseMultiply.multiplySchool(p, a, a);
+                d = ModLongDenseMultiply.multiplyNTT(p, a, a);
+                assertTrue("school == ntt, square: " + p, java.util.Arrays.equals(c, d));
+            }
+        }
+        // all coefficients -1, maximal sums of products
+        ModLongRing p = mfs[mfs.length - 1];
+        long[] a = new long[2000];
+        java.util.Arrays.fill(a, p.getLongModul() - 1L);
+        long[] c = ModLongDenseMultiply.multiplyNTT(p, a, a);
+        for (int k = 0; k < c.length; k++) {
+            long n = Math.min(k, c.length - 1 - k) + 1;
+            assertEquals("(-1)^2 * n: ", n % p.getLongModul(), c[k]);
+        }
+    }
+
+
+    /**
+     * Test GenPolynomial multiplication.
+     */
+    public void testPolynomials() {
+        for (ModLongRing p : mfs) {
+            for (TermOrder to : new TermOrder[] { new TermOrder(TermOrder.INVLEX),
+                    new TermOrder(TermOrder.REVILEX) }) {
+                GenPolynomialRing<ModLong> fac = new GenPolynomialRing<ModLong>(p, 1, to);
+                for (int l : new int[] { 10, 100, 700 }) {
+                    GenPolynomial<ModLong> a = random(fac, l);
+                    GenPolynomial<ModLong> b = random(fac, l / 2 + 1).multiply(fac.univariate(0, 5));
+                    assertTrue("dense(a): ", ModLongDenseMultiply.isDense(a));
+                    assertTrue("dense(b): ", ModLongDenseMultiply.isDense(b));
+                    GenPolynomial<ModLong> c = a.multiplyHeap(b);
+                    GenPolynomial<ModLong> d = a.multiply(b);
+                    assertEquals("heap == dense: ", c, d);
+                    assertEquals("#(a*b): ", c.length(), d.length());
+                    c = a.multiplyHeap(a);
+                    d = a.multiply(a);
+                    assertEquals("heap == dense, square: ", c, d);
+                    // packed representation
+                    d = fac.toPacked(a).multiply(b);
+                    assertEquals("heap == packed: ", a.multiplyHeap(b), d);
+                }
+            }
+        }
+        // sparse polynomials use the heap
+        GenPolynomialRing<ModLong> fac = new GenPolynomialRing<ModLong>(mfs[2], 1);
+        GenPolynomial<ModLong> x = fac.univariate(0);
+        GenPolynomial<ModLong> a = fac.getONE();
+        GenPolynomial<ModLong> b = fac.getONE();
+        for (int i = 1; i <= 20; i++) {
+            a = a.sum(x.power(i * i));
+            b = b.sum(x.power(3 * i * i));
+        }
+        assertFalse("dense(a): ", ModLongDenseMultiply.isDense(a));
+        assertNull("sparse a*b: ", ModLongDenseMultiply.multiply(a, b));
+        assertEquals("heap == multiply: ", a.multiplyHeap(b), a.multiply(b));
+    }
+
+}
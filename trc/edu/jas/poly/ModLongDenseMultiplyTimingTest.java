@@ -0,0 +1,177 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * ModLongDenseMultiply timing tests with JUnit. Compares the schoolbook,
+ * Karatsuba and number theoretic transform multiplication and the heap based
+ * multiplication of GenPolynomial for dense univariate polynomials of degree
+ * 16 to 65536.
+ * @author Heinz Kredel
+ */
+
+public class ModLongDenseMultiplyTimingTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ModLongDenseMultiplyTimingTest</CODE> object.
+     * @param name String.
+     */
+    public ModLongDenseMultiplyTimingTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ModLongDenseMultiplyTimingTest.class);
+        return suite;
+    }
+
+
+    /**
+     * Maximal product length times number of loops.
+     */
+    long work = 1L << 22;
+
+
+    /**
+     * Maximal degree for the quadratic algorithms.
+     */
+    int quadratic = 4096;
+
+
+    /**
+     * Maximal degree for the heap multiplication.
+     */
+    int heap = 2048;
+
+
+    Random rnd = new Random(17);
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Random dense coefficients.
+     * @param p coefficient ring.
+     * @param l length.
+     * @return array of l random values modulo p.
+     */
+    long[] random(ModLongRing p, int l) {
+        long[] a = new long[l];
+        for (int i = 0; i < l; i++) {
+            a[i] = (rnd.nextLong() >>> 1) % p.getLongModul();
+        }
+        return a;
+    }
+
+
+    /**
+     * Time the algorithms for degrees 16 to 65536.
+     * @param p coefficient ring.
+     */
+    void timeDegrees(ModLongRing p) {
+        GenPolynomialRing<ModLong> fac = new GenPolynomialRing<ModLong>(p, 1);
+        for (int d = 16; d <= 65536; d *= 2) {
+            long[] a = random(p, d + 1);
+            long[] b = random(p, d + 1);
+            int loops = (int) Math.max(1L, work / ((long) d * d / 64L + d));
+            long[] c = ModLongDenseMultiply.multiplyNTT(p, a, b); // warm up
+            long t = System.nanoTime();
+            for (int i = 0; i < loops; i++) {
+                c = ModLongDenseMultiply.multiplyNTT(p, a, b);
+            }
+            long tn = (System.nanoTime() - t) / loops / 1000L;
+            long tk = -1L;
+            long ts = -1L;
+            long th = -1L;
+            if (d <= quadratic) {
+                long[] e = ModLongDenseMultiply.multiplyKaratsuba(p, a, b);
+                t = System.nanoTime();
+                for (int i = 0; i < loops; i++) {
+                    e = ModLongDenseMultiply.multiplyKaratsuba(p, a, b);
+                }
+                tk = (System.nanoTime() - t) / loops / 1000L;
+                assertTrue("ntt == karatsuba: ", Arrays.equals(c, e));
+                e = ModLongDenseMultiply.multiplySchool(p, a, b);
+                t = System.nanoTime();
+                for (int i = 0; i < loops; i++) {
+                    e = ModLongDenseMultiply.multiplySchool(p, a, b);
+                }
+                ts = (System.nanoTime() - t) / loops / 1000L;
+                assertTrue("ntt == school: ", Arrays.equals(c, e));
+            }
+            if (d <= heap) {
+                GenPolynomial<ModLong> A = ModLongDenseMultiply.fromDense(fac, a, 0L);
+                GenPolynomial<ModLong> B = ModLongDenseMultiply.fromDense(fac, b, 0L);
+                GenPolynomial<ModLong> C = A.multiplyHeap(B);
+                int hl = Math.max(1, loops / 16);
+                t = System.nanoTime();
+                for (int i = 0; i < hl; i++) {
+                    C = A.multiplyHeap(B);
+                }
+                th = (System.nanoTime() - t) / hl / 1000L;
+                assertEquals("heap == dense: ", C, ModLongDenseMultiply.fromDense(fac, c, 0L));
+            }
+            System.out.println("p = " + p.getModul() + ", deg = " + d + ", ntt = " + tn + ", karatsuba = "
+                            + tk + ", school = " + ts + ", heap = " + th + " (micro seconds)");
+        }
+    }
+
+
+    /**
+     * Test dummy for junit.
+     */
+    public void testDummy() {
+        assertTrue("rnd != null", rnd != null);
+    }
+
+
+    /**
+     * Test timing with a 31 bit prime.
+     */
+    public void xtestSmallPrime() {
+        timeDegrees(new ModLongRing(2147483647L, true));
+    }
+
+
+    /**
+     * Test timing with a 62 bit prime.
+     */
+    public void xtestLargePrime() {
+        timeDegrees(new ModLongRing(4611686018427387847L, true));
+    }
+
+}
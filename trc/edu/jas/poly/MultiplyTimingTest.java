@@ -0,0 +1,177 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * GenPolynomial multiplication timing tests with JUnit. Compares the heap
+ * based multiplication with the simple term by term multiplication.
+ * @author Heinz Kredel
+ */
+
+public class MultiplyTimingTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        //BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>MultiplyTimingTest</CODE> object.
+     * @param name String.
+     */
+    public MultiplyTimingTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(MultiplyTimingTest.class);
+        return suite;
+    }
+
+
+    TermOrder to = new TermOrder(TermOrder.IGRLEX);
+
+
+    int rl = 4;
+
+
+    int kl = 10;
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Dense product (1 + x + y + z + t)^k * (1 + x + y + z + t)^k + 1.
+     * @param fac polynomial ring.
+     * @param k exponent.
+     * @param loops number of repetitions.
+     */
+    <C extends RingElem<C>> void timeDense(GenPolynomialRing<C> fac, int k, int loops) {
+        GenPolynomial<C> a = fac.getONE();
+        for (GenPolynomial<C> x : fac.univariateList()) {
+            a = a.sum(x);
+        }
+        a = a.power(k);
+        GenPolynomial<C> b = a.sum(fac.getONE());
+        timeProduct("dense  k = " + k, a, b, loops);
+    }
+
+
+    /**
+     * Sparse product of random polynomials.
+     * @param fac polynomial ring.
+     * @param len number of terms.
+     * @param loops number of repetitions.
+     */
+    <C extends RingElem<C>> void timeSparse(GenPolynomialRing<C> fac, int len, int loops) {
+        GenPolynomial<C> a = fac.random(kl, len, 3 * len, 0.7f);
+        GenPolynomial<C> b = fac.random(kl, len, 3 * len, 0.7f);
+        timeProduct("sparse l = " + len, a, b, loops);
+    }
+
+
+    /**
+     * Time heap and simple multiplication.
+     * @param name description.
+     * @param a polynomial.
+     * @param b polynomial.
+     * @param loops number of repetitions.
+     */
+    <C extends RingElem<C>> void timeProduct(String name, GenPolynomial<C> a,
+                    GenPolynomial<C> b, int loops) {
+        GenPolynomial<C> c = a.multiplyHeap(b); // warm up
+        GenPolynomial<C> d = a.multiplySimple(b);
+        assertEquals("heap == simple: ", c, d);
+
+        long t = System.currentTimeMillis();
+        for (int i = 0; i < loops; i++) {
+            d = a.multiplySimple(b);
+        }
+        long ts = System.currentTimeMillis() - t;
+        t = System.currentTimeMillis();
+        for (int i = 0; i < loops; i++) {
+            c = a.multiplyHeap(b);
+        }
+        long th = System.currentTimeMillis() - t;
+        assertEquals("heap == simple: ", c, d);
+        System.out.println(name + ": #a = " + a.length() + ", #b = " + b.length() + ", #a*b = "
+                        + c.length() + ", simple time = " + ts + ", heap time = " + th);
+    }
+
+
+    /**
+     * Test dummy for junit.
+     */
+    public void testDummy() {
+        assertTrue("rl > 0", rl > 0);
+    }
+
+
+    /**
+     * Test multiplication over BigInteger.
+     */
+    public void xtestIntegerMultiply() {
+        GenPolynomialRing<BigInteger> fac = new GenPolynomialRing<BigInteger>(new BigInteger(), rl, to);
+        timeDense(fac, 6, 3);
+        timeSparse(fac, 200, 3);
+    }
+
+
+    /**
+     * Test multiplication over ModLong, large sizes.
+     */
+    public void xtestModLongMultiply() {
+        ModLongRing mf = new ModLongRing(2147483647L);
+        GenPolynomialRing<ModLong> fac = new GenPolynomialRing<ModLong>(mf, rl, to);
+        for (int k = 4; k <= 12; k += 4) {
+            timeDense(fac, k, 3);
+        }
+        for (int l = 100; l <= 1600; l *= 2) {
+            timeSparse(fac, l, 3);
+        }
+    }
+
+
+    /**
+     * Test multiplication over BigInteger, large sizes.
+     */
+    public void xtestIntegerMultiplyLarge() {
+        GenPolynomialRing<BigInteger> fac = new GenPolynomialRing<BigInteger>(new BigInteger(), rl, to);
+        for (int k = 4; k <= 12; k += 4) {
+            timeDense(fac, k, 3);
+        }
+        for (int l = 100; l <= 1600; l *= 2) {
+            timeSparse(fac, l, 3);
+        }
+    }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * PackedModLongPolynomial tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class PackedModLongPolynomialTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>PackedModLongPolynomialTest</CODE> object.
+     * @param name String.
+     */
+    public PackedModLongPolynomialTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(PackedModLongPolynomialTest.class);
+        return suite;
+    }
+
+
+    int rl = 5;
+
+
+    int kl = 7;
+
+
+    int ll = 10;
+
+
+    int el = 4;
+
+
+    float q = 0.5f;
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Coefficient rings to test, small and large moduli.
+     */
+    List<ModLongRing> coefficientRings() {
+        List<ModLongRing> cfs = new ArrayList<ModLongRing>();
+        cfs.add(new ModLongRing(2147483647L, true)); // 2^31 - 1
+        cfs.add(new ModLongRing(4611686018427387847L, true)); // 2^62 - 57
+        return cfs;
+    }
+
+
+    /**
+     * Test conversion and map access.
+     */
+    public void testConversion() {
+        for (ModLongRing cf : coefficientRings()) {
+            GenPolynomialRing<ModLong> pf = new GenPolynomialRing<ModLong>(cf, rl);
+            GenPolynomial<ModLong> a = pf.random(kl, ll, el, q);
+            PackedPolynomial<ModLong> ap = pf.toPacked(a);
+            assertTrue("packed long: ", ap instanceof PackedModLongPolynomial);
+            assertEquals("#a == #ap: ", a.length(), ap.length());
+            assertEquals("a == ap: ", a, ap);
+            assertEquals("ap == a: ", ap, a);
+            assertEquals("hash(a) == hash(ap): ", a.hashCode(), ap.hashCode());
+            assertEquals("a == a.toPacked().toGenPolynomial(): ", a, ap.toGenPolynomial());
+            assertFalse("toGenPolynomial() not packed: ", ap.toGenPolynomial() instanceof PackedPolynomial);
+            assertEquals("toString(a) == toString(ap): ", a.toString(), ap.toString());
+            if (a.isZERO()) {
+                continue;
+            }
+            assertEquals("lc(a) == lc(ap): ", a.leadingBaseCoefficient(), ap.leadingBaseCoefficient());
+            assertEquals("red(a) == red(ap): ", a.reductum(), ap.reductum());
+            assertTrue("packed long: ", ap.reductum() instanceof PackedModLongPolynomial || a.length() <= 1);
+            for (ExpVector e : a.getMap().keySet()) {
+                assertEquals("a(e) == ap(e): ", a.coefficient(e), ap.coefficient(e));
+            }
+            assertEquals("tail(a) == tail(ap): ", a.getMap().tailMap(a.leadingExpVector()),
+                            ap.getMap().tailMap(a.leadingExpVector()));
+        }
+    }
+
+
+    /**
+     * Test arithmetic.
+     */
+    public void testArithmetic() {
+        for (ModLongRing cf : coefficientRings()) {
+            GenPolynomialRing<ModLong> pf = new GenPolynomialRing<ModLong>(cf, rl);
+            GenPolynomial<ModLong> a = pf.random(kl, ll, el, q);
+            GenPolynomial<ModLong> b = pf.random(kl, ll, el, q);
+            GenPolynomial<ModLong> ap = pf.toPacked(a);
+            GenPolynomial<ModLong> bp = pf.toPacked(b);
+            ModLong c = cf.random(kl);
+            ModLong d = cf.random(kl);
+            ExpVector e = ExpVector.EVRAND(rl, el, q);
+            ExpVector f = ExpVector.EVRAND(rl, el, q);
+
+            GenPolynomial<ModLong> s = ap.sum(bp);
+            assertTrue("packed long: ", s instanceof PackedModLongPolynomial);
+            assertEquals("a+b: ", a.sum(b), s);
+            assertEquals("a+b: ", a.sum(b), ap.sum(b));
+            assertEquals("a-b: ", a.subtract(b), ap.subtract(bp));
+            assertTrue("a-a == 0: ", ap.subtract(ap).isZERO());
+            assertEquals("a-c*b: ", a.subtractMultiple(c, b), ap.subtractMultiple(c, bp));
+            assertEquals("a-c*x^e*b: ", a.subtractMultiple(c, e, b), ap.subtractMultiple(c, e, bp));
+            assertEquals("a*d-c*b: ", a.scaleSubtractMultiple(d, c, b), ap.scaleSubtractMultiple(d, c, bp));
+            assertEquals("a*d*x^f-c*x^e*b: ", a.scaleSubtractMultiple(d, f, c, e, b),
+                            ap.scaleSubtractMultiple(d, f, c, e, bp));
+            assertEquals("-a: ", a.negate(), ap.negate());
+            assertEquals("-red(a): ", a.reductum().negate(), ap.reductum().negate());
+            assertEquals("a*c: ", a.multiply(c), ap.multiply(c));
+            assertEquals("a*x^e: ", a.multiply(e), ap.multiply(e));
+            assertEquals("red(a)*x^e: ", a.reductum().multiply(e), ap.reductum().multiply(e));
+            assertEquals("a*c*x^e: ", a.multiply(c, e), ap.multiply(c, e));
+            assertEquals("monic(a): ", a.monic(), ap.monic());
+            s = ap.multiply(bp);
+            assertTrue("packed long: ", s instanceof PackedModLongPolynomial);
+            assertEquals("a*b: ", a.multiply(b), s);
+            assertEquals("a*b: ", b.multiply(a), bp.multiply(ap));
+            assertEquals("a*b: ", a.multiply(b), a.multiply(bp));
+            if (!b.isZERO()) {
+                assertEquals("a rem b: ", a.remainder(b), ap.remainder(bp));
+            }
+        }
+    }
+
+
+    /**
+     * Test arithmetic with zero divisors.
+     */
+    public void testZeroDivisors() {
+        ModLongRing mf = new ModLongRing(12);
+        GenPolynomialRing<ModLong> pf = new GenPolynomialRing<ModLong>(mf, rl);
+        for (int i = 0; i < 3; i++) {
+            GenPolynomial<ModLong> a = pf.random(kl, ll, el, q);
+            GenPolynomial<ModLong> b = pf.random(kl, ll, el, q);
+            GenPolynomial<ModLong> ap = pf.toPacked(a);
+            GenPolynomial<ModLong> bp = pf.toPacked(b);
+            ModLong c = mf.fromInteger(4);
+            ModLong d = mf.fromInteger(3);
+            assertEquals("a*b: ", a.multiply(b), ap.multiply(bp));
+            assertEquals("a*c: ", a.multiply(c), ap.multiply(c));
+            assertEquals("a*d-c*b: ", a.scaleSubtractMultiple(d, c, b), ap.scaleSubtractMultiple(d, c, bp));
+        }
+    }
+
+
+    /**
+     * Test univariate dense and sparse multiplication and division.
+     */
+    public void testUnivariate() {
+        for (ModLongRing cf : coefficientRings()) {
+            GenPolynomialRing<ModLong> pf = new GenPolynomialRing<ModLong>(cf, 1);
+            for (int i = 0; i < 5; i++) {
+                float qi = (i % 2 == 0 ? 0.9f : 0.1f); // dense and sparse
+                GenPolynomial<ModLong> a = pf.random(kl, 4 * ll, 5 * el, qi);
+                GenPolynomial<ModLong> b = pf.random(kl, 2 * ll, 3 * el, qi);
+                if (b.isZERO()) {
+                    continue;
+                }
+                GenPolynomial<ModLong> ap = pf.toPacked(a);
+                GenPolynomial<ModLong> bp = pf.toPacked(b);
+                GenPolynomial<ModLong> s = ap.multiply(bp);
+                assertTrue("packed long: ", s instanceof PackedModLongPolynomial);
+                assertEquals("a*b: ", a.multiply(b), s);
+                s = s.sum(bp.reductum());
+                GenPolynomial<ModLong>[] qr = s.quotientRemainder(bp);
+                assertEquals("q*b+r: ", s, qr[0].multiply(b).sum(qr[1]));
+                assertTrue("deg(r) < deg(b): ", qr[1].isZERO() || qr[1].degree(0) < b.degree(0));
+                assertEquals("s rem b: ", qr[1], s.remainder(bp));
+                assertEquals("s rem b: ", s.copy().remainder(b), s.remainder(bp));
+                assertEquals("a rem b: ", a.remainder(b), a.remainder(bp));
+                assertTrue("packed long: ", a.remainder(bp) instanceof PackedModLongPolynomial);
+                assertEquals("a div b: ", a.divide(b), ap.divide(bp));
+            }
+        }
+    }
+
+
+    /**
+     * Test geobucket with packed buckets.
+     */
+    public void testGeoBucket() {
+        ModLongRing cf = coefficientRings().get(1);
+        GenPolynomialRing<ModLong> pf = new GenPolynomialRing<ModLong>(cf, rl);
+        GenPolynomial<ModLong> a = pf.random(kl, ll, el, q);
+        GenPolynomial<ModLong> s = a;
+        GeoBucket<ModLong> gb = new GeoBucket<ModLong>(pf.toPacked(a));
+        for (int i = 0; i < 30; i++) {
+            GenPolynomial<ModLong> b = pf.random(kl, ll * (1 + i % 5), el, q);
+            ModLong c = cf.random(kl);
+            ExpVector e = ExpVector.EVRAND(rl, el, q);
+            s = s.subtractMultiple(c, e, b);
+            gb.subtractMultiple(c, e, pf.toPacked(b));
+            if (i % 3 == 0) {
+                s = s.sum(b);
+                gb.add(b);
+            }
+            if (i % 7 == 0 && !s.isZERO()) {
+                assertEquals("lm(s) == lm(gb): ", s.leadingMonomial(), gb.leadingMonomial());
+                s = s.reductum();
+                gb.doRemoveLeadingMonomial();
+            }
+        }
+        GenPolynomial<ModLong> g = gb.getPolynomial();
+        assertTrue("packed long: ", g instanceof PackedModLongPolynomial);
+        assertEquals("s == gb: ", s, g);
+    }
+
+}
@@ -0,0 +1,218 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.apache.log4j.BasicConfigurator;
+
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModInteger;
+import edu.jas.arith.ModIntegerRing;
+
+
+/**
+ * PackedPolynomial tests with JUnit.
+ * @author Heinz Kredel.
+ */
+
+public class PackedPolynomialTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        BasicConfigurator.configure();
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>PackedPolynomialTest</CODE> object.
+     * @param name String.
+     */
+    public PackedPolynomialTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(PackedPolynomialTest.class);
+        return suite;
+    }
+
+
+    int rl = 5;
+
+
+    int kl = 7;
+
+
+    int ll = 10;
+
+
+    int el = 4;
+
+
+    float q = 0.5f;
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    /**
+     * Term orders to test, including split and weight orders.
+     */
+    List<TermOrder> termOrders() {
+        List<TermOrder> tos = new ArrayList<TermOrder>();
+        for (int i = TermOrder.MIN_EVORD; i <= TermOrder.MAX_EVORD; i++) {
+            tos.add(new TermOrder(i));
+        }
+        tos.add(new TermOrder(TermOrder.IGRLEX, TermOrder.INVLEX, rl, 2));
+        long[][] w = new long[][] { { 1, 2, 3, 4, 5 } };
+        tos.add(new TermOrder(w));
+        return tos;
+    }
+
+
+    /**
+     * Test conversion and map access.
+     */
+    public void testConversion() {
+        for (TermOrder to : termOrders()) {
+            GenPolynomialRing<BigRational> pf = new GenPolynomialRing<BigRational>(new BigRational(), rl, to);
+            GenPolynomial<BigRational> a = pf.random(kl, ll, el, q);
+            PackedPolynomial<BigRational> ap = pf.toPacked(a);
+            //System.out.println("a = " + a);
+            //System.out.println("ap = " + ap);
+            assertEquals("#a == #ap: ", a.length(), ap.length());
+            assertEquals("a == ap: ", a, ap);
+            assertEquals("ap == a: ", ap, a);
+            assertEquals("hash(a) == hash(ap): ", a.hashCode(), ap.hashCode());
+            assertEquals("a == a.toPacked().toGenPolynomial(): ", a, ap.toGenPolynomial());
+            assertFalse("toGenPolynomial() not packed: ", ap.toGenPolynomial() instanceof PackedPolynomial);
+            assertEquals("toString(a) == toString(ap): ", a.toString(), ap.toString());
+            if (a.isZERO()) {
+                continue;
+            }
+            assertEquals("lt(a) == lt(ap): ", a.leadingExpVector(), ap.leadingExpVector());
+            assertEquals("lc(a) == lc(ap): ", a.leadingBaseCoefficient(), ap.leadingBaseCoefficient());
+            assertEquals("tt(a) == tt(ap): ", a.trailingExpVector(), ap.trailingExpVector());
+            assertEquals("red(a) == red(ap): ", a.reductum(), ap.reductum());
+            for (ExpVector e : a.getMap().keySet()) {
+                assertEquals("a(e) == ap(e): ", a.coefficient(e), ap.coefficient(e));
+            }
+            ExpVector e = ExpVector.create(rl, 0, 4 * el);
+            assertTrue("ap(e) == 0: ", ap.coefficient(e).isZERO());
+            assertEquals("tail(a) == tail(ap): ", a.getMap().tailMap(a.leadingExpVector()),
+                            ap.getMap().tailMap(a.leadingExpVector()));
+        }
+    }
+
+
+    /**
+     * Test arithmetic.
+     */
+    public void testArithmetic() {
+        for (TermOrder to : termOrders()) {
+            GenPolynomialRing<BigRational> pf = new GenPolynomialRing<BigRational>(new BigRational(), rl, to);
+            GenPolynomial<BigRational> a = pf.random(kl, ll, el, q);
+            GenPolynomial<BigRational> b = pf.random(kl, ll, el, q);
+            GenPolynomial<BigRational> ap = pf.toPacked(a);
+            GenPolynomial<BigRational> bp = pf.toPacked(b);
+            BigRational c = pf.coFac.random(kl);
+            BigRational d = pf.coFac.random(kl);
+            ExpVector e = ExpVector.EVRAND(rl, el, q);
+            ExpVector f = ExpVector.EVRAND(rl, el, q);
+
+            GenPolynomial<BigRational> s = ap.sum(bp);
+            assertTrue("packed: ", s instanceof PackedPolynomial);
+            assertEquals("a+b: ", a.sum(b), s);
+            assertEquals("a+b: ", a.sum(b), ap.sum(b));
+            assertEquals("a-b: ", a.subtract(b), ap.subtract(bp));
+            assertTrue("a-a == 0: ", ap.subtract(ap).isZERO());
+            assertEquals("a-c*b: ", a.subtractMultiple(c, b), ap.subtractMultiple(c, bp));
+            assertEquals("a-c*x^e*b: ", a.subtractMultiple(c, e, b), ap.subtractMultiple(c, e, bp));
+            assertEquals("a*d-c*b: ", a.scaleSubtractMultiple(d, c, b), ap.scaleSubtractMultiple(d, c, bp));
+            assertEquals("a*d-c*x^e*b: ", a.scaleSubtractMultiple(d, c, e, b),
+                            ap.scaleSubtractMultiple(d, c, e, bp));
+            assertEquals("a*d*x^f-c*x^e*b: ", a.scaleSubtractMultiple(d, f, c, e, b),
+                            ap.scaleSubtractMultiple(d, f, c, e, bp));
+            assertEquals("-a: ", a.negate(), ap.negate());
+            assertEquals("a*c: ", a.multiply(c), ap.multiply(c));
+            assertEquals("a*x^e: ", a.multiply(e), ap.multiply(e));
+            assertEquals("a*c*x^e: ", a.multiply(c, e), ap.multiply(c, e));
+            assertEquals("monic(a): ", a.monic(), ap.monic());
+            s = ap.multiply(bp);
+            assertTrue("packed: ", s instanceof PackedPolynomial);
+            assertEquals("a*b: ", a.multiply(b), s);
+            assertEquals("a*b: ", b.multiply(a), bp.multiply(ap));
+            assertEquals("a*b: ", a.multiply(b), a.multiply(bp));
+        }
+    }
+
+
+    /**
+     * Test arithmetic on reductum views with a term offset.
+     */
+    public void testReductum() {
+        for (TermOrder to : termOrders()) {
+            GenPolynomialRing<BigRational> pf = new GenPolynomialRing<BigRational>(new BigRational(), rl, to);
+            GenPolynomial<BigRational> a = pf.random(kl, ll, el, q);
+            GenPolynomial<BigRational> ap = pf.toPacked(a);
+            BigRational c = pf.coFac.random(kl);
+            ExpVector e = ExpVector.EVRAND(rl, el, q);
+            for (int i = 0; i < 3 && !a.isZERO(); i++) {
+                a = a.reductum();
+                ap = ap.reductum();
+                assertEquals("red(a) == red(ap): ", a, ap);
+                assertEquals("-red(a): ", a.negate(), ap.negate());
+                assertEquals("red(a)*x^e: ", a.multiply(e), ap.multiply(e));
+                assertEquals("red(a)*c: ", a.multiply(c), ap.multiply(c));
+                assertEquals("red(a)*c*x^e: ", a.multiply(c, e), ap.multiply(c, e));
+                assertEquals("red(a)-red(a)*x^e: ", a.subtract(a.multiply(e)), ap.subtract(ap.multiply(e)));
+                assertTrue("red(a)-red(a) == 0: ", ap.sum(ap.negate()).isZERO());
+            }
+        }
+    }
+
+
+    /**
+     * Test arithmetic with zero divisors.
+     */
+    public void testZeroDivisors() {
+        ModIntegerRing mf = new ModIntegerRing(12);
+        GenPolynomialRing<ModInteger> pf = new GenPolynomialRing<ModInteger>(mf, rl);
+        for (int i = 0; i < 3; i++) {
+            GenPolynomial<ModInteger> a = pf.random(kl, ll, el, q);
+            GenPolynomial<ModInteger> b = pf.random(kl, ll, el, q);
+            GenPolynomial<ModInteger> ap = pf.toPacked(a);
+            GenPolynomial<ModInteger> bp = pf.toPacked(b);
+            ModInteger c = mf.fromInteger(4);
+            ModInteger d = mf.fromInteger(3);
+            assertEquals("a*b: ", a.multiply(b), ap.multiply(bp));
+            assertEquals("a*c: ", a.multiply(c), ap.multiply(c));
+            assertEquals("a*d-c*b: ", a.scaleSubtractMultiple(d, c, b), ap.scaleSubtractMultiple(d, c, bp));
+        }
+    }
+
+}
@@ -15,8 +15,12 @@ import junit.framework.TestSuite;
 import edu.jas.arith.BigComplex;
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
+import edu.jas.arith.ChineseRemainderTree;
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.arith.PrimeList;
 import edu.jas.arith.Product;
 import edu.jas.arith.ProductRing;
 
@@ -363,6 +367,47 @@ public class PolyUtilTest extends TestCase {
     }
 
 
+    /**
+     * Test chinese remainder with product tree.
+     */
+    public void testChineseRemainderTree() {
+        List<java.math.BigInteger> ps = new ArrayList<java.math.BigInteger>();
+        for (java.math.BigInteger p : new PrimeList(PrimeList.Range.large)) {
+            if (ps.size() >= 5) {
+                break;
+            }
+            if (!ps.contains(p)) { // iterator may repeat primes
+                ps.add(p);
+            }
+        }
+        ChineseRemainderTree crt = new ChineseRemainderTree(ps);
+        GenPolynomialRing<ModInteger> mfac = new GenPolynomialRing<ModInteger>(new ModIntegerRing(crt.getModul()),
+                        rl, to);
+        for (int i = 0; i < 3; i++) {
+            List<GenPolynomial<BigInteger>> C = new ArrayList<GenPolynomial<BigInteger>>();
+            C.add(dfac.random(250, ll * (i + 1), el + i, q));
+            C.add(dfac.random(100, ll, el, q));
+            C.add(dfac.getZERO());
+            List<List<GenPolynomial<ModLong>>> A = new ArrayList<List<GenPolynomial<ModLong>>>();
+            for (java.math.BigInteger p : ps) {
+                GenPolynomialRing<ModLong> pfac = new GenPolynomialRing<ModLong>(new ModLongRing(p), rl, to);
+                A.add(PolyUtil.<ModLong> fromIntegerCoefficients(pfac, C));
+            }
+            List<GenPolynomial<ModInteger>> cm = PolyUtil.<ModLong> chineseRemainder(mfac, crt, A);
+            for (int j = 0; j < C.size(); j++) {
+                a = PolyUtil.integerFromModularCoefficients(dfac, cm.get(j));
+                assertEquals("cra(c mod p_i) = c", C.get(j), a);
+            }
+            List<GenPolynomial<ModLong>> B = new ArrayList<GenPolynomial<ModLong>>();
+            for (List<GenPolynomial<ModLong>> Ai : A) {
+                B.add(Ai.get(0));
+            }
+            a = PolyUtil.integerFromModularCoefficients(dfac, PolyUtil.<ModLong> chineseRemainder(mfac, B));
+            assertEquals("cra(c mod p_i) = c", C.get(0), a);
+        }
+    }
+
+
     /**
      * Test complex conversion.
      */
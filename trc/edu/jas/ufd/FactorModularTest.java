@@ -13,10 +13,13 @@ import junit.framework.TestSuite;
 
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
 import edu.jas.arith.PrimeList;
 import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PackedPolynomial;
 import edu.jas.poly.TermOrder;
 
 
@@ -144,6 +147,42 @@ public class FactorModularTest extends TestCase {
     }
 
 
+    /**
+     * Test modular factorization with ModLong coefficients.
+     */
+    public void testModLongFactorization() {
+        PrimeList pl = new PrimeList(PrimeList.Range.medium);
+        TermOrder to = new TermOrder(TermOrder.INVLEX);
+        ModLongRing lfac = new ModLongRing(pl.get(3), true);
+        ModIntegerRing ifac = new ModIntegerRing(pl.get(3), true);
+        String[] vars = new String[] { "x" };
+        GenPolynomialRing<ModLong> plfac = new GenPolynomialRing<ModLong>(lfac, 1, to, vars);
+        GenPolynomialRing<ModInteger> pifac = new GenPolynomialRing<ModInteger>(ifac, 1, to, vars);
+        FactorModular<ModLong> lf = new FactorModular<ModLong>(lfac);
+        FactorModular<ModInteger> fi = new FactorModular<ModInteger>(ifac);
+
+        for (int i = 1; i < 4; i++) {
+            GenPolynomial<ModLong> b = plfac.random(kl, ll * (i + 1), el * (i + 1), q);
+            GenPolynomial<ModLong> c = plfac.random(kl, ll * (i + 1), el * (i + 1), q);
+            GenPolynomial<ModLong> a = c.multiply(b);
+            if (a.isConstant()) {
+                continue;
+            }
+            a = a.monic();
+            //System.out.println("\na = " + a);
+            SortedMap<GenPolynomial<ModLong>, Long> sm = lf.baseFactors(a);
+            //System.out.println("sm = " + sm);
+            assertTrue("prod(factor(a)) = a", lf.isFactorization(a, sm));
+            for (GenPolynomial<ModLong> f : sm.keySet()) {
+                assertFalse("not packed: ", f instanceof PackedPolynomial);
+            }
+            GenPolynomial<ModInteger> ai = pifac.parse(a.toString());
+            SortedMap<GenPolynomial<ModInteger>, Long> si = fi.baseFactors(ai);
+            assertEquals("factors(a) mod p: ", si.toString(), sm.toString());
+        }
+    }
+
+
     /**
      * Test modular factorization example.
      * 
@@ -398,6 +398,53 @@ public class GCDModLongTest extends TestCase {
     }
 
 
+    /**
+     * Test base gcd with half gcd algorithm.
+     * 
+     */
+    public void testGCDbaseHalfGcd() {
+
+        mi = new ModLongRing(2147483647L, true);
+        dfac = new GenPolynomialRing<ModLong>(mi, 1, to);
+
+        GreatestCommonDivisorAbstract<ModLong> ufd = new GreatestCommonDivisorHalfGcd<ModLong>();
+        GreatestCommonDivisorAbstract<ModLong> ufds = new GreatestCommonDivisorSimple<ModLong>();
+
+        for (int i = 0; i < 3; i++) {
+            a = dfac.random(kl, 300, 400 + 50 * i, 0.9f);
+            b = dfac.random(kl, 300, 350 + 50 * i, 0.9f);
+            c = dfac.random(kl, 100, 100 + 30 * i, 0.9f);
+            //System.out.println("a = " + a);
+            //System.out.println("b = " + b);
+            //System.out.println("c = " + c);
+
+            if (a.isZERO() || b.isZERO() || c.isZERO()) {
+                // skip for this turn
+                continue;
+            }
+            ac = a.multiply(c);
+            bc = b.multiply(c);
+
+            d = ufd.baseGcd(ac, bc);
+            e = ufds.baseGcd(ac, bc);
+            //System.out.println("d = " + d);
+            assertEquals("half gcd == simple gcd ", e, d);
+
+            e = PolyUtil.<ModLong> basePseudoRemainder(d, c);
+            assertTrue("c | gcd(ac,bc) " + e, e.isZERO());
+
+            GenPolynomial<ModLong>[] egcd = ufd.baseExtendedGcd(ac, bc);
+            assertEquals("egcd[0] == gcd ", d, egcd[0]);
+            e = egcd[1].multiply(ac).sum(egcd[2].multiply(bc));
+            assertEquals("s ac + t bc == gcd ", d, e);
+
+            GenPolynomial<ModLong>[] hegcd = ufd.baseHalfExtendedGcd(ac, bc);
+            assertEquals("hegcd[0] == gcd ", d, hegcd[0]);
+            assertEquals("hegcd[1] == egcd[1] ", egcd[1], hegcd[1]);
+        }
+    }
+
+
     /**
      * Test recursive gcd modular coefficients.
      * 